@@ -136,6 +136,20 @@ public interface Attachment {
    */
   InputStream getInputStream() throws IOException;
 
+  /**
+   * Retrieves an input stream to access a range of the attachment data, e.g. to
+   * answer HTTP range requests.<br>
+   * <br>
+   * The data is read on demand while the stream is consumed.
+   *
+   * @param offset offset of the first byte to read
+   * @param length maximum number of bytes to read, or -1 to read to the end of the file
+   * @return a new {@link InputStream} for the attachment data
+   * @throws IOException in case of I/O errors
+   * @since 1.54.0
+   */
+  InputStream getInputStream(long offset, long length) throws IOException;
+
   /**
    * Returns the parent document of this attachment
    *
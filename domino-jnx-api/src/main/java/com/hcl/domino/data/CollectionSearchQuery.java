@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import com.hcl.domino.data.CollectionEntry.SpecialValue;
 import com.hcl.domino.data.Database.Action;
@@ -673,6 +674,43 @@ public interface CollectionSearchQuery extends SearchQuery {
 
   void forEachDocument(int skip, int count, BiConsumer<Document, Loop> consumer);
 
+  /**
+   * Reads all matching entries in parallel and returns them as a stream.
+   * <p>
+   * The collection is split into ranges of top-level entries, which are read
+   * concurrently on threads produced by {@link com.hcl.domino.DominoClient#getThreadFactory()}.
+   * Each reader thread opens its own copy of the database and collection.
+   * </p>
+   * <p>
+   * Only queries that start at the first entry and read forward by entry, document,
+   * category or top-level entry without selections or expanded entries can be
+   * partitioned. Other queries are read sequentially on the current thread.
+   * </p>
+   * <p>
+   * Partitions are read independently, so index changes during the read may cause
+   * entries to be returned twice or missed at partition boundaries.
+   * </p>
+   *
+   * @param parallelism number of reader threads
+   * @param ordered     true to return entries in collection order, false to return
+   *                    each partition as soon as it has been read
+   * @return stream of collection entries; close it to cancel pending partitions
+   * @since 1.54.0
+   */
+  Stream<CollectionEntry> parallelStream(int parallelism, boolean ordered);
+
+  /**
+   * Reads all matching entries in parallel with one reader thread per
+   * available processor and returns them in collection order.
+   *
+   * @return stream of collection entries
+   * @see #parallelStream(int, boolean)
+   * @since 1.54.0
+   */
+  default Stream<CollectionEntry> parallelStream() {
+    return this.parallelStream(Runtime.getRuntime().availableProcessors(), true);
+  }
+
   /**
    * Decodes the collection column values, they can be read via
    * {@link CollectionEntry#get(String, Class, Object)} or
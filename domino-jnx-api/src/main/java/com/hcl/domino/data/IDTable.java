@@ -17,10 +17,13 @@
 package com.hcl.domino.data;
 
 import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
  * Wraps the C API IDTable, a very efficient set of note ids that is sorted in
@@ -108,4 +111,28 @@ public interface IDTable extends IAdaptable, Set<Integer> {
    */
   int[] toIntArray();
 
+  /**
+   * Performs the given action for each note id in the table, in the order
+   * of {@link #iterator()}, without boxing the ids
+   *
+   * @param action the action to perform for each note id
+   * @since 1.54.0
+   */
+  default void forEachInt(final IntConsumer action) {
+    for (final int noteId : this.toIntArray()) {
+      action.accept(noteId);
+    }
+  }
+
+  /**
+   * Returns a sequential {@link IntStream} of the note ids in this table,
+   * in the order of {@link #iterator()}
+   *
+   * @return a stream of note ids
+   * @since 1.54.0
+   */
+  default IntStream intStream() {
+    return Arrays.stream(this.toIntArray());
+  }
+
 }
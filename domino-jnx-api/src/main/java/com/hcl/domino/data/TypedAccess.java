@@ -138,4 +138,28 @@ public interface TypedAccess {
    * @since 1.0.35
    */
   <T> Optional<List<T>> getAsListOptional(String itemName, Class<T> valueType);
+
+  /**
+   * Returns the numeric values of an item as primitive array.<br>
+   * <br>
+   * Implementations that decode number lists into primitive storage return the
+   * values without boxing each of them as {@link Double}.
+   *
+   * @param itemName     item name, case insensitive
+   * @param defaultValue default value returned if the object does not contain
+   *                     the item
+   * @return values, non-numeric values are skipped
+   * @since 1.54.0
+   */
+  default double[] getAsDoubleArray(final String itemName, final double[] defaultValue) {
+    final List<Double> values = this.getAsList(itemName, Double.class, null);
+    if (values == null) {
+      return defaultValue;
+    }
+    final double[] result = new double[values.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = values.get(i);
+    }
+    return result;
+  }
 }
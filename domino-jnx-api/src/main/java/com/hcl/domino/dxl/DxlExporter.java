@@ -21,8 +21,13 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +38,24 @@ import com.hcl.domino.misc.CNativeEnum;
 
 public interface DxlExporter {
 
+  /**
+   * Opens the targets of the partitions of a parallel export
+   *
+   * @since 1.54.0
+   */
+  @FunctionalInterface
+  interface PartitionOutput {
+    /**
+     * Called on an export thread to open the target of a partition
+     *
+     * @param partition      index of the partition in note id order, starting at 0
+     * @param partitionCount total number of partitions
+     * @return stream receiving the DXL of the partition
+     * @throws IOException in case of I/O errors
+     */
+    OutputStream open(int partition, int partitionCount) throws IOException;
+  }
+
   /** Specifies output charset */
   public enum DXLExportCharset implements CNativeEnum {
     /**
@@ -140,11 +163,11 @@ public interface DxlExporter {
    * Export the ACL of the specified database in XML format.
    *
    * @param db  database to export
-   * @param out result stream
+   * @param out result stream, receiving the DXL encoded in the {@link #getExportCharset() export charset}
    * @throws IOException in case of I/O errors
    */
   default void exportACL(final Database db, final OutputStream out) throws IOException {
-    final OutputStreamWriter w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    final OutputStreamWriter w = new OutputStreamWriter(out, this.getJDKExportCharset().orElse(StandardCharsets.UTF_8));
     this.exportACL(db, w);
     w.flush();
   }
@@ -158,15 +181,27 @@ public interface DxlExporter {
    */
   void exportACL(final Database db, final Writer out) throws IOException;
 
+  /**
+   * Export the ACL of the specified database in XML format.
+   *
+   * @param db  database to export
+   * @param out result channel, receiving the DXL encoded in the {@link #getExportCharset() export charset}
+   * @throws IOException in case of I/O errors
+   * @since 1.54.0
+   */
+  default void exportACL(final Database db, final WritableByteChannel out) throws IOException {
+    this.exportACL(db, Channels.newOutputStream(out));
+  }
+
   /**
    * Export an entire database in XML format.
    *
    * @param db  database to export
-   * @param out result stream
+   * @param out result stream, receiving the DXL encoded in the {@link #getExportCharset() export charset}
    * @throws IOException in case of I/O errors
    */
   default void exportDatabase(final Database db, final OutputStream out) throws IOException {
-    final OutputStreamWriter w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    final OutputStreamWriter w = new OutputStreamWriter(out, this.getJDKExportCharset().orElse(StandardCharsets.UTF_8));
     this.exportDatabase(db, w);
     w.flush();
   }
@@ -180,6 +215,18 @@ public interface DxlExporter {
    */
   void exportDatabase(final Database db, final Writer out) throws IOException;
 
+  /**
+   * Export an entire database in XML format.
+   *
+   * @param db  database to export
+   * @param out result channel, receiving the DXL encoded in the {@link #getExportCharset() export charset}
+   * @throws IOException in case of I/O errors
+   * @since 1.54.0
+   */
+  default void exportDatabase(final Database db, final WritableByteChannel out) throws IOException {
+    this.exportDatabase(db, Channels.newOutputStream(out));
+  }
+
   /**
    * Exports an entire database into XML format and returns the string.
    * 
@@ -196,15 +243,65 @@ public interface DxlExporter {
     }
   }
 
+  /**
+   * Exports all notes of a database in partitions of note ids that are exported
+   * concurrently.
+   * <p>
+   * Each partition is a complete DXL document, exported with
+   * {@link #exportIDs(Database, Collection, OutputStream)} and the settings of this
+   * exporter on a thread produced by {@link com.hcl.domino.DominoClient#getThreadFactory()}.
+   * Every export thread opens its own copy of the database. Unlike
+   * {@link #exportDatabase(Database, OutputStream)}, the output does not contain the
+   * database properties and ACL.
+   * </p>
+   *
+   * @param db          database to export
+   * @param parallelism number of export threads
+   * @param output      opens the target of each partition; the returned stream is closed
+   *                    when the partition is exported
+   * @return number of exported partitions
+   * @throws IOException in case of I/O errors
+   * @since 1.54.0
+   */
+  int exportDatabaseParallel(Database db, int parallelism, PartitionOutput output) throws IOException;
+
+  /**
+   * Exports all notes of a database in partitions of note ids that are exported
+   * concurrently, writing one file per partition.
+   * <p>
+   * The files are named after the database file, e.g. "names-0001.xml" for the first
+   * partition of "names.nsf".
+   * </p>
+   *
+   * @param db          database to export
+   * @param parallelism number of export threads
+   * @param directory   target directory
+   * @return number of exported partitions
+   * @throws IOException in case of I/O errors
+   * @see #exportDatabaseParallel(Database, int, PartitionOutput)
+   * @since 1.54.0
+   */
+  default int exportDatabaseParallel(final Database db, final int parallelism, final Path directory) throws IOException {
+    String baseName = Paths.get(db.getRelativeFilePath()).getFileName().toString();
+    final int dot = baseName.lastIndexOf('.');
+    if (dot > 0) {
+      baseName = baseName.substring(0, dot);
+    }
+    final String prefix = baseName;
+    Files.createDirectories(directory);
+    return this.exportDatabaseParallel(db, parallelism,
+        (partition, partitionCount) -> Files.newOutputStream(directory.resolve(String.format("%s-%04d.xml", prefix, partition + 1))));
+  }
+
   /**
    * Export a single document into XML format.
    *
    * @param doc document to export
-   * @param out result stream
+   * @param out result stream, receiving the DXL encoded in the {@link #getExportCharset() export charset}
    * @throws IOException in case of I/O errors
    */
   default void exportDocument(final Document doc, final OutputStream out) throws IOException {
-    final OutputStreamWriter w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    final OutputStreamWriter w = new OutputStreamWriter(out, this.getJDKExportCharset().orElse(StandardCharsets.UTF_8));
     this.exportDocument(doc, w);
     w.flush();
   }
@@ -217,6 +314,18 @@ public interface DxlExporter {
    * @throws IOException in case of I/O errors
    */
   void exportDocument(Document doc, Writer out) throws IOException;
+
+  /**
+   * Export a single document into XML format.
+   *
+   * @param doc document to export
+   * @param out result channel, receiving the DXL encoded in the {@link #getExportCharset() export charset}
+   * @throws IOException in case of I/O errors
+   * @since 1.54.0
+   */
+  default void exportDocument(final Document doc, final WritableByteChannel out) throws IOException {
+    this.exportDocument(doc, Channels.newOutputStream(out));
+  }
   
   /**
    * Exports a single document into XML format and returns the string.
@@ -241,11 +350,11 @@ public interface DxlExporter {
    *
    * @param db  database containing the export ids
    * @param ids ids to export
-   * @param out result stream
+   * @param out result stream, receiving the DXL encoded in the {@link #getExportCharset() export charset}
    * @throws IOException in case of I/O errors
    */
   default void exportIDs(final Database db, final Collection<Integer> ids, final OutputStream out) throws IOException {
-    final OutputStreamWriter w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    final OutputStreamWriter w = new OutputStreamWriter(out, this.getJDKExportCharset().orElse(StandardCharsets.UTF_8));
     this.exportIDs(db, ids, w);
     w.flush();
   }
@@ -277,6 +386,19 @@ public interface DxlExporter {
    */
   void exportIDs(Database db, Collection<Integer> ids, Writer out) throws IOException;
 
+  /**
+   * Export a set of note ids into XML format.
+   *
+   * @param db  database containing the export ids
+   * @param ids ids to export
+   * @param out result channel, receiving the DXL encoded in the {@link #getExportCharset() export charset}
+   * @throws IOException in case of I/O errors
+   * @since 1.54.0
+   */
+  default void exportIDs(final Database db, final Collection<Integer> ids, final WritableByteChannel out) throws IOException {
+    this.exportIDs(db, ids, Channels.newOutputStream(out));
+  }
+
   String getAttachmentOmittedText();
 
   String getDefaultDoctypeSYSTEM();
@@ -0,0 +1,118 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.dxl;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.hcl.domino.data.Document;
+
+/**
+ * Imports a sequence of document-level DXL fragments in batches.
+ * <p>
+ * Fragments are collected into batches of a configured size on the calling thread.
+ * Complete batches are passed to an import thread, so building the next batch
+ * overlaps with the native import of the previous one. When the import falls
+ * behind, {@link #add(String)} blocks until a batch has been imported.
+ * </p>
+ * <p>
+ * Errors are collected per batch; a failed batch does not stop the import of the
+ * following ones.
+ * </p>
+ * <p>
+ * A pipeline has to be closed, preferably with try-with-resources. Fragments of an
+ * incomplete batch are only imported by {@link #flush()} or {@link #close()}, and
+ * the import thread keeps its own handle to the target database until the
+ * pipeline is closed. If an unclosed pipeline is garbage collected, the import
+ * thread imports the batches that were already passed to it and ends; fragments
+ * that were not yet part of a complete batch are discarded.
+ * </p>
+ *
+ * @since 1.54.0
+ */
+public interface DxlImportPipeline extends AutoCloseable {
+
+  /**
+   * Outcome of the import of a single batch
+   */
+  interface BatchResult {
+    /**
+     * @return index of the batch, starting at 0
+     */
+    int getBatchIndex();
+
+    /**
+     * @return number of DXL fragments in the batch
+     */
+    int getDocumentCount();
+
+    /**
+     * @return note ids of the imported notes
+     */
+    int[] getImportedNoteIds();
+
+    /**
+     * @return the importer log if the importer reported errors for the batch
+     */
+    Optional<DxlImporterLog> getLog();
+
+    /**
+     * @return the error that made the import of the batch fail
+     */
+    Optional<Throwable> getError();
+  }
+
+  /**
+   * Adds a DXL fragment, e.g. a {@code <document>} element. An XML declaration and
+   * DOCTYPE at the start of the fragment are removed.
+   *
+   * @param dxl DXL fragment
+   * @throws IllegalStateException if the pipeline has been closed
+   */
+  void add(String dxl);
+
+  /**
+   * Adds a document, which is exported to DXL on the calling thread
+   *
+   * @param doc document to import
+   * @throws IllegalStateException if the pipeline has been closed
+   */
+  void add(Document doc);
+
+  /**
+   * Passes the fragments added since the last complete batch to the import thread
+   * as a smaller batch
+   */
+  void flush();
+
+  /**
+   * @return results of the batches that have failed so far
+   */
+  List<BatchResult> getFailedBatches();
+
+  /**
+   * @return number of notes imported so far
+   */
+  int getImportedNoteCount();
+
+  /**
+   * Imports the remaining fragments, waits until all batches have been
+   * imported and frees the resources of the pipeline
+   */
+  @Override
+  void close();
+}
@@ -25,6 +25,7 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import com.hcl.domino.data.Database;
 import com.hcl.domino.data.IDTable;
@@ -186,6 +187,24 @@ public interface DxlImporter {
     }
   }
 
+  /**
+   * Creates a pipeline that imports document-level DXL fragments into a database in
+   * batches. The current settings of this importer are used for every batch,
+   * except for {@link #isReplaceDbProperties()}, since the batches do not contain
+   * database properties.
+   *
+   * @param db                target database
+   * @param batchSize         number of fragments per native import call
+   * @param maxPendingBatches number of complete batches that may wait for import
+   *                          before {@link DxlImportPipeline#add(String)} blocks
+   * @param listener          called on the import thread after each batch; may be
+   *                          {@code null}
+   * @return pipeline, which has to be closed to import the remaining fragments
+   * @since 1.54.0
+   */
+  DxlImportPipeline openImportPipeline(Database db, int batchSize, int maxPendingBatches,
+      Consumer<DxlImportPipeline.BatchResult> listener);
+
   default void importDxlFromACLExporter(final Database dbSource, final DxlExporter exporter, final Database dbTarget,
       final OutputStream debugExportOut) throws IOException {
     byte[] buf;
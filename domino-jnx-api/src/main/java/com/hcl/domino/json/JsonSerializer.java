@@ -16,6 +16,11 @@
  */
 package com.hcl.domino.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.Collection;
 import java.util.Collections;
@@ -295,4 +300,50 @@ public interface JsonSerializer {
   default String toJsonString(final Document doc) {
     return String.valueOf(this.toJson(doc));
   }
+
+  /**
+   * Serializes the provided document as JSON into a {@link Writer}.
+   * <p>
+   * Implementations that support streaming write items incrementally, so that
+   * documents with large attachments or items can be exported without holding the
+   * whole JSON content in memory. The default implementation writes the result of
+   * {@link #toJsonString(Document)}.
+   * </p>
+   * <p>
+   * The writer is not closed by this method.
+   * </p>
+   *
+   * @param doc    the document to serialize
+   * @param writer the writer to write the JSON content to
+   * @throws IOException in case of I/O errors
+   * @since 1.54.0
+   */
+  default void toJson(final Document doc, final Writer writer) throws IOException {
+    writer.write(this.toJsonString(doc));
+    writer.flush();
+  }
+
+  /**
+   * Serializes the provided document as UTF-8 encoded JSON into an
+   * {@link OutputStream}.
+   * <p>
+   * Implementations that support streaming write items incrementally, so that
+   * documents with large attachments or items can be exported without holding the
+   * whole JSON content in memory. The default implementation delegates to
+   * {@link #toJson(Document, Writer)}.
+   * </p>
+   * <p>
+   * The stream is not closed by this method.
+   * </p>
+   *
+   * @param doc the document to serialize
+   * @param out the stream to write the JSON content to
+   * @throws IOException in case of I/O errors
+   * @since 1.54.0
+   */
+  default void toJson(final Document doc, final OutputStream out) throws IOException {
+    final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    this.toJson(doc, writer);
+    writer.flush();
+  }
 }
@@ -19,6 +19,7 @@ package com.hcl.domino.richtext;
 import java.io.OutputStream;
 import java.io.StringWriter;
 import java.util.List;
+import java.util.function.Predicate;
 
 import com.hcl.domino.richtext.process.ExtractFileResourceProcessor;
 import com.hcl.domino.richtext.process.ExtractImageResourceProcessor;
@@ -26,6 +27,7 @@ import com.hcl.domino.richtext.process.ExtractTextProcessor;
 import com.hcl.domino.richtext.process.GetFileResourceSizeProcessor;
 import com.hcl.domino.richtext.process.GetImageResourceSizeProcessor;
 import com.hcl.domino.richtext.process.IRichTextProcessor;
+import com.hcl.domino.richtext.process.IScopedRichTextProcessor;
 import com.hcl.domino.richtext.records.CDText;
 import com.hcl.domino.richtext.records.RichTextRecord;
 
@@ -102,7 +104,31 @@ public interface RichTextRecordList extends List<RichTextRecord<?>> {
     return this.process(new GetImageResourceSizeProcessor());
   }
 
+  /**
+   * Calls the consumer for each record of the list.<br>
+   * <br>
+   * Implementations may pass records that directly reference the item data in
+   * memory instead of copying each of them. Those records are only valid until
+   * the consumer returns; use {@link RichTextRecord#copy()} to keep a record.
+   *
+   * @param consumer consumer, returns false to stop
+   * @since 1.54.0
+   */
+  default void forEachScoped(final Predicate<RichTextRecord<?>> consumer) {
+    for (final RichTextRecord<?> record : this) {
+      if (!consumer.test(record)) {
+        break;
+      }
+    }
+  }
+
   default <T> T process(final IRichTextProcessor<T> processor) {
+    if (processor instanceof IScopedRichTextProcessor) {
+      final IScopedRichTextProcessor<T> scopedProcessor = (IScopedRichTextProcessor<T>) processor;
+      scopedProcessor.begin();
+      this.forEachScoped(scopedProcessor::accept);
+      return scopedProcessor.end();
+    }
     return processor.apply(this);
   }
 
@@ -20,9 +20,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
-import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.hcl.domino.richtext.records.CDParagraph;
 import com.hcl.domino.richtext.records.CDText;
@@ -30,15 +28,20 @@ import com.hcl.domino.richtext.records.RichTextRecord;
 
 /**
  * Extracts the contents of {@link CDText} CD item and writes the content
- * to the provided {@link Appendable}.
+ * to the provided {@link Appendable}.<br>
+ * <br>
+ * Instances keep state while processing a record list (whether the first paragraph has
+ * been skipped) and write to a single target, so one instance must not be used by
+ * multiple threads or for multiple record lists at the same time.
  *
  * @author Karsten Lehmann
  * @since 1.0.20
  */
-public class ExtractTextProcessor implements IRichTextProcessor<Void> {
+public class ExtractTextProcessor implements IScopedRichTextProcessor<Void> {
 
   private final Appendable out;
   private final boolean isWindows;
+  private boolean skippedFirstParagraph;
 
   /**
    * Constructs a text extraction processor to output to the provided appendable.
@@ -57,33 +60,36 @@ public class ExtractTextProcessor implements IRichTextProcessor<Void> {
   }
 
   @Override
-  public Void apply(final List<RichTextRecord<?>> t) {
-    // each line starts with CDPARAGRAPH, skip the one before the first line
-    final AtomicBoolean skippedFirstParagraph = new AtomicBoolean();
+  public void begin() {
+    this.skippedFirstParagraph = false;
+  }
 
-    t.stream()
-        .filter(record -> (record instanceof CDText || record instanceof CDParagraph))
-        .forEach(record -> {
-          try {
-            if (record instanceof CDText) {
-              this.out.append(((CDText) record).getText());
-            } else if (record instanceof CDParagraph) {
-              if (skippedFirstParagraph.get()) {
-                if (this.isWindows && this.isUseOSLineBreaks()) {
-                  this.out.append(System.lineSeparator());
-                } else {
-                  this.out.append("\n"); //$NON-NLS-1$
-                }
-                this.out.append("\n"); //$NON-NLS-1$
-              } else {
-                skippedFirstParagraph.set(true);
-              }
-            }
-          } catch (final IOException e) {
-            throw new UncheckedIOException(e);
+  @Override
+  public boolean accept(final RichTextRecord<?> record) {
+    try {
+      if (record instanceof CDText) {
+        this.out.append(((CDText) record).getText());
+      } else if (record instanceof CDParagraph) {
+        // each line starts with CDPARAGRAPH, skip the one before the first line
+        if (this.skippedFirstParagraph) {
+          if (this.isWindows && this.isUseOSLineBreaks()) {
+            this.out.append(System.lineSeparator());
+          } else {
+            this.out.append("\n"); //$NON-NLS-1$
           }
-        });
+          this.out.append("\n"); //$NON-NLS-1$
+        } else {
+          this.skippedFirstParagraph = true;
+        }
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return true;
+  }
 
+  @Override
+  public Void end() {
     return null;
   }
 
@@ -0,0 +1,68 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.richtext.process;
+
+import java.util.List;
+
+import com.hcl.domino.richtext.RichTextRecordList;
+import com.hcl.domino.richtext.records.RichTextRecord;
+
+/**
+ * Rich text processor that looks at one record at a time and does not keep references
+ * to the records it receives.<br>
+ * <br>
+ * {@link RichTextRecordList#process(IRichTextProcessor)} passes the records via
+ * {@link RichTextRecordList#forEachScoped(java.util.function.Predicate)}, so they do
+ * not need to be copied from the item data.
+ *
+ * @param <T> result type
+ * @since 1.54.0
+ */
+public interface IScopedRichTextProcessor<T> extends IRichTextProcessor<T> {
+
+  /**
+   * Called before the first record is passed to {@link #accept(RichTextRecord)}
+   */
+  void begin();
+
+  /**
+   * Processes a record. The record must not be used after this method returns,
+   * use {@link RichTextRecord#copy()} to keep it.
+   *
+   * @param record record
+   * @return true to continue with the next record, false to stop
+   */
+  boolean accept(RichTextRecord<?> record);
+
+  /**
+   * Called after the last record has been processed
+   *
+   * @return result
+   */
+  T end();
+
+  @Override
+  default T apply(final List<RichTextRecord<?>> records) {
+    this.begin();
+    for (final RichTextRecord<?> record : records) {
+      if (!this.accept(record)) {
+        break;
+      }
+    }
+    return this.end();
+  }
+}
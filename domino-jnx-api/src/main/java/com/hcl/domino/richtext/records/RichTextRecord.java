@@ -18,6 +18,7 @@ package com.hcl.domino.richtext.records;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.text.MessageFormat;
 import java.util.Set;
 
 import com.hcl.domino.richtext.RichTextConstants;
@@ -33,6 +34,32 @@ import com.hcl.domino.richtext.structures.ResizableMemoryStructure;
  */
 @SuppressWarnings("rawtypes")
 public interface RichTextRecord<T extends CDSignature> extends ResizableMemoryStructure {
+  /**
+   * Returns a copy of this record with its own heap data, e.g. to keep a record
+   * that was passed to
+   * {@link com.hcl.domino.richtext.RichTextRecordList#forEachScoped(java.util.function.Predicate)
+   * RichTextRecordList.forEachScoped} after the callback has returned.
+   *
+   * @return copied record
+   * @throws UnsupportedOperationException if the record type cannot be determined
+   * @since 1.54.0
+   */
+  default RichTextRecord<?> copy() {
+    final ByteBuffer data = this.getData();
+    data.position(0);
+    final ByteBuffer copy = ByteBuffer.allocate(data.remaining()).order(ByteOrder.nativeOrder());
+    copy.put(data);
+    copy.flip();
+
+    for (final RecordType type : this.getType()) {
+      final Class<? extends RichTextRecord<?>> encapsulation = type.getEncapsulation();
+      if (encapsulation != null && encapsulation.isInstance(this)) {
+        return MemoryStructureWrapperService.get().wrapRichTextRecord(encapsulation, type, copy);
+      }
+    }
+    throw new UnsupportedOperationException(MessageFormat.format("Unable to copy record of type {0}", this.getTypeValue()));
+  }
+
   /**
    * Returns the total length of the CD record including the signature bytes
    * containing the type and length
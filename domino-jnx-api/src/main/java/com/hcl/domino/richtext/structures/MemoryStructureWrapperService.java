@@ -20,6 +20,8 @@ import java.nio.ByteBuffer;
 
 import com.hcl.domino.misc.INumberEnum;
 import com.hcl.domino.misc.JNXServiceFinder;
+import com.hcl.domino.richtext.records.RecordType;
+import com.hcl.domino.richtext.records.RichTextRecord;
 
 /**
  * This interface represents a service capable of wrapping {@link ByteBuffer}s
@@ -48,6 +50,23 @@ public interface MemoryStructureWrapperService {
    * @return the newly-wrapped structure
    */
   <T extends MemoryStructure> T wrapStructure(Class<T> structureClass, ByteBuffer data);
+
+  /**
+   * Wraps the provided {@link ByteBuffer} containing a complete CD record into an instance
+   * of the provided record class that reports the matched {@link RecordType} from
+   * {@link RichTextRecord#getType()}.
+   *
+   * @param <T>         the type of record contained in the data
+   * @param recordClass a {@link Class} representing {@code <T>}
+   * @param recordType  the {@link RecordType} matched to the record
+   * @param data        the record data, including its signature
+   * @return the newly-wrapped record
+   * @since 1.54.0
+   */
+  default <T extends RichTextRecord<?>> T wrapRichTextRecord(final Class<T> recordClass, final RecordType recordType,
+      final ByteBuffer data) {
+    return this.wrapStructure(recordClass, data);
+  }
   
   /**
    * Generates a new proxy object backed by a newly-allocated memory
@@ -264,6 +264,19 @@ public abstract class AbstractTypedAccess implements TypedAccess, IndexedTypedAc
   }
 
 	protected abstract List<?> getItemValue(String itemName);
+	
+	/**
+	 * Returns the values of an item for conversions that only read the list. Implementations
+	 * may return a shared list, e.g. from a value cache, without copying it.
+	 * 
+	 * @param itemName item name
+	 * @return item values that must not be modified
+	 * @since 1.54.0
+	 */
+	protected List<?> getItemValueForRead(String itemName) {
+		return getItemValue(itemName);
+	}
+	
 	protected List<?> getItemValue(int index) {
 		return null;
 	}
@@ -349,6 +362,28 @@ public abstract class AbstractTypedAccess implements TypedAccess, IndexedTypedAc
 		return defaultValue;
 	}
 
+	@Override
+	public double[] getAsDoubleArray(String itemName, double[] defaultValue) {
+		return getAsDoubleArray(getItemValueForRead(itemName), defaultValue);
+	}
+	
+	private double[] getAsDoubleArray(List<?> docValues, double[] defaultValue) {
+		if (docValues instanceof DoubleList) {
+			return ((DoubleList) docValues).toDoubleArray();
+		}
+		
+		List<Double> dblList = getAsDoubleList(docValues, null);
+		if (dblList==null) {
+			return defaultValue;
+		}
+		
+		double[] dblArr = new double[dblList.size()];
+		for (int i = 0; i < dblArr.length; i++) {
+			dblArr[i] = dblList.get(i);
+		}
+		return dblArr;
+	}
+
 	private Long getAsLong(List<?> docValues, Long defaultValue) {
 		List<Long> lList = getAsLongList(docValues, null);
 		if (lList!=null && !lList.isEmpty()) {
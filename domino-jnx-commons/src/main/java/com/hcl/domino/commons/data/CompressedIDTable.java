@@ -0,0 +1,1087 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.data;
+
+import java.text.MessageFormat;
+import java.time.temporal.TemporalAccessor;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+import com.hcl.domino.data.DominoDateTime;
+import com.hcl.domino.data.IDTable;
+
+/**
+ * Pure-Java {@link IDTable} implementation that keeps note ids in compressed
+ * primitive containers and does not require the C API.
+ * <p>
+ * Following the Roaring bitmap layout, ids are partitioned by their upper 16
+ * bits. Each partition stores the lower 16 bits either as a sorted
+ * {@code char[]} or, once it holds more than {@value #ARRAY_MAX_SIZE} ids, as
+ * a 65536-bit bitmap. Partitions are ordered as unsigned values, which matches
+ * the iteration order of C API ID tables: ids with
+ * {@link IDTable#NOTEID_FLAG_DELETED} set are returned last.
+ * </p>
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ *
+ * @since 1.54.0
+ */
+public class CompressedIDTable extends AbstractSet<Integer> implements IDTable {
+  /** Maximum number of ids in a partition before it is stored as a bitmap */
+  static final int ARRAY_MAX_SIZE = 4096;
+
+  /**
+   * Creates a new table containing the provided note ids
+   *
+   * @param noteIds the note ids to add
+   * @return a new {@link CompressedIDTable}
+   */
+  public static CompressedIDTable of(final int... noteIds) {
+    final CompressedIDTable result = new CompressedIDTable();
+    for (final int noteId : noteIds) {
+      result.addInt(noteId);
+    }
+    result.modified = false;
+    return result;
+  }
+
+  /**
+   * Creates a new table containing the note ids of the provided collection.
+   * If {@code noteIds} is an {@link IDTable}, its flags and date/time value
+   * are copied as well.
+   *
+   * @param noteIds the note ids to add; {@code null} elements are ignored
+   * @return a new {@link CompressedIDTable}
+   */
+  public static CompressedIDTable of(final Collection<Integer> noteIds) {
+    if (noteIds instanceof CompressedIDTable) {
+      return ((CompressedIDTable) noteIds).clone();
+    }
+    final CompressedIDTable result = new CompressedIDTable();
+    if (noteIds instanceof IDTable) {
+      final IDTable idTable = (IDTable) noteIds;
+      idTable.forEachInt(result::addInt);
+      result.inverted = idTable.isInverted();
+      result.dateTime = idTable.getDateTime().orElse(null);
+      result.modified = idTable.isModified();
+    } else {
+      for (final Integer noteId : noteIds) {
+        if (noteId != null) {
+          result.addInt(noteId);
+        }
+      }
+      result.modified = false;
+    }
+    return result;
+  }
+
+  private char[] keys;
+  private Container[] containers;
+  private int containerCount;
+  private int size;
+  private int modCount;
+
+  private boolean inverted;
+  private boolean modified;
+  private DominoDateTime dateTime;
+
+  public CompressedIDTable() {
+    this.keys = new char[4];
+    this.containers = new Container[4];
+  }
+
+  // *******************************************************************************
+  // * Primitive access
+  // *******************************************************************************
+
+  /**
+   * Checks whether the provided note id is contained in this table
+   *
+   * @param noteId the note id to check
+   * @return {@code true} if the id is present
+   */
+  public boolean containsInt(final int noteId) {
+    final int index = this.indexOfKey(noteId >>> 16);
+    return index >= 0 && this.containers[index].contains(noteId & 0xFFFF);
+  }
+
+  /**
+   * Adds a note id to this table
+   *
+   * @param noteId the note id to add
+   * @return {@code true} if the id was not already present
+   */
+  public boolean addInt(final int noteId) {
+    final int high = noteId >>> 16;
+    final int low = noteId & 0xFFFF;
+    // Ids are commonly added in ascending order, so check the last partition first
+    int index = this.containerCount > 0 && this.keys[this.containerCount - 1] == high ? this.containerCount - 1
+        : this.indexOfKey(high);
+    if (index < 0) {
+      index = -index - 1;
+      final ArrayContainer container = new ArrayContainer(new char[4], 0);
+      container.add(low);
+      this.insertContainer(index, (char) high, container);
+      this.size++;
+    } else {
+      final Container container = this.containers[index];
+      final int cardinality = container.cardinality();
+      this.containers[index] = container.add(low);
+      if (this.containers[index].cardinality() == cardinality) {
+        return false;
+      }
+      this.size++;
+    }
+    this.modCount++;
+    this.modified = true;
+    return true;
+  }
+
+  /**
+   * Removes a note id from this table
+   *
+   * @param noteId the note id to remove
+   * @return {@code true} if the id was present
+   */
+  public boolean removeInt(final int noteId) {
+    final int index = this.indexOfKey(noteId >>> 16);
+    if (index < 0) {
+      return false;
+    }
+    final Container container = this.containers[index];
+    final int cardinality = container.cardinality();
+    final Container result = container.remove(noteId & 0xFFFF);
+    if (result.cardinality() == cardinality) {
+      return false;
+    }
+    if (result.cardinality() == 0) {
+      this.removeContainer(index);
+    } else {
+      this.containers[index] = result;
+    }
+    this.size--;
+    this.modCount++;
+    this.modified = true;
+    return true;
+  }
+
+  @Override
+  public void forEachInt(final IntConsumer action) {
+    for (int i = 0; i < this.containerCount; i++) {
+      this.containers[i].forEach(this.keys[i] << 16, action);
+    }
+  }
+
+  @Override
+  public int[] toIntArray() {
+    final int[] result = new int[this.size];
+    int offset = 0;
+    for (int i = 0; i < this.containerCount; i++) {
+      offset = this.containers[i].toArray(this.keys[i] << 16, result, offset);
+    }
+    return result;
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt iterator() {
+    return new IdIterator(false);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt reverseIterator() {
+    return new IdIterator(true);
+  }
+
+  /**
+   * Returns the first id in the table in C API order
+   *
+   * @return the first id
+   * @throws NoSuchElementException if the table is empty
+   */
+  public int getFirstId() {
+    if (this.containerCount == 0) {
+      throw new NoSuchElementException("ID table is empty");
+    }
+    final Container container = this.containers[0];
+    return this.keys[0] << 16 | container.valueAt(container.nextIndex(0));
+  }
+
+  /**
+   * Returns the last id in the table in C API order
+   *
+   * @return the last id
+   * @throws NoSuchElementException if the table is empty
+   */
+  public int getLastId() {
+    if (this.containerCount == 0) {
+      throw new NoSuchElementException("ID table is empty");
+    }
+    final Container container = this.containers[this.containerCount - 1];
+    return this.keys[this.containerCount - 1] << 16 | container.valueAt(container.prevIndex(Container.MAX_INDEX));
+  }
+
+  // *******************************************************************************
+  // * Set operations
+  // *******************************************************************************
+
+  /**
+   * Creates the union of this table and the provided note ids
+   *
+   * @param noteIds other {@link IDTable} or set of note ids
+   * @return a new {@link CompressedIDTable}
+   */
+  public CompressedIDTable union(final Collection<Integer> noteIds) {
+    return CompressedIDTable.or(this, CompressedIDTable.asCompressed(noteIds));
+  }
+
+  @Override
+  public CompressedIDTable intersect(final Collection<Integer> noteIds) {
+    return CompressedIDTable.and(this, CompressedIDTable.asCompressed(noteIds));
+  }
+
+  /**
+   * Creates a table with the ids of this table that are not contained in
+   * the provided note ids
+   *
+   * @param noteIds other {@link IDTable} or set of note ids
+   * @return a new {@link CompressedIDTable}
+   */
+  public CompressedIDTable difference(final Collection<Integer> noteIds) {
+    return CompressedIDTable.andNot(this, CompressedIDTable.asCompressed(noteIds));
+  }
+
+  @Override
+  public boolean addAll(final Collection<? extends Integer> c) {
+    if (c instanceof CompressedIDTable) {
+      return this.replaceWith(CompressedIDTable.or(this, (CompressedIDTable) c));
+    } else if (c instanceof IDTable) {
+      final int oldSize = this.size;
+      ((IDTable) c).forEachInt(this::addInt);
+      return oldSize != this.size;
+    } else {
+      return super.addAll(c);
+    }
+  }
+
+  @Override
+  public boolean retainAll(final Collection<?> c) {
+    return this.replaceWith(CompressedIDTable.and(this, CompressedIDTable.asCompressed(c)));
+  }
+
+  @Override
+  public boolean removeAll(final Collection<?> c) {
+    return this.replaceWith(CompressedIDTable.andNot(this, CompressedIDTable.asCompressed(c)));
+  }
+
+  @Override
+  public boolean containsAll(final Collection<?> c) {
+    if (c instanceof IDTable) {
+      final CompressedIDTable other = CompressedIDTable.asCompressed(c);
+      return other.size <= this.size && CompressedIDTable.andNot(other, this).isEmpty();
+    }
+    return super.containsAll(c);
+  }
+
+  // *******************************************************************************
+  // * Collection implementation
+  // *******************************************************************************
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  @Override
+  public boolean contains(final Object o) {
+    return o instanceof Integer && this.containsInt((Integer) o);
+  }
+
+  @Override
+  public boolean add(final Integer noteId) {
+    return this.addInt(noteId);
+  }
+
+  @Override
+  public boolean remove(final Object o) {
+    return o instanceof Integer && this.removeInt((Integer) o);
+  }
+
+  @Override
+  public void clear() {
+    if (this.size > 0) {
+      this.modified = true;
+    }
+    Arrays.fill(this.containers, 0, this.containerCount, null);
+    this.containerCount = 0;
+    this.size = 0;
+    this.modCount++;
+  }
+
+  @Override
+  public int hashCode() {
+    final int[] hash = new int[1];
+    this.forEachInt(id -> hash[0] += id);
+    return hash[0];
+  }
+
+  // *******************************************************************************
+  // * IDTable implementation
+  // *******************************************************************************
+
+  @Override
+  public CompressedIDTable clone() {
+    final CompressedIDTable result = new CompressedIDTable();
+    result.keys = Arrays.copyOf(this.keys, Math.max(4, this.containerCount));
+    result.containers = new Container[result.keys.length];
+    for (int i = 0; i < this.containerCount; i++) {
+      result.containers[i] = this.containers[i].copy();
+    }
+    result.containerCount = this.containerCount;
+    result.size = this.size;
+    result.inverted = this.inverted;
+    result.modified = this.modified;
+    result.dateTime = this.dateTime;
+    return result;
+  }
+
+  @Override
+  public Optional<DominoDateTime> getDateTime() {
+    return Optional.ofNullable(this.dateTime);
+  }
+
+  @Override
+  public void setDateTime(final TemporalAccessor dt) {
+    if (dt == null || dt instanceof DominoDateTime) {
+      this.dateTime = (DominoDateTime) dt;
+    } else {
+      this.dateTime = DefaultDominoDateTime.from(dt);
+    }
+  }
+
+  @Override
+  public boolean isInverted() {
+    return this.inverted;
+  }
+
+  @Override
+  public void setInverted(final boolean inverted) {
+    this.inverted = inverted;
+  }
+
+  @Override
+  public boolean isModified() {
+    return this.modified;
+  }
+
+  @Override
+  public void setModified(final boolean modified) {
+    this.modified = modified;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T getAdapter(final Class<T> clazz) {
+    if (int[].class.equals(clazz)) {
+      return (T) this.toIntArray();
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return MessageFormat.format("CompressedIDTable [inverted={0}, {1} entries]", this.inverted, this.size); //$NON-NLS-1$
+  }
+
+  // *******************************************************************************
+  // * Internal implementation methods
+  // *******************************************************************************
+
+  private static CompressedIDTable asCompressed(final Collection<?> c) {
+    if (c instanceof CompressedIDTable) {
+      return (CompressedIDTable) c;
+    }
+    final CompressedIDTable result = new CompressedIDTable();
+    if (c instanceof IDTable) {
+      ((IDTable) c).forEachInt(result::addInt);
+    } else {
+      for (final Object o : c) {
+        if (o instanceof Integer) {
+          result.addInt((Integer) o);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static CompressedIDTable or(final CompressedIDTable a, final CompressedIDTable b) {
+    final CompressedIDTable result = new CompressedIDTable();
+    int i = 0;
+    int j = 0;
+    while (i < a.containerCount && j < b.containerCount) {
+      final char keyA = a.keys[i];
+      final char keyB = b.keys[j];
+      if (keyA < keyB) {
+        result.append(keyA, a.containers[i++].copy());
+      } else if (keyA > keyB) {
+        result.append(keyB, b.containers[j++].copy());
+      } else {
+        result.append(keyA, a.containers[i++].or(b.containers[j++]));
+      }
+    }
+    while (i < a.containerCount) {
+      result.append(a.keys[i], a.containers[i++].copy());
+    }
+    while (j < b.containerCount) {
+      result.append(b.keys[j], b.containers[j++].copy());
+    }
+    return result;
+  }
+
+  private static CompressedIDTable and(final CompressedIDTable a, final CompressedIDTable b) {
+    final CompressedIDTable result = new CompressedIDTable();
+    int i = 0;
+    int j = 0;
+    while (i < a.containerCount && j < b.containerCount) {
+      final char keyA = a.keys[i];
+      final char keyB = b.keys[j];
+      if (keyA < keyB) {
+        i++;
+      } else if (keyA > keyB) {
+        j++;
+      } else {
+        result.append(keyA, a.containers[i++].and(b.containers[j++]));
+      }
+    }
+    return result;
+  }
+
+  private static CompressedIDTable andNot(final CompressedIDTable a, final CompressedIDTable b) {
+    final CompressedIDTable result = new CompressedIDTable();
+    int i = 0;
+    int j = 0;
+    while (i < a.containerCount && j < b.containerCount) {
+      final char keyA = a.keys[i];
+      final char keyB = b.keys[j];
+      if (keyA < keyB) {
+        result.append(keyA, a.containers[i++].copy());
+      } else if (keyA > keyB) {
+        j++;
+      } else {
+        result.append(keyA, a.containers[i++].andNot(b.containers[j++]));
+      }
+    }
+    while (i < a.containerCount) {
+      result.append(a.keys[i], a.containers[i++].copy());
+    }
+    return result;
+  }
+
+  /**
+   * Replaces the content of this table with the content of {@code other},
+   * keeping flags and date/time. {@code other} must be a subset or superset
+   * of this table, so that equal sizes imply equal content.
+   */
+  private boolean replaceWith(final CompressedIDTable other) {
+    if (other.size == this.size) {
+      return false;
+    }
+    this.keys = other.keys;
+    this.containers = other.containers;
+    this.containerCount = other.containerCount;
+    this.size = other.size;
+    this.modCount++;
+    this.modified = true;
+    return true;
+  }
+
+  private int indexOfKey(final int high) {
+    return Arrays.binarySearch(this.keys, 0, this.containerCount, (char) high);
+  }
+
+  private void ensureCapacity(final int capacity) {
+    if (capacity > this.keys.length) {
+      final int newLength = Math.max(capacity, this.keys.length * 2);
+      this.keys = Arrays.copyOf(this.keys, newLength);
+      this.containers = Arrays.copyOf(this.containers, newLength);
+    }
+  }
+
+  private void append(final char key, final Container container) {
+    final int cardinality = container.cardinality();
+    if (cardinality > 0) {
+      this.ensureCapacity(this.containerCount + 1);
+      this.keys[this.containerCount] = key;
+      this.containers[this.containerCount] = container;
+      this.containerCount++;
+      this.size += cardinality;
+    }
+  }
+
+  private void insertContainer(final int index, final char key, final Container container) {
+    this.ensureCapacity(this.containerCount + 1);
+    System.arraycopy(this.keys, index, this.keys, index + 1, this.containerCount - index);
+    System.arraycopy(this.containers, index, this.containers, index + 1, this.containerCount - index);
+    this.keys[index] = key;
+    this.containers[index] = container;
+    this.containerCount++;
+  }
+
+  private void removeContainer(final int index) {
+    System.arraycopy(this.keys, index + 1, this.keys, index, this.containerCount - index - 1);
+    System.arraycopy(this.containers, index + 1, this.containers, index, this.containerCount - index - 1);
+    this.containerCount--;
+    this.containers[this.containerCount] = null;
+  }
+
+  private class IdIterator implements PrimitiveIterator.OfInt {
+    private final boolean reverse;
+    private int expectedModCount;
+    private int containerIndex;
+    private int index;
+    private int lastId;
+    private boolean canRemove;
+
+    IdIterator(final boolean reverse) {
+      this.reverse = reverse;
+      this.expectedModCount = CompressedIDTable.this.modCount;
+      if (reverse) {
+        this.containerIndex = CompressedIDTable.this.containerCount - 1;
+        this.index = Container.MAX_INDEX;
+      }
+      this.seek();
+    }
+
+    /**
+     * Moves {@link #containerIndex} and {@link #index} to the next valid
+     * position at or after the current one
+     */
+    private void seek() {
+      final CompressedIDTable table = CompressedIDTable.this;
+      while (this.containerIndex >= 0 && this.containerIndex < table.containerCount) {
+        final Container container = table.containers[this.containerIndex];
+        this.index = this.reverse ? container.prevIndex(this.index) : container.nextIndex(this.index);
+        if (this.index >= 0) {
+          return;
+        }
+        if (this.reverse) {
+          this.containerIndex--;
+          this.index = Container.MAX_INDEX;
+        } else {
+          this.containerIndex++;
+          this.index = 0;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.containerIndex >= 0 && this.containerIndex < CompressedIDTable.this.containerCount;
+    }
+
+    @Override
+    public int nextInt() {
+      if (CompressedIDTable.this.modCount != this.expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (!this.hasNext()) {
+        throw new NoSuchElementException("No more elements");
+      }
+      final CompressedIDTable table = CompressedIDTable.this;
+      this.lastId = table.keys[this.containerIndex] << 16 | table.containers[this.containerIndex].valueAt(this.index);
+      this.canRemove = true;
+      this.index += this.reverse ? -1 : 1;
+      this.seek();
+      return this.lastId;
+    }
+
+    @Override
+    public void remove() {
+      if (!this.canRemove) {
+        throw new IllegalStateException();
+      }
+      if (CompressedIDTable.this.modCount != this.expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      this.canRemove = false;
+      final CompressedIDTable table = CompressedIDTable.this;
+      table.removeInt(this.lastId);
+      this.expectedModCount = table.modCount;
+
+      // Containers may have been converted or removed, so find the position of the following id again
+      final int high = this.lastId >>> 16;
+      final int low = this.lastId & 0xFFFF;
+      int containerIndex = table.indexOfKey(high);
+      if (containerIndex >= 0) {
+        final Container container = table.containers[containerIndex];
+        this.containerIndex = containerIndex;
+        this.index = this.reverse ? container.floorIndex(low) : container.ceilIndex(low);
+        if (this.index < 0) {
+          this.index = this.reverse ? -1 : Container.MAX_INDEX + 1;
+        }
+      } else {
+        containerIndex = -containerIndex - 1;
+        this.containerIndex = this.reverse ? containerIndex - 1 : containerIndex;
+        this.index = this.reverse ? Container.MAX_INDEX : 0;
+      }
+      this.seek();
+    }
+  }
+
+  /**
+   * Holds the lower 16 bits of the ids in one partition. Positions are
+   * addressed by an implementation-specific index between 0 and
+   * {@link #MAX_INDEX}.
+   */
+  private abstract static class Container {
+    static final int MAX_INDEX = 0xFFFF;
+
+    abstract int cardinality();
+
+    abstract boolean contains(int low);
+
+    /**
+     * @return this container or a converted one containing {@code low}
+     */
+    abstract Container add(int low);
+
+    /**
+     * @return this container or a converted one not containing {@code low}
+     */
+    abstract Container remove(int low);
+
+    /**
+     * @return the first valid index at or after {@code from}, or -1
+     */
+    abstract int nextIndex(int from);
+
+    /**
+     * @return the last valid index at or before {@code from}, or -1
+     */
+    abstract int prevIndex(int from);
+
+    abstract int valueAt(int index);
+
+    /**
+     * @return the index of the first value greater than or equal to
+     *         {@code low}, or -1
+     */
+    abstract int ceilIndex(int low);
+
+    /**
+     * @return the index of the last value less than or equal to
+     *         {@code low}, or -1
+     */
+    abstract int floorIndex(int low);
+
+    abstract void forEach(int high, IntConsumer action);
+
+    abstract int toArray(int high, int[] dest, int offset);
+
+    abstract Container copy();
+
+    abstract Container or(Container other);
+
+    abstract Container and(Container other);
+
+    abstract Container andNot(Container other);
+  }
+
+  private static final class ArrayContainer extends Container {
+    private char[] content;
+    private int cardinality;
+
+    ArrayContainer(final char[] content, final int cardinality) {
+      this.content = content;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return this.cardinality;
+    }
+
+    @Override
+    boolean contains(final int low) {
+      return Arrays.binarySearch(this.content, 0, this.cardinality, (char) low) >= 0;
+    }
+
+    @Override
+    Container add(final int low) {
+      int index;
+      if (this.cardinality == 0 || low > this.content[this.cardinality - 1]) {
+        // fast path for ascending insertion
+        index = this.cardinality;
+      } else {
+        index = Arrays.binarySearch(this.content, 0, this.cardinality, (char) low);
+        if (index >= 0) {
+          return this;
+        }
+        index = -index - 1;
+      }
+      if (this.cardinality >= CompressedIDTable.ARRAY_MAX_SIZE) {
+        return this.toBitmap().add(low);
+      }
+      if (this.cardinality == this.content.length) {
+        this.content = Arrays.copyOf(this.content, Math.min(this.content.length * 2, CompressedIDTable.ARRAY_MAX_SIZE));
+      }
+      System.arraycopy(this.content, index, this.content, index + 1, this.cardinality - index);
+      this.content[index] = (char) low;
+      this.cardinality++;
+      return this;
+    }
+
+    @Override
+    Container remove(final int low) {
+      final int index = Arrays.binarySearch(this.content, 0, this.cardinality, (char) low);
+      if (index >= 0) {
+        System.arraycopy(this.content, index + 1, this.content, index, this.cardinality - index - 1);
+        this.cardinality--;
+      }
+      return this;
+    }
+
+    @Override
+    int nextIndex(final int from) {
+      return from < this.cardinality ? from : -1;
+    }
+
+    @Override
+    int prevIndex(final int from) {
+      return Math.min(from, this.cardinality - 1);
+    }
+
+    @Override
+    int valueAt(final int index) {
+      return this.content[index];
+    }
+
+    @Override
+    int ceilIndex(final int low) {
+      int index = Arrays.binarySearch(this.content, 0, this.cardinality, (char) low);
+      if (index < 0) {
+        index = -index - 1;
+      }
+      return index < this.cardinality ? index : -1;
+    }
+
+    @Override
+    int floorIndex(final int low) {
+      final int index = Arrays.binarySearch(this.content, 0, this.cardinality, (char) low);
+      return index >= 0 ? index : -index - 2;
+    }
+
+    @Override
+    void forEach(final int high, final IntConsumer action) {
+      for (int i = 0; i < this.cardinality; i++) {
+        action.accept(high | this.content[i]);
+      }
+    }
+
+    @Override
+    int toArray(final int high, final int[] dest, final int offset) {
+      for (int i = 0; i < this.cardinality; i++) {
+        dest[offset + i] = high | this.content[i];
+      }
+      return offset + this.cardinality;
+    }
+
+    @Override
+    Container copy() {
+      return new ArrayContainer(Arrays.copyOf(this.content, Math.max(this.cardinality, 1)), this.cardinality);
+    }
+
+    BitmapContainer toBitmap() {
+      final long[] words = new long[BitmapContainer.WORD_COUNT];
+      for (int i = 0; i < this.cardinality; i++) {
+        final char low = this.content[i];
+        words[low >>> 6] |= 1L << low;
+      }
+      return new BitmapContainer(words, this.cardinality);
+    }
+
+    @Override
+    Container or(final Container other) {
+      if (other instanceof BitmapContainer) {
+        return other.or(this);
+      }
+      final ArrayContainer array = (ArrayContainer) other;
+      final char[] merged = new char[this.cardinality + array.cardinality];
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < this.cardinality && j < array.cardinality) {
+        final char a = this.content[i];
+        final char b = array.content[j];
+        if (a < b) {
+          merged[k++] = a;
+          i++;
+        } else if (a > b) {
+          merged[k++] = b;
+          j++;
+        } else {
+          merged[k++] = a;
+          i++;
+          j++;
+        }
+      }
+      while (i < this.cardinality) {
+        merged[k++] = this.content[i++];
+      }
+      while (j < array.cardinality) {
+        merged[k++] = array.content[j++];
+      }
+      final ArrayContainer result = new ArrayContainer(merged, k);
+      return k > CompressedIDTable.ARRAY_MAX_SIZE ? result.toBitmap() : result;
+    }
+
+    @Override
+    Container and(final Container other) {
+      return this.filter(other, true);
+    }
+
+    @Override
+    Container andNot(final Container other) {
+      return this.filter(other, false);
+    }
+
+    private Container filter(final Container other, final boolean keepContained) {
+      final char[] result = new char[Math.max(this.cardinality, 1)];
+      int k = 0;
+      for (int i = 0; i < this.cardinality; i++) {
+        final char low = this.content[i];
+        if (other.contains(low) == keepContained) {
+          result[k++] = low;
+        }
+      }
+      return new ArrayContainer(result, k);
+    }
+  }
+
+  private static final class BitmapContainer extends Container {
+    static final int WORD_COUNT = 1024;
+
+    private final long[] words;
+    private int cardinality;
+
+    BitmapContainer(final long[] words, final int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    private static int countBits(final long[] words) {
+      int count = 0;
+      for (final long word : words) {
+        count += Long.bitCount(word);
+      }
+      return count;
+    }
+
+    @Override
+    int cardinality() {
+      return this.cardinality;
+    }
+
+    @Override
+    boolean contains(final int low) {
+      return (this.words[low >>> 6] & 1L << low) != 0;
+    }
+
+    @Override
+    Container add(final int low) {
+      final long word = this.words[low >>> 6];
+      final long newWord = word | 1L << low;
+      if (word != newWord) {
+        this.words[low >>> 6] = newWord;
+        this.cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    Container remove(final int low) {
+      final long word = this.words[low >>> 6];
+      final long newWord = word & ~(1L << low);
+      if (word != newWord) {
+        this.words[low >>> 6] = newWord;
+        this.cardinality--;
+        if (this.cardinality <= CompressedIDTable.ARRAY_MAX_SIZE) {
+          return this.toArrayContainer();
+        }
+      }
+      return this;
+    }
+
+    @Override
+    int nextIndex(final int from) {
+      if (from > Container.MAX_INDEX) {
+        return -1;
+      }
+      int w = from >>> 6;
+      long word = this.words[w] & -1L << from;
+      while (true) {
+        if (word != 0) {
+          return w << 6 | Long.numberOfTrailingZeros(word);
+        }
+        if (++w == BitmapContainer.WORD_COUNT) {
+          return -1;
+        }
+        word = this.words[w];
+      }
+    }
+
+    @Override
+    int prevIndex(final int from) {
+      if (from < 0) {
+        return -1;
+      }
+      int w = from >>> 6;
+      long word = this.words[w] & -1L >>> 63 - (from & 63);
+      while (true) {
+        if (word != 0) {
+          return w << 6 | 63 - Long.numberOfLeadingZeros(word);
+        }
+        if (--w < 0) {
+          return -1;
+        }
+        word = this.words[w];
+      }
+    }
+
+    @Override
+    int valueAt(final int index) {
+      return index;
+    }
+
+    @Override
+    int ceilIndex(final int low) {
+      return this.nextIndex(low);
+    }
+
+    @Override
+    int floorIndex(final int low) {
+      return this.prevIndex(low);
+    }
+
+    @Override
+    void forEach(final int high, final IntConsumer action) {
+      for (int w = 0; w < BitmapContainer.WORD_COUNT; w++) {
+        long word = this.words[w];
+        while (word != 0) {
+          action.accept(high | w << 6 | Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+    }
+
+    @Override
+    int toArray(final int high, final int[] dest, final int offset) {
+      int k = offset;
+      for (int w = 0; w < BitmapContainer.WORD_COUNT; w++) {
+        long word = this.words[w];
+        while (word != 0) {
+          dest[k++] = high | w << 6 | Long.numberOfTrailingZeros(word);
+          word &= word - 1;
+        }
+      }
+      return k;
+    }
+
+    @Override
+    Container copy() {
+      return new BitmapContainer(this.words.clone(), this.cardinality);
+    }
+
+    ArrayContainer toArrayContainer() {
+      final char[] content = new char[Math.max(this.cardinality, 1)];
+      int k = 0;
+      for (int w = 0; w < BitmapContainer.WORD_COUNT; w++) {
+        long word = this.words[w];
+        while (word != 0) {
+          content[k++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+      return new ArrayContainer(content, k);
+    }
+
+    @Override
+    Container or(final Container other) {
+      final long[] result = this.words.clone();
+      if (other instanceof BitmapContainer) {
+        final long[] otherWords = ((BitmapContainer) other).words;
+        for (int w = 0; w < BitmapContainer.WORD_COUNT; w++) {
+          result[w] |= otherWords[w];
+        }
+      } else {
+        final ArrayContainer array = (ArrayContainer) other;
+        for (int i = 0; i < array.cardinality; i++) {
+          final char low = array.content[i];
+          result[low >>> 6] |= 1L << low;
+        }
+      }
+      return new BitmapContainer(result, BitmapContainer.countBits(result));
+    }
+
+    @Override
+    Container and(final Container other) {
+      if (other instanceof ArrayContainer) {
+        return other.and(this);
+      }
+      final long[] otherWords = ((BitmapContainer) other).words;
+      final long[] result = new long[BitmapContainer.WORD_COUNT];
+      for (int w = 0; w < BitmapContainer.WORD_COUNT; w++) {
+        result[w] = this.words[w] & otherWords[w];
+      }
+      return BitmapContainer.normalize(result);
+    }
+
+    @Override
+    Container andNot(final Container other) {
+      final long[] result = this.words.clone();
+      if (other instanceof BitmapContainer) {
+        final long[] otherWords = ((BitmapContainer) other).words;
+        for (int w = 0; w < BitmapContainer.WORD_COUNT; w++) {
+          result[w] &= ~otherWords[w];
+        }
+      } else {
+        final ArrayContainer array = (ArrayContainer) other;
+        for (int i = 0; i < array.cardinality; i++) {
+          final char low = array.content[i];
+          result[low >>> 6] &= ~(1L << low);
+        }
+      }
+      return BitmapContainer.normalize(result);
+    }
+
+    private static Container normalize(final long[] words) {
+      final BitmapContainer result = new BitmapContainer(words, BitmapContainer.countBits(words));
+      return result.cardinality <= CompressedIDTable.ARRAY_MAX_SIZE ? result.toArrayContainer() : result;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.data;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Fixed-size list of numbers backed by a primitive {@code double[]} array.<br>
+ * <br>
+ * Used for decoded number list values to avoid allocating a {@link Double} per
+ * value; elements are only boxed when read via {@link #get(int)}.
+ *
+ * @since 1.54.0
+ */
+public class DoubleList extends AbstractList<Double> implements RandomAccess, Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final double[] m_values;
+
+  /**
+   * Creates a new list that uses the specified array as storage
+   *
+   * @param values values, not copied
+   */
+  public DoubleList(final double[] values) {
+    this.m_values = values;
+  }
+
+  @Override
+  public Double get(final int index) {
+    return this.m_values[index];
+  }
+
+  /**
+   * Returns a list value without boxing
+   *
+   * @param index index
+   * @return value
+   */
+  public double getDouble(final int index) {
+    return this.m_values[index];
+  }
+
+  @Override
+  public Double set(final int index, final Double element) {
+    final double oldValue = this.m_values[index];
+    this.m_values[index] = element;
+    return oldValue;
+  }
+
+  @Override
+  public int size() {
+    return this.m_values.length;
+  }
+
+  /**
+   * Returns a copy of the list values
+   *
+   * @return values
+   */
+  public double[] toDoubleArray() {
+    return this.m_values.clone();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o instanceof DoubleList) {
+      return Arrays.equals(this.m_values, ((DoubleList) o).m_values);
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+}
@@ -0,0 +1,419 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.dxl;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.hcl.domino.DominoException;
+import com.hcl.domino.data.Document;
+import com.hcl.domino.exception.DxlImportException;
+import com.hcl.domino.dxl.DxlImportPipeline;
+import com.hcl.domino.dxl.DxlImporterLog;
+
+/**
+ * {@link DxlImportPipeline} that builds batches on the calling thread and imports
+ * them on a single thread produced by the given {@link ThreadFactory}, which has to
+ * initialize the thread for Notes.<br>
+ * <br>
+ * Each batch is a {@code <database>} element in the DXL namespace that contains the
+ * added fragments. Batches are imported in the order in which they were built.<br>
+ * <br>
+ * The import thread only references the pipeline weakly. If the pipeline is garbage
+ * collected without being closed, the thread imports the batches that were already
+ * queued, closes the {@link BatchImporter} and ends.
+ *
+ * @since 1.54.0
+ */
+public class DefaultDxlImportPipeline implements DxlImportPipeline {
+  static final String BATCH_START = "<?xml version='1.0' encoding='utf-8'?>\n<database xmlns='http://www.lotus.com/dxl'>\n"; //$NON-NLS-1$
+  static final String BATCH_END = "</database>\n"; //$NON-NLS-1$
+
+  /**
+   * Imports batches on the import thread
+   */
+  public interface BatchImporter extends AutoCloseable {
+    /**
+     * Imports a batch
+     *
+     * @param batchIndex    index of the batch, starting at 0
+     * @param documentCount number of fragments in the batch
+     * @param dxl           UTF-8 encoded DXL of the batch
+     * @return note ids of the imported notes
+     * @throws DxlImportException if the importer reports errors
+     */
+    int[] importBatch(int batchIndex, int documentCount, byte[] dxl);
+
+    /**
+     * Called on the import thread after the last batch
+     */
+    @Override
+    void close();
+  }
+
+  private static class Batch {
+    final int index;
+    final int documentCount;
+    final byte[] dxl;
+
+    Batch(final int index, final int documentCount, final byte[] dxl) {
+      this.index = index;
+      this.documentCount = documentCount;
+      this.dxl = dxl;
+    }
+  }
+
+  private static class DefaultBatchResult implements BatchResult {
+    private final int batchIndex;
+    private final int documentCount;
+    private final int[] noteIds;
+    private final Throwable error;
+
+    DefaultBatchResult(final int batchIndex, final int documentCount, final int[] noteIds, final Throwable error) {
+      this.batchIndex = batchIndex;
+      this.documentCount = documentCount;
+      this.noteIds = noteIds;
+      this.error = error;
+    }
+
+    @Override
+    public int getBatchIndex() {
+      return this.batchIndex;
+    }
+
+    @Override
+    public int getDocumentCount() {
+      return this.documentCount;
+    }
+
+    @Override
+    public int[] getImportedNoteIds() {
+      return this.noteIds.clone();
+    }
+
+    @Override
+    public Optional<DxlImporterLog> getLog() {
+      if (this.error instanceof DxlImportException) {
+        return Optional.ofNullable(((DxlImportException) this.error).getLog());
+      }
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<Throwable> getError() {
+      return Optional.ofNullable(this.error);
+    }
+
+    @Override
+    public String toString() {
+      return MessageFormat.format("BatchResult [batchIndex={0}, documentCount={1}, importedNotes={2}, error={3}]", //$NON-NLS-1$
+          this.batchIndex, this.documentCount, this.noteIds.length, this.error);
+    }
+  }
+
+  private static final Batch END = new Batch(-1, 0, null);
+
+  /**
+   * Interval in milliseconds in which an idle import thread checks whether the
+   * pipeline has been garbage collected
+   */
+  static final long OWNER_CHECK_INTERVAL = 500;
+
+  /**
+   * Runs on the import thread. Does not reference the pipeline strongly, so that an
+   * unclosed pipeline can be garbage collected and the thread can end.
+   */
+  private static class Worker implements Runnable {
+    private final BlockingQueue<Batch> queue;
+    private final BatchImporter importer;
+    private final Consumer<BatchResult> listener;
+    private final WeakReference<DefaultDxlImportPipeline> owner;
+    private final List<BatchResult> failedBatches = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger importedNotes = new AtomicInteger();
+    private volatile Throwable error;
+
+    Worker(final DefaultDxlImportPipeline owner, final BlockingQueue<Batch> queue, final BatchImporter importer,
+        final Consumer<BatchResult> listener) {
+      this.owner = new WeakReference<>(owner);
+      this.queue = queue;
+      this.importer = importer;
+      this.listener = listener;
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (true) {
+          final Batch b = this.queue.poll(DefaultDxlImportPipeline.OWNER_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+          if (b == null) {
+            if (this.owner.get() == null) {
+              // the pipeline has been garbage collected without being closed
+              break;
+            }
+            continue;
+          }
+          if (b == DefaultDxlImportPipeline.END) {
+            break;
+          }
+
+          BatchResult result;
+          try {
+            final int[] noteIds = this.importer.importBatch(b.index, b.documentCount, b.dxl);
+            result = new DefaultBatchResult(b.index, b.documentCount, noteIds, null);
+          } catch (final RuntimeException e) {
+            // e.g. DxlImportException with the importer log
+            result = new DefaultBatchResult(b.index, b.documentCount, new int[0], e);
+          }
+          this.importedNotes.addAndGet(result.getImportedNoteIds().length);
+          if (result.getError().isPresent()) {
+            this.failedBatches.add(result);
+          }
+          if (this.listener != null) {
+            this.listener.accept(result);
+          }
+        }
+      } catch (final Throwable t) {
+        this.error = t;
+      } finally {
+        try {
+          this.importer.close();
+        } catch (final Throwable t) {
+          if (this.error == null) {
+            this.error = t;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes a leading XML declaration and DOCTYPE from a DXL fragment
+   *
+   * @param dxl DXL fragment
+   * @return fragment that can be embedded into a batch
+   */
+  public static String stripProlog(final String dxl) {
+    int pos = 0;
+    while (true) {
+      while (pos < dxl.length() && Character.isWhitespace(dxl.charAt(pos))) {
+        pos++;
+      }
+      if (dxl.startsWith("<?xml", pos)) { //$NON-NLS-1$
+        final int end = dxl.indexOf("?>", pos); //$NON-NLS-1$
+        if (end == -1) {
+          break;
+        }
+        pos = end + 2;
+      } else if (dxl.startsWith("<!DOCTYPE", pos)) { //$NON-NLS-1$
+        final int bracket = dxl.indexOf('[', pos);
+        int end = dxl.indexOf('>', pos);
+        if (bracket != -1 && bracket < end) {
+          // internal subset
+          end = dxl.indexOf("]>", bracket); //$NON-NLS-1$
+          end = end == -1 ? -1 : end + 1;
+        }
+        if (end == -1) {
+          break;
+        }
+        pos = end + 1;
+      } else {
+        break;
+      }
+    }
+    return dxl.substring(pos);
+  }
+
+  /**
+   * Creates a pipeline and starts its import thread
+   *
+   * @param batchSize         number of fragments per batch
+   * @param maxPendingBatches number of complete batches that may wait for import
+   * @param threadFactory     factory for the import thread
+   * @param documentToDxl     exports documents added via {@link #add(Document)} on
+   *                          the calling thread
+   * @param importer          imports the batches on the import thread
+   * @param listener          called after each batch; may be {@code null}
+   * @return started pipeline
+   */
+  public static DefaultDxlImportPipeline start(final int batchSize, final int maxPendingBatches,
+      final ThreadFactory threadFactory, final Function<Document, String> documentToDxl, final BatchImporter importer,
+      final Consumer<BatchResult> listener) {
+    return DefaultDxlImportPipeline.start(batchSize, maxPendingBatches, threadFactory, documentToDxl, importer, listener, null);
+  }
+
+  /**
+   * Creates a pipeline and starts its import thread
+   *
+   * @param batchSize         number of fragments per batch
+   * @param maxPendingBatches number of complete batches that may wait for import
+   * @param threadFactory     factory for the import thread
+   * @param documentToDxl     exports documents added via {@link #add(Document)} on
+   *                          the calling thread
+   * @param importer          imports the batches on the import thread
+   * @param listener          called after each batch; may be {@code null}
+   * @param onClose           called on the closing thread when {@link #close()}
+   *                          ends, e.g. to free resources of {@code documentToDxl};
+   *                          may be {@code null}
+   * @return started pipeline
+   */
+  public static DefaultDxlImportPipeline start(final int batchSize, final int maxPendingBatches,
+      final ThreadFactory threadFactory, final Function<Document, String> documentToDxl, final BatchImporter importer,
+      final Consumer<BatchResult> listener, final Runnable onClose) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException(MessageFormat.format("Invalid batch size: {0}", batchSize));
+    }
+    if (maxPendingBatches < 1) {
+      throw new IllegalArgumentException(MessageFormat.format("Invalid number of pending batches: {0}", maxPendingBatches));
+    }
+    final DefaultDxlImportPipeline pipeline = new DefaultDxlImportPipeline(batchSize, maxPendingBatches, documentToDxl, importer,
+        listener, onClose);
+    pipeline.workerThread = threadFactory.newThread(pipeline.worker);
+    pipeline.workerThread.start();
+    return pipeline;
+  }
+
+  private final int batchSize;
+  private final Function<Document, String> documentToDxl;
+  private final Runnable onClose;
+  private final BlockingQueue<Batch> queue;
+  private final Worker worker;
+  private final StringBuilder batch = new StringBuilder();
+  private Thread workerThread;
+  private int batchDocuments;
+  private int batchIndex;
+  private boolean closed;
+
+  private DefaultDxlImportPipeline(final int batchSize, final int maxPendingBatches, final Function<Document, String> documentToDxl,
+      final BatchImporter importer, final Consumer<BatchResult> listener, final Runnable onClose) {
+    this.batchSize = batchSize;
+    this.documentToDxl = documentToDxl;
+    this.onClose = onClose;
+    this.queue = new ArrayBlockingQueue<>(maxPendingBatches);
+    this.worker = new Worker(this, this.queue, importer, listener);
+  }
+
+  @Override
+  public void add(final String dxl) {
+    this.checkOpen();
+    if (this.batchDocuments == 0) {
+      this.batch.append(DefaultDxlImportPipeline.BATCH_START);
+    }
+    this.batch.append(DefaultDxlImportPipeline.stripProlog(dxl)).append('\n');
+    if (++this.batchDocuments >= this.batchSize) {
+      this.flush();
+    }
+  }
+
+  @Override
+  public void add(final Document doc) {
+    this.checkOpen();
+    this.add(this.documentToDxl.apply(doc));
+  }
+
+  @Override
+  public void flush() {
+    this.checkOpen();
+    if (this.batchDocuments == 0) {
+      return;
+    }
+    this.batch.append(DefaultDxlImportPipeline.BATCH_END);
+    final byte[] dxl = this.batch.toString().getBytes(StandardCharsets.UTF_8);
+    this.put(new Batch(this.batchIndex++, this.batchDocuments, dxl));
+    this.batch.setLength(0);
+    this.batchDocuments = 0;
+  }
+
+  @Override
+  public List<BatchResult> getFailedBatches() {
+    synchronized (this.worker.failedBatches) {
+      return new ArrayList<>(this.worker.failedBatches);
+    }
+  }
+
+  @Override
+  public int getImportedNoteCount() {
+    return this.worker.importedNotes.get();
+  }
+
+  @Override
+  public void close() {
+    if (this.closed) {
+      return;
+    }
+    try {
+      try {
+        this.flush();
+        this.put(DefaultDxlImportPipeline.END);
+      } finally {
+        this.closed = true;
+      }
+      try {
+        this.workerThread.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new DominoException("Interrupted while waiting for the DXL import", e);
+      }
+      this.checkWorker();
+    } finally {
+      if (this.onClose != null) {
+        this.onClose.run();
+      }
+    }
+  }
+
+  private void checkOpen() {
+    if (this.closed) {
+      throw new IllegalStateException("Import pipeline is closed");
+    }
+  }
+
+  private void checkWorker() {
+    final Throwable error = this.worker.error;
+    if (error != null) {
+      throw new DominoException("DXL import thread failed", error);
+    }
+  }
+
+  /**
+   * Queues a batch, blocking while the import thread is busy with earlier batches
+   */
+  private void put(final Batch b) {
+    try {
+      while (!this.queue.offer(b, 100, TimeUnit.MILLISECONDS)) {
+        if (!this.workerThread.isAlive()) {
+          this.checkWorker();
+          throw new DominoException("DXL import thread has terminated");
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DominoException("Interrupted while queuing DXL import batch", e);
+    }
+  }
+}
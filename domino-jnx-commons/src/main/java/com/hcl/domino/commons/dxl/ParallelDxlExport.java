@@ -0,0 +1,159 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.dxl;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.hcl.domino.DominoException;
+import com.hcl.domino.commons.views.ParallelCollectionReader;
+
+/**
+ * Exports ranges of note ids on separate threads, e.g. to write the DXL of a large
+ * database into multiple files concurrently.<br>
+ * <br>
+ * The note ids are sorted and split into contiguous ranges of similar size. Each
+ * range is passed to a {@link PartitionExporter} on a thread produced by the given
+ * {@link ThreadFactory}, which has to initialize the threads for Notes.
+ *
+ * @since 1.54.0
+ */
+public class ParallelDxlExport {
+  /**
+   * Number of partitions created per export thread, so that threads that finish
+   * early pick up more work
+   */
+  private static final int PARTITIONS_PER_THREAD = 4;
+
+  /**
+   * Exports a single partition
+   */
+  @FunctionalInterface
+  public interface PartitionExporter {
+    /**
+     * Called on an export thread to export a range of note ids
+     *
+     * @param partition      index of the partition in note id order, starting at 0
+     * @param partitionCount total number of partitions
+     * @param noteIds        sorted note ids of the partition
+     * @throws Exception in case of errors
+     */
+    void export(int partition, int partitionCount, int[] noteIds) throws Exception;
+  }
+
+  /**
+   * Splits note ids into contiguous ranges
+   *
+   * @param noteIds        note ids in any order
+   * @param partitionCount maximum number of partitions
+   * @return sorted note ids per partition
+   */
+  public static int[][] partition(final int[] noteIds, final int partitionCount) {
+    final int[] sorted = noteIds.clone();
+    Arrays.sort(sorted);
+
+    final int[][] ranges = ParallelCollectionReader.partition(sorted.length, partitionCount);
+    final int[][] result = new int[ranges.length][];
+    for (int i = 0; i < ranges.length; i++) {
+      result[i] = Arrays.copyOfRange(sorted, ranges[i][0] - 1, ranges[i][1]);
+    }
+    return result;
+  }
+
+  /**
+   * Exports the note ids in parallel partitions and waits until all partitions are
+   * done. If a partition fails, partitions that have not started yet are cancelled and
+   * the method waits for running partitions to return before it throws, so no export
+   * thread uses the database afterwards.
+   *
+   * @param noteIds       note ids to export
+   * @param parallelism   number of export threads
+   * @param threadFactory factory for the export threads
+   * @param exporter      exports a single partition
+   * @return number of partitions
+   * @throws IOException if a partition failed with an {@link IOException}
+   */
+  public static int run(final int[] noteIds, final int parallelism, final ThreadFactory threadFactory,
+      final PartitionExporter exporter) throws IOException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(MessageFormat.format("Invalid parallelism: {0}", parallelism));
+    }
+
+    final int[][] partitions = ParallelDxlExport.partition(noteIds, parallelism * ParallelDxlExport.PARTITIONS_PER_THREAD);
+    if (partitions.length == 0) {
+      return 0;
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, partitions.length), threadFactory);
+    final CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+    try {
+      for (int i = 0; i < partitions.length; i++) {
+        final int partition = i;
+        completionService.submit(() -> {
+          exporter.export(partition, partitions.length, partitions[partition]);
+          return null;
+        });
+      }
+      // lets the threads terminate when all partitions are exported
+      executor.shutdown();
+
+      // partitions are checked in the order in which they complete, so the first failure stops the export
+      for (int i = 0; i < partitions.length; i++) {
+        ParallelDxlExport.awaitNext(completionService);
+      }
+      return partitions.length;
+    } finally {
+      executor.shutdownNow();
+      ParallelDxlExport.awaitTermination(executor);
+    }
+  }
+
+  private static void awaitTermination(final ExecutorService executor) {
+    try {
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void awaitNext(final CompletionService<Void> completionService) throws IOException {
+    try {
+      completionService.take().get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DominoException("Interrupted while exporting DXL partitions", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new DominoException("Error exporting DXL partition", cause);
+    }
+  }
+}
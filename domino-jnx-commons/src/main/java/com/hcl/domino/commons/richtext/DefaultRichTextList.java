@@ -25,6 +25,7 @@ import java.util.ListIterator;
 import java.util.Objects;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.Predicate;
 
 import com.hcl.domino.commons.richtext.RichtextNavigator.RichtextPosition;
 import com.hcl.domino.commons.richtext.records.AbstractCDRecord;
@@ -208,6 +209,11 @@ public class DefaultRichTextList extends AbstractList<RichTextRecord<?>> impleme
     return this.size;
   }
 
+  @Override
+  public void forEachScoped(final Predicate<RichTextRecord<?>> consumer) {
+    this.nav.forEachScopedRecord(record -> consumer.test(this.wrap(record)));
+  }
+
   @Override
   public Spliterator<RichTextRecord<?>> spliterator() {
     return Spliterators.spliteratorUnknownSize(this.iterator(), Spliterator.ORDERED);
@@ -17,6 +17,7 @@
 package com.hcl.domino.commons.richtext;
 
 import java.nio.ByteBuffer;
+import java.util.function.Predicate;
 
 import com.hcl.domino.data.Document;
 import com.hcl.domino.data.IAdaptable;
@@ -162,4 +163,29 @@ public interface RichtextNavigator extends IAdaptable {
    */
   RichtextNavigator clone() throws CloneNotSupportedException;
 
+  /**
+   * Calls the consumer for each record without changing the current position.<br>
+   * <br>
+   * Implementations may pass records that reference the item data in memory
+   * directly; those are only valid until the consumer returns, so use
+   * {@link RichTextRecord#copy()} to keep a record.
+   * 
+   * @param consumer consumer, returns false to stop
+   * @since 1.54.0
+   */
+  default void forEachScopedRecord(final Predicate<RichTextRecord<?>> consumer) {
+    final RichtextPosition pos = this.getCurrentPosition();
+    try {
+      if (this.gotoFirst()) {
+        do {
+          if (!consumer.test(this.getCurrentRecord())) {
+            break;
+          }
+        } while (this.gotoNext());
+      }
+    } finally {
+      this.restorePosition(pos);
+    }
+  }
+
 }
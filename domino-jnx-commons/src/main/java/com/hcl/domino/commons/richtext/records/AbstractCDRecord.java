@@ -17,7 +17,9 @@
 package com.hcl.domino.commons.richtext.records;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
+import com.hcl.domino.commons.richtext.RichTextUtil;
 import com.hcl.domino.commons.richtext.structures.GenericResizableMemoryStructure;
 import com.hcl.domino.richtext.records.RecordType;
 import com.hcl.domino.richtext.records.RichTextRecord;
@@ -38,6 +40,16 @@ public abstract class AbstractCDRecord<T extends CDSignature<?, ?, ?>> extends G
     this._updateHeaderLength(size);
   }
 
+  @Override
+  public RichTextRecord<?> copy() {
+    final ByteBuffer data = this.getData();
+    data.position(0);
+    final ByteBuffer copy = ByteBuffer.allocate(data.remaining()).order(ByteOrder.nativeOrder());
+    copy.put(data);
+    copy.flip();
+    return RichTextUtil.encapsulateRecord(this.getTypeValue(), copy);
+  }
+
   @Override
   public String toString() {
     return super.toString() + " - " + RecordType.getRecordTypesForConstant(this.getTypeValue());
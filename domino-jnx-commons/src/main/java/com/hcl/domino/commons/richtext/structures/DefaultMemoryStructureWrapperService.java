@@ -19,7 +19,11 @@ package com.hcl.domino.commons.richtext.structures;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
+import com.hcl.domino.commons.richtext.RichTextUtil;
+import com.hcl.domino.commons.richtext.records.AbstractCDRecord;
 import com.hcl.domino.commons.structures.MemoryStructureUtil;
+import com.hcl.domino.richtext.records.RecordType;
+import com.hcl.domino.richtext.records.RichTextRecord;
 import com.hcl.domino.richtext.structures.MemoryStructure;
 import com.hcl.domino.richtext.structures.MemoryStructureWrapperService;
 import com.hcl.domino.richtext.structures.ResizableMemoryStructure;
@@ -35,6 +39,13 @@ public class DefaultMemoryStructureWrapperService implements MemoryStructureWrap
     }
   }
 
+  @Override
+  public <T extends RichTextRecord<?>> T wrapRichTextRecord(final Class<T> recordClass, final RecordType recordType,
+      final ByteBuffer data) {
+    final AbstractCDRecord<?> record = RichTextUtil.encapsulateRecord(recordType.getConstant(), data);
+    return recordClass.cast(RichTextUtil.reencapsulateRecord(recordType, record, recordClass));
+  }
+
   @Override
   public int sizeOf(Class<?> type) {
     return MemoryStructureUtil.sizeOf(type);
@@ -0,0 +1,417 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.structures;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal writer for Java 8 class files, sufficient for the straight-line
+ * accessor methods generated by {@link MemoryStructureClassGenerator}.
+ *
+ * <p>Generated methods must not contain branches, since no stack map frames
+ * are written.</p>
+ *
+ * @since 1.54.0
+ */
+class ClassFileBuilder {
+  static final int ACC_PUBLIC = 0x0001;
+  static final int ACC_FINAL = 0x0010;
+  static final int ACC_SUPER = 0x0020;
+  static final int ACC_SYNTHETIC = 0x1000;
+
+  // opcodes used by the generator
+  static final int ACONST_NULL = 0x01;
+  static final int ICONST_0 = 0x03;
+  static final int BIPUSH = 0x10;
+  static final int SIPUSH = 0x11;
+  static final int LDC_W = 0x13;
+  static final int LDC2_W = 0x14;
+  static final int ILOAD = 0x15;
+  static final int LLOAD = 0x16;
+  static final int FLOAD = 0x17;
+  static final int DLOAD = 0x18;
+  static final int ALOAD = 0x19;
+  static final int AASTORE = 0x53;
+  static final int POP = 0x57;
+  static final int DUP = 0x59;
+  static final int DUP2 = 0x5c;
+  static final int LNEG = 0x75;
+  static final int INEG = 0x74;
+  static final int IAND = 0x7e;
+  static final int LAND = 0x7f;
+  static final int IOR = 0x80;
+  static final int LOR = 0x81;
+  static final int IUSHR = 0x7c;
+  static final int LUSHR = 0x7d;
+  static final int I2L = 0x85;
+  static final int I2D = 0x87;
+  static final int L2I = 0x88;
+  static final int L2D = 0x8a;
+  static final int F2I = 0x8b;
+  static final int F2D = 0x8d;
+  static final int D2I = 0x8e;
+  static final int I2B = 0x91;
+  static final int I2S = 0x93;
+  static final int IRETURN = 0xac;
+  static final int LRETURN = 0xad;
+  static final int FRETURN = 0xae;
+  static final int DRETURN = 0xaf;
+  static final int ARETURN = 0xb0;
+  static final int RETURN = 0xb1;
+  static final int INVOKEVIRTUAL = 0xb6;
+  static final int INVOKESPECIAL = 0xb7;
+  static final int INVOKESTATIC = 0xb8;
+  static final int INVOKEINTERFACE = 0xb9;
+  static final int ANEWARRAY = 0xbd;
+  static final int CHECKCAST = 0xc0;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_LONG = 5;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_INTERFACEMETHODREF = 11;
+  private static final int CONSTANT_NAMEANDTYPE = 12;
+
+  /**
+   * Code attribute of a single method
+   */
+  class Code {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private int maxStack;
+    private int maxLocals;
+
+    Code op(final int opcode) {
+      this.bytes.write(opcode);
+      return this;
+    }
+
+    Code op(final int opcode, final int u1) {
+      this.bytes.write(opcode);
+      this.bytes.write(u1);
+      return this;
+    }
+
+    Code opU2(final int opcode, final int u2) {
+      this.bytes.write(opcode);
+      this.bytes.write(u2 >> 8);
+      this.bytes.write(u2);
+      return this;
+    }
+
+    Code local(final int opcode, final int slot) {
+      if (slot > 0xff) {
+        throw new IllegalArgumentException("Too many local variables");
+      }
+      return op(opcode, slot);
+    }
+
+    Code pushInt(final int value) {
+      if (value >= -1 && value <= 5) {
+        return op(ICONST_0 + value);
+      } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+        return op(BIPUSH, value & 0xff);
+      } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+        return opU2(SIPUSH, value & 0xffff);
+      } else {
+        return opU2(LDC_W, integerConstant(value));
+      }
+    }
+
+    Code pushLong(final long value) {
+      return opU2(LDC2_W, longConstant(value));
+    }
+
+    Code invoke(final int opcode, final Class<?> owner, final String name, final String descriptor) {
+      if (opcode == INVOKEINTERFACE) {
+        opU2(opcode, interfaceMethodConstant(owner, name, descriptor));
+        this.bytes.write(argumentSlots(descriptor) + 1);
+        this.bytes.write(0);
+        return this;
+      } else {
+        return opU2(opcode, methodConstant(owner, name, descriptor));
+      }
+    }
+
+    Code type(final int opcode, final Class<?> type) {
+      return opU2(opcode, classConstant(type));
+    }
+
+    Code maxs(final int stack, final int locals) {
+      this.maxStack = stack;
+      this.maxLocals = locals;
+      return this;
+    }
+  }
+
+  private final ByteArrayOutputStream constantPool = new ByteArrayOutputStream();
+  private final DataOutputStream pool = new DataOutputStream(this.constantPool);
+  private final Map<String, Integer> constants = new HashMap<>();
+  private int constantCount = 1;
+
+  private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+  private final DataOutputStream methods = new DataOutputStream(this.methodBytes);
+  private int methodCount;
+
+  private final int thisClass;
+  private final int superClass;
+  private final List<Integer> interfaces = new ArrayList<>();
+
+  ClassFileBuilder(final String internalName, final Class<?> superClass, final Class<?>... interfaces) {
+    this.thisClass = classConstant(internalName);
+    this.superClass = classConstant(superClass);
+    for (final Class<?> iface : interfaces) {
+      this.interfaces.add(classConstant(iface));
+    }
+  }
+
+  static String internalName(final Class<?> type) {
+    return type.getName().replace('.', '/');
+  }
+
+  static String descriptor(final Class<?> type) {
+    if (type.isPrimitive()) {
+      if (type == void.class) {
+        return "V"; //$NON-NLS-1$
+      } else if (type == boolean.class) {
+        return "Z"; //$NON-NLS-1$
+      } else if (type == byte.class) {
+        return "B"; //$NON-NLS-1$
+      } else if (type == char.class) {
+        return "C"; //$NON-NLS-1$
+      } else if (type == short.class) {
+        return "S"; //$NON-NLS-1$
+      } else if (type == int.class) {
+        return "I"; //$NON-NLS-1$
+      } else if (type == long.class) {
+        return "J"; //$NON-NLS-1$
+      } else if (type == float.class) {
+        return "F"; //$NON-NLS-1$
+      } else {
+        return "D"; //$NON-NLS-1$
+      }
+    } else if (type.isArray()) {
+      return internalName(type);
+    } else {
+      return "L" + internalName(type) + ";"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+  }
+
+  static String methodDescriptor(final Class<?> returnType, final Class<?>... paramTypes) {
+    final StringBuilder result = new StringBuilder("("); //$NON-NLS-1$
+    for (final Class<?> paramType : paramTypes) {
+      result.append(descriptor(paramType));
+    }
+    return result.append(')').append(descriptor(returnType)).toString();
+  }
+
+  static String methodDescriptor(final Method method) {
+    return methodDescriptor(method.getReturnType(), method.getParameterTypes());
+  }
+
+  /**
+   * Returns the number of local variable slots used by a value of the given type
+   *
+   * @param type the value type
+   * @return 2 for long and double, 1 otherwise
+   */
+  static int slots(final Class<?> type) {
+    return type == long.class || type == double.class ? 2 : 1;
+  }
+
+  private static int argumentSlots(final String descriptor) {
+    int slots = 0;
+    int i = 1;
+    while (descriptor.charAt(i) != ')') {
+      final char c = descriptor.charAt(i);
+      if (c == 'J' || c == 'D') {
+        slots += 2;
+        i++;
+      } else {
+        slots++;
+        while (descriptor.charAt(i) == '[') {
+          i++;
+        }
+        if (descriptor.charAt(i) == 'L') {
+          i = descriptor.indexOf(';', i);
+        }
+        i++;
+      }
+    }
+    return slots;
+  }
+
+  private int constant(final String key, final int slots, final ConstantWriter writer) {
+    Integer index = this.constants.get(key);
+    if (index == null) {
+      try {
+        writer.write(this.pool);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      index = this.constantCount;
+      this.constantCount += slots;
+      this.constants.put(key, index);
+    }
+    return index;
+  }
+
+  @FunctionalInterface
+  private interface ConstantWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  int utf8Constant(final String value) {
+    return constant("U" + value, 1, out -> { //$NON-NLS-1$
+      out.writeByte(CONSTANT_UTF8);
+      out.writeUTF(value);
+    });
+  }
+
+  int integerConstant(final int value) {
+    return constant("I" + value, 1, out -> { //$NON-NLS-1$
+      out.writeByte(CONSTANT_INTEGER);
+      out.writeInt(value);
+    });
+  }
+
+  int longConstant(final long value) {
+    return constant("J" + value, 2, out -> { //$NON-NLS-1$
+      out.writeByte(CONSTANT_LONG);
+      out.writeLong(value);
+    });
+  }
+
+  int classConstant(final Class<?> type) {
+    return classConstant(type.isArray() ? descriptor(type) : internalName(type));
+  }
+
+  private int classConstant(final String internalName) {
+    final int name = utf8Constant(internalName);
+    return constant("C" + internalName, 1, out -> { //$NON-NLS-1$
+      out.writeByte(CONSTANT_CLASS);
+      out.writeShort(name);
+    });
+  }
+
+  private int nameAndTypeConstant(final String name, final String descriptor) {
+    final int nameIndex = utf8Constant(name);
+    final int typeIndex = utf8Constant(descriptor);
+    return constant("N" + name + ' ' + descriptor, 1, out -> { //$NON-NLS-1$
+      out.writeByte(CONSTANT_NAMEANDTYPE);
+      out.writeShort(nameIndex);
+      out.writeShort(typeIndex);
+    });
+  }
+
+  private int memberConstant(final int tag, final String owner, final String name, final String descriptor) {
+    final int ownerIndex = classConstant(owner);
+    final int nameAndType = nameAndTypeConstant(name, descriptor);
+    return constant(tag + owner + '.' + name + descriptor, 1, out -> {
+      out.writeByte(tag);
+      out.writeShort(ownerIndex);
+      out.writeShort(nameAndType);
+    });
+  }
+
+  int methodConstant(final Class<?> owner, final String name, final String descriptor) {
+    return memberConstant(CONSTANT_METHODREF, internalName(owner), name, descriptor);
+  }
+
+  int interfaceMethodConstant(final Class<?> owner, final String name, final String descriptor) {
+    return memberConstant(CONSTANT_INTERFACEMETHODREF, internalName(owner), name, descriptor);
+  }
+
+  Code newCode() {
+    return new Code();
+  }
+
+  /**
+   * Adds a method with the provided code
+   *
+   * @param access access flags
+   * @param name method name
+   * @param descriptor method descriptor
+   * @param code method body
+   */
+  void addMethod(final int access, final String name, final String descriptor, final Code code) {
+    final int nameIndex = utf8Constant(name);
+    final int descriptorIndex = utf8Constant(descriptor);
+    final int codeIndex = utf8Constant("Code"); //$NON-NLS-1$
+    final byte[] bytecode = code.bytes.toByteArray();
+    try {
+      this.methods.writeShort(access);
+      this.methods.writeShort(nameIndex);
+      this.methods.writeShort(descriptorIndex);
+      this.methods.writeShort(1); // attributes_count
+      this.methods.writeShort(codeIndex);
+      this.methods.writeInt(12 + bytecode.length);
+      this.methods.writeShort(code.maxStack);
+      this.methods.writeShort(code.maxLocals);
+      this.methods.writeInt(bytecode.length);
+      this.methods.write(bytecode);
+      this.methods.writeShort(0); // exception_table_length
+      this.methods.writeShort(0); // attributes_count
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.methodCount++;
+  }
+
+  /**
+   * Serializes the class file
+   *
+   * @param access class access flags
+   * @return class file bytes
+   */
+  byte[] toByteArray(final int access) {
+    try {
+      final ByteArrayOutputStream result = new ByteArrayOutputStream();
+      final DataOutputStream out = new DataOutputStream(result);
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0); // minor version
+      out.writeShort(52); // Java 8
+      out.writeShort(this.constantCount);
+      this.pool.flush();
+      out.write(this.constantPool.toByteArray());
+      out.writeShort(access);
+      out.writeShort(this.thisClass);
+      out.writeShort(this.superClass);
+      out.writeShort(this.interfaces.size());
+      for (final int iface : this.interfaces) {
+        out.writeShort(iface);
+      }
+      out.writeShort(0); // fields_count
+      out.writeShort(this.methodCount);
+      this.methods.flush();
+      out.write(this.methodBytes.toByteArray());
+      out.writeShort(0); // attributes_count
+      out.flush();
+      return result.toByteArray();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
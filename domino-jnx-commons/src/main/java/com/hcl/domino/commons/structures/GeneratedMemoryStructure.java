@@ -0,0 +1,116 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.structures;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.hcl.domino.richtext.records.RecordType;
+import com.hcl.domino.richtext.records.RichTextRecord;
+import com.hcl.domino.richtext.structures.MemoryStructure;
+
+/**
+ * Base class for the {@link MemoryStructure} implementations generated by
+ * {@link MemoryStructureClassGenerator}.
+ *
+ * <p>Generated subclasses read and write plain numeric members directly from
+ * {@link #structureBuffer()}; all other methods are routed through
+ * {@link #dispatchStructureMethod(int, Object[])} to the same
+ * {@link MemoryStructureProxy} logic that backs proxy-based structures.</p>
+ *
+ * @since 1.54.0
+ */
+public abstract class GeneratedMemoryStructure implements MemoryStructure {
+  private final MemoryStructure record;
+  private final MemoryStructureProxy handler;
+  private final Method[] methods;
+
+  /**
+   * @param record the {@link MemoryStructure} instance to provide memory access
+   * @param handler the proxy handler to use for methods that are not generated
+   * @param methods the interface methods in the order of their dispatch index
+   */
+  protected GeneratedMemoryStructure(final MemoryStructure record, final MemoryStructureProxy handler, final Method[] methods) {
+    this.record = record;
+    this.handler = handler;
+    this.methods = methods;
+  }
+
+  /**
+   * @return the live data buffer of the underlying record
+   */
+  protected final ByteBuffer structureBuffer() {
+    return this.record.getData();
+  }
+
+  /**
+   * Implements {@link RichTextRecord#getType()} for generated rich-text records the
+   * same way as {@link MemoryStructureProxy}
+   *
+   * @return the {@link RecordType} the record was matched with, or all types that
+   *         share its signature if it was not matched with a type
+   */
+  protected final Set<RecordType> structureRecordTypes() {
+    final RecordType recordType = this.handler.getRecordType();
+    if (recordType != null) {
+      return EnumSet.of(recordType);
+    }
+    return RecordType.getRecordTypesForConstant(((RichTextRecord<?>) this).getTypeValue());
+  }
+
+  /**
+   * Invokes the interface method with the provided index via
+   * {@link MemoryStructureProxy#invoke(Object, Method, Object[])}
+   *
+   * @param index the method index
+   * @param args the method arguments, {@code null} for no-arg methods
+   * @return the method result
+   */
+  protected final Object dispatchStructureMethod(final int index, final Object[] args) {
+    try {
+      return this.handler.invoke(this, this.methods[index], args);
+    } catch (final RuntimeException | Error e) {
+      throw e;
+    } catch (final Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+
+  @Override
+  public ByteBuffer getData() {
+    return this.record.getData().duplicate().order(ByteOrder.nativeOrder());
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return this.record.equals(obj);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.record.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getInterfaces()[0].getName() + "@" + Integer.toHexString(System.identityHashCode(this)); //$NON-NLS-1$
+  }
+}
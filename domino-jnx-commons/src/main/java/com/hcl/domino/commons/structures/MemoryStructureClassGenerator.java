@@ -0,0 +1,522 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.structures;
+
+import static com.hcl.domino.commons.structures.ClassFileBuilder.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.hcl.domino.commons.structures.ClassFileBuilder.Code;
+import com.hcl.domino.commons.util.DominoUtils;
+import com.hcl.domino.misc.INumberEnum;
+import com.hcl.domino.richtext.records.RecordType;
+import com.hcl.domino.richtext.records.RichTextRecord;
+import com.hcl.domino.richtext.structures.MemoryStructure;
+
+/**
+ * Generates concrete implementation classes for {@link MemoryStructure}
+ * sub-interfaces at first use.
+ *
+ * <p>Getters and setters of plain numeric members (and numeric access to enum
+ * members) read and write the structure {@link ByteBuffer} directly, without
+ * boxing or map lookups. Default interface methods are inherited as-is, except
+ * for {@link RichTextRecord#getType()}, which returns the matched {@link RecordType}
+ * like the proxy does. All other abstract methods delegate to {@link MemoryStructureProxy}, so their
+ * behavior is the same as for proxy-based structures.</p>
+ *
+ * <p>If a class cannot be generated for a type, or when the Java property
+ * {@code jnx.structures.proxy} or the environment variable
+ * {@code JNX_STRUCTURES_PROXY} is set, {@link java.lang.reflect.Proxy} instances
+ * are used instead.</p>
+ *
+ * @since 1.54.0
+ */
+final class MemoryStructureClassGenerator {
+  private static final Logger log = Logger.getLogger(MemoryStructureClassGenerator.class.getName());
+
+  private static final boolean DISABLED = DominoUtils.checkBooleanProperty("jnx.structures.proxy", "JNX_STRUCTURES_PROXY"); //$NON-NLS-1$ //$NON-NLS-2$
+
+  private static final String GENERATED_PACKAGE = MemoryStructureClassGenerator.class.getPackage().getName() + ".generated"; //$NON-NLS-1$
+
+  private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class, MemoryStructure.class,
+      MemoryStructureProxy.class, Method[].class);
+  private static final MethodType FACTORY_TYPE = MethodType.methodType(GeneratedMemoryStructure.class, MemoryStructure.class,
+      MemoryStructureProxy.class, Method[].class);
+
+  /**
+   * Creates instances of one generated class
+   */
+  private static final class Factory {
+    private final MethodHandle constructor;
+    private final Method[] methods;
+
+    Factory(final MethodHandle constructor, final Method[] methods) {
+      this.constructor = constructor;
+      this.methods = methods;
+    }
+
+    GeneratedMemoryStructure create(final MemoryStructure record, final MemoryStructureProxy handler) {
+      try {
+        return (GeneratedMemoryStructure) this.constructor.invokeExact(record, handler, this.methods);
+      } catch (final RuntimeException | Error e) {
+        throw e;
+      } catch (final Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    }
+  }
+
+  /**
+   * Class loader for a single generated class that resolves types via the loader of
+   * the structure interface and falls back to the loader of this class
+   */
+  private static final class GeneratedClassLoader extends ClassLoader {
+    GeneratedClassLoader(final ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected Class<?> findClass(final String name) throws ClassNotFoundException {
+      return Class.forName(name, false, MemoryStructureClassGenerator.class.getClassLoader());
+    }
+
+    Class<?> define(final String name, final byte[] classFile) {
+      return defineClass(name, classFile, 0, classFile.length, MemoryStructureClassGenerator.class.getProtectionDomain());
+    }
+  }
+
+  private static final ClassValue<Factory> FACTORIES = new ClassValue<Factory>() {
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Factory computeValue(final Class<?> type) {
+      try {
+        return AccessController.doPrivileged((PrivilegedAction<Factory>) () -> generate((Class<? extends MemoryStructure>) type));
+      } catch (final RuntimeException | LinkageError e) {
+        log.log(Level.FINE, MessageFormat.format("Unable to generate implementation class for {0}, using proxy", type.getName()), e);
+        return null;
+      }
+    }
+  };
+
+  private MemoryStructureClassGenerator() {
+  }
+
+  /**
+   * Creates a new instance of {@code subtype} backed by the provided structure,
+   * using a generated class where possible and a {@link Proxy} otherwise.
+   *
+   * @param <I> the {@link MemoryStructure} sub-interface to implement
+   * @param subtype a class representing {@code I}
+   * @param record the implementation structure
+   * @param recordType the rich-text {@link RecordType} matched for this record; may be {@code null}
+   * @return a new structure object
+   */
+  @SuppressWarnings("unchecked")
+  static <I extends MemoryStructure> I newInstance(final Class<I> subtype, final MemoryStructure record, final RecordType recordType) {
+    final MemoryStructureProxy handler = new MemoryStructureProxy(record, subtype, recordType);
+    final Factory factory = DISABLED ? null : FACTORIES.get(subtype);
+    if (factory != null) {
+      return (I) factory.create(record, handler);
+    } else {
+      return (I) Proxy.newProxyInstance(subtype.getClassLoader(), new Class<?>[] { subtype }, handler);
+    }
+  }
+
+  /**
+   * Determines whether instances of the provided type are created from a generated class
+   *
+   * @param subtype the {@link MemoryStructure} sub-interface
+   * @return {@code true} if a generated class is used
+   */
+  static boolean isGenerated(final Class<? extends MemoryStructure> subtype) {
+    return !DISABLED && FACTORIES.get(subtype) != null;
+  }
+
+  private static Factory generate(final Class<? extends MemoryStructure> subtype) {
+    if (!subtype.isInterface() || !isAccessible(subtype)) {
+      return null;
+    }
+    final StructureMap struct = MemoryStructureUtil.getStructureMap(subtype);
+
+    final String className = GENERATED_PACKAGE + '.' + subtype.getName().replace('.', '_') + "$Impl"; //$NON-NLS-1$
+    final ClassFileBuilder cls = new ClassFileBuilder(className.replace('.', '/'), GeneratedMemoryStructure.class, subtype);
+
+    final Code init = cls.newCode()
+        .local(ALOAD, 0)
+        .local(ALOAD, 1)
+        .local(ALOAD, 2)
+        .local(ALOAD, 3)
+        .invoke(INVOKESPECIAL, GeneratedMemoryStructure.class, "<init>", CONSTRUCTOR_TYPE.toMethodDescriptorString()) //$NON-NLS-1$
+        .op(RETURN)
+        .maxs(4, 4);
+    cls.addMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_TYPE.toMethodDescriptorString(), init); //$NON-NLS-1$
+
+    final List<Method> dispatched = new ArrayList<>();
+    for (final Method method : findMethodsToImplement(subtype)) {
+      Code code = isRecordTypeGetter(method) ? generateRecordTypeGetter(cls) : null;
+      if (code == null) {
+        code = generateGetter(cls, struct, method);
+      }
+      if (code == null) {
+        code = generateSetter(cls, subtype, struct, method);
+      }
+      if (code == null) {
+        if (!isAccessible(method.getReturnType())) {
+          return null;
+        }
+        code = generateDispatch(cls, method, dispatched.size());
+        dispatched.add(method);
+      }
+      cls.addMethod(ACC_PUBLIC, method.getName(), methodDescriptor(method), code);
+    }
+
+    final byte[] classFile = cls.toByteArray(ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC);
+    final ClassLoader parent = subtype.getClassLoader() == null ? MemoryStructureClassGenerator.class.getClassLoader() : subtype.getClassLoader();
+    final Class<?> generated = new GeneratedClassLoader(parent).define(className, classFile);
+    try {
+      final MethodHandle constructor = MethodHandles.publicLookup()
+          .findConstructor(generated, CONSTRUCTOR_TYPE)
+          .asType(FACTORY_TYPE);
+      return new Factory(constructor, dispatched.toArray(new Method[dispatched.size()]));
+    } catch (final NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Determines the abstract methods the generated class has to implement, one
+   * per method descriptor, skipping those that are covered by a default method or
+   * by {@link GeneratedMemoryStructure}. {@link RichTextRecord#getType()} is always
+   * implemented, since its result depends on the matched {@link RecordType}.
+   */
+  private static List<Method> findMethodsToImplement(final Class<?> subtype) {
+    final Map<String, List<Method>> byDescriptor = new LinkedHashMap<>();
+    for (final Method method : subtype.getMethods()) {
+      if (Modifier.isStatic(method.getModifiers())) {
+        continue;
+      }
+      byDescriptor.computeIfAbsent(method.getName() + methodDescriptor(method), key -> new ArrayList<>()).add(method);
+    }
+
+    final List<Method> result = new ArrayList<>();
+    for (final List<Method> candidates : byDescriptor.values()) {
+      final Method first = candidates.get(0);
+      if (isImplementedByBaseClass(first)) {
+        continue;
+      }
+      final Method mostSpecific = candidates.stream()
+          .filter(m -> candidates.stream().allMatch(other -> other.getDeclaringClass().isAssignableFrom(m.getDeclaringClass())))
+          .findFirst()
+          .orElse(null);
+      if (mostSpecific != null && mostSpecific.isDefault() && !isRecordTypeGetter(mostSpecific)) {
+        // the JVM selects the default method
+        continue;
+      }
+      if (mostSpecific == null && candidates.stream().anyMatch(Method::isDefault)) {
+        // ambiguous defaults; not something we can resolve better than the proxy
+        throw new IllegalStateException(MessageFormat.format("Ambiguous default methods for {0}", first));
+      }
+      result.add(mostSpecific == null ? first : mostSpecific);
+    }
+    return result;
+  }
+
+  private static boolean isRecordTypeGetter(final Method method) {
+    return RichTextRecord.class.equals(method.getDeclaringClass()) && "getType".equals(method.getName()) //$NON-NLS-1$
+        && method.getParameterCount() == 0;
+  }
+
+  private static boolean isImplementedByBaseClass(final Method method) {
+    try {
+      final Method impl = GeneratedMemoryStructure.class.getMethod(method.getName(), method.getParameterTypes());
+      return !Modifier.isAbstract(impl.getModifiers()) && method.getReturnType().isAssignableFrom(impl.getReturnType());
+    } catch (final NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static boolean isAccessible(final Class<?> type) {
+    Class<?> t = type;
+    while (t.isArray()) {
+      t = t.getComponentType();
+    }
+    if (t.isPrimitive()) {
+      return true;
+    }
+    for (Class<?> c = t; c != null; c = c.getEnclosingClass()) {
+      if (!Modifier.isPublic(c.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the primitive type of the raw numeric value of a member, or {@code null}
+   * if the member is not a plain number
+   */
+  private static Class<?> getNumericType(final StructMember member) {
+    Class<?> type = member.type;
+    if (type.isArray()) {
+      return null;
+    }
+    if (INumberEnum.class.isAssignableFrom(type)) {
+      type = MemoryStructureUtil.getNumberType(type);
+    }
+    if (byte.class.equals(type) || Byte.class.equals(type)) {
+      return byte.class;
+    } else if (short.class.equals(type) || Short.class.equals(type)) {
+      return short.class;
+    } else if (int.class.equals(type) || Integer.class.equals(type)) {
+      return int.class;
+    } else if (long.class.equals(type) || Long.class.equals(type)) {
+      return long.class;
+    } else if (double.class.equals(type) || Double.class.equals(type)) {
+      return double.class;
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the type produced by {@link MemoryStructureProxy#reader} for a numeric
+   * member, which is widened for unsigned values
+   */
+  private static Class<?> getReadType(final Class<?> numericType, final boolean unsigned) {
+    if (!unsigned) {
+      return numericType;
+    } else if (byte.class.equals(numericType)) {
+      return short.class;
+    } else if (short.class.equals(numericType)) {
+      return int.class;
+    } else if (int.class.equals(numericType)) {
+      return long.class;
+    } else {
+      return null;
+    }
+  }
+
+  private static Code generateRecordTypeGetter(final ClassFileBuilder cls) {
+    return cls.newCode()
+        .local(ALOAD, 0)
+        .invoke(INVOKEVIRTUAL, GeneratedMemoryStructure.class, "structureRecordTypes", methodDescriptor(Set.class)) //$NON-NLS-1$
+        .op(ARETURN)
+        .maxs(1, 1);
+  }
+
+  private static Code generateGetter(final ClassFileBuilder cls, final StructureMap struct, final Method method) {
+    final StructMember member = struct.getterMap.get(method);
+    if (member == null) {
+      return null;
+    }
+    final Class<?> numericType = getNumericType(member);
+    if (numericType == null || method.getParameterCount() != 0) {
+      return null;
+    }
+    final Class<?> readType = getReadType(numericType, member.unsigned);
+    final Class<?> returnType = method.getReturnType();
+    final boolean isEnum = INumberEnum.class.isAssignableFrom(member.type);
+    final boolean asBoolean = !isEnum && member.type.isPrimitive() && boolean.class.equals(returnType);
+    if (readType == null || !(asBoolean || returnType.equals(readType)) || (asBoolean && double.class.equals(readType))) {
+      return null;
+    }
+
+    final Code code = cls.newCode()
+        .local(ALOAD, 0)
+        .invoke(INVOKEVIRTUAL, GeneratedMemoryStructure.class, "structureBuffer", methodDescriptor(ByteBuffer.class)) //$NON-NLS-1$
+        .pushInt(member.offset);
+    if (byte.class.equals(numericType)) {
+      code.invoke(INVOKEVIRTUAL, ByteBuffer.class, "get", methodDescriptor(byte.class, int.class)); //$NON-NLS-1$
+      if (member.unsigned) {
+        code.pushInt(0xff).op(IAND);
+      }
+    } else if (short.class.equals(numericType)) {
+      code.invoke(INVOKEVIRTUAL, ByteBuffer.class, "getShort", methodDescriptor(short.class, int.class)); //$NON-NLS-1$
+      if (member.unsigned) {
+        code.pushInt(0xffff).op(IAND);
+      }
+    } else if (int.class.equals(numericType)) {
+      code.invoke(INVOKEVIRTUAL, ByteBuffer.class, "getInt", methodDescriptor(int.class, int.class)); //$NON-NLS-1$
+      if (member.unsigned) {
+        code.op(I2L).pushLong(0xffffffffL).op(LAND);
+      }
+    } else if (long.class.equals(numericType)) {
+      code.invoke(INVOKEVIRTUAL, ByteBuffer.class, "getLong", methodDescriptor(long.class, int.class)); //$NON-NLS-1$
+    } else {
+      code.invoke(INVOKEVIRTUAL, ByteBuffer.class, "getDouble", methodDescriptor(double.class, int.class)); //$NON-NLS-1$
+    }
+
+    if (asBoolean) {
+      // (v | -v) >>> (bits - 1) is 1 for all non-zero values, without a branch
+      if (long.class.equals(readType)) {
+        code.op(DUP2).op(LNEG).op(LOR).pushInt(63).op(LUSHR).op(L2I);
+      } else {
+        code.op(DUP).op(INEG).op(IOR).pushInt(31).op(IUSHR);
+      }
+      code.op(IRETURN);
+    } else {
+      code.op(returnOpcode(readType));
+    }
+    return code.maxs(6, 1);
+  }
+
+  private static Code generateSetter(final ClassFileBuilder cls, final Class<?> subtype, final StructureMap struct, final Method method) {
+    final StructMember member = struct.setterMap.get(method);
+    if (member == null || method.getParameterCount() != 1) {
+      return null;
+    }
+    final Class<?> numericType = getNumericType(member);
+    final Class<?> paramType = method.getParameterTypes()[0];
+    final Class<?> returnType = method.getReturnType();
+    if (numericType == null || long.class.equals(numericType) || !paramType.isPrimitive() || char.class.equals(paramType)) {
+      return null;
+    }
+    if (boolean.class.equals(paramType) && !member.type.isPrimitive()) {
+      return null;
+    }
+    if (!(void.class.equals(returnType) || subtype.equals(returnType))) {
+      return null;
+    }
+
+    final Code code = cls.newCode()
+        .local(ALOAD, 0)
+        .invoke(INVOKEVIRTUAL, GeneratedMemoryStructure.class, "structureBuffer", methodDescriptor(ByteBuffer.class)) //$NON-NLS-1$
+        .pushInt(member.offset)
+        .local(loadOpcode(paramType), 1);
+    if (double.class.equals(numericType)) {
+      if (long.class.equals(paramType)) {
+        code.op(L2D);
+      } else if (float.class.equals(paramType)) {
+        code.op(F2D);
+      } else if (!double.class.equals(paramType)) {
+        code.op(I2D);
+      }
+      code.invoke(INVOKEVIRTUAL, ByteBuffer.class, "putDouble", methodDescriptor(ByteBuffer.class, int.class, double.class)); //$NON-NLS-1$
+    } else {
+      if (long.class.equals(paramType)) {
+        code.op(L2I);
+      } else if (float.class.equals(paramType)) {
+        code.op(F2I);
+      } else if (double.class.equals(paramType)) {
+        code.op(D2I);
+      }
+      if (byte.class.equals(numericType)) {
+        code.op(I2B).invoke(INVOKEVIRTUAL, ByteBuffer.class, "put", methodDescriptor(ByteBuffer.class, int.class, byte.class)); //$NON-NLS-1$
+      } else if (short.class.equals(numericType)) {
+        code.op(I2S).invoke(INVOKEVIRTUAL, ByteBuffer.class, "putShort", methodDescriptor(ByteBuffer.class, int.class, short.class)); //$NON-NLS-1$
+      } else {
+        code.invoke(INVOKEVIRTUAL, ByteBuffer.class, "putInt", methodDescriptor(ByteBuffer.class, int.class, int.class)); //$NON-NLS-1$
+      }
+    }
+    code.op(POP);
+    if (void.class.equals(returnType)) {
+      code.op(RETURN);
+    } else {
+      code.local(ALOAD, 0).op(ARETURN);
+    }
+    return code.maxs(6, 1 + slots(paramType));
+  }
+
+  private static Code generateDispatch(final ClassFileBuilder cls, final Method method, final int index) {
+    final Class<?>[] paramTypes = method.getParameterTypes();
+    final Code code = cls.newCode()
+        .local(ALOAD, 0)
+        .pushInt(index);
+    int slot = 1;
+    if (paramTypes.length == 0) {
+      code.op(ACONST_NULL);
+    } else {
+      code.pushInt(paramTypes.length).type(ANEWARRAY, Object.class);
+      for (int i = 0; i < paramTypes.length; i++) {
+        final Class<?> paramType = paramTypes[i];
+        code.op(DUP).pushInt(i).local(loadOpcode(paramType), slot);
+        if (paramType.isPrimitive()) {
+          final Class<?> boxType = boxType(paramType);
+          code.invoke(INVOKESTATIC, boxType, "valueOf", methodDescriptor(boxType, paramType)); //$NON-NLS-1$
+        }
+        code.op(AASTORE);
+        slot += slots(paramType);
+      }
+    }
+    code.invoke(INVOKEVIRTUAL, GeneratedMemoryStructure.class, "dispatchStructureMethod", //$NON-NLS-1$
+        methodDescriptor(Object.class, int.class, Object[].class));
+
+    final Class<?> returnType = method.getReturnType();
+    if (void.class.equals(returnType)) {
+      code.op(POP).op(RETURN);
+    } else if (returnType.isPrimitive()) {
+      final Class<?> boxType = boxType(returnType);
+      code.type(CHECKCAST, boxType)
+          .invoke(INVOKEVIRTUAL, boxType, returnType.getName() + "Value", methodDescriptor(returnType)) //$NON-NLS-1$
+          .op(returnOpcode(returnType));
+    } else {
+      if (!Object.class.equals(returnType)) {
+        code.type(CHECKCAST, returnType);
+      }
+      code.op(ARETURN);
+    }
+    return code.maxs(8, slot);
+  }
+
+  private static Class<?> boxType(final Class<?> primitive) {
+    return MethodType.methodType(primitive).wrap().returnType();
+  }
+
+  private static int loadOpcode(final Class<?> type) {
+    if (long.class.equals(type)) {
+      return LLOAD;
+    } else if (float.class.equals(type)) {
+      return FLOAD;
+    } else if (double.class.equals(type)) {
+      return DLOAD;
+    } else if (type.isPrimitive()) {
+      return ILOAD;
+    } else {
+      return ALOAD;
+    }
+  }
+
+  private static int returnOpcode(final Class<?> type) {
+    if (long.class.equals(type)) {
+      return LRETURN;
+    } else if (float.class.equals(type)) {
+      return FRETURN;
+    } else if (double.class.equals(type)) {
+      return DRETURN;
+    } else if (type.isPrimitive()) {
+      return IRETURN;
+    } else {
+      return ARETURN;
+    }
+  }
+}
@@ -378,6 +378,7 @@ public class MemoryStructureProxy implements InvocationHandler {
   private final MemoryStructure record;
   private final Class<? extends MemoryStructure> encapsulated;
   private final RecordType recordType;
+  private final StructureMap struct;
 
   /**
    * Constructs a new {@code MemoryStructureProxy} instance for the provided memory layout.
@@ -390,11 +391,20 @@ public class MemoryStructureProxy implements InvocationHandler {
     this.record = record;
     this.encapsulated = encapsulated;
     this.recordType = recordType;
+    this.struct = MemoryStructureUtil.getStructureMap(encapsulated);
+  }
+
+  /**
+   * @return the rich-text {@link RecordType} matched for this record; may be {@code null}
+   * @since 1.54.0
+   */
+  RecordType getRecordType() {
+    return this.recordType;
   }
 
   @Override
   public Object invoke(final Object self, final Method thisMethod, final Object[] args) throws Throwable {
-    final StructureMap struct = MemoryStructureUtil.getStructureMap(this.encapsulated);
+    final StructureMap struct = this.struct;
 
     if (thisMethod.isAnnotationPresent(StructureGetter.class)) {
       final StructMember member = struct.getterMap.get(thisMethod);
@@ -24,7 +24,6 @@ import java.nio.ByteOrder;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +35,7 @@ import com.hcl.domino.commons.richtext.records.GenericBSIGRecord;
 import com.hcl.domino.commons.richtext.records.GenericLSIGRecord;
 import com.hcl.domino.commons.richtext.records.GenericWSIGRecord;
 import com.hcl.domino.commons.richtext.structures.GenericResizableMemoryStructure;
+import com.hcl.domino.commons.util.DominoUtils;
 import com.hcl.domino.misc.INumberEnum;
 import com.hcl.domino.richtext.annotation.StructureDefinition;
 import com.hcl.domino.richtext.annotation.StructureGetter;
@@ -59,10 +59,21 @@ import com.hcl.domino.richtext.structures.WSIG;
 public enum MemoryStructureUtil {
   ;
   
-  private static final Map<Class<? extends MemoryStructure>, StructureMap> structureMap = Collections
-      .synchronizedMap(new HashMap<>());
+  private static final ClassValue<StructureMap> structureMaps = new ClassValue<StructureMap>() {
+    @SuppressWarnings("unchecked")
+    @Override
+    protected StructureMap computeValue(final Class<?> type) {
+      return generateStructureMap((Class<? extends MemoryStructure>) type);
+    }
+  };
   
   private static final Map<Class<?>, Integer> sizeMap = new ConcurrentHashMap<>();
+  
+  static {
+    if (!DominoUtils.checkBooleanProperty("jnx.structures.nowarmup", "JNX_STRUCTURES_NOWARMUP")) { //$NON-NLS-1$ //$NON-NLS-2$
+      warmUpStructureMaps();
+    }
+  }
 
   /**
    * Retrieves the expected size of the provided number or enum type in the
@@ -116,11 +127,31 @@ public enum MemoryStructureUtil {
    * @return a {@link Map} of getter methods to implementing structure members
    * @since 1.0.34
    */
-  public static synchronized <T extends MemoryStructure> StructureMap getStructureMap(Class<T> subtype) {
-    if(!structureMap.containsKey(subtype)) {
-      structureMap.put(subtype, generateStructureMap(subtype));
+  public static <T extends MemoryStructure> StructureMap getStructureMap(Class<T> subtype) {
+    return structureMaps.get(subtype);
+  }
+  
+  /**
+   * Computes the structure maps for all rich-text record types listed in
+   * {@link RecordType}, along with the structures they embed.
+   * 
+   * <p>This is called when this class is initialized unless the
+   * {@code jnx.structures.nowarmup} property or {@code JNX_STRUCTURES_NOWARMUP}
+   * environment variable is set.</p>
+   * 
+   * @since 1.54.0
+   */
+  public static void warmUpStructureMaps() {
+    for (final RecordType type : RecordType.values()) {
+      final Class<? extends RichTextRecord<?>> encapsulation = type.getEncapsulation();
+      if (encapsulation != null) {
+        try {
+          getStructureMap(encapsulation);
+        } catch (final RuntimeException e) {
+          // Unsupported layouts will fail in the same way on first use
+        }
+      }
     }
-    return structureMap.get(subtype);
   }
 
   /**
@@ -256,11 +287,9 @@ public enum MemoryStructureUtil {
    * @param structure the implementation structure
    * @return a new proxy object
    */
-  @SuppressWarnings("unchecked")
   public static final <I extends MemoryStructure> I forStructure(final Class<I> subtype, final MemoryStructure structure) {
     if (structure instanceof ResizableMemoryStructure) {
-      return (I) java.lang.reflect.Proxy.newProxyInstance(subtype.getClassLoader(),
-          new Class<?>[] { subtype }, new MemoryStructureProxy(structure, subtype, null));
+      return MemoryStructureClassGenerator.newInstance(subtype, structure, null);
     } else {
       // Always wrap in a resizable structure to account for variable data
       return MemoryStructureUtil.forStructure(subtype,
@@ -299,10 +328,8 @@ public enum MemoryStructureUtil {
    * @return a new proxy object
    * @since 1.0.45
    */
-  @SuppressWarnings("unchecked")
   public static final <I extends RichTextRecord<?>> I forRichTextStructure(Class<I> subtype, RecordType recordType, MemoryStructure structure) {
-    return (I) java.lang.reflect.Proxy.newProxyInstance(subtype.getClassLoader(),
-        new Class<?>[] { subtype }, new MemoryStructureProxy(structure, subtype, recordType));
+    return MemoryStructureClassGenerator.newInstance(subtype, structure, recordType);
   }
 
   /**
@@ -26,7 +26,7 @@ class StructMember {
   private final String name;
   final int offset;
   final Class<?> type;
-  private final boolean unsigned;
+  final boolean unsigned;
   final int length;
   final BiFunction<ByteBuffer, Integer, Object> reader;
   final TriConsumer<ByteBuffer, Integer, Object> writer;
@@ -27,6 +27,7 @@ class StructureMap {
   final Map<Method, StructMember> getterMap = new HashMap<>();
   final Map<Method, StructMember> setterMap = new HashMap<>();
   final Map<Method, Method> synthSetterMap = new HashMap<>();
+  private int size;
 
   void add(final StructMember member, final List<Method> getters, final List<Method> setters,
       final Map<Method, Method> synthSetters) {
@@ -36,11 +37,10 @@ class StructureMap {
       this.setterMap.put(m, member);
     });
     this.synthSetterMap.putAll(synthSetters);
+    this.size += MemoryStructureUtil.sizeOf(member.type) * member.length;
   }
 
   int size() {
-    return this.members.stream()
-        .mapToInt(m -> MemoryStructureUtil.sizeOf(m.type) * m.length)
-        .sum();
+    return this.size;
   }
 }
\ No newline at end of file
@@ -0,0 +1,237 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ref.WeakReference;
+import java.text.MessageFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * {@link InputStream} for data sources that push their data to a callback.<br>
+ * <br>
+ * The source runs on a separate thread and blocks when the reader falls behind by
+ * more than the configured number of chunks. Closing the stream stops the source at
+ * its next chunk.
+ *
+ * @since 1.54.0
+ */
+public class CallbackPipeInputStream extends InputStream {
+  private static final byte[] EOF = new byte[0];
+  private static final long OFFER_TIMEOUT_MS = 100;
+
+  /**
+   * Data source that pushes its data to a sink
+   */
+  @FunctionalInterface
+  public interface Producer {
+    /**
+     * Called on the producer thread to push all data to the sink
+     *
+     * @param sink receives the data; returns false when the producer should stop
+     * @throws Exception in case of errors
+     */
+    void produce(Predicate<byte[]> sink) throws Exception;
+  }
+
+  /**
+   * State shared with the producer thread. The thread does not reference the
+   * stream itself, so an abandoned stream can be garbage collected, which stops the
+   * producer.
+   */
+  private static class Pipe {
+    private final BlockingQueue<byte[]> queue;
+    private final WeakReference<CallbackPipeInputStream> owner;
+    private volatile boolean stopped;
+    private volatile Throwable error;
+
+    Pipe(final int readAhead, final CallbackPipeInputStream owner) {
+      this.queue = new ArrayBlockingQueue<>(readAhead);
+      this.owner = new WeakReference<>(owner);
+    }
+
+    boolean offer(final byte[] data) {
+      if (data.length == 0 && data != CallbackPipeInputStream.EOF) {
+        return !this.stopped;
+      }
+      try {
+        while (!this.stopped) {
+          if (this.queue.offer(data, CallbackPipeInputStream.OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            return true;
+          }
+          if (this.owner.get() == null) {
+            // the stream was dropped without being closed
+            this.stopped = true;
+          }
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return false;
+    }
+
+    void stop() {
+      this.stopped = true;
+      // unblocks a producer waiting for space
+      this.queue.clear();
+    }
+  }
+
+  private final Pipe pipe;
+  private boolean closed;
+  private long toSkip;
+  private long remaining;
+  private byte[] chunk;
+  private int chunkPos;
+  private boolean eof;
+
+  /**
+   * Creates a new stream and starts the producer thread.<br>
+   * <br>
+   * The producer stops when the stream is closed or, if it is dropped without being
+   * closed, after it has been garbage collected.
+   *
+   * @param threadFactory factory for the producer thread
+   * @param readAhead     maximum number of chunks buffered ahead of the reader
+   * @param offset        number of bytes to drop from the start of the data
+   * @param length        maximum number of bytes to return, or -1 to read to the end
+   * @param producer      data source
+   */
+  public CallbackPipeInputStream(final ThreadFactory threadFactory, final int readAhead, final long offset,
+      final long length, final Producer producer) {
+    if (offset < 0 || length < -1) {
+      throw new IllegalArgumentException(MessageFormat.format("Invalid range: offset {0}, length {1}", offset, length));
+    }
+    if (readAhead <= 0) {
+      throw new IllegalArgumentException("Read-ahead must be a positive number");
+    }
+    this.pipe = new Pipe(readAhead, this);
+    this.toSkip = offset;
+    this.remaining = length == -1 ? Long.MAX_VALUE : length;
+
+    CallbackPipeInputStream.startProducer(threadFactory, this.pipe, producer);
+  }
+
+  /**
+   * Starts the producer thread; static, so that the thread does not reference the stream
+   */
+  private static void startProducer(final ThreadFactory threadFactory, final Pipe pipe, final Producer producer) {
+    final Thread thread = threadFactory.newThread(() -> {
+      try {
+        producer.produce(pipe::offer);
+      } catch (final Throwable t) {
+        pipe.error = t;
+      } finally {
+        pipe.offer(CallbackPipeInputStream.EOF);
+      }
+    });
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private boolean fill() throws IOException {
+    if (this.closed) {
+      throw new IOException("Stream is closed");
+    }
+    if (this.remaining <= 0) {
+      // requested range is complete
+      this.stopProducer();
+      return false;
+    }
+    while (this.chunk == null || this.chunkPos >= this.chunk.length) {
+      this.chunk = null;
+      if (this.eof) {
+        return false;
+      }
+      final byte[] data;
+      try {
+        data = this.pipe.queue.take();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for data");
+      }
+      if (data == CallbackPipeInputStream.EOF) {
+        this.eof = true;
+        final Throwable t = this.pipe.error;
+        if (t != null) {
+          throw new IOException("Error producing stream data", t);
+        }
+        return false;
+      }
+      if (this.toSkip >= data.length) {
+        this.toSkip -= data.length;
+        continue;
+      }
+      this.chunk = data;
+      this.chunkPos = (int) this.toSkip;
+      this.toSkip = 0;
+    }
+    return true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!this.fill()) {
+      return -1;
+    }
+    this.remaining--;
+    return this.chunk[this.chunkPos++] & 0xff;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (len == 0) {
+      return 0;
+    }
+    if (!this.fill()) {
+      return -1;
+    }
+    final int count = (int) Math.min(Math.min(len, this.chunk.length - this.chunkPos), this.remaining);
+    System.arraycopy(this.chunk, this.chunkPos, b, off, count);
+    this.chunkPos += count;
+    this.remaining -= count;
+    return count;
+  }
+
+  @Override
+  public int available() throws IOException {
+    if (this.closed) {
+      throw new IOException("Stream is closed");
+    }
+    return this.chunk == null ? 0 : (int) Math.min(this.chunk.length - this.chunkPos, this.remaining);
+  }
+
+  private void stopProducer() {
+    this.pipe.stop();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.closed = true;
+    this.chunk = null;
+    this.stopProducer();
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.MessageFormat;
+
+/**
+ * {@link InputStream} that reads a range of a random-access data source on demand,
+ * one chunk at a time.<br>
+ * <br>
+ * At most one chunk is held in memory; {@link #skip(long)} moves the read position
+ * without reading the skipped data.
+ *
+ * @since 1.54.0
+ */
+public class ChunkedInputStream extends InputStream {
+
+  /**
+   * Reads data from the underlying source
+   */
+  @FunctionalInterface
+  public interface ChunkReader {
+    /**
+     * Reads a chunk of data
+     *
+     * @param offset offset in the source
+     * @param length number of bytes to read
+     * @return read data, shorter than {@code length} only at the end of the source
+     * @throws IOException in case of I/O errors
+     */
+    byte[] read(long offset, int length) throws IOException;
+  }
+
+  private final ChunkReader reader;
+  private final int chunkSize;
+  private final long end;
+  private long position;
+  private byte[] chunk;
+  private int chunkPos;
+  private boolean closed;
+
+  /**
+   * Creates a new stream
+   *
+   * @param reader    reads the chunks
+   * @param offset    offset of the first byte to read
+   * @param length    number of bytes to read
+   * @param chunkSize maximum number of bytes requested from the reader at once
+   */
+  public ChunkedInputStream(final ChunkReader reader, final long offset, final long length, final int chunkSize) {
+    if (offset < 0 || length < 0) {
+      throw new IllegalArgumentException(MessageFormat.format("Invalid range: offset {0}, length {1}", offset, length));
+    }
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be a positive number");
+    }
+    this.reader = reader;
+    this.chunkSize = chunkSize;
+    this.position = offset;
+    this.end = offset + length;
+  }
+
+  private void checkClosed() throws IOException {
+    if (this.closed) {
+      throw new IOException("Stream is closed");
+    }
+  }
+
+  /**
+   * Makes sure that the current chunk has unread data
+   *
+   * @return false if the end of the range is reached
+   */
+  private boolean fill() throws IOException {
+    this.checkClosed();
+    if (this.chunk != null && this.chunkPos < this.chunk.length) {
+      return true;
+    }
+    this.chunk = null;
+    if (this.position >= this.end) {
+      return false;
+    }
+    final int len = (int) Math.min(this.chunkSize, this.end - this.position);
+    final byte[] data = this.reader.read(this.position, len);
+    if (data == null || data.length == 0) {
+      // source is shorter than expected
+      this.position = this.end;
+      return false;
+    }
+    this.chunk = data;
+    this.chunkPos = 0;
+    this.position += data.length;
+    return true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!this.fill()) {
+      return -1;
+    }
+    return this.chunk[this.chunkPos++] & 0xff;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (len == 0) {
+      return 0;
+    }
+    // chunks are read synchronously, so we fill the whole buffer like a file stream would
+    int total = 0;
+    while (total < len && this.fill()) {
+      final int count = Math.min(len - total, this.chunk.length - this.chunkPos);
+      System.arraycopy(this.chunk, this.chunkPos, b, off + total, count);
+      this.chunkPos += count;
+      total += count;
+    }
+    return total == 0 ? -1 : total;
+  }
+
+  @Override
+  public long skip(final long n) throws IOException {
+    this.checkClosed();
+    if (n <= 0) {
+      return 0;
+    }
+    long skipped = 0;
+    if (this.chunk != null) {
+      skipped = Math.min(n, this.chunk.length - this.chunkPos);
+      this.chunkPos += (int) skipped;
+    }
+    final long fromSource = Math.min(n - skipped, this.end - this.position);
+    if (fromSource > 0) {
+      this.position += fromSource;
+      skipped += fromSource;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() throws IOException {
+    this.checkClosed();
+    return this.chunk == null ? 0 : this.chunk.length - this.chunkPos;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.closed = true;
+    this.chunk = null;
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pure Java conversion between abbreviated and canonical Notes names for the
+ * common hierarchical format {@code CN=name/OU=unit/O=org/C=country}.<br>
+ * <br>
+ * Only names that can be converted without ambiguity are handled. Flat names,
+ * wildcards, domain suffixes, LDAP-style names and abbreviated names whose last
+ * component could be a country code return {@code null}, so that the caller can
+ * fall back to the C API.
+ *
+ * @since 1.54.0
+ */
+public class DistinguishedNameUtil {
+  /** max number of organizational units in a hierarchical name */
+  private static final int MAX_ORGUNITS = 4;
+
+  private static final String LABEL_CN = "CN="; //$NON-NLS-1$
+  private static final String LABEL_OU = "OU="; //$NON-NLS-1$
+  private static final String LABEL_O = "O="; //$NON-NLS-1$
+  private static final String LABEL_C = "C="; //$NON-NLS-1$
+
+  /**
+   * Converts an abbreviated name like "John Doe/Sales/Acme" to canonical format
+   * like "CN=John Doe/OU=Sales/O=Acme". Names that are already in canonical format
+   * are returned unchanged.
+   *
+   * @param name name to convert
+   * @return canonical name or null if the name needs to be converted by the C API
+   */
+  public static String toCanonical(final String name) {
+    final List<String> parts = DistinguishedNameUtil.split(name);
+    if (parts == null || parts.size() < 2) {
+      return null;
+    }
+
+    if (DistinguishedNameUtil.isCanonical(parts)) {
+      return name;
+    }
+    for (final String part : parts) {
+      if (part.indexOf('=') != -1) {
+        // mix of labeled and unlabeled components
+        return null;
+      }
+    }
+    final int orgUnits = parts.size() - 2;
+    if (orgUnits > DistinguishedNameUtil.MAX_ORGUNITS || parts.get(parts.size() - 1).length() == 2) {
+      // the last component might be a country code
+      return null;
+    }
+
+    final StringBuilder sb = new StringBuilder(name.length() + 4 * parts.size());
+    sb.append(DistinguishedNameUtil.LABEL_CN).append(parts.get(0));
+    for (int i = 1; i <= orgUnits; i++) {
+      sb.append('/').append(DistinguishedNameUtil.LABEL_OU).append(parts.get(i));
+    }
+    sb.append('/').append(DistinguishedNameUtil.LABEL_O).append(parts.get(parts.size() - 1));
+    return sb.toString();
+  }
+
+  /**
+   * Converts a canonical name like "CN=John Doe/OU=Sales/O=Acme" to abbreviated format
+   * like "John Doe/Sales/Acme". Hierarchical names that are already abbreviated are
+   * returned unchanged.
+   *
+   * @param name name to convert
+   * @return abbreviated name or null if the name needs to be converted by the C API
+   */
+  public static String toAbbreviated(final String name) {
+    final List<String> parts = DistinguishedNameUtil.split(name);
+    if (parts == null || parts.size() < 2) {
+      return null;
+    }
+
+    if (DistinguishedNameUtil.isCanonical(parts)) {
+      final StringBuilder sb = new StringBuilder(name.length());
+      for (final String part : parts) {
+        if (sb.length() > 0) {
+          sb.append('/');
+        }
+        sb.append(part, part.indexOf('=') + 1, part.length());
+      }
+      return sb.toString();
+    }
+    for (final String part : parts) {
+      if (part.indexOf('=') != -1) {
+        return null;
+      }
+    }
+    return name;
+  }
+
+  /**
+   * Splits a name into its components
+   *
+   * @param name name
+   * @return components or null if the name contains characters that are not handled here
+   */
+  private static List<String> split(final String name) {
+    if (name == null || name.isEmpty()) {
+      return null;
+    }
+
+    final List<String> parts = new ArrayList<>(5);
+    int start = 0;
+    for (int i = 0, len = name.length(); i <= len; i++) {
+      final char c = i == len ? '/' : name.charAt(i);
+      switch (c) {
+        case '/':
+          if (i == start || Character.isWhitespace(name.charAt(start)) || Character.isWhitespace(name.charAt(i - 1))) {
+            // empty or untrimmed component
+            return null;
+          }
+          parts.add(name.substring(start, i));
+          start = i + 1;
+          break;
+        case '*':
+        case '@':
+        case ',':
+        case '\\':
+        case '"':
+          // wildcard, domain, LDAP format or quoting
+          return null;
+        default:
+          break;
+      }
+    }
+    return parts;
+  }
+
+  /**
+   * Checks if the components are in the order CN, OU (up to 4), O and an optional
+   * C with uppercase labels
+   *
+   * @param parts name components
+   * @return true if canonical
+   */
+  private static boolean isCanonical(final List<String> parts) {
+    final int count = parts.size();
+    if (!DistinguishedNameUtil.hasLabel(parts.get(0), DistinguishedNameUtil.LABEL_CN)) {
+      return false;
+    }
+    int orgIndex = count - 1;
+    if (DistinguishedNameUtil.hasLabel(parts.get(orgIndex), DistinguishedNameUtil.LABEL_C)) {
+      if (parts.get(orgIndex).length() != DistinguishedNameUtil.LABEL_C.length() + 2) {
+        return false;
+      }
+      orgIndex--;
+    }
+    if (orgIndex < 1 || orgIndex - 1 > DistinguishedNameUtil.MAX_ORGUNITS
+        || !DistinguishedNameUtil.hasLabel(parts.get(orgIndex), DistinguishedNameUtil.LABEL_O)) {
+      return false;
+    }
+    for (int i = 1; i < orgIndex; i++) {
+      if (!DistinguishedNameUtil.hasLabel(parts.get(i), DistinguishedNameUtil.LABEL_OU)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasLabel(final String part, final String label) {
+    return part.length() > label.length() && part.startsWith(label) && part.indexOf('=', label.length()) == -1;
+  }
+}
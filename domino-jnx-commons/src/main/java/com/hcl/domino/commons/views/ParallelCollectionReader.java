@@ -0,0 +1,247 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.views;
+
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.hcl.domino.DominoException;
+
+/**
+ * Reads a collection in partitions of top-level entries on separate threads and
+ * merges the results into a single stream.<br>
+ * <br>
+ * A partition covers a range of top-level positions, e.g. "1" to "5000", including
+ * all entries below them in categorized collections. The partitions are read on
+ * threads produced by the given {@link ThreadFactory}, e.g.
+ * {@link com.hcl.domino.DominoClient#getThreadFactory()}, which has to initialize the
+ * threads for Notes.
+ *
+ * @since 1.54.0
+ */
+public class ParallelCollectionReader {
+  /**
+   * Number of partitions created per reader thread, so that threads that finish
+   * early pick up more work
+   */
+  private static final int PARTITIONS_PER_THREAD = 4;
+
+  /**
+   * Time after which idle reader threads terminate
+   */
+  private static final long IDLE_TIMEOUT_SECONDS = 10;
+
+  /**
+   * Reads a single partition of the collection
+   *
+   * @param <E> entry type
+   */
+  @FunctionalInterface
+  public interface PartitionReader<E> {
+    /**
+     * Called on a reader thread to read all entries of a range of top-level positions
+     *
+     * @param firstTopLevelEntry first top-level position to read, starting at 1
+     * @param lastTopLevelEntry last top-level position to read (inclusive)
+     * @return read entries in collection order
+     * @throws Exception in case of errors
+     */
+    List<E> read(int firstTopLevelEntry, int lastTopLevelEntry) throws Exception;
+  }
+
+  /**
+   * Splits the top-level entries of a collection into contiguous ranges
+   *
+   * @param topLevelEntries number of top-level entries
+   * @param partitionCount  maximum number of partitions
+   * @return array of [first, last] top-level positions (1-based, inclusive)
+   */
+  public static int[][] partition(final int topLevelEntries, final int partitionCount) {
+    if (topLevelEntries <= 0) {
+      return new int[0][];
+    }
+    final int count = Math.max(1, Math.min(partitionCount, topLevelEntries));
+    final int[][] result = new int[count][];
+    final int baseSize = topLevelEntries / count;
+    final int remainder = topLevelEntries % count;
+    int first = 1;
+    for (int i = 0; i < count; i++) {
+      final int size = baseSize + (i < remainder ? 1 : 0);
+      result[i] = new int[] { first, first + size - 1 };
+      first += size;
+    }
+    return result;
+  }
+
+  /**
+   * Reads the collection in parallel partitions and returns a merged stream.<br>
+   * <br>
+   * The returned stream is sequential; the parallel work happens while the partitions
+   * are read. At most {@code parallelism} partitions are read ahead of the consumer;
+   * the next partition is submitted when the stream moves on to a read partition.
+   * Closing the stream cancels the partitions that are being read.
+   *
+   * @param <E>             entry type
+   * @param topLevelEntries number of top-level entries in the collection
+   * @param parallelism     number of reader threads
+   * @param ordered         true to return the entries in collection order, false to
+   *                        return the partitions in the order in which they complete
+   * @param threadFactory   factory for the reader threads
+   * @param reader          reads a single partition
+   * @return stream of entries
+   */
+  public static <E> Stream<E> stream(final int topLevelEntries, final int parallelism, final boolean ordered,
+      final ThreadFactory threadFactory, final PartitionReader<E> reader) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(MessageFormat.format("Invalid parallelism: {0}", parallelism));
+    }
+
+    final int[][] partitions = ParallelCollectionReader.partition(topLevelEntries, parallelism * ParallelCollectionReader.PARTITIONS_PER_THREAD);
+    if (partitions.length == 0) {
+      return Stream.empty();
+    }
+
+    final PartitionIterator<E> partitionIterator = new PartitionIterator<>(partitions, Math.min(parallelism, partitions.length), ordered,
+        threadFactory, reader);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(partitionIterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .flatMap(List::stream)
+        .onClose(partitionIterator::close);
+  }
+
+  /**
+   * Returns the read partitions and keeps a bounded number of partitions in
+   * flight
+   *
+   * @param <E> entry type
+   */
+  private static class PartitionIterator<E> implements Iterator<List<E>> {
+    private final int[][] partitions;
+    private final boolean ordered;
+    private final PartitionReader<E> reader;
+    private final ThreadPoolExecutor executor;
+    private final CompletionService<List<E>> completionService;
+    /** partitions being read, in collection order */
+    private final Deque<Future<List<E>>> inFlight = new ArrayDeque<>();
+    private int submitted;
+    private int consumed;
+
+    PartitionIterator(final int[][] partitions, final int threads, final boolean ordered, final ThreadFactory threadFactory,
+        final PartitionReader<E> reader) {
+      this.partitions = partitions;
+      this.ordered = ordered;
+      this.reader = reader;
+      this.executor = new ThreadPoolExecutor(threads, threads, ParallelCollectionReader.IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(), threadFactory);
+      // lets the threads terminate if the stream is abandoned without being closed
+      this.executor.allowCoreThreadTimeOut(true);
+      // only used for unordered reads; in ordered mode it would keep completed partitions referenced
+      this.completionService = ordered ? null : new ExecutorCompletionService<>(this.executor);
+      for (int i = 0; i < threads; i++) {
+        this.submitNext();
+      }
+    }
+
+    private void submitNext() {
+      if (this.submitted < this.partitions.length) {
+        final int[] partition = this.partitions[this.submitted++];
+        final Callable<List<E>> task = () -> this.reader.read(partition[0], partition[1]);
+        this.inFlight.add(this.ordered ? this.executor.submit(task) : this.completionService.submit(task));
+        if (this.submitted == this.partitions.length) {
+          // lets the threads terminate when all partitions are read
+          this.executor.shutdown();
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.consumed < this.partitions.length;
+    }
+
+    @Override
+    public List<E> next() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Future<List<E>> future = this.ordered ? this.inFlight.peekFirst()
+          : ParallelCollectionReader.takeCompleted(this.completionService);
+      this.inFlight.remove(future);
+      final List<E> result;
+      try {
+        result = ParallelCollectionReader.getPartition(future);
+      } catch (final RuntimeException | Error e) {
+        this.close();
+        throw e;
+      }
+      this.consumed++;
+      this.submitNext();
+      return result;
+    }
+
+    void close() {
+      for (final Future<List<E>> future : this.inFlight) {
+        future.cancel(true);
+      }
+      this.inFlight.clear();
+      this.consumed = this.partitions.length;
+      this.executor.shutdownNow();
+    }
+  }
+
+  private static <E> Future<List<E>> takeCompleted(final CompletionService<List<E>> completionService) {
+    try {
+      return completionService.take();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DominoException("Interrupted while reading collection partitions", e);
+    }
+  }
+
+  private static <E> List<E> getPartition(final Future<List<E>> future) {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DominoException("Interrupted while reading collection partitions", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new DominoException("Error reading collection partition", cause);
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.test.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.hcl.domino.commons.data.CompressedIDTable;
+import com.hcl.domino.data.IDTable;
+
+@SuppressWarnings("nls")
+public class TestCompressedIDTable {
+
+  private static TreeSet<Integer> referenceSet() {
+    return new TreeSet<>(Integer::compareUnsigned);
+  }
+
+  private static int[] toArray(final TreeSet<Integer> set) {
+    return set.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * Creates random note ids, clustered so that both sparse and dense
+   * partitions occur
+   */
+  private static void fill(final Random random, final int count, final CompressedIDTable table, final TreeSet<Integer> reference) {
+    for (int i = 0; i < count; i++) {
+      final int noteId;
+      switch (random.nextInt(3)) {
+        case 0:
+          noteId = random.nextInt(0x30000) & ~3;
+          break;
+        case 1:
+          noteId = random.nextInt();
+          break;
+        default:
+          noteId = (0x50000 + random.nextInt(0x8000)) | (int) IDTable.NOTEID_FLAG_DELETED;
+          break;
+      }
+      assertEquals(reference.add(noteId), table.addInt(noteId));
+    }
+  }
+
+  @Test
+  public void testBasicOperations() {
+    final CompressedIDTable table = new CompressedIDTable();
+    assertTrue(table.isEmpty());
+    assertTrue(table.add(8));
+    assertFalse(table.add(8));
+    assertTrue(table.add(4));
+    assertTrue(table.add((int) (0x4 | IDTable.NOTEID_FLAG_DELETED)));
+    assertTrue(table.isModified());
+
+    assertEquals(3, table.size());
+    assertTrue(table.contains(4));
+    assertFalse(table.contains(12));
+    assertFalse(table.contains("4"));
+    assertArrayEquals(new int[] { 4, 8, (int) (0x4 | IDTable.NOTEID_FLAG_DELETED) }, table.toIntArray());
+    assertEquals(4, table.getFirstId());
+    assertEquals((int) (0x4 | IDTable.NOTEID_FLAG_DELETED), table.getLastId());
+
+    assertTrue(table.remove(8));
+    assertFalse(table.remove(8));
+    assertEquals(2, table.size());
+
+    table.clear();
+    assertTrue(table.isEmpty());
+    assertEquals(0, table.toIntArray().length);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 10, 5000, 100000 })
+  public void testMatchesReference(final int count) {
+    final Random random = new Random(count);
+    final CompressedIDTable table = new CompressedIDTable();
+    final TreeSet<Integer> reference = referenceSet();
+    TestCompressedIDTable.fill(random, count, table, reference);
+
+    assertEquals(reference.size(), table.size());
+    assertArrayEquals(toArray(reference), table.toIntArray());
+    assertArrayEquals(toArray(reference), table.intStream().toArray());
+    assertEquals(reference, table);
+    assertEquals(reference.hashCode(), table.hashCode());
+
+    final List<Integer> forward = new ArrayList<>();
+    table.forEach(forward::add);
+    assertEquals(new ArrayList<>(reference), forward);
+
+    final List<Integer> reverse = new ArrayList<>();
+    table.reverseIterator().forEachRemaining((IntConsumer) reverse::add);
+    assertEquals(new ArrayList<>(reference.descendingSet()), reverse);
+
+    // Remove about half of the ids, crossing bitmap/array conversions
+    final int[] ids = table.toIntArray();
+    for (int i = 0; i < ids.length; i += 2) {
+      assertTrue(table.removeInt(ids[i]));
+      reference.remove(ids[i]);
+    }
+    assertArrayEquals(toArray(reference), table.toIntArray());
+    for (int i = 0; i < ids.length; i++) {
+      assertEquals(i % 2 == 1, table.containsInt(ids[i]));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  public void testIteratorRemove(final boolean reverse) {
+    final Random random = new Random(42);
+    final CompressedIDTable table = new CompressedIDTable();
+    final TreeSet<Integer> reference = referenceSet();
+    TestCompressedIDTable.fill(random, 20000, table, reference);
+
+    final List<Integer> visited = new ArrayList<>();
+    final PrimitiveIterator.OfInt iter = reverse ? table.reverseIterator() : table.iterator();
+    int i = 0;
+    while (iter.hasNext()) {
+      final int noteId = iter.nextInt();
+      visited.add(noteId);
+      if (i++ % 3 != 0) {
+        iter.remove();
+        reference.remove(noteId);
+      }
+    }
+    assertEquals(visited.size(), i);
+    assertArrayEquals(toArray(reference), table.toIntArray());
+  }
+
+  @Test
+  public void testSetOperations() {
+    final Random random = new Random(7);
+    final CompressedIDTable a = new CompressedIDTable();
+    final CompressedIDTable b = new CompressedIDTable();
+    final TreeSet<Integer> refA = referenceSet();
+    final TreeSet<Integer> refB = referenceSet();
+    TestCompressedIDTable.fill(random, 60000, a, refA);
+    TestCompressedIDTable.fill(random, 30000, b, refB);
+
+    final TreeSet<Integer> union = referenceSet();
+    union.addAll(refA);
+    union.addAll(refB);
+    assertArrayEquals(toArray(union), a.union(b).toIntArray());
+    assertArrayEquals(toArray(union), a.union(new ArrayList<>(refB)).toIntArray());
+
+    final TreeSet<Integer> intersection = referenceSet();
+    intersection.addAll(refA);
+    intersection.retainAll(refB);
+    assertArrayEquals(toArray(intersection), a.intersect(b).toIntArray());
+    assertArrayEquals(toArray(intersection), b.intersect(a).toIntArray());
+
+    final TreeSet<Integer> difference = referenceSet();
+    difference.addAll(refA);
+    difference.removeAll(refB);
+    assertArrayEquals(toArray(difference), a.difference(b).toIntArray());
+
+    // Sources must remain unchanged
+    assertArrayEquals(toArray(refA), a.toIntArray());
+    assertArrayEquals(toArray(refB), b.toIntArray());
+
+    assertTrue(a.containsAll(a.intersect(b)));
+    assertFalse(a.difference(b).containsAll(b));
+
+    final CompressedIDTable copy = a.clone();
+    assertTrue(copy.retainAll(b));
+    assertEquals(intersection, copy);
+    assertFalse(copy.retainAll(b));
+    assertTrue(copy.addAll(a));
+    assertEquals(refA, copy);
+    assertTrue(copy.removeAll(b));
+    assertEquals(difference, copy);
+    assertFalse(copy.removeAll(Arrays.asList("foo", 1)));
+  }
+
+  @Test
+  public void testOfCopiesIDTableState() {
+    final CompressedIDTable table = CompressedIDTable.of(12, 4, 8);
+    assertFalse(table.isModified());
+    table.setInverted(true);
+    final OffsetDateTime dt = OffsetDateTime.of(2022, 3, 4, 5, 6, 7, 0, ZoneOffset.UTC);
+    table.setDateTime(dt);
+
+    final CompressedIDTable copy = CompressedIDTable.of((IDTable) table);
+    assertTrue(copy.isInverted());
+    assertEquals(dt.toInstant(), copy.getDateTime().get().toOffsetDateTime().toInstant());
+    assertArrayEquals(new int[] { 4, 8, 12 }, copy.toIntArray());
+
+    final Iterator<Integer> iter = copy.iterator();
+    assertEquals(4, iter.next());
+    copy.addInt(16);
+    assertThrows(ConcurrentModificationException.class, iter::next);
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.test.dxl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.DominoException;
+import com.hcl.domino.commons.dxl.DefaultDxlImportPipeline;
+import com.hcl.domino.commons.dxl.DxlImporterLogImpl;
+import com.hcl.domino.dxl.DxlImportPipeline;
+import com.hcl.domino.dxl.DxlImportPipeline.BatchResult;
+import com.hcl.domino.exception.DxlImportException;
+
+@SuppressWarnings("nls")
+public class TestDxlImportPipeline {
+  private static final ThreadFactory THREAD_FACTORY = r -> {
+    final Thread t = new Thread(r, "importer");
+    t.setDaemon(true);
+    return t;
+  };
+
+  /**
+   * Records the imported batches and returns one note id per fragment
+   */
+  private static class RecordingImporter implements DefaultDxlImportPipeline.BatchImporter {
+    final List<String> batches = Collections.synchronizedList(new ArrayList<>());
+    final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+    volatile boolean closed;
+    private int nextNoteId = 4;
+
+    @Override
+    public int[] importBatch(final int batchIndex, final int documentCount, final byte[] dxl) {
+      this.threads.add(Thread.currentThread().getName());
+      this.batches.add(new String(dxl, StandardCharsets.UTF_8));
+      final int[] noteIds = new int[documentCount];
+      for (int i = 0; i < documentCount; i++) {
+        noteIds[i] = this.nextNoteId;
+        this.nextNoteId += 4;
+      }
+      return noteIds;
+    }
+
+    @Override
+    public void close() {
+      this.threads.add(Thread.currentThread().getName());
+      this.closed = true;
+    }
+  }
+
+  @Test
+  public void testStripProlog() {
+    assertEquals("<document/>", DefaultDxlImportPipeline.stripProlog("<document/>"));
+    assertEquals("<document/>",
+        DefaultDxlImportPipeline.stripProlog("<?xml version='1.0' encoding='utf-8'?>\n<!DOCTYPE document SYSTEM 'xmlschemas/domino_12_0_0.dtd'>\n<document/>"));
+    assertEquals("<document/>", DefaultDxlImportPipeline.stripProlog("  <!DOCTYPE document [<!ENTITY a 'b'>]><document/>"));
+    assertEquals("<?xml unterminated", DefaultDxlImportPipeline.stripProlog("<?xml unterminated"));
+  }
+
+  @Test
+  public void testBatches() {
+    final RecordingImporter importer = new RecordingImporter();
+    final List<BatchResult> results = Collections.synchronizedList(new ArrayList<>());
+    try (DxlImportPipeline pipeline = DefaultDxlImportPipeline.start(2, 2, THREAD_FACTORY, doc -> null, importer, results::add)) {
+      for (int i = 0; i < 5; i++) {
+        pipeline.add("<?xml version='1.0'?><document n='" + i + "'/>");
+      }
+    }
+
+    assertEquals(3, importer.batches.size());
+    assertEquals("<?xml version='1.0' encoding='utf-8'?>\n<database xmlns='http://www.lotus.com/dxl'>\n"
+        + "<document n='0'/>\n<document n='1'/>\n</database>\n", importer.batches.get(0));
+    assertTrue(importer.batches.get(2).contains("<document n='4'/>"));
+    assertTrue(importer.closed);
+    assertTrue(importer.threads.stream().allMatch("importer"::equals));
+
+    assertEquals(3, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(i, results.get(i).getBatchIndex());
+      assertEquals(i < 2 ? 2 : 1, results.get(i).getDocumentCount());
+      assertFalse(results.get(i).getError().isPresent());
+    }
+    assertEquals(5, results.stream().mapToInt(r -> r.getImportedNoteIds().length).sum());
+  }
+
+  @Test
+  public void testBackpressure() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final RecordingImporter importer = new RecordingImporter() {
+      @Override
+      public int[] importBatch(final int batchIndex, final int documentCount, final byte[] dxl) {
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.importBatch(batchIndex, documentCount, dxl);
+      }
+    };
+
+    final DxlImportPipeline pipeline = DefaultDxlImportPipeline.start(1, 1, THREAD_FACTORY, doc -> null, importer, null);
+    final AtomicBoolean added = new AtomicBoolean();
+    final Thread producer = new Thread(() -> {
+      // one batch in import, one queued, the third one has to wait
+      for (int i = 0; i < 3; i++) {
+        pipeline.add("<document/>");
+      }
+      added.set(true);
+    });
+    producer.start();
+    producer.join(300);
+    assertFalse(added.get());
+
+    release.countDown();
+    producer.join(TimeUnit.SECONDS.toMillis(10));
+    assertTrue(added.get());
+    pipeline.close();
+    assertEquals(3, pipeline.getImportedNoteCount());
+  }
+
+  @Test
+  public void testBatchErrors() {
+    final DxlImportException failure = new DxlImportException("failed",
+        new DxlImporterLogImpl(Collections.emptyList(), Collections.emptyList()));
+    final RecordingImporter importer = new RecordingImporter() {
+      @Override
+      public int[] importBatch(final int batchIndex, final int documentCount, final byte[] dxl) {
+        if (batchIndex == 1) {
+          throw failure;
+        }
+        return super.importBatch(batchIndex, documentCount, dxl);
+      }
+    };
+
+    final DxlImportPipeline pipeline = DefaultDxlImportPipeline.start(1, 4, THREAD_FACTORY, doc -> null, importer, null);
+    for (int i = 0; i < 3; i++) {
+      pipeline.add("<document/>");
+    }
+    pipeline.close();
+
+    assertEquals(2, pipeline.getImportedNoteCount());
+    final List<BatchResult> failed = pipeline.getFailedBatches();
+    assertEquals(1, failed.size());
+    assertEquals(1, failed.get(0).getBatchIndex());
+    assertSame(failure, failed.get(0).getError().get());
+    assertSame(failure.getLog(), failed.get(0).getLog().get());
+    assertEquals(0, failed.get(0).getImportedNoteIds().length);
+
+    assertThrows(IllegalStateException.class, () -> pipeline.add("<document/>"));
+    // closing twice is allowed
+    pipeline.close();
+  }
+
+  @Test
+  public void testListenerFailure() {
+    final DxlImportPipeline pipeline = DefaultDxlImportPipeline.start(1, 1, THREAD_FACTORY, doc -> null, new RecordingImporter(),
+        result -> {
+          throw new IllegalStateException("listener");
+        });
+    final DominoException ex = assertThrows(DominoException.class, () -> {
+      for (int i = 0; i < 10; i++) {
+        pipeline.add("<document/>");
+      }
+      pipeline.close();
+    });
+    assertTrue(ex.getCause() instanceof IllegalStateException);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> DefaultDxlImportPipeline.start(0, 1, THREAD_FACTORY, doc -> null, new RecordingImporter(), null));
+  }
+
+  @Test
+  public void testCloseHook() {
+    final AtomicInteger hookCalls = new AtomicInteger();
+    final RecordingImporter importer = new RecordingImporter();
+    final DxlImportPipeline pipeline = DefaultDxlImportPipeline.start(2, 1, THREAD_FACTORY, doc -> null, importer, null,
+        hookCalls::incrementAndGet);
+    pipeline.add("<document/>");
+    assertEquals(0, hookCalls.get());
+    pipeline.close();
+    pipeline.close();
+    assertEquals(1, hookCalls.get());
+    assertTrue(importer.closed);
+  }
+
+  @Test
+  public void testUnclosedPipeline() throws Exception {
+    final RecordingImporter importer = new RecordingImporter();
+    TestDxlImportPipeline.addWithoutClose(importer);
+    for (int i = 0; i < 100 && !importer.closed; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    assertTrue(importer.closed);
+    // the complete batch has been imported, the incomplete one is discarded
+    assertEquals(1, importer.batches.size());
+    assertTrue(importer.batches.get(0).contains("<document n='1'/>"));
+  }
+
+  private static void addWithoutClose(final RecordingImporter importer) {
+    final DxlImportPipeline pipeline = DefaultDxlImportPipeline.start(2, 2, THREAD_FACTORY, doc -> null, importer, null);
+    for (int i = 0; i < 3; i++) {
+      pipeline.add("<document n='" + i + "'/>");
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.test.dxl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.DominoException;
+import com.hcl.domino.commons.dxl.ParallelDxlExport;
+
+@SuppressWarnings("nls")
+public class TestParallelDxlExport {
+  private static final ThreadFactory THREAD_FACTORY = r -> {
+    final Thread t = new Thread(r, "exporter");
+    t.setDaemon(true);
+    return t;
+  };
+
+  @Test
+  public void testPartition() {
+    assertEquals(0, ParallelDxlExport.partition(new int[0], 4).length);
+    assertArrayEquals(new int[][] { { 4, 8, 12 } }, ParallelDxlExport.partition(new int[] { 12, 4, 8 }, 1));
+    assertArrayEquals(new int[][] { { 4, 8 }, { 12 } }, ParallelDxlExport.partition(new int[] { 12, 4, 8 }, 2));
+    assertArrayEquals(new int[][] { { 4 }, { 8 }, { 12 } }, ParallelDxlExport.partition(new int[] { 12, 4, 8 }, 8));
+  }
+
+  @Test
+  public void testRun() throws IOException {
+    final int[] noteIds = IntStream.rangeClosed(1, 1000).map(i -> i * 4).toArray();
+    final int[][] exported = new int[16][];
+    final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    final int count = ParallelDxlExport.run(noteIds, 4, THREAD_FACTORY, (partition, partitionCount, ids) -> {
+      assertEquals(16, partitionCount);
+      threads.add(Thread.currentThread().getName());
+      exported[partition] = ids;
+    });
+
+    assertEquals(16, count);
+    assertArrayEquals(noteIds, IntStream.range(0, count).flatMap(i -> IntStream.of(exported[i])).toArray());
+    assertEquals(1, threads.size());
+    assertTrue(threads.contains("exporter"));
+
+    assertEquals(0, ParallelDxlExport.run(new int[0], 4, THREAD_FACTORY, (partition, partitionCount, ids) -> {
+      throw new IllegalStateException();
+    }));
+  }
+
+  @Test
+  public void testErrors() {
+    final IOException ex = assertThrows(IOException.class,
+        () -> ParallelDxlExport.run(new int[] { 4, 8, 12, 16 }, 1, THREAD_FACTORY, (partition, partitionCount, ids) -> {
+          throw new IOException("failed " + partition);
+        }));
+    assertEquals("failed 0", ex.getMessage());
+
+    final DominoException checked = assertThrows(DominoException.class,
+        () -> ParallelDxlExport.run(new int[] { 4 }, 1, THREAD_FACTORY, (partition, partitionCount, ids) -> {
+          throw new Exception("other");
+        }));
+    assertEquals("other", checked.getCause().getMessage());
+
+    assertThrows(IllegalArgumentException.class,
+        () -> ParallelDxlExport.run(new int[] { 4 }, 0, THREAD_FACTORY, (partition, partitionCount, ids) -> {
+        }));
+  }
+
+  @Test
+  public void testErrorWaitsForRunningPartitions() throws Exception {
+    final CountDownLatch slowStarted = new CountDownLatch(1);
+    final AtomicBoolean slowRunning = new AtomicBoolean();
+
+    assertThrows(IOException.class,
+        () -> ParallelDxlExport.run(new int[] { 4, 8 }, 2, THREAD_FACTORY, (partition, partitionCount, ids) -> {
+          if (partition == 0) {
+            slowRunning.set(true);
+            slowStarted.countDown();
+            try {
+              // ignores interrupts like a native export call
+              final long end = System.currentTimeMillis() + 500;
+              while (System.currentTimeMillis() < end) {
+                Thread.yield();
+              }
+            } finally {
+              slowRunning.set(false);
+            }
+          } else {
+            slowStarted.await();
+            throw new IOException("failed " + partition);
+          }
+        }));
+    assertFalse(slowRunning.get());
+  }
+}
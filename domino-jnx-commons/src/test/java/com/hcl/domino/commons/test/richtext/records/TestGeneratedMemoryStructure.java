@@ -0,0 +1,166 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.test.richtext.records;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.commons.richtext.structures.GenericResizableMemoryStructure;
+import com.hcl.domino.commons.structures.GeneratedMemoryStructure;
+import com.hcl.domino.commons.structures.MemoryStructureProxy;
+import com.hcl.domino.commons.structures.MemoryStructureUtil;
+import com.hcl.domino.design.navigator.NavigatorLineStyle;
+import com.hcl.domino.richtext.records.CDBegin;
+import com.hcl.domino.richtext.records.CDPabHide;
+import com.hcl.domino.richtext.records.RecordType;
+import com.hcl.domino.richtext.records.RichTextRecord;
+import com.hcl.domino.richtext.records.ViewmapHighlightDefaults;
+import com.hcl.domino.richtext.structures.ColorValue;
+
+@SuppressWarnings("nls")
+public class TestGeneratedMemoryStructure {
+
+  @Test
+  public void testGeneratedClass() {
+    final ColorValue color = MemoryStructureUtil.newStructure(ColorValue.class, 0);
+    assertTrue(color instanceof GeneratedMemoryStructure);
+    assertFalse(Proxy.isProxyClass(color.getClass()));
+
+    final CDBegin begin = MemoryStructureUtil.newStructure(CDBegin.class, 0);
+    assertTrue(begin instanceof GeneratedMemoryStructure);
+  }
+
+  @Test
+  public void testUnsignedRoundTrip() {
+    final ColorValue color = MemoryStructureUtil.newStructure(ColorValue.class, 0);
+    assertSame(color, color.setRed((short) 255).setGreen((short) 128).setBlue((short) 1));
+    assertEquals(255, color.getRed());
+    assertEquals(128, color.getGreen());
+    assertEquals(1, color.getBlue());
+    assertEquals("FF8001", color.toHexString());
+
+    final ByteBuffer data = color.getData();
+    assertEquals((byte) 0xFF, data.get(2));
+    assertEquals((byte) 0x80, data.get(3));
+  }
+
+  @Test
+  public void testDispatchedMembers() {
+    final ColorValue color = MemoryStructureUtil.newStructure(ColorValue.class, 0);
+    color.setFlags(EnumSet.of(ColorValue.Flag.ISRGB, ColorValue.Flag.HASGRADIENT));
+    assertEquals(EnumSet.of(ColorValue.Flag.ISRGB, ColorValue.Flag.HASGRADIENT), color.getFlags());
+
+    final ColorValue copy = MemoryStructureUtil.newStructure(ColorValue.class, 0);
+    copy.copyFrom(color.setRed((short) 10));
+    assertEquals(color.getFlags(), copy.getFlags());
+    assertEquals(10, copy.getRed());
+  }
+
+  @Test
+  public void testBooleanAndEnumMembers() {
+    final ViewmapHighlightDefaults defaults = MemoryStructureUtil.newStructure(ViewmapHighlightDefaults.class, 0);
+    assertFalse(defaults.isTouch());
+    defaults.setTouch(true).setCurrent(false).setOutlineWidth(0xFFFF);
+    assertTrue(defaults.isTouch());
+    assertFalse(defaults.isCurrent());
+    assertEquals(0xFFFF, defaults.getOutlineWidth());
+
+    defaults.setOutlineStyle(NavigatorLineStyle.NONE);
+    assertEquals(Optional.of(NavigatorLineStyle.NONE), defaults.getOutlineStyle());
+    assertEquals(NavigatorLineStyle.NONE.getValue().shortValue(), defaults.getOutlineStyleRaw());
+  }
+
+  @Test
+  public void testMatchesProxy() {
+    final ViewmapHighlightDefaults generated = MemoryStructureUtil.newStructure(ViewmapHighlightDefaults.class, 0);
+    final ByteBuffer buf = ByteBuffer.allocate(MemoryStructureUtil.sizeOf(ViewmapHighlightDefaults.class))
+        .order(ByteOrder.nativeOrder());
+    final ViewmapHighlightDefaults proxy = (ViewmapHighlightDefaults) Proxy.newProxyInstance(
+        getClass().getClassLoader(),
+        new Class<?>[] { ViewmapHighlightDefaults.class },
+        new MemoryStructureProxy(new GenericResizableMemoryStructure(buf, ViewmapHighlightDefaults.class),
+            ViewmapHighlightDefaults.class, null));
+
+    for (final ViewmapHighlightDefaults d : new ViewmapHighlightDefaults[] { generated, proxy }) {
+      d.setTouch(true).setOutlineColorRaw(0x8001).setOutlineWidth(3).setFillColorRaw(0xFFFE);
+      d.setOutlineStyleRaw((short) -2);
+    }
+
+    final ByteBuffer a = generated.getData();
+    final ByteBuffer b = proxy.getData();
+    assertEquals(b, a);
+    assertEquals(proxy.isTouch(), generated.isTouch());
+    assertEquals(proxy.getOutlineColorRaw(), generated.getOutlineColorRaw());
+    assertEquals(proxy.getFillColorRaw(), generated.getFillColorRaw());
+    assertEquals(proxy.getOutlineStyleRaw(), generated.getOutlineStyleRaw());
+  }
+
+  private static RichTextRecord<?> createRecord(final RecordType type, final boolean generated) {
+    final Class<? extends RichTextRecord<?>> encapsulation = type.getEncapsulation();
+    final ByteBuffer buf = ByteBuffer.allocate(MemoryStructureUtil.sizeOf(encapsulation)).order(ByteOrder.nativeOrder());
+    buf.putShort(0, type.getConstant());
+    final GenericResizableMemoryStructure structure = new GenericResizableMemoryStructure(buf, encapsulation);
+    if (generated) {
+      return MemoryStructureUtil.forRichTextStructure(encapsulation, type, structure);
+    }
+    return (RichTextRecord<?>) Proxy.newProxyInstance(TestGeneratedMemoryStructure.class.getClassLoader(),
+        new Class<?>[] { encapsulation }, new MemoryStructureProxy(structure, encapsulation, type));
+  }
+
+  @Test
+  public void testRecordTypeMatchesProxy() {
+    int compared = 0;
+    for (final RecordType type : RecordType.values()) {
+      if (type.getEncapsulation() == null) {
+        continue;
+      }
+      try {
+        MemoryStructureUtil.getStructureMap(type.getEncapsulation());
+      } catch (final IllegalArgumentException e) {
+        // the layout cannot be mapped, neither for the proxy nor for a generated class
+        continue;
+      }
+      compared++;
+      final RichTextRecord<?> generated = createRecord(type, true);
+      final RichTextRecord<?> proxy = createRecord(type, false);
+      assertEquals(proxy.getType(), generated.getType(), type.name());
+      assertEquals(EnumSet.of(type), generated.getType(), type.name());
+    }
+    assertTrue(compared > 100, Integer.toString(compared));
+
+    final CDPabHide pabHide = (CDPabHide) createRecord(RecordType.PABHIDE, true);
+    assertTrue(pabHide instanceof GeneratedMemoryStructure);
+    assertEquals(EnumSet.of(RecordType.PABHIDE), pabHide.getType());
+  }
+
+  @Test
+  public void testRecordTypeWithoutMatch() {
+    final CDPabHide generated = MemoryStructureUtil.newStructure(CDPabHide.class, 0);
+    generated.getData().putShort(0, RecordType.PABHIDE.getConstant());
+    assertEquals(RecordType.getRecordTypesForConstant(RecordType.PABHIDE.getConstant()), generated.getType());
+  }
+}
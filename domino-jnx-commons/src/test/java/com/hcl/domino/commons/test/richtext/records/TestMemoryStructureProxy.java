@@ -17,11 +17,15 @@
 package com.hcl.domino.commons.test.richtext.records;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import com.hcl.domino.commons.structures.MemoryStructureUtil;
+import com.hcl.domino.richtext.records.CDText;
 import com.hcl.domino.richtext.structures.ColorValue;
 import com.hcl.domino.richtext.structures.OriginatorID;
 
@@ -44,4 +48,16 @@ public class TestMemoryStructureProxy {
     assertEquals(unid, oid.getUNID());
   }
 
+  @Test
+  public void testConcurrentStructureMaps() {
+    assertSame(MemoryStructureUtil.getStructureMap(CDText.class), MemoryStructureUtil.getStructureMap(CDText.class));
+
+    IntStream.range(0, 10000).parallel().forEach(i -> {
+      ColorValue color = MemoryStructureUtil.newStructure(ColorValue.class, 0);
+      color.setGreen((short)(i & 0xFF));
+      assertEquals(i & 0xFF, color.getGreen());
+      assertEquals(6, MemoryStructureUtil.sizeOf(ColorValue.class));
+    });
+  }
+
 }
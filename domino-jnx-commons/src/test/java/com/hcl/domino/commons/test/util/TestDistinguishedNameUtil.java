@@ -0,0 +1,59 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.test.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.hcl.domino.commons.util.DistinguishedNameUtil;
+
+@SuppressWarnings("nls")
+public class TestDistinguishedNameUtil {
+
+  @Test
+  public void testToCanonical() {
+    assertEquals("CN=John Doe/O=Acme", DistinguishedNameUtil.toCanonical("John Doe/Acme"));
+    assertEquals("CN=John Doe/OU=Sales/OU=East/O=Acme", DistinguishedNameUtil.toCanonical("John Doe/Sales/East/Acme"));
+    assertEquals("CN=John Doe/OU=Sales/O=Acme/C=US", DistinguishedNameUtil.toCanonical("CN=John Doe/OU=Sales/O=Acme/C=US"));
+    assertEquals("CN=John Doe/O=Acme", DistinguishedNameUtil.toCanonical("CN=John Doe/O=Acme"));
+  }
+
+  @Test
+  public void testToAbbreviated() {
+    assertEquals("John Doe/Sales/Acme/US", DistinguishedNameUtil.toAbbreviated("CN=John Doe/OU=Sales/O=Acme/C=US"));
+    assertEquals("John Doe/Acme", DistinguishedNameUtil.toAbbreviated("CN=John Doe/O=Acme"));
+    assertEquals("John Doe/Acme/US", DistinguishedNameUtil.toAbbreviated("John Doe/Acme/US"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "", "John Doe", "John Doe/US", "John/Acme/US", "*/Acme", "John/Acme@Domain", "CN=John,O=Acme",
+      "John//Acme", "John /Acme", "CN=John/Acme", "cn=John/o=Acme", "CN=John/OU=Sales", "CN=John/O=Acme/C=USA",
+      "John/1/2/3/4/5/Acme", "CN=John/OU=1/OU=2/OU=3/OU=4/OU=5/O=Acme" })
+  public void testNativeFallback(final String name) {
+    assertNull(DistinguishedNameUtil.toCanonical(name), name);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "", "John Doe", "*/O=Acme", "CN=John/Acme", "cn=John/o=Acme", "CN=John/OU=Sales", "OU=Sales/O=Acme" })
+  public void testAbbreviateFallback(final String name) {
+    assertNull(DistinguishedNameUtil.toAbbreviated(name), name);
+  }
+}
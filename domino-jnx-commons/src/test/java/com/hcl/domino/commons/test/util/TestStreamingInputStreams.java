@@ -0,0 +1,186 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.test.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.commons.util.CallbackPipeInputStream;
+import com.hcl.domino.commons.util.ChunkedInputStream;
+
+@SuppressWarnings("nls")
+public class TestStreamingInputStreams {
+  private static final ThreadFactory THREAD_FACTORY = Thread::new;
+
+  private static byte[] createData(final int size) {
+    final byte[] data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = (byte) (i * 31);
+    }
+    return data;
+  }
+
+  private static byte[] readAll(final InputStream in) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buf = new byte[1000];
+    int len;
+    while ((len = in.read(buf)) > 0) {
+      out.write(buf, 0, len);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Pushes the data in chunks of the given size
+   */
+  private static CallbackPipeInputStream.Producer produce(final byte[] data, final int chunkSize, final AtomicInteger pushed) {
+    return sink -> {
+      for (int pos = 0; pos < data.length; pos += chunkSize) {
+        pushed.incrementAndGet();
+        if (!sink.test(Arrays.copyOfRange(data, pos, Math.min(data.length, pos + chunkSize)))) {
+          return;
+        }
+      }
+    };
+  }
+
+  @Test
+  public void testChunkedRange() throws IOException {
+    final byte[] data = TestStreamingInputStreams.createData(10000);
+    final List<long[]> requests = new ArrayList<>();
+    final ChunkedInputStream.ChunkReader reader = (offset, length) -> {
+      requests.add(new long[] { offset, length });
+      return Arrays.copyOfRange(data, (int) offset, (int) offset + length);
+    };
+
+    try (InputStream in = new ChunkedInputStream(reader, 0, data.length, 4096)) {
+      assertArrayEquals(data, TestStreamingInputStreams.readAll(in));
+    }
+    assertEquals(3, requests.size());
+    assertArrayEquals(new long[] { 8192, 1808 }, requests.get(2));
+
+    requests.clear();
+    try (InputStream in = new ChunkedInputStream(reader, 5000, 3000, 4096)) {
+      assertEquals(data[5000] & 0xff, in.read());
+      assertEquals(1999, in.skip(1999));
+      assertEquals(1000, in.skip(5000));
+      assertEquals(-1, in.read());
+    }
+    // skipped data is not read from the source
+    assertEquals(1, requests.size());
+    assertArrayEquals(new long[] { 5000, 3000 }, requests.get(0));
+  }
+
+  @Test
+  public void testChunkedClosed() throws IOException {
+    final InputStream in = new ChunkedInputStream((offset, length) -> new byte[length], 0, 10, 4);
+    in.close();
+    assertThrows(IOException.class, in::read);
+    assertThrows(IllegalArgumentException.class, () -> new ChunkedInputStream((offset, length) -> null, -1, 10, 4));
+  }
+
+  @Test
+  public void testPipe() throws IOException {
+    final byte[] data = TestStreamingInputStreams.createData(100000);
+    final AtomicInteger pushed = new AtomicInteger();
+    try (InputStream in = new CallbackPipeInputStream(THREAD_FACTORY, 2, 0, -1,
+        TestStreamingInputStreams.produce(data, 777, pushed))) {
+      assertArrayEquals(data, TestStreamingInputStreams.readAll(in));
+    }
+
+    try (InputStream in = new CallbackPipeInputStream(THREAD_FACTORY, 2, 50000, 1234,
+        TestStreamingInputStreams.produce(data, 777, pushed))) {
+      assertArrayEquals(Arrays.copyOfRange(data, 50000, 51234), TestStreamingInputStreams.readAll(in));
+    }
+  }
+
+  @Test
+  public void testPipeStopsProducer() throws Exception {
+    final byte[] data = TestStreamingInputStreams.createData(1000000);
+    final AtomicInteger pushed = new AtomicInteger();
+    final CountDownLatch done = new CountDownLatch(1);
+    final CallbackPipeInputStream.Producer producer = TestStreamingInputStreams.produce(data, 100, pushed);
+    final InputStream in = new CallbackPipeInputStream(THREAD_FACTORY, 2, 0, -1, sink -> {
+      try {
+        producer.produce(sink);
+      } finally {
+        done.countDown();
+      }
+    });
+    assertEquals(data[0] & 0xff, in.read());
+    in.close();
+
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> done.await());
+    // read-ahead is bounded, so the producer stopped early
+    assertTrue(pushed.get() < 10, "pushed " + pushed.get());
+  }
+
+  @Test
+  public void testPipeStopsProducerOfDroppedStream() throws Exception {
+    final byte[] data = TestStreamingInputStreams.createData(1000000);
+    final AtomicInteger pushed = new AtomicInteger();
+    final CountDownLatch done = new CountDownLatch(1);
+    final CallbackPipeInputStream.Producer producer = TestStreamingInputStreams.produce(data, 100, pushed);
+    InputStream in = new CallbackPipeInputStream(THREAD_FACTORY, 2, 0, -1, sink -> {
+      try {
+        producer.produce(sink);
+      } finally {
+        done.countDown();
+      }
+    });
+    assertEquals(data[0] & 0xff, in.read());
+    // dropped without close
+    in = null;
+
+    assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+      while (!done.await(100, TimeUnit.MILLISECONDS)) {
+        System.gc();
+      }
+    });
+    assertTrue(pushed.get() < 10, "pushed " + pushed.get());
+  }
+
+  @Test
+  public void testPipeError() {
+    final IOException ex = assertThrows(IOException.class, () -> {
+      try (InputStream in = new CallbackPipeInputStream(THREAD_FACTORY, 2, 0, -1, sink -> {
+        sink.test(new byte[10]);
+        throw new IllegalStateException("failed");
+      })) {
+        TestStreamingInputStreams.readAll(in);
+      }
+    });
+    assertEquals("failed", ex.getCause().getMessage());
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.commons.test.views;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.hcl.domino.DominoException;
+import com.hcl.domino.commons.views.ParallelCollectionReader;
+
+@SuppressWarnings("nls")
+public class TestParallelCollectionReader {
+  private static final ThreadFactory THREAD_FACTORY = r -> {
+    final Thread t = new Thread(r, "reader");
+    t.setDaemon(true);
+    return t;
+  };
+
+  /**
+   * Produces two entries per top-level position, e.g. "3" and "3.1"
+   */
+  private static List<String> readRange(final int first, final int last) {
+    final List<String> result = new ArrayList<>();
+    for (int i = first; i <= last; i++) {
+      result.add(Integer.toString(i));
+      result.add(i + ".1");
+    }
+    return result;
+  }
+
+  @Test
+  public void testPartition() {
+    assertEquals(0, ParallelCollectionReader.partition(0, 4).length);
+    assertArrayEquals(new int[][] { { 1, 3 } }, ParallelCollectionReader.partition(3, 1));
+    assertArrayEquals(new int[][] { { 1, 1 }, { 2, 2 } }, ParallelCollectionReader.partition(2, 8));
+    assertArrayEquals(new int[][] { { 1, 4 }, { 5, 7 }, { 8, 10 } }, ParallelCollectionReader.partition(10, 3));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 4, 16 })
+  public void testOrdered(final int parallelism) {
+    final Set<String> threads = ConcurrentHashMap.newKeySet();
+    final List<String> result;
+    try (Stream<String> stream = ParallelCollectionReader.stream(1000, parallelism, true, THREAD_FACTORY, (first, last) -> {
+      threads.add(Thread.currentThread().getName());
+      return TestParallelCollectionReader.readRange(first, last);
+    })) {
+      result = stream.collect(Collectors.toList());
+    }
+    assertEquals(TestParallelCollectionReader.readRange(1, 1000), result);
+    assertEquals(Stream.of("reader").collect(Collectors.toSet()), threads);
+  }
+
+  @Test
+  public void testUnordered() {
+    final List<String> result = ParallelCollectionReader.stream(1000, 4, false, THREAD_FACTORY, (first, last) -> {
+      // later partitions finish first
+      Thread.sleep(200 / first);
+      return TestParallelCollectionReader.readRange(first, last);
+    }).collect(Collectors.toList());
+
+    final List<String> expected = TestParallelCollectionReader.readRange(1, 1000);
+    assertEquals(expected.size(), result.size());
+    assertEquals(new HashSet<>(expected), new HashSet<>(result));
+    assertNotEquals(expected, result);
+  }
+
+  @Test
+  public void testErrors() {
+    final IllegalStateException ex = assertThrows(IllegalStateException.class,
+        () -> ParallelCollectionReader.stream(10, 2, true, THREAD_FACTORY, (first, last) -> {
+          throw new IllegalStateException("failed " + first);
+        }).count());
+    assertEquals("failed 1", ex.getMessage());
+
+    final DominoException checked = assertThrows(DominoException.class,
+        () -> ParallelCollectionReader.stream(10, 2, true, THREAD_FACTORY, (first, last) -> {
+          throw new IOException("io");
+        }).count());
+    assertTrue(checked.getCause() instanceof IOException);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> ParallelCollectionReader.stream(10, 0, true, THREAD_FACTORY, TestParallelCollectionReader::readRange));
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { true, false })
+  public void testBoundedReadAhead(final boolean ordered) {
+    final AtomicInteger started = new AtomicInteger();
+    final List<String> result;
+    // 2 threads produce 8 partitions
+    try (Stream<String> stream = ParallelCollectionReader.stream(1000, 2, ordered, THREAD_FACTORY, (first, last) -> {
+      started.incrementAndGet();
+      return TestParallelCollectionReader.readRange(first, last);
+    })) {
+      result = stream.limit(3).collect(Collectors.toList());
+    }
+    assertEquals(3, result.size());
+    // the two initial partitions plus the one submitted after the first was consumed
+    assertTrue(started.get() <= 3, Integer.toString(started.get()));
+  }
+
+  @Test
+  public void testCloseCancelsReads() throws Exception {
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CountDownLatch interrupted = new CountDownLatch(1);
+    final Stream<String> stream = ParallelCollectionReader.stream(100, 2, true, THREAD_FACTORY, (first, last) -> {
+      if (first > 1) {
+        blocked.countDown();
+        try {
+          Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+        } catch (final InterruptedException e) {
+          interrupted.countDown();
+          throw e;
+        }
+      }
+      return TestParallelCollectionReader.readRange(first, last);
+    });
+    assertEquals("1", stream.findFirst().get());
+    assertTrue(blocked.await(10, TimeUnit.SECONDS));
+    stream.close();
+    assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testEmpty() {
+    assertFalse(ParallelCollectionReader.stream(0, 2, true, THREAD_FACTORY, TestParallelCollectionReader::readRange)
+        .findAny()
+        .isPresent());
+  }
+}
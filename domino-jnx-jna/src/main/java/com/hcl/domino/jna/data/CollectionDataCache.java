@@ -16,20 +16,34 @@
  */
 package com.hcl.domino.jna.data;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.text.MessageFormat;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.hcl.domino.commons.views.ReadMask;
+import com.hcl.domino.data.Database;
 import com.hcl.domino.data.DominoDateTime;
 import com.hcl.domino.jna.data.JNACollectionEntry.CacheableViewEntryData;
 import com.hcl.domino.jna.data.JNADominoCollection.JNACollectionEntryProcessor;
+import com.hcl.domino.jna.utils.CacheStats;
 
 /**
  * LRU cache class to be returned in {@link JNACollectionEntryProcessor#createDataCache()} in order to let NIF
@@ -37,20 +51,141 @@ import com.hcl.domino.jna.data.JNADominoCollection.JNACollectionEntryProcessor;
  * <br>
  * Please note that according to IBM dev, this optimized view reading (differential view reads) does
  * only work in views that are not permuted (where documents do not appear multiple times, because
- * "Show multiple values as separate entries" has been set on any view column).
+ * "Show multiple values as separate entries" has been set on any view column).<br>
+ * <br>
+ * The cache can be shared by threads reading the same view. Lookups do not lock; entries are
+ * evicted in least recently used order when the cache exceeds its entry count or its estimated
+ * size in bytes. The content can be written to a snapshot via {@link #writeSnapshot(OutputStream)}
+ * and restored via {@link #restoreSnapshot(JNADominoCollection, InputStream)}, e.g. to continue
+ * differential reads after a restart. The cached data is bound to the server, database replica,
+ * view and collation it was read from; reads from any other collection do not use it.
  * 
  * @author Karsten Lehmann
  */
 public class CollectionDataCache implements Serializable {
 	private static final long serialVersionUID = 522152090817358117L;
+	private static final int SNAPSHOT_MAGIC = 0x4a4e5843; // "JNXC"
+	private static final int SNAPSHOT_VERSION = 2;
 	
 	private int m_maxSize;
-	private Map<Integer,CacheableViewEntryData> m_cacheEntries;
-	private DominoDateTime m_diffTime;
-	private ReentrantReadWriteLock m_rwLock = new ReentrantReadWriteLock();
-	private Set<ReadMask> m_readMask;
+	private long m_maxSizeInBytes;
+	private transient ConcurrentHashMap<Integer,Node> m_cacheEntries;
+	private transient AtomicReference<State> m_state;
+	private transient AtomicLong m_sizeInBytes;
+	private transient AtomicLong m_accessClock;
+	private transient ReentrantLock m_evictionLock;
+	private transient LongAdder m_hits;
+	private transient LongAdder m_misses;
+	private transient LongAdder m_evictions;
+	private transient LongAdder m_skips;
 	private static ThreadLocal<Long> m_cacheUseCounter = new ThreadLocal<>();
 	
+	/**
+	 * Cached entry data with its generation and last access
+	 */
+	private static class Node {
+		private final CacheableViewEntryData m_data;
+		private final int m_size;
+		private final long m_generation;
+		private volatile long m_lastAccess;
+		
+		private Node(CacheableViewEntryData data, int size, long generation, long lastAccess) {
+			m_data = data;
+			m_size = size;
+			m_generation = generation;
+			m_lastAccess = lastAccess;
+		}
+	}
+	
+	/**
+	 * Collection, read mask and diff time of the cached data; the generation changes whenever
+	 * the cached data becomes invalid
+	 */
+	private static class State {
+		private final CollectionIdentity m_identity;
+		private final Set<ReadMask> m_readMask;
+		private final DominoDateTime m_diffTime;
+		private final long m_generation;
+		
+		private State(CollectionIdentity identity, Set<ReadMask> readMask, DominoDateTime diffTime, long generation) {
+			m_identity = identity;
+			m_readMask = readMask;
+			m_diffTime = diffTime;
+			m_generation = generation;
+		}
+		
+		private boolean matches(CollectionIdentity identity, Set<ReadMask> readMask, DominoDateTime diffTime) {
+			return Objects.equals(m_identity, identity) && Objects.equals(m_diffTime, diffTime)
+					&& Objects.equals(m_readMask, readMask);
+		}
+	}
+	
+	/**
+	 * Identifies the collection index the cached data has been read from: server, database
+	 * replica id, view UNID and active collation
+	 * 
+	 * @since 1.54.0
+	 */
+	static final class CollectionIdentity {
+		private final String m_server;
+		private final String m_replicaId;
+		private final String m_viewUnid;
+		private final short m_collation;
+		
+		CollectionIdentity(String server, String replicaId, String viewUnid, short collation) {
+			m_server = server==null ? "" : server;
+			m_replicaId = Objects.requireNonNull(replicaId, "replicaId cannot be null");
+			m_viewUnid = Objects.requireNonNull(viewUnid, "viewUnid cannot be null");
+			m_collation = collation;
+		}
+		
+		/**
+		 * Returns the identity of the currently active index of a collection
+		 * 
+		 * @param collection collection
+		 * @return identity
+		 */
+		static CollectionIdentity of(JNADominoCollection collection) {
+			Database db = collection.getParentDatabase();
+			return new CollectionIdentity(db.getServer(), db.getReplicaID(), collection.getUNID(), collection.getCollation());
+		}
+		
+		private void write(DataOutputStream out) throws IOException {
+			out.writeUTF(m_server);
+			out.writeUTF(m_replicaId);
+			out.writeUTF(m_viewUnid);
+			out.writeShort(m_collation);
+		}
+		
+		private static CollectionIdentity read(DataInputStream in) throws IOException {
+			return new CollectionIdentity(in.readUTF(), in.readUTF(), in.readUTF(), in.readShort());
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this==obj) {
+				return true;
+			}
+			if (!(obj instanceof CollectionIdentity)) {
+				return false;
+			}
+			CollectionIdentity other = (CollectionIdentity) obj;
+			return m_collation==other.m_collation && m_server.equalsIgnoreCase(other.m_server)
+					&& m_replicaId.equalsIgnoreCase(other.m_replicaId) && m_viewUnid.equalsIgnoreCase(other.m_viewUnid);
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(m_server.toLowerCase(), m_replicaId.toLowerCase(), m_viewUnid.toLowerCase(), m_collation);
+		}
+		
+		@Override
+		public String toString() {
+			return MessageFormat.format("CollectionIdentity [server={0}, replicaId={1}, viewUnid={2}, collation={3}]",
+					m_server, m_replicaId, m_viewUnid, m_collation);
+		}
+	}
+	
 	/**
 	 * Creates a new instance of an unbounded cache
 	 */
@@ -64,26 +199,39 @@ public class CollectionDataCache implements Serializable {
 	 * @param maxSize maximum number of entries in the LRU cache
 	 */
 	public CollectionDataCache(final int maxSize) {
+		this(maxSize, Long.MAX_VALUE);
+	}
+	
+	/**
+	 * Creates a new instance
+	 * 
+	 * @param maxSize maximum number of entries in the LRU cache
+	 * @param maxSizeInBytes maximum estimated memory size of the cached entries
+	 * @since 1.54.0
+	 */
+	public CollectionDataCache(final int maxSize, final long maxSizeInBytes) {
 		if (maxSize <= 0) {
 			throw new IllegalArgumentException(MessageFormat.format("Max size must be greater than 0: {0}", maxSize));
 		}
+		if (maxSizeInBytes <= 0) {
+			throw new IllegalArgumentException(MessageFormat.format("Max size in bytes must be greater than 0: {0}", maxSizeInBytes));
+		}
 		
 		m_maxSize = maxSize;
-		
-		//set up LRU cache map
-		m_cacheEntries = Collections.synchronizedMap(new LinkedHashMap<Integer, CacheableViewEntryData>(16, 0.75f, true) {
-			private static final long serialVersionUID = -9095321519005351099L;
-
-			@Override
-			protected boolean removeEldestEntry(java.util.Map.Entry<Integer, CacheableViewEntryData> eldest) {
-				if (size() > maxSize) {
-					return true;
-				}
-				else {
-					return false;
-				}
-			}
-		});
+		m_maxSizeInBytes = maxSizeInBytes;
+		init();
+	}
+	
+	private void init() {
+		m_cacheEntries = new ConcurrentHashMap<>();
+		m_state = new AtomicReference<>(new State(null, null, null, 0));
+		m_sizeInBytes = new AtomicLong();
+		m_accessClock = new AtomicLong();
+		m_evictionLock = new ReentrantLock();
+		m_hits = new LongAdder();
+		m_misses = new LongAdder();
+		m_evictions = new LongAdder();
+		m_skips = new LongAdder();
 	}
 	
 	/**
@@ -95,19 +243,51 @@ public class CollectionDataCache implements Serializable {
 		return m_maxSize;
 	}
 	
+	/**
+	 * Returns the maximum estimated memory size of the cached entries
+	 * 
+	 * @return size in bytes
+	 * @since 1.54.0
+	 */
+	public long getMaxCacheSizeInBytes() {
+		return m_maxSizeInBytes;
+	}
+	
 	/**
 	 * Returns the current number of entries in the cache
 	 * 
 	 * @return size
 	 */
 	public int size() {
-		m_rwLock.readLock().lock();
-		try {
-			return m_cacheEntries.size();
-		}
-		finally {
-			m_rwLock.readLock().unlock();
-		}
+		return m_cacheEntries.size();
+	}
+	
+	/**
+	 * Returns the estimated memory size of the cached entries
+	 * 
+	 * @return size in bytes
+	 * @since 1.54.0
+	 */
+	public long getSizeInBytes() {
+		return m_sizeInBytes.get();
+	}
+	
+	/**
+	 * Returns the usage statistics of all threads using this cache:
+	 * <ul>
+	 * <li>hits: entries skipped by NIF that were populated from the cache</li>
+	 * <li>misses: entries skipped by NIF whose data had been evicted in the meantime</li>
+	 * <li>evictions: entries removed to stay below the max size</li>
+	 * <li>rejections: read entries that were not cached because another thread
+	 * changed the diff time or read mask concurrently</li>
+	 * </ul>
+	 * 
+	 * @return stats
+	 * @since 1.54.0
+	 */
+	public CacheStats getStats() {
+		return new CacheStats(getClass().getSimpleName(), m_hits.sum(), m_misses.sum(), m_evictions.sum(), m_skips.sum(),
+				m_sizeInBytes.get(), m_maxSizeInBytes, m_cacheEntries.size());
 	}
 	
 	/**
@@ -164,54 +344,114 @@ public class CollectionDataCache implements Serializable {
 	 * Removes all data from the cache
 	 */
 	public void flush() {
-		m_rwLock.writeLock().lock();
-		try {
-			m_diffTime = null;
-			m_readMask = null;
-			m_cacheEntries.clear();
+		State state;
+		State newState;
+		do {
+			state = m_state.get();
+			newState = new State(null, null, null, state.m_generation + 1);
 		}
-		finally {
-			m_rwLock.writeLock().unlock();
+		while (!m_state.compareAndSet(state, newState));
+		
+		removeOutdatedEntries(newState.m_generation);
+	}
+	
+	/**
+	 * Removes entries of older generations
+	 * 
+	 * @param generation current generation
+	 */
+	private void removeOutdatedEntries(long generation) {
+		for (Map.Entry<Integer,Node> currEntry : m_cacheEntries.entrySet()) {
+			Node node = currEntry.getValue();
+			if (node.m_generation < generation && m_cacheEntries.remove(currEntry.getKey(), node)) {
+				m_sizeInBytes.addAndGet(-node.m_size);
+			}
 		}
 	}
 	
 	/**
 	 * Method to fill the cache with data read from the collection
 	 * 
+	 * @param identity collection index the entries have been read from
+	 * @param readMask read mask used for the read operation
 	 * @param diffTime diff time returned from the read operation
 	 * @param entries collection entries read
 	 */
-	void addCacheValues(Set<ReadMask> readMask, DominoDateTime diffTime, List<JNACollectionEntry> entries) {
-		m_rwLock.writeLock().lock();
-		try {
-			boolean flush = false;
-			
-			if (m_diffTime!=null && !m_diffTime.equals(diffTime)) {
-				flush = true;
+	void addCacheValues(CollectionIdentity identity, Set<ReadMask> readMask, DominoDateTime diffTime, List<JNACollectionEntry> entries) {
+		State state = m_state.get();
+		if (!state.matches(identity, readMask, diffTime)) {
+			boolean flush = state.m_identity!=null || state.m_diffTime!=null || state.m_readMask!=null;
+			State newState = new State(identity, readMask, diffTime, flush ? state.m_generation + 1 : state.m_generation);
+			if (m_state.compareAndSet(state, newState)) {
+				if (flush) {
+					removeOutdatedEntries(newState.m_generation);
+					cacheFlushed();
+				}
 			}
-			else if (m_readMask!=null && !m_readMask.equals(readMask)) {
-				flush = true;
+			state = m_state.get();
+		}
+		
+		if (!state.matches(identity, readMask, diffTime)) {
+			//another thread changed the state in the meantime, so our data does not match
+			for (JNACollectionEntry currEntry : entries) {
+				if (currEntry.hasAnyColumnValues()) {
+					m_skips.increment();
+				}
 			}
-			if (flush) {
-				m_cacheEntries.clear();
-				cacheFlushed();
+			return;
+		}
+		
+		for (JNACollectionEntry currEntry : entries) {
+			if (currEntry.hasAnyColumnValues()) {
+				CacheableViewEntryData cacheableData = currEntry.getCacheableData();
+				put(currEntry.getNoteID(), cacheableData, state.m_generation);
 			}
+		}
+		evictIfRequired();
+	}
+	
+	private void put(int noteId, CacheableViewEntryData data, long generation) {
+		Node node = new Node(data, data.estimateSize(), generation, m_accessClock.incrementAndGet());
+		Node oldNode = m_cacheEntries.put(noteId, node);
+		m_sizeInBytes.addAndGet(oldNode==null ? node.m_size : node.m_size - oldNode.m_size);
+	}
+	
+	/**
+	 * Removes the least recently used entries if the cache exceeds its max size; only one
+	 * thread evicts at a time, the others continue without waiting
+	 */
+	private void evictIfRequired() {
+		if (!isOverMaxSize(0, 0) || !m_evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			List<Map.Entry<Integer,Node>> entries = new ArrayList<>(m_cacheEntries.entrySet());
+			entries.sort(Comparator.comparingLong(entry -> entry.getValue().m_lastAccess));
 			
-			m_readMask = readMask;
-			m_diffTime = diffTime;
+			//evict a bit more than required, so that we do not sort on every write
+			int sizeReserve = Math.max(1, m_maxSize / 10);
+			long bytesReserve = Math.max(1, m_maxSizeInBytes / 10);
 			
-			for (JNACollectionEntry currEntry : entries) {
-				if (currEntry.hasAnyColumnValues()) {
-					CacheableViewEntryData cacheableData = currEntry.getCacheableData();
-					m_cacheEntries.put(currEntry.getNoteID(), cacheableData);
+			for (Map.Entry<Integer,Node> currEntry : entries) {
+				if (!isOverMaxSize(sizeReserve, bytesReserve)) {
+					break;
+				}
+				Node node = currEntry.getValue();
+				if (m_cacheEntries.remove(currEntry.getKey(), node)) {
+					m_sizeInBytes.addAndGet(-node.m_size);
+					m_evictions.increment();
 				}
 			}
 		}
 		finally {
-			m_rwLock.writeLock().unlock();
+			m_evictionLock.unlock();
 		}
 	}
 	
+	private boolean isOverMaxSize(int sizeReserve, long bytesReserve) {
+		return m_cacheEntries.size() > m_maxSize - sizeReserve || m_sizeInBytes.get() > m_maxSizeInBytes - bytesReserve;
+	}
+	
 	/**
 	 * Called when the cache needed to be flushed because of view index changes.
 	 * Method is empty by default, can be overriden, e.g. to write a log entry.
@@ -228,57 +468,199 @@ public class CollectionDataCache implements Serializable {
 	 * @param entries entries to scan
 	 */
 	void populateEntryStubsWithData(List<JNACollectionEntry> entries) {
+		Long usageStats = m_cacheUseCounter.get();
+		long usageStatsPrim = usageStats==null ? -1 : usageStats;
+		long generation = m_state.get().m_generation;
+		
 		boolean hasAnyMissingData = false;
 		for (JNACollectionEntry currEntry : entries) {
 			if (!currEntry.hasAnyColumnValues()) {
 				hasAnyMissingData = true;
-				break;
+				
+				Node node = m_cacheEntries.get(currEntry.getNoteID());
+				if (node!=null && node.m_generation>=generation) {
+					//updating data of stub entry from cache
+					currEntry.updateFromCache(node.m_data);
+					node.m_lastAccess = m_accessClock.incrementAndGet();
+					m_hits.increment();
+					
+					if (usageStatsPrim!=-1) {
+						usageStatsPrim++;
+					}
+				}
+				else {
+					m_misses.increment();
+				}
 			}
 		}
 		
-		Long usageStats = m_cacheUseCounter.get();
-		long usageStatsPrim = usageStats==null ? -1 : usageStats;
+		if (hasAnyMissingData && usageStatsPrim!=-1) {
+			m_cacheUseCounter.set(usageStatsPrim);
+		}
+	}
+	
+	/**
+	 * Copies the current state of the cache
+	 * 
+	 * @param identity collection index to be read; no note ids are returned if the cached data belongs to another one
+	 * @return state
+	 */
+	CacheState getCacheState(CollectionIdentity identity) {
+		State state = m_state.get();
+		if (!Objects.equals(state.m_identity, identity)) {
+			return new CacheState(null, null, new ArrayList<>());
+		}
+		List<Integer> noteIds = new ArrayList<>(m_cacheEntries.size());
+		for (Map.Entry<Integer,Node> currEntry : m_cacheEntries.entrySet()) {
+			if (currEntry.getValue().m_generation==state.m_generation) {
+				noteIds.add(currEntry.getKey());
+			}
+		}
+		return new CacheState(state.m_readMask, state.m_diffTime, noteIds);
+	}
+	
+	/**
+	 * Writes the collection identity, diff time, read mask and cached entries to a stream. Entries with
+	 * values that cannot be written are left out, so they are read again from the view.
+	 * 
+	 * @param out stream to write to, not closed by this method
+	 * @throws IOException in case of I/O errors
+	 * @since 1.54.0
+	 */
+	public void writeSnapshot(OutputStream out) throws IOException {
+		State state = m_state.get();
 		
-		if (hasAnyMissingData) {
-			m_rwLock.readLock().lock();
-			try {
-				for (JNACollectionEntry currEntry : entries) {
-					if (!currEntry.hasAnyColumnValues()) {
-						CacheableViewEntryData cacheData = m_cacheEntries.get(currEntry.getNoteID());
-						if (cacheData!=null) {
-							//updating data of stub entry from cache
-							currEntry.updateFromCache(cacheData);
-							
-							if (usageStatsPrim!=-1) {
-								usageStatsPrim++;
-							}
-						}
-					}
-				}
-				
-				if (usageStatsPrim!=-1) {
-					m_cacheUseCounter.set(usageStatsPrim);
+		List<CacheableViewEntryData> snapshotEntries = new ArrayList<>();
+		if (state.m_identity!=null && state.m_diffTime!=null && state.m_readMask!=null) {
+			for (Node currNode : m_cacheEntries.values()) {
+				if (currNode.m_generation==state.m_generation && currNode.m_data.isWritable()) {
+					snapshotEntries.add(currNode.m_data);
 				}
 			}
-			finally {
-				m_rwLock.readLock().unlock();
+		}
+		
+		DataOutputStream dataOut = new DataOutputStream(out);
+		dataOut.writeInt(SNAPSHOT_MAGIC);
+		dataOut.writeInt(SNAPSHOT_VERSION);
+		if (snapshotEntries.isEmpty()) {
+			dataOut.writeBoolean(false);
+		}
+		else {
+			dataOut.writeBoolean(true);
+			state.m_identity.write(dataOut);
+			dataOut.writeInt(state.m_readMask.size());
+			for (ReadMask currMask : state.m_readMask) {
+				dataOut.writeUTF(currMask.name());
+			}
+			int[] innards = state.m_diffTime.getAdapter(int[].class);
+			dataOut.writeInt(innards[0]);
+			dataOut.writeInt(innards[1]);
+			dataOut.writeInt(snapshotEntries.size());
+			for (CacheableViewEntryData currData : snapshotEntries) {
+				currData.write(dataOut);
 			}
 		}
+		dataOut.flush();
 	}
 	
 	/**
-	 * Copies the current state of the cache
+	 * Replaces the content of this cache with a snapshot written by {@link #writeSnapshot(OutputStream)}
+	 * after checking that the snapshot has been taken from the same server, database replica, view and
+	 * collation as the specified collection currently uses
 	 * 
-	 * @return state
+	 * @param collection collection to be read with this cache
+	 * @param in stream to read from, not closed by this method
+	 * @throws IOException in case of I/O errors, if the data is not a valid snapshot or if the snapshot belongs
+	 *         to another collection; the cache is not modified in the last two cases
+	 * @since 1.54.0
 	 */
-	CacheState getCacheState() {
-		m_rwLock.readLock().lock();
-		try {
-			return new CacheState(m_readMask, m_diffTime, new HashMap<>(m_cacheEntries));
+	public void restoreSnapshot(JNADominoCollection collection, InputStream in) throws IOException {
+		restoreSnapshot(in, CollectionIdentity.of(collection));
+	}
+	
+	/**
+	 * Replaces the content of this cache with a snapshot written by {@link #writeSnapshot(OutputStream)}.
+	 * The restored entries keep the identity of the collection they have been read from and are only
+	 * used for reads from that collection.
+	 * 
+	 * @param in stream to read from, not closed by this method
+	 * @throws IOException in case of I/O errors or if the data is not a valid snapshot
+	 * @since 1.54.0
+	 */
+	public void restoreSnapshot(InputStream in) throws IOException {
+		restoreSnapshot(in, null);
+	}
+	
+	/**
+	 * Replaces the content of this cache with a snapshot
+	 * 
+	 * @param in stream to read from
+	 * @param expectedIdentity identity the snapshot has to match or null to accept any snapshot
+	 * @throws IOException in case of I/O errors or invalid snapshots
+	 */
+	void restoreSnapshot(InputStream in, CollectionIdentity expectedIdentity) throws IOException {
+		DataInputStream dataIn = new DataInputStream(in);
+		if (dataIn.readInt()!=SNAPSHOT_MAGIC) {
+			throw new IOException("Data is not a collection data cache snapshot");
 		}
-		finally {
-			m_rwLock.readLock().unlock();
+		int version = dataIn.readInt();
+		if (version!=SNAPSHOT_VERSION) {
+			throw new IOException(MessageFormat.format("Unsupported collection data cache snapshot version: {0}", version));
+		}
+		
+		if (!dataIn.readBoolean()) {
+			flush();
+			return;
+		}
+		
+		CollectionIdentity identity = CollectionIdentity.read(dataIn);
+		if (expectedIdentity!=null && !expectedIdentity.equals(identity)) {
+			throw new IOException(MessageFormat.format("Snapshot has been taken from another collection: {0}, expected {1}", identity, expectedIdentity));
+		}
+		
+		Set<ReadMask> readMask = EnumSet.noneOf(ReadMask.class);
+		int maskCount = dataIn.readInt();
+		for (int i=0; i<maskCount; i++) {
+			String maskName = dataIn.readUTF();
+			try {
+				readMask.add(ReadMask.valueOf(maskName));
+			}
+			catch (IllegalArgumentException e) {
+				throw new IOException(MessageFormat.format("Unknown read mask in snapshot: {0}", maskName), e);
+			}
+		}
+		DominoDateTime diffTime = new JNADominoDateTime(new int[] { dataIn.readInt(), dataIn.readInt() });
+		
+		int entryCount = dataIn.readInt();
+		List<CacheableViewEntryData> entries = new ArrayList<>(entryCount);
+		for (int i=0; i<entryCount; i++) {
+			entries.add(CacheableViewEntryData.read(dataIn));
 		}
+		
+		State state;
+		State newState;
+		do {
+			state = m_state.get();
+			newState = new State(identity, readMask, diffTime, state.m_generation + 1);
+		}
+		while (!m_state.compareAndSet(state, newState));
+		removeOutdatedEntries(newState.m_generation);
+		
+		for (CacheableViewEntryData currData : entries) {
+			put(currData.getNoteId(), currData, newState.m_generation);
+		}
+		evictIfRequired();
+	}
+	
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		writeSnapshot(out);
+	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		init();
+		restoreSnapshot(in);
 	}
 	
 	/**
@@ -288,13 +670,13 @@ public class CollectionDataCache implements Serializable {
 	 */
 	static class CacheState {
 		private DominoDateTime m_diffTime;
-		private Map<Integer,CacheableViewEntryData> m_cacheEntries;
+		private List<Integer> m_noteIds;
 		private Set<ReadMask> m_readMask;
 		
-		private CacheState(Set<ReadMask> readMask, DominoDateTime diffTime, Map<Integer,CacheableViewEntryData> cacheEntries) {
+		private CacheState(Set<ReadMask> readMask, DominoDateTime diffTime, List<Integer> noteIds) {
 			m_readMask = readMask;
 			m_diffTime = diffTime;
-			m_cacheEntries = cacheEntries;
+			m_noteIds = noteIds;
 		}
 		
 		public Set<ReadMask> getReadMask() {
@@ -305,8 +687,13 @@ public class CollectionDataCache implements Serializable {
 			return m_diffTime;
 		}
 		
-		public Map<Integer,CacheableViewEntryData> getCacheEntries() {
-			return m_cacheEntries;
+		/**
+		 * Returns the note ids of the cached entries
+		 * 
+		 * @return note ids
+		 */
+		public List<Integer> getNoteIds() {
+			return m_noteIds;
 		}
 	}
 	
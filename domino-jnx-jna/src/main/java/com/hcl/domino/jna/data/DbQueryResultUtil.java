@@ -21,6 +21,7 @@ import static java.text.MessageFormat.format;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -43,6 +44,7 @@ import com.hcl.domino.data.Database.Action;
 import com.hcl.domino.exception.IncompatibleImplementationException;
 import com.hcl.domino.data.DbQueryResult;
 import com.hcl.domino.data.Document;
+import com.hcl.domino.data.DocumentClass;
 import com.hcl.domino.data.DominoCollection;
 import com.hcl.domino.data.IDTable;
 import com.hcl.domino.data.Navigate;
@@ -144,18 +146,22 @@ public abstract class DbQueryResultUtil<QUERYTYPE extends DbQueryResult<?>> impl
 
 				int pageSize = Math.min(count, 20000);
 
-				DocumentSummaryIterator summaryIterator = new DocumentSummaryIterator(parentDb,
-						pageSize, idsInCollectionOrder.iterator(),
-						skip, count, m_computeValues);
+				//compute the next page while the processor handles the current one
+				boolean prefetch = count > pageSize;
 				
-				while (summaryIterator.hasNext()) {
-					DocumentData currDocData = summaryIterator.next();
-					
-					JNADocSummaryCollectionEntry entry = toCollectionEntry(parentDb, m_sortCollection, currDocData);
+				try (DocumentSummaryIterator summaryIterator = new DocumentSummaryIterator(parentDb,
+						pageSize, idsInCollectionOrder.iterator(),
+						skip, count, m_computeValues, EnumSet.of(DocumentClass.DATA), prefetch)) {
 					
-					Action action = processor.entryRead(result, entry);
-					if (action == Action.Stop) {
-						break;
+					while (summaryIterator.hasNext()) {
+						DocumentData currDocData = summaryIterator.next();
+						
+						JNADocSummaryCollectionEntry entry = toCollectionEntry(parentDb, m_sortCollection, currDocData);
+						
+						Action action = processor.entryRead(result, entry);
+						if (action == Action.Stop) {
+							break;
+						}
 					}
 				}
 			}
@@ -175,18 +181,22 @@ public abstract class DbQueryResultUtil<QUERYTYPE extends DbQueryResult<?>> impl
 
 				int pageSize = Math.min(count, 20000);
 
-				DocumentSummaryIterator summaryIterator = new DocumentSummaryIterator(parentDb,
-						pageSize, noteIdIt,
-						skip, count, m_computeValues);
+				//compute the next page while the processor handles the current one
+				boolean prefetch = count > pageSize;
 				
-				while (summaryIterator.hasNext()) {
-					DocumentData currDocData = summaryIterator.next();
-					
-					JNADocSummaryCollectionEntry entry = toCollectionEntry(parentDb, defaultCollection, currDocData);
+				try (DocumentSummaryIterator summaryIterator = new DocumentSummaryIterator(parentDb,
+						pageSize, noteIdIt,
+						skip, count, m_computeValues, EnumSet.of(DocumentClass.DATA), prefetch)) {
 					
-					Action action = processor.entryRead(result, entry);
-					if (action == Action.Stop) {
-						break;
+					while (summaryIterator.hasNext()) {
+						DocumentData currDocData = summaryIterator.next();
+						
+						JNADocSummaryCollectionEntry entry = toCollectionEntry(parentDb, defaultCollection, currDocData);
+						
+						Action action = processor.entryRead(result, entry);
+						if (action == Action.Stop) {
+							break;
+						}
 					}
 				}
 			}
@@ -201,7 +211,7 @@ public abstract class DbQueryResultUtil<QUERYTYPE extends DbQueryResult<?>> impl
 		JNASearchMatch searchMatch = currDocData.getSearchMatch();
 		
 		TreeMap<String,Object> caseInsensitiveSummaryData = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-		caseInsensitiveSummaryData.putAll(currDocData.getAllSummaryData());
+		currDocData.forEachItemValue(caseInsensitiveSummaryData::put);
 		
 		JNADocSummaryCollectionEntry entry = new JNADocSummaryCollectionEntry(parentDb, parentCollection,
 				searchMatch.getNoteID(), searchMatch.getUNID(), searchMatch.getSequenceNumber(),
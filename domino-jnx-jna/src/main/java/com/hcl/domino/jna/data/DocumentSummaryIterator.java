@@ -18,6 +18,7 @@ package com.hcl.domino.jna.data;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -25,8 +26,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.hcl.domino.DominoException;
 import com.hcl.domino.data.Database.Action;
 import com.hcl.domino.commons.data.AbstractTypedAccess;
 import com.hcl.domino.commons.views.IItemTableData;
@@ -41,13 +55,18 @@ import com.hcl.domino.jna.internal.search.NotesSearch.JNASearchMatch;
  * <br>
  * The method leverages NSFSearchExtended3, which supports both specifying the documents
  * to process as an IDTable (so it does not run on the whole database) and passing
- * "column formulas" that we want to be computed.
+ * "column formulas" that we want to be computed.<br>
+ * <br>
+ * In prefetch mode, the next page is computed on a separate Notes thread while the caller
+ * processes the current page. The iterator should then be closed when it is not read to
+ * the end.
  * 
  * @author Karsten Lehmann
  */
-public class DocumentSummaryIterator implements Iterator<DocumentSummaryIterator.DocumentData> {
+public class DocumentSummaryIterator implements Iterator<DocumentSummaryIterator.DocumentData>, AutoCloseable {
 	private PagedDocumentSummaryIterator m_pagedIterator;
-	private List<DocumentSummaryIterator.DocumentData> m_nextPage;
+	private List<DocumentSummaryIterator.DocumentData> m_page;
+	private int m_pageIndex;
 
 	public DocumentSummaryIterator(JNADatabase db, int pageSize, Iterator<Integer> noteIdIt,
 			int skip, int count, Map<String,String> columnFormulas) {
@@ -57,39 +76,145 @@ public class DocumentSummaryIterator implements Iterator<DocumentSummaryIterator
 	public DocumentSummaryIterator(JNADatabase db, int pageSize, Iterator<Integer> noteIdIt,
 			int skip, int count,
 			Map<String,String> columnFormulas, Set<DocumentClass> documentClasses) {
+		this(db, pageSize, noteIdIt, skip, count, columnFormulas, documentClasses, false);
+	}
+	
+	/**
+	 * Creates a new iterator
+	 * 
+	 * @param db database
+	 * @param pageSize number of documents to compute per search
+	 * @param noteIdIt note ids to process
+	 * @param skip number of note ids to skip
+	 * @param count maximum number of note ids to process
+	 * @param columnFormulas column formulas to compute, empty to read all summary items
+	 * @param documentClasses document classes to process
+	 * @param prefetch true to compute the next page on a separate Notes thread while the current one is processed
+	 * @since 1.54.0
+	 */
+	public DocumentSummaryIterator(JNADatabase db, int pageSize, Iterator<Integer> noteIdIt,
+			int skip, int count,
+			Map<String,String> columnFormulas, Set<DocumentClass> documentClasses, boolean prefetch) {
 		
-		m_pagedIterator = new PagedDocumentSummaryIterator(db, pageSize, noteIdIt, skip, count, columnFormulas, documentClasses);
-		m_nextPage = fetchNextPage();
+		this(new NsfPageReader(db, pageSize, noteIdIt, skip, count, columnFormulas, documentClasses),
+				prefetch ? db.getParentDominoClient().getThreadFactory() : null);
+	}
+	
+	/**
+	 * Creates a new iterator for pages produced by a custom page source
+	 * 
+	 * @param pageSource returns the next non-empty page, or null when there are no more pages;
+	 *                   called on the prefetch thread in prefetch mode
+	 * @param prefetchThreadFactory factory for the thread that computes the next page while the
+	 *                              current one is processed, or null to compute pages on the calling thread
+	 * @since 1.54.0
+	 */
+	public DocumentSummaryIterator(Supplier<List<DocumentData>> pageSource, ThreadFactory prefetchThreadFactory) {
+		m_pagedIterator = new PagedDocumentSummaryIterator(pageSource, prefetchThreadFactory);
+		fetchNextPage();
 	}
 	
-	private List<DocumentSummaryIterator.DocumentData> fetchNextPage() {
+	private void fetchNextPage() {
+		m_pageIndex = 0;
 		if (m_pagedIterator.hasNext()) {
-			return m_pagedIterator.next();
+			m_page = m_pagedIterator.next();
 		}
 		else {
-			return null;
+			m_page = null;
 		}
 	}
 	
 	@Override
 	public boolean hasNext() {
-		return m_nextPage!=null;
+		return m_page!=null;
 	}
 	
 	@Override
 	public DocumentData next() {
-		if (m_nextPage==null) {
+		if (m_page==null) {
 			throw new NoSuchElementException();
 		}
-		DocumentData data = m_nextPage.remove(0);
-		if (m_nextPage.isEmpty()) {
-			m_nextPage = fetchNextPage();
+		DocumentData data = m_page.get(m_pageIndex++);
+		if (m_pageIndex >= m_page.size()) {
+			fetchNextPage();
 		}
 		return data;
 	}
 	
+	/**
+	 * Returns a {@link Spliterator} for the remaining documents.<br>
+	 * <br>
+	 * In prefetch mode, it splits off the rest of the current page, so that
+	 * parallel streams process whole pages while the next page is computed.
+	 * Otherwise the pages have to be computed on the calling thread and
+	 * the spliterator does not split.
+	 * 
+	 * @return spliterator
+	 * @since 1.54.0
+	 */
+	public Spliterator<DocumentData> spliterator() {
+		return new PageSpliterator();
+	}
+	
+	/**
+	 * Returns a stream of the remaining documents; closing the stream closes this iterator
+	 * 
+	 * @param parallel true for a parallel stream, see {@link #spliterator()}
+	 * @return stream
+	 * @since 1.54.0
+	 */
+	public Stream<DocumentData> stream(boolean parallel) {
+		return StreamSupport.stream(spliterator(), parallel).onClose(this::close);
+	}
+	
+	/**
+	 * Stops computing pages in the background
+	 * 
+	 * @since 1.54.0
+	 */
+	@Override
+	public void close() {
+		m_pagedIterator.close();
+		m_page = null;
+		m_pageIndex = 0;
+	}
+	
+	private class PageSpliterator implements Spliterator<DocumentData> {
+
+		@Override
+		public boolean tryAdvance(Consumer<? super DocumentData> action) {
+			if (!hasNext()) {
+				return false;
+			}
+			action.accept(next());
+			return true;
+		}
+
+		@Override
+		public Spliterator<DocumentData> trySplit() {
+			if (m_page==null || !m_pagedIterator.isPrefetch()) {
+				return null;
+			}
+			DocumentData[] rest = m_page.subList(m_pageIndex, m_page.size()).toArray(new DocumentData[0]);
+			fetchNextPage();
+			return Spliterators.spliterator(rest, characteristics());
+		}
+
+		@Override
+		public long estimateSize() {
+			return m_page==null ? 0 : Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.NONNULL;
+		}
+	}
+	
 	public static class DocumentData extends AbstractTypedAccess {
 		private NotesSearch.JNASearchMatch m_searchMatch;
+		private Map<String,Integer> m_columnIndex;
+		private List<?>[] m_values;
 		private Map<String,List<?>> m_summaryData;
 		
 		public DocumentData(NotesSearch.JNASearchMatch searchMatch, Map<String,List<?>> summaryData) {
@@ -97,31 +222,179 @@ public class DocumentSummaryIterator implements Iterator<DocumentSummaryIterator
 			m_summaryData = summaryData;
 		}
 		
+		/**
+		 * Creates a new instance with the values of the computed columns
+		 * 
+		 * @param searchMatch search match
+		 * @param columnIndex case-insensitive map of column name to index in {@code values}, shared by all documents
+		 * @param values column values, null for columns without value
+		 * @since 1.54.0
+		 */
+		public DocumentData(NotesSearch.JNASearchMatch searchMatch, Map<String,Integer> columnIndex, List<?>[] values) {
+			m_searchMatch = searchMatch;
+			m_columnIndex = columnIndex;
+			m_values = values;
+		}
+		
 		@Override
 		public List<?> getItemValue(String itemName) {
+			if (m_values!=null) {
+				Integer index = m_columnIndex.get(itemName);
+				return index==null ? null : m_values[index];
+			}
 			return m_summaryData.get(itemName);
 		}
 		
+		/**
+		 * Returns the value of a computed column by its position
+		 * 
+		 * @param columnIndex index of the column in the column formulas
+		 * @return value or null if the column has no value or the iterator reads all summary items
+		 * @since 1.54.0
+		 */
+		public List<?> getItemValue(int columnIndex) {
+			return m_values==null ? null : m_values[columnIndex];
+		}
+		
 		public NotesSearch.JNASearchMatch getSearchMatch() {
 			return m_searchMatch;
 		}
 
 		@Override
 		public boolean hasItem(String itemName) {
+			if (m_values!=null) {
+				return getItemValue(itemName)!=null;
+			}
 			return m_summaryData.containsKey(itemName);
 		}
 
 		@Override
 		public List<String> getItemNames() {
-			return new ArrayList<>(m_summaryData.keySet());
+			List<String> names = new ArrayList<>();
+			forEachItemValue((name, value) -> names.add(name));
+			return names;
+		}
+		
+		/**
+		 * Passes all summary values to a consumer without creating a map
+		 * 
+		 * @param consumer consumer for item name and value
+		 * @since 1.54.0
+		 */
+		public void forEachItemValue(BiConsumer<String,List<?>> consumer) {
+			if (m_values!=null) {
+				for (Map.Entry<String,Integer> currEntry : m_columnIndex.entrySet()) {
+					List<?> value = m_values[currEntry.getValue()];
+					if (value!=null) {
+						consumer.accept(currEntry.getKey(), value);
+					}
+				}
+			}
+			else {
+				m_summaryData.forEach(consumer);
+			}
 		}
 		
 		public Map<String,List<?>> getAllSummaryData() {
+			if (m_summaryData==null) {
+				Map<String,List<?>> data = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+				forEachItemValue(data::put);
+				m_summaryData = data;
+			}
 			return m_summaryData;
 		}
 	}
 
-	private class PagedDocumentSummaryIterator implements Iterator<List<DocumentSummaryIterator.DocumentData>> {
+	/**
+	 * Returns the pages of a page source and optionally computes the next page
+	 * on a separate thread
+	 */
+	private static class PagedDocumentSummaryIterator implements Iterator<List<DocumentSummaryIterator.DocumentData>> {
+		private final Supplier<List<DocumentData>> m_pageSource;
+		private List<DocumentData> m_nextPage;
+		private ExecutorService m_executor;
+		private Future<List<DocumentData>> m_nextPageFuture;
+		
+		public PagedDocumentSummaryIterator(Supplier<List<DocumentData>> pageSource, ThreadFactory prefetchThreadFactory) {
+			m_pageSource = pageSource;
+			
+			if (prefetchThreadFactory!=null) {
+				m_executor = Executors.newSingleThreadExecutor(prefetchThreadFactory);
+				m_nextPageFuture = m_executor.submit(m_pageSource::get);
+			}
+			else {
+				m_nextPage = m_pageSource.get();
+			}
+		}
+		
+		public boolean isPrefetch() {
+			return m_executor!=null;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			if (m_nextPageFuture!=null) {
+				m_nextPage = getPage(m_nextPageFuture);
+				m_nextPageFuture = null;
+				if (m_nextPage==null) {
+					m_executor.shutdown();
+				}
+			}
+			return m_nextPage!=null;
+		}
+		
+		@Override
+		public List<DocumentSummaryIterator.DocumentData> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			
+			List<DocumentSummaryIterator.DocumentData> page = m_nextPage;
+			if (m_executor!=null) {
+				//compute the next page while the caller processes this one
+				m_nextPage = null;
+				m_nextPageFuture = m_executor.submit(m_pageSource::get);
+			}
+			else {
+				m_nextPage = m_pageSource.get();
+			}
+			return page;
+		}
+		
+		public void close() {
+			if (m_nextPageFuture!=null) {
+				m_nextPageFuture.cancel(false);
+				m_nextPageFuture = null;
+			}
+			m_nextPage = null;
+			if (m_executor!=null) {
+				m_executor.shutdown();
+			}
+		}
+		
+		private List<DocumentData> getPage(Future<List<DocumentData>> future) {
+			try {
+				return future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new DominoException("Interrupted while computing document summaries", e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				else if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new DominoException("Error computing document summaries", cause);
+			}
+		}
+	}
+	
+	/**
+	 * Computes pages of document summaries via NSFSearchExtended3
+	 */
+	private static class NsfPageReader implements Supplier<List<DocumentSummaryIterator.DocumentData>> {
 		private JNADatabase m_db;
 		private int m_pageSize;
 		private Iterator<Integer> m_noteIdIt;
@@ -132,10 +405,10 @@ public class DocumentSummaryIterator implements Iterator<DocumentSummaryIterator
 		private boolean m_done;
 		private Map<String,String> m_columnFormulas;
 		private Set<DocumentClass> m_documentClasses;
+		private String[] m_columnNames;
+		private Map<String,Integer> m_columnIndex;
 		
-		private List<DocumentData> m_nextPage;
-		
-		public PagedDocumentSummaryIterator(JNADatabase db, int pageSize, Iterator<Integer> noteIdIt,
+		public NsfPageReader(JNADatabase db, int pageSize, Iterator<Integer> noteIdIt,
 				int skip, int count,
 				Map<String,String> columnFormulas, Set<DocumentClass> documentClasses) {
 			
@@ -147,30 +420,27 @@ public class DocumentSummaryIterator implements Iterator<DocumentSummaryIterator
 			m_columnFormulas = columnFormulas;
 			m_documentClasses = documentClasses;
 			
-			m_nextPage = produceNextPage();
-		}
-		
-		@Override
-		public boolean hasNext() {
-			return m_nextPage!=null;
+			m_columnNames = columnFormulas.keySet().toArray(new String[0]);
+			Map<String,Integer> columnIndex = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			for (int i=0; i<m_columnNames.length; i++) {
+				columnIndex.put(m_columnNames[i], i);
+			}
+			m_columnIndex = Collections.unmodifiableMap(columnIndex);
 		}
 		
 		@Override
-		public List<DocumentSummaryIterator.DocumentData> next() {
-			if (m_nextPage==null) {
-				throw new NoSuchElementException();
+		public List<DocumentSummaryIterator.DocumentData> get() {
+			//repeat search if we could not find any data
+			while (m_noteIdIt.hasNext() && !m_done) {
+				List<DocumentData> page = readPage();
+				if (!page.isEmpty()) {
+					return page;
+				}
 			}
-			
-			List<DocumentSummaryIterator.DocumentData> page = m_nextPage;
-			m_nextPage = produceNextPage();
-			return page;
+			return null;
 		}
 		
-		private List<DocumentSummaryIterator.DocumentData> produceNextPage() {
-			if (!m_noteIdIt.hasNext() || m_done) {
-				return null;
-			}
-			
+		private List<DocumentData> readPage() {
 			JNAIDTable idTable = new JNAIDTable(m_db.getParentDominoClient());
 			
 			List<Integer> noteIdsInPage = new ArrayList<>();
@@ -206,46 +476,47 @@ public class DocumentSummaryIterator implements Iterator<DocumentSummaryIterator
 					SearchFlag.SESSION_USERNAME),
 					m_documentClasses, null, new NotesSearch.SearchCallback() {
 						
-				private Map<String,List<?>> getSummaryData(IItemTableData summaryBufferData) {
-					Map<String,List<?>> data = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-
-					if (summaryBufferData!=null) {
-						if (!m_columnFormulas.isEmpty()) {
-							for (String currItemName : m_columnFormulas.keySet()) {
-								Object currItemValue = summaryBufferData.get(currItemName, Object.class, null);
+				private List<?> toList(Object itemValue) {
+					if (itemValue instanceof List) {
+						return (List<?>) itemValue;
+					}
+					else {
+						return Arrays.asList(itemValue);
+					}
+				}
+				
+				private DocumentData getDocumentData(JNASearchMatch searchMatch, IItemTableData summaryBufferData) {
+					if (m_columnNames.length > 0) {
+						//same columns for all documents, so we just store the values
+						List<?>[] values = new List<?>[m_columnNames.length];
+						if (summaryBufferData!=null) {
+							for (int i=0; i<m_columnNames.length; i++) {
+								Object currItemValue = summaryBufferData.get(m_columnNames[i], Object.class, null);
 								if (currItemValue!=null) {
-									if (currItemValue instanceof List) {
-										data.put(currItemName, (List<?>) currItemValue);
-									}
-									else {
-										data.put(currItemName, Arrays.asList(currItemValue));
-									}
+									values[i] = toList(currItemValue);
 								}
 							}
 						}
-						else {
-							for (String currItemName : summaryBufferData.getItemNames()) {
-								Object currItemValue = summaryBufferData.get(currItemName, Object.class, null);
-								if (currItemValue!=null) {
-									if (currItemValue instanceof List) {
-										data.put(currItemName, (List<?>) currItemValue);
-									}
-									else {
-										data.put(currItemName, Arrays.asList(currItemValue));
-									}
-								}
+						return new DocumentData(searchMatch, m_columnIndex, values);
+					}
+					
+					Map<String,List<?>> data = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+					if (summaryBufferData!=null) {
+						for (String currItemName : summaryBufferData.getItemNames()) {
+							Object currItemValue = summaryBufferData.get(currItemName, Object.class, null);
+							if (currItemValue!=null) {
+								data.put(currItemName, toList(currItemValue));
 							}
 						}
 					}
 					
-					return data;
+					return new DocumentData(searchMatch, data);
 				}
 
 				@Override
 				public Action noteFound(JNADatabase parentDb, JNASearchMatch searchMatch, IItemTableData summaryBufferData) {
-					Map<String,List<?>> summaryData = getSummaryData(summaryBufferData);
-
-					DocumentData docInfo = new DocumentData(searchMatch, summaryData);
+					DocumentData docInfo = getDocumentData(searchMatch, summaryBufferData);
 					dataByNoteId.put(searchMatch.getNoteID(), docInfo);
 
 					return Action.Continue;
@@ -269,7 +540,7 @@ public class DocumentSummaryIterator implements Iterator<DocumentSummaryIterator
 					);
 			idTable.dispose();
 			
-			List<DocumentData> page = new ArrayList<>();
+			List<DocumentData> page = new ArrayList<>(noteIdsInPage.size());
 
 			for (Integer currNoteId : noteIdsInPage) {
 				DocumentData currNoteData = dataByNoteId.get(currNoteId);
@@ -277,22 +548,8 @@ public class DocumentSummaryIterator implements Iterator<DocumentSummaryIterator
 					page.add(currNoteData);
 				}
 			}
-
-			//repeat search if we could not find any data
-			while (page!=null && page.isEmpty()) {
-				List<DocumentData> nextPage = produceNextPage();
-				if (nextPage==null) {
-					return null;
-				}
-				else {
-					page.clear();
-					page.addAll(nextPage);
-				}
-			}
 			
 			return page;
 		}
-		
-
 	}
 }
@@ -16,7 +16,6 @@
  */
 package com.hcl.domino.jna.data;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -29,11 +28,12 @@ import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.text.MessageFormat;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ThreadFactory;
 import com.hcl.domino.DominoException;
 import com.hcl.domino.commons.errors.INotesErrorConstants;
 import com.hcl.domino.commons.gc.APIObjectAllocations;
+import com.hcl.domino.commons.util.CallbackPipeInputStream;
+import com.hcl.domino.commons.util.ChunkedInputStream;
 import com.hcl.domino.commons.util.NotesErrorUtils;
 import com.hcl.domino.commons.util.StringUtil;
 import com.hcl.domino.data.Attachment;
@@ -58,6 +58,11 @@ import com.sun.jna.Pointer;
  * @author Karsten Lehmann
  */
 public class JNAAttachment implements Attachment {
+	/** Number of bytes read from the database at once by {@link #getInputStream(long, long)} */
+	private static final int STREAM_CHUNK_SIZE = 256 * 1024;
+	/** Number of extracted chunks buffered ahead of the reader of {@link #getInputStream(long, long)} */
+	private static final int STREAM_READ_AHEAD = 4;
+	
 	private String m_fileName;
 	private Compression m_compression;
 	private short m_fileFlags;
@@ -134,9 +139,6 @@ public class JNAAttachment implements Attachment {
 		JNADocumentAllocations docAllocations = (JNADocumentAllocations) m_parentDoc.getAdapter(APIObjectAllocations.class);
 		docAllocations.checkDisposed();
 
-		JNADatabaseAllocations dbAllocations = (JNADatabaseAllocations) m_parentDoc.getParent().getAdapter(APIObjectAllocations.class);
-		dbAllocations.checkDisposed();
-		
 		if (getCompression() != Compression.NONE) {
 			throw new UnsupportedOperationException("This operation is only supported on attachments without compression.");
 		}
@@ -144,50 +146,62 @@ public class JNAAttachment implements Attachment {
 			throw new IllegalArgumentException("Buffer size must be a positive number");
 		}
 		
-		AtomicLong currOffset = new AtomicLong(offset);
-		AtomicBoolean aborted = new AtomicBoolean();
+		long currOffset = offset;
 		
-		while (!aborted.get()) {
+		while (true) {
 			long bytesToRead;
-			if ((currOffset.get()+bufferSize) < m_fileSize) {
+			if ((currOffset+bufferSize) < m_fileSize) {
 				bytesToRead = bufferSize;
 			}
 			else {
-				bytesToRead = m_fileSize - currOffset.get();
+				bytesToRead = m_fileSize - currOffset;
 			}
 			if (bytesToRead<=0) {
 				//we're done
 				break;
 			}
 			
-			DHANDLE.ByReference rethBuffer = DHANDLE.newInstanceByReference();
-			
-			short result = LockUtil.lockHandle(dbAllocations.getDBHandle(), (dbHandleByVal) -> {
-				return NotesCAPI.get().NSFDbReadObject(dbHandleByVal, m_rrv, (int) (currOffset.get() & 0xffffffff), 
-						(int) (bytesToRead & 0xffffffff), rethBuffer);
-			});
-			NotesErrorUtils.checkResult(result);
-			
-			LockUtil.lockHandle(rethBuffer, (hBufferByVal) -> {
-				Pointer ptr = Mem.OSLockObject(hBufferByVal);
-				try {
-					byte[] buffer = ptr.getByteArray(0, (int) bytesToRead);
-					IDataCallback.Action action = callback.read(buffer);
-					if (action==IDataCallback.Action.Stop) {
-						aborted.set(true);
-					}
-					return 0;
-				}
-				finally {
-					Mem.OSUnlockObject(hBufferByVal);
-					Mem.OSMemFree(hBufferByVal);
-				}
-			});
+			byte[] buffer = readObjectData(currOffset, (int) bytesToRead);
+			IDataCallback.Action action = callback.read(buffer);
+			if (action==IDataCallback.Action.Stop) {
+				break;
+			}
 			
-			currOffset.addAndGet(bytesToRead);
+			currOffset += bytesToRead;
 		}
 	}
 	
+	/**
+	 * Reads a range of the attachment object from the database
+	 * 
+	 * @param offset offset in the object
+	 * @param length number of bytes to read
+	 * @return data
+	 */
+	private byte[] readObjectData(long offset, int length) {
+		JNADatabaseAllocations dbAllocations = (JNADatabaseAllocations) m_parentDoc.getParent().getAdapter(APIObjectAllocations.class);
+		dbAllocations.checkDisposed();
+		
+		DHANDLE.ByReference rethBuffer = DHANDLE.newInstanceByReference();
+		
+		short result = LockUtil.lockHandle(dbAllocations.getDBHandle(), (dbHandleByVal) -> {
+			return NotesCAPI.get().NSFDbReadObject(dbHandleByVal, m_rrv, (int) (offset & 0xffffffffL), 
+					length, rethBuffer);
+		});
+		NotesErrorUtils.checkResult(result);
+		
+		return LockUtil.lockHandle(rethBuffer, (hBufferByVal) -> {
+			Pointer ptr = Mem.OSLockObject(hBufferByVal);
+			try {
+				return ptr.getByteArray(0, length);
+			}
+			finally {
+				Mem.OSUnlockObject(hBufferByVal);
+				Mem.OSMemFree(hBufferByVal);
+			}
+		});
+	}
+	
     @Override
     public void readData(final IDataCallback callback) {
       JNADocumentAllocations docAllocations =
@@ -266,6 +280,7 @@ public class JNAAttachment implements Attachment {
 			return NotesCAPI.get().NSFNoteDetachFile(handleByVal, itemBlockIdByVal);
 		});
 		NotesErrorUtils.checkResult(result);
+		((JNADocument)getParent()).invalidateItemValueCache("$FILE"); //$NON-NLS-1$
 	}
 
 	@Override
@@ -298,74 +313,30 @@ public class JNAAttachment implements Attachment {
 
 	@Override
 	public InputStream getInputStream() throws IOException {
-		Path tmpFile = Files.createTempFile("jnxtmp_", ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
-		extract(tmpFile);
-		return new BufferedInputStream(new TempFileInputStream(tmpFile));
+		return getInputStream(0, -1);
 	}
 	
-	/**
-	 * InputStream of a temporary file that automatically delete the
-	 * file when the data is read.
-	 */
-	private class TempFileInputStream extends InputStream {
-		private Path tmpFile;
-	    private InputStream inputStream;
-	    
-	    public TempFileInputStream(Path tmpFile) throws IOException {
-	    	this.tmpFile = tmpFile;
-	        this.inputStream = Files.newInputStream(tmpFile);
-	    }
+	@Override
+	public InputStream getInputStream(long offset, long length) throws IOException {
+		if (offset<0 || length<-1) {
+			throw new IllegalArgumentException(MessageFormat.format("Invalid range: offset {0}, length {1}", offset, length));
+		}
+		JNADocumentAllocations docAllocations = (JNADocumentAllocations) m_parentDoc.getAdapter(APIObjectAllocations.class);
+		docAllocations.checkDisposed();
 
-	    @Override
-	    public int available() throws IOException {
-	    	return this.inputStream.available();
-	    }
-	    
-	    @Override
-	    public synchronized void mark(int readlimit) {
-	    	this.inputStream.mark(readlimit);
-	    }
-	    
-	    @Override
-	    public boolean markSupported() {
-	    	return this.inputStream.markSupported();
-	    }
-	    
-	    @Override
-	    public int read(byte[] b) throws IOException {
-	    	return this.inputStream.read(b);
-	    }
-	    
-	    @Override
-	    public int read(byte[] b, int off, int len) throws IOException {
-	    	return this.inputStream.read(b, off, len);
-	    }
-	    
-	    @Override
-	    public synchronized void reset() throws IOException {
-	    	this.inputStream.reset();
-	    }
-	    
-	    @Override
-	    public long skip(long n) throws IOException {
-	    	return this.inputStream.skip(n);
-	    }
-	    
-	    @Override
-	    public void close() throws IOException {
-	    	this.inputStream.close();
-	    	Files.deleteIfExists(this.tmpFile);
-	    }
-	    
-	    @Override
-	    protected void finalize() throws Throwable {
-	    	this.inputStream.close();
-	    	Files.deleteIfExists(this.tmpFile);
-	    }
-	    
-	    @Override
-	    public int read() throws IOException {
-	    	return this.inputStream.read();
-	    }
+		if (getCompression() == Compression.NONE && !m_parentDoc.isEncrypted()) {
+			//read the stored object directly, no extraction required
+			long start = Math.min(offset, m_fileSize);
+			long available = m_fileSize - start;
+			return new ChunkedInputStream(this::readObjectData, start,
+					length==-1 ? available : Math.min(length, available), STREAM_CHUNK_SIZE);
+		}
+		else {
+			//decompression/decryption pushes the data to a callback, so we run it on a separate thread
+			ThreadFactory threadFactory = m_parentDoc.getParentDominoClient().getThreadFactory();
+			return new CallbackPipeInputStream(threadFactory, STREAM_READ_AHEAD, offset, length, (sink) -> {
+				readData((data) -> sink.test(data) ? Action.Continue : Action.Stop);
+			});
+		}
 	}
 }
@@ -16,8 +16,12 @@
  */
 package com.hcl.domino.jna.data;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.time.OffsetDateTime;
 import java.time.temporal.Temporal;
@@ -39,6 +43,7 @@ import java.util.stream.Collectors;
 
 import com.hcl.domino.commons.data.AbstractCollectionEntry;
 import com.hcl.domino.commons.data.AbstractTypedAccess;
+import com.hcl.domino.commons.data.DefaultDominoDateRange;
 import com.hcl.domino.commons.util.StringUtil;
 import com.hcl.domino.commons.views.ReadMask;
 import com.hcl.domino.data.CollectionEntryValueConverter;
@@ -46,6 +51,7 @@ import com.hcl.domino.data.Database;
 import com.hcl.domino.data.Database.DocInfo;
 import com.hcl.domino.data.Document;
 import com.hcl.domino.data.DocumentClass;
+import com.hcl.domino.data.DominoDateRange;
 import com.hcl.domino.data.DominoDateTime;
 import com.hcl.domino.jna.internal.LMBCSString;
 import com.hcl.domino.misc.DominoEnumUtil;
@@ -192,8 +198,21 @@ public class JNACollectionEntry extends AbstractCollectionEntry {
 		return null;
 	}
 
-	class CacheableViewEntryData implements Serializable {
+	static class CacheableViewEntryData implements Serializable {
 		private static final long serialVersionUID = -6919729244434994355L;
+		/** estimated memory usage of the object and its boxed fields */
+		private static final int BASE_SIZE = 160;
+		private static final int REFERENCE_SIZE = 16;
+		
+		private static final byte VALUE_NULL = 0;
+		private static final byte VALUE_STRING = 1;
+		private static final byte VALUE_LMBCSSTRING = 2;
+		private static final byte VALUE_DOUBLE = 3;
+		private static final byte VALUE_INTEGER = 4;
+		private static final byte VALUE_LONG = 5;
+		private static final byte VALUE_DATETIME = 6;
+		private static final byte VALUE_DATERANGE = 7;
+		private static final byte VALUE_LIST = 8;
 		
 		private int[] m_pos;
 		private String m_posStr;
@@ -213,6 +232,340 @@ public class JNACollectionEntry extends AbstractCollectionEntry {
 		private Map<String, Object> m_summaryData;
 		private transient SoftReference<Map<String, Object>> m_convertedDataRef;
 		private String m_singleColumnLookupName;
+		
+		Integer getNoteId() {
+			return m_noteId;
+		}
+		
+		/**
+		 * Estimates the memory used by this entry, based on the size of the
+		 * summary buffer values
+		 * 
+		 * @return size in bytes
+		 */
+		int estimateSize() {
+			long size = BASE_SIZE;
+			if (m_pos!=null) {
+				size += 4L * m_pos.length;
+			}
+			if (m_posStr!=null) {
+				size += 2L * m_posStr.length();
+			}
+			if (m_unid!=null) {
+				size += 2L * m_unid.length();
+			}
+			if (m_columnValues!=null) {
+				size += (long) REFERENCE_SIZE * m_columnValues.length;
+			}
+			if (m_columnValueSizes!=null) {
+				for (int currSize : m_columnValueSizes) {
+					// decoded values take more space than the LMBCS data
+					size += 4 + 2L * currSize;
+				}
+			}
+			if (m_summaryData!=null) {
+				size += (long) REFERENCE_SIZE * 4 * m_summaryData.size();
+			}
+			return (int) Math.min(Integer.MAX_VALUE, size);
+		}
+		
+		/**
+		 * Checks whether all values of this entry can be written via {@link #write(DataOutputStream)}
+		 * 
+		 * @return true if supported
+		 */
+		boolean isWritable() {
+			if (m_columnValues!=null) {
+				for (Object currValue : m_columnValues) {
+					if (!isWritableValue(currValue)) {
+						return false;
+					}
+				}
+			}
+			if (m_summaryData!=null) {
+				for (Object currValue : m_summaryData.values()) {
+					if (!isWritableValue(currValue)) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+		
+		private static boolean isWritableValue(Object value) {
+			if (value==null || value instanceof String || value instanceof LMBCSString || value instanceof Double
+					|| value instanceof Integer || value instanceof Long) {
+				return true;
+			}
+			else if (value instanceof DominoDateTime) {
+				return ((DominoDateTime) value).getAdapter(int[].class)!=null;
+			}
+			else if (value instanceof DominoDateRange) {
+				DominoDateRange range = (DominoDateRange) value;
+				return isWritableValue(range.getStartDateTime()) && isWritableValue(range.getEndDateTime());
+			}
+			else if (value instanceof List) {
+				for (Object currValue : (List<?>) value) {
+					if (!isWritableValue(currValue)) {
+						return false;
+					}
+				}
+				return true;
+			}
+			return false;
+		}
+		
+		/**
+		 * Writes the entry data in a compact binary format
+		 * 
+		 * @param out output stream
+		 * @throws IOException in case of I/O errors
+		 */
+		void write(DataOutputStream out) throws IOException {
+			writeIntArray(out, m_pos);
+			writeString(out, m_posStr);
+			writeInteger(out, m_noteId);
+			writeString(out, m_unid);
+			if (m_unidAsLongs==null) {
+				out.writeInt(-1);
+			}
+			else {
+				out.writeInt(m_unidAsLongs.length);
+				for (long currLong : m_unidAsLongs) {
+					out.writeLong(currLong);
+				}
+			}
+			writeInteger(out, m_noteClass);
+			writeInteger(out, m_siblingCount);
+			writeInteger(out, m_childCount);
+			writeInteger(out, m_descendantCount);
+			writeBoolean(out, m_isAnyUnread);
+			writeInteger(out, m_indentLevels);
+			writeInteger(out, m_ftScore);
+			writeBoolean(out, m_isUnread);
+			if (m_columnValues==null) {
+				out.writeInt(-1);
+			}
+			else {
+				out.writeInt(m_columnValues.length);
+				for (Object currValue : m_columnValues) {
+					writeValue(out, currValue);
+				}
+			}
+			writeIntArray(out, m_columnValueSizes);
+			if (m_summaryData==null) {
+				out.writeInt(-1);
+			}
+			else {
+				out.writeInt(m_summaryData.size());
+				for (Map.Entry<String,Object> currEntry : m_summaryData.entrySet()) {
+					writeString(out, currEntry.getKey());
+					writeValue(out, currEntry.getValue());
+				}
+			}
+			writeString(out, m_singleColumnLookupName);
+		}
+		
+		/**
+		 * Reads entry data written by {@link #write(DataOutputStream)}
+		 * 
+		 * @param in input stream
+		 * @return entry data
+		 * @throws IOException in case of I/O errors
+		 */
+		static CacheableViewEntryData read(DataInputStream in) throws IOException {
+			CacheableViewEntryData data = new CacheableViewEntryData();
+			data.m_pos = readIntArray(in);
+			data.m_posStr = readString(in);
+			data.m_noteId = readInteger(in);
+			data.m_unid = readString(in);
+			int unidLongs = in.readInt();
+			if (unidLongs>=0) {
+				data.m_unidAsLongs = new long[unidLongs];
+				for (int i=0; i<unidLongs; i++) {
+					data.m_unidAsLongs[i] = in.readLong();
+				}
+			}
+			data.m_noteClass = readInteger(in);
+			data.m_siblingCount = readInteger(in);
+			data.m_childCount = readInteger(in);
+			data.m_descendantCount = readInteger(in);
+			data.m_isAnyUnread = readBoolean(in);
+			data.m_indentLevels = readInteger(in);
+			data.m_ftScore = readInteger(in);
+			data.m_isUnread = readBoolean(in);
+			int columnCount = in.readInt();
+			if (columnCount>=0) {
+				data.m_columnValues = new Object[columnCount];
+				for (int i=0; i<columnCount; i++) {
+					data.m_columnValues[i] = readValue(in);
+				}
+			}
+			data.m_columnValueSizes = readIntArray(in);
+			int summaryCount = in.readInt();
+			if (summaryCount>=0) {
+				data.m_summaryData = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+				for (int i=0; i<summaryCount; i++) {
+					String key = readString(in);
+					data.m_summaryData.put(key, readValue(in));
+				}
+			}
+			data.m_singleColumnLookupName = readString(in);
+			return data;
+		}
+		
+		private static void writeValue(DataOutputStream out, Object value) throws IOException {
+			if (value==null) {
+				out.writeByte(VALUE_NULL);
+			}
+			else if (value instanceof String) {
+				out.writeByte(VALUE_STRING);
+				writeString(out, (String) value);
+			}
+			else if (value instanceof LMBCSString) {
+				out.writeByte(VALUE_LMBCSSTRING);
+				byte[] data = ((LMBCSString) value).getData();
+				out.writeInt(data.length);
+				out.write(data);
+			}
+			else if (value instanceof Double) {
+				out.writeByte(VALUE_DOUBLE);
+				out.writeDouble((Double) value);
+			}
+			else if (value instanceof Integer) {
+				out.writeByte(VALUE_INTEGER);
+				out.writeInt((Integer) value);
+			}
+			else if (value instanceof Long) {
+				out.writeByte(VALUE_LONG);
+				out.writeLong((Long) value);
+			}
+			else if (value instanceof DominoDateTime) {
+				out.writeByte(VALUE_DATETIME);
+				int[] innards = ((DominoDateTime) value).getAdapter(int[].class);
+				out.writeInt(innards[0]);
+				out.writeInt(innards[1]);
+			}
+			else if (value instanceof DominoDateRange) {
+				out.writeByte(VALUE_DATERANGE);
+				writeValue(out, ((DominoDateRange) value).getStartDateTime());
+				writeValue(out, ((DominoDateRange) value).getEndDateTime());
+			}
+			else if (value instanceof List) {
+				List<?> list = (List<?>) value;
+				out.writeByte(VALUE_LIST);
+				out.writeInt(list.size());
+				for (Object currValue : list) {
+					writeValue(out, currValue);
+				}
+			}
+			else {
+				throw new IllegalArgumentException(MessageFormat.format("Unsupported value type: {0}", value.getClass().getName()));
+			}
+		}
+		
+		private static Object readValue(DataInputStream in) throws IOException {
+			byte type = in.readByte();
+			switch (type) {
+			case VALUE_NULL:
+				return null;
+			case VALUE_STRING:
+				return readString(in);
+			case VALUE_LMBCSSTRING: {
+				byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				return new LMBCSString(data);
+			}
+			case VALUE_DOUBLE:
+				return in.readDouble();
+			case VALUE_INTEGER:
+				return in.readInt();
+			case VALUE_LONG:
+				return in.readLong();
+			case VALUE_DATETIME:
+				return new JNADominoDateTime(new int[] { in.readInt(), in.readInt() });
+			case VALUE_DATERANGE: {
+				DominoDateTime start = (DominoDateTime) readValue(in);
+				DominoDateTime end = (DominoDateTime) readValue(in);
+				return new DefaultDominoDateRange(start, end);
+			}
+			case VALUE_LIST: {
+				int size = in.readInt();
+				List<Object> list = new ArrayList<>(size);
+				for (int i=0; i<size; i++) {
+					list.add(readValue(in));
+				}
+				return list;
+			}
+			default:
+				throw new IOException(MessageFormat.format("Unknown value type: {0}", type));
+			}
+		}
+		
+		private static void writeString(DataOutputStream out, String str) throws IOException {
+			if (str==null) {
+				out.writeInt(-1);
+			}
+			else {
+				byte[] data = str.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(data.length);
+				out.write(data);
+			}
+		}
+		
+		private static String readString(DataInputStream in) throws IOException {
+			int len = in.readInt();
+			if (len<0) {
+				return null;
+			}
+			byte[] data = new byte[len];
+			in.readFully(data);
+			return new String(data, StandardCharsets.UTF_8);
+		}
+		
+		private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+			out.writeBoolean(value!=null);
+			if (value!=null) {
+				out.writeInt(value);
+			}
+		}
+		
+		private static Integer readInteger(DataInputStream in) throws IOException {
+			return in.readBoolean() ? in.readInt() : null;
+		}
+		
+		private static void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+			out.writeByte(value==null ? -1 : (value ? 1 : 0));
+		}
+		
+		private static Boolean readBoolean(DataInputStream in) throws IOException {
+			byte value = in.readByte();
+			return value==-1 ? null : value==1;
+		}
+		
+		private static void writeIntArray(DataOutputStream out, int[] values) throws IOException {
+			if (values==null) {
+				out.writeInt(-1);
+			}
+			else {
+				out.writeInt(values.length);
+				for (int currValue : values) {
+					out.writeInt(currValue);
+				}
+			}
+		}
+		
+		private static int[] readIntArray(DataInputStream in) throws IOException {
+			int len = in.readInt();
+			if (len<0) {
+				return null;
+			}
+			int[] values = new int[len];
+			for (int i=0; i<len; i++) {
+				values[i] = in.readInt();
+			}
+			return values;
+		}
 	}
 	
 	/**
@@ -243,6 +596,19 @@ public class JNACollectionEntry extends AbstractCollectionEntry {
 		return data;
 	}
 	
+	/**
+	 * Creates a new instance with the data of an entry that has been read from
+	 * another instance of the collection, e.g. on a different thread
+	 * 
+	 * @param parentCollection parent notes collection
+	 * @param data entry data
+	 */
+	JNACollectionEntry(JNADominoCollection parentCollection, CacheableViewEntryData data) {
+		this(parentCollection);
+		m_noteId = data.m_noteId;
+		updateFromCache(data);
+	}
+	
 	/**
 	 * Method to update the internal state from a cache entry
 	 * 
@@ -1286,4 +1652,9 @@ public class JNACollectionEntry extends AbstractCollectionEntry {
 	public <T> Optional<List<T>> getAsListOptional(String itemName, Class<T> valueType) {
 	  return m_typedAccess.getAsListOptional(itemName, valueType);
 	}
+
+	@Override
+	public double[] getAsDoubleArray(String itemName, double[] defaultValue) {
+	  return m_typedAccess.getAsDoubleArray(itemName, defaultValue);
+	}
 }
@@ -30,15 +30,19 @@ import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
+import com.hcl.domino.DominoClient;
+import com.hcl.domino.DominoException;
 import com.hcl.domino.commons.gc.APIObjectAllocations;
 import com.hcl.domino.commons.gc.IAPIObject;
 import com.hcl.domino.commons.gc.IGCDominoClient;
 import com.hcl.domino.commons.util.NotesErrorUtils;
 import com.hcl.domino.commons.util.StringUtil;
+import com.hcl.domino.commons.views.ParallelCollectionReader;
 import com.hcl.domino.commons.views.ReadMask;
 import com.hcl.domino.data.CollectionEntry;
 import com.hcl.domino.data.CollectionEntry.SpecialValue;
 import com.hcl.domino.data.CollectionSearchQuery;
+import com.hcl.domino.data.Database;
 import com.hcl.domino.data.Database.Action;
 import com.hcl.domino.data.Document;
 import com.hcl.domino.data.FTQuery;
@@ -779,6 +783,123 @@ public class JNACollectionSearchQuery extends BaseJNAAPIObject<JNACollectionSear
       });
     }
 
+	@Override
+	public Stream<CollectionEntry> parallelStream(int parallelism, boolean ordered) {
+		JNADominoCollection collection = (JNADominoCollection) getParent();
+		if (!isPartitionable()) {
+			return collectEntries(0, Integer.MAX_VALUE).stream();
+		}
+		
+		Database db = collection.getParentDatabase();
+		DominoClient client = getParentDominoClient();
+		String server = db.getServer();
+		String filePath = db.getRelativeFilePath();
+		int viewNoteId = collection.getNoteId();
+		//the collections of the reader threads have to use the same sorting
+		short collation = collection.getCollation();
+		Navigate direction = m_direction;
+		
+		//positions are needed to find the end of each partition
+		Set<ReadMask> readMask = EnumSet.copyOf(m_readMask);
+		readMask.add(ReadMask.INDEXPOSITION);
+		
+		return ParallelCollectionReader.stream(collection.getTopLevelEntries(), parallelism, ordered, client.getThreadFactory(),
+				(firstTopLevelEntry, lastTopLevelEntry) -> readPartition(client, server, filePath, viewNoteId, collation,
+						direction, readMask, firstTopLevelEntry, lastTopLevelEntry))
+				.map((data) -> new JNACollectionEntry(collection, data));
+	}
+	
+	/**
+	 * Checks whether the query can be split into ranges of top-level entries
+	 * that are read independently
+	 * 
+	 * @return true if partitionable
+	 */
+	private boolean isPartitionable() {
+		if (m_startAtLastEntry || m_startAtEntryId!=0 || m_startAtCategory!=null || m_startAtCategoryLevels!=null
+				|| m_startAtPosition!=null) {
+			return false;
+		}
+		if (m_hasSelectionSet || m_hasExpandedEntries) {
+			//selection and expand states are stored in IDTables of the collection instance
+			return false;
+		}
+		
+		switch (m_direction) {
+		case NEXT_ENTRY:
+		case NEXT_DOCUMENT:
+		case NEXT_CATEGORY:
+		case NEXT_ON_TOPLEVEL:
+			return true;
+		default:
+			return false;
+		}
+	}
+	
+	/**
+	 * Reads the entries below a range of top-level positions. Called on a reader thread,
+	 * so the method opens its own database and collection.
+	 * 
+	 * @param client Domino client
+	 * @param server database server
+	 * @param filePath database file path
+	 * @param viewNoteId note id of the collection
+	 * @param collation active collation of the collection, e.g. after {@link JNADominoCollection#resortView(String, com.hcl.domino.data.DominoCollection.Direction)}
+	 * @param direction navigation direction
+	 * @param readMask data to read
+	 * @param firstTopLevelEntry first top-level position
+	 * @param lastTopLevelEntry last top-level position (inclusive)
+	 * @return entry data, not bound to the collection instance of the reader thread
+	 */
+	private static List<JNACollectionEntry.CacheableViewEntryData> readPartition(DominoClient client, String server,
+			String filePath, int viewNoteId, short collation, Navigate direction, Set<ReadMask> readMask,
+			int firstTopLevelEntry, int lastTopLevelEntry) {
+		
+		Database db = client.openDatabase(server, filePath);
+		try {
+			JNADominoCollection collection = (JNADominoCollection) db.openCollection(viewNoteId)
+					.orElseThrow(() -> new DominoException(MessageFormat.format("Collection with note id {0} not found", viewNoteId)));
+			if (collation != 0) {
+				collection.setCollation(collation);
+			}
+			
+			//start at the top-level entry and read until we reach the next partition
+			return collection.getAllEntries(Integer.toString(firstTopLevelEntry), 0, direction, Integer.MAX_VALUE, readMask,
+					new CollectionEntryProcessor<List<JNACollectionEntry.CacheableViewEntryData>>() {
+
+				@Override
+				public List<JNACollectionEntry.CacheableViewEntryData> start() {
+					return new ArrayList<>();
+				}
+
+				@Override
+				public Action entryRead(List<JNACollectionEntry.CacheableViewEntryData> result, CollectionEntry entry) {
+					int[] pos = entry.getSpecialValue(SpecialValue.INDEXPOSITION, int[].class, null);
+					if (pos==null || pos.length==0 || pos[0] > lastTopLevelEntry) {
+						return Action.Stop;
+					}
+					
+					//the entry at the start position is returned independent of the direction
+					if ((direction == Navigate.NEXT_DOCUMENT && entry.isCategory()) ||
+							(direction == Navigate.NEXT_CATEGORY && !entry.isCategory())) {
+						return Action.Continue;
+					}
+					
+					result.add(((JNACollectionEntry) entry).getCacheableData());
+					return Action.Continue;
+				}
+
+				@Override
+				public List<JNACollectionEntry.CacheableViewEntryData> end(List<JNACollectionEntry.CacheableViewEntryData> result) {
+					return result;
+				}
+			});
+		}
+		finally {
+			db.close();
+		}
+	}
+	
 	@Override
 	public int size() {
 		if (m_total==null) {
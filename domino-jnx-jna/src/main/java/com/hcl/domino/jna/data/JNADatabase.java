@@ -53,6 +53,7 @@ import com.hcl.domino.admin.replication.ReplicaInfo;
 import com.hcl.domino.commons.constants.UpdateNote;
 import com.hcl.domino.commons.data.AccessInfoImpl;
 import com.hcl.domino.commons.data.BuildVersionInfoImpl;
+import com.hcl.domino.commons.data.CompressedIDTable;
 import com.hcl.domino.commons.data.DefaultDominoDateTime;
 import com.hcl.domino.commons.data.EncryptionInfoImpl;
 import com.hcl.domino.commons.data.NSFVersionInfoImpl;
@@ -3073,15 +3074,17 @@ public class JNADatabase extends BaseJNAAPIObject<JNADatabaseAllocations> implem
 						return idTable;
 					}
 					else {
-						//remove deleted notes from the idtable
-						JNAIDTable idTableNoDeletions = new JNAIDTable(JNADatabase.this.getParentDominoClient());
-						for (Integer currNoteId : idTable) {
+						//remove deleted notes from the idtable, collecting the remaining ids without a native call per id
+						CompressedIDTable noteIdsNoDeletions = new CompressedIDTable();
+						idTable.forEachInt((currNoteId) -> {
 							if ((currNoteId & IDTable.NOTEID_FLAG_DELETED) != IDTable.NOTEID_FLAG_DELETED) {
-								idTableNoDeletions.add(currNoteId);
+								noteIdsNoDeletions.addInt(currNoteId);
 							}
-						}
+						});
 						idTable.dispose();
 						
+						JNAIDTable idTableNoDeletions = new JNAIDTable(JNADatabase.this.getParentDominoClient(), noteIdsNoDeletions);
+						
 						DominoDateTime retUntil = new JNADominoDateTime(retUntilStruct.Innards);
 						idTableNoDeletions.setDateTime(retUntil);
 
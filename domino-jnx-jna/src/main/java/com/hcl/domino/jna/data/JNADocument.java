@@ -46,8 +46,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -77,6 +75,7 @@ import com.hcl.domino.commons.mime.NotesMIMEPart;
 import com.hcl.domino.commons.mime.NotesMIMEPart.PartType;
 import com.hcl.domino.commons.richtext.DefaultRichTextList;
 import com.hcl.domino.commons.structures.MemoryStructureUtil;
+import com.hcl.domino.commons.util.DominoUtils;
 import com.hcl.domino.commons.util.ListUtil;
 import com.hcl.domino.commons.util.NotesDateTimeUtils;
 import com.hcl.domino.commons.util.NotesErrorUtils;
@@ -112,6 +111,7 @@ import com.hcl.domino.jna.data.JNADatabaseObjectProducer.ObjectInfo;
 import com.hcl.domino.jna.internal.AgentRunInfoDecoder;
 import com.hcl.domino.jna.internal.DisposableMemory;
 import com.hcl.domino.jna.internal.ItemDecoder;
+import com.hcl.domino.jna.internal.ItemValueCache;
 import com.hcl.domino.jna.internal.JNAMemoryUtils;
 import com.hcl.domino.jna.internal.JNANotesConstants;
 import com.hcl.domino.jna.internal.Mem;
@@ -122,6 +122,7 @@ import com.hcl.domino.jna.internal.callbacks.NotesCallbacks;
 import com.hcl.domino.jna.internal.capi.INotesCAPI1201;
 import com.hcl.domino.jna.internal.capi.NotesCAPI;
 import com.hcl.domino.jna.internal.capi.NotesCAPI1201;
+import com.hcl.domino.jna.internal.capi.NotesFastCAPI;
 import com.hcl.domino.jna.internal.gc.allocations.JNADatabaseAllocations;
 import com.hcl.domino.jna.internal.gc.allocations.JNADocumentAllocations;
 import com.hcl.domino.jna.internal.gc.handles.DHANDLE;
@@ -138,6 +139,7 @@ import com.hcl.domino.jna.internal.structs.NotesTimeDateStruct;
 import com.hcl.domino.jna.internal.structs.NotesUniversalNoteIdStruct;
 import com.hcl.domino.jna.misc.LMBCSCharsetProvider.LMBCSCharset;
 import com.hcl.domino.jna.richtext.JNARichtextWriter;
+import com.hcl.domino.jna.utils.CacheStats;
 import com.hcl.domino.jna.utils.JNADominoUtils;
 import com.hcl.domino.misc.DominoEnumUtil;
 import com.hcl.domino.misc.JNXServiceFinder;
@@ -169,10 +171,19 @@ import jakarta.mail.internet.InternetHeaders;
 
 public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
     implements IDefaultDocument, AutoCloseableDocument {
+  /**
+   * Set the Java property {@code jnx.itemvaluecache} or the environment variable
+   * {@code JNX_ITEMVALUECACHE} to {@code true} to enable the item value cache for all
+   * documents
+   */
+  private static final boolean ITEM_VALUE_CACHE_DEFAULT = DominoUtils.checkBooleanProperty("jnx.itemvaluecache", "JNX_ITEMVALUECACHE"); //$NON-NLS-1$ //$NON-NLS-2$
+  private static final String ITEM_VALUE_CACHE_NAME = "Item values"; //$NON-NLS-1$
+
   private Set<DocumentClass> m_documentClass;
   private AbstractTypedAccess m_typedAccess;
   private ThreadLocal<Set<Class<?>>> readingItemType = ThreadLocal.withInitial(HashSet::new);
   private boolean m_saveMessageOnSend;
+  private volatile ItemValueCache m_itemValueCache;
 
   public JNADocument(JNADatabase parent, IAdaptable adaptable) {
     this(parent, adaptable, false);
@@ -188,6 +199,10 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
     getAllocations().setNoteHandle(handle);
     getAllocations().setNoRecycle(noRecycle);
 
+    if (ITEM_VALUE_CACHE_DEFAULT) {
+      m_itemValueCache = new ItemValueCache(ITEM_VALUE_CACHE_NAME);
+    }
+
     m_typedAccess = new AbstractTypedAccess() {
       @Override
       public boolean hasItem(String itemName) {
@@ -204,6 +219,18 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
         return JNADocument.this.getItemValue(itemName);
       }
 
+      @Override
+      protected List<?> getItemValueForRead(String itemName) {
+        checkDisposed();
+        ItemValueCache cache = m_itemValueCache;
+        if (cache != null) {
+          // read-only conversions can use the shared cached list without copying it
+          return cache.getValues(itemName, JNADocument.this::readItemValue);
+        }
+        // primitive-backed lists from the decoder can be read without copying them
+        return readItemValue(itemName);
+      }
+
       @Override
       protected <T> T getViaValueConverter(String itemName, Class<T> valueType, T defaultValue) {
         DocumentValueConverter converter =
@@ -287,6 +314,75 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
     return this;
   }
 
+  /**
+   * Enables or disables the cache for decoded item values of this document.<br>
+   * <br>
+   * While enabled, {@link #getItemValue(String)}, {@link #get(String, Class, Object)},
+   * {@link #getAsList(String, Class, List)} and {@link #getAsText(String, char)} return
+   * values decoded earlier for the same item name and type. Cached values of an item are
+   * dropped when it is written via this document or its {@link Item} objects. Code that
+   * modifies the note handle directly has to call {@link #invalidateItemValueCache()}.
+   * Item values that contain mutable objects, e.g. {@link DominoDateTime} or ranges,
+   * are decoded on every call.
+   * 
+   * @param enabled true to enable the cache
+   * @return this document
+   * @since 1.54.0
+   */
+  public JNADocument setItemValueCacheEnabled(boolean enabled) {
+    if (!enabled) {
+      m_itemValueCache = null;
+    } else if (m_itemValueCache == null) {
+      m_itemValueCache = new ItemValueCache(ITEM_VALUE_CACHE_NAME);
+    }
+    return this;
+  }
+
+  /**
+   * Checks whether the cache for decoded item values is enabled for this document
+   * 
+   * @return true if enabled
+   * @since 1.54.0
+   */
+  public boolean isItemValueCacheEnabled() {
+    return m_itemValueCache != null;
+  }
+
+  /**
+   * Returns the usage statistics of the item value cache of this document
+   * 
+   * @return statistics or an empty optional if the cache is disabled
+   * @since 1.54.0
+   */
+  public Optional<CacheStats> getItemValueCacheStats() {
+    ItemValueCache cache = m_itemValueCache;
+    return cache == null ? Optional.empty() : Optional.of(cache.getStats());
+  }
+
+  /**
+   * Drops all values from the item value cache
+   * 
+   * @since 1.54.0
+   */
+  public void invalidateItemValueCache() {
+    ItemValueCache cache = m_itemValueCache;
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  /**
+   * Drops the cached values of an item
+   * 
+   * @param itemName item name
+   */
+  void invalidateItemValueCache(String itemName) {
+    ItemValueCache cache = m_itemValueCache;
+    if (cache != null) {
+      cache.invalidate(itemName);
+    }
+  }
+
   @Override
   public Database getParentDatabase() {
     return (Database) super.getParent();
@@ -318,6 +414,28 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   public List<?> getItemValue(String itemName) {
     checkDisposed();
 
+    ItemValueCache cache = m_itemValueCache;
+    if (cache != null) {
+      List<?> values = cache.getValues(itemName, this::readItemValue);
+      // cached lists are shared and have to be copied, because callers may modify the returned list
+      return ItemValueCache.isShareable(values) ? ItemValueCache.copyValues(values) : toModifiableList(values);
+    }
+    return toModifiableList(readItemValue(itemName));
+  }
+
+  /**
+   * Number and time/date lists are decoded into fixed-size primitive-backed lists,
+   * while callers of the public API expect a list they can modify
+   *
+   * @param <T> value type
+   * @param values decoded values
+   * @return the values or a modifiable copy
+   */
+  static <T> List<T> toModifiableList(List<T> values) {
+    return values instanceof ArrayList ? values : new ArrayList<>(values);
+  }
+
+  private List<?> readItemValue(String itemName) {
     JNAItem item = (JNAItem) getFirstItem(itemName).orElse(null);
     if (item == null) {
       return Collections.emptyList();
@@ -876,53 +994,44 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   public Document forEachItem(final String searchForItemName, BiConsumer<Item, Loop> consumer) {
     LoopImpl loop = new LoopImpl();
 
-    AtomicInteger itemIdx = new AtomicInteger(-1);
-    // to be able to report that the item is the last one, we need to prefetch one
-    AtomicReference<Item> lastReadItem = new AtomicReference<>();
-
-    getItems(searchForItemName, item -> {
-      if (itemIdx.get() == -1) {
-        // first match
-        lastReadItem.set(item);
-      } else {
-        // report last read
-        consumer.accept(lastReadItem.get(), loop);
-        // store item for next loop run
-        lastReadItem.set(item);
-      }
-
-      loop.setIndex(itemIdx.incrementAndGet());
-
-      if (loop.isStopped()) {
-        return IItemCallback.Action.Stop;
-      } else {
-        return IItemCallback.Action.Continue;
+    JNAItemInfoTable table = getItemInfoTable(searchForItemName);
+    int size = table.size();
+    for (int i = 0; i < size && !loop.isStopped(); i++) {
+      loop.setIndex(i);
+      if (i == size - 1) {
+        loop.setIsLast();
       }
-    });
-
-    // report last item
-    Item lastItem = lastReadItem.get();
-    if (lastItem != null && !loop.isStopped()) {
-      loop.setIsLast();
-
-      consumer.accept(lastItem, loop);
+      consumer.accept(new JNAItem(this, table, i), loop);
     }
     return this;
   }
 
   @Override
   public Stream<Item> allItems() {
-    List<Item> items = new ArrayList<>();
-    getItems(null, item -> {
-      items.add(item);
-      return IItemCallback.Action.Continue;
-    });
+    JNAItemInfoTable table = getItemInfoTable(null);
+    List<Item> items = new ArrayList<>(table.size());
+    for (int i = 0; i < table.size(); i++) {
+      items.add(new JNAItem(this, table, i));
+    }
 
     return items.stream();
   }
 
 
 
+  /**
+   * Reads the descriptors of all items with the specified name while locking the note
+   * handle only once
+   * 
+   * @param searchForItemName item name to search for or null to read all items
+   * @return item info table
+   */
+  JNAItemInfoTable getItemInfoTable(final String searchForItemName) {
+    checkDisposed();
+
+    return JNAItemInfoTable.read(getAllocations().getNoteHandle(), searchForItemName);
+  }
+
   /**
    * Scans through all items of this note that have the specified name
    * 
@@ -943,9 +1052,9 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
 
       JNADocumentAllocations allocations = getAllocations();
       short result = LockUtil.lockHandle(allocations.getNoteHandle(), (noteHandleByVal) -> {
-        return NotesCAPI.get().NSFItemInfo(noteHandleByVal, itemNameMem,
+        return NotesFastCAPI.get().NSFItemInfo(noteHandleByVal.getValue(), itemNameMem,
             itemNameMem == null ? 0 : (short) (itemNameMem.size() & 0xffff),
-            itemBlockIdMem, retDataType, valueBlockIdMem, retValueLen);
+            itemBlockIdMem, retDataType.getPointer(), valueBlockIdMem, retValueLen.getPointer());
       });
 
       if (result == INotesErrorConstants.ERR_ITEM_NOT_FOUND) {
@@ -978,10 +1087,10 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
         itemBlockIdByVal.block = itemBlockId.getBlock();
 
         result = LockUtil.lockHandle(allocations.getNoteHandle(), (noteHandleByVal) -> {
-          return NotesCAPI.get().NSFItemInfoNext(noteHandleByVal, itemBlockIdByVal,
+          return NotesFastCAPI.get().NSFItemInfoNext(noteHandleByVal.getValue(), itemBlockIdByVal,
               itemNameMem, itemNameMem == null ? 0 : (short) (itemNameMem.size() & 0xffff),
-              itemBlockIdMem, retDataType,
-              valueBlockIdMem, retNextValueLen);
+              itemBlockIdMem, retDataType.getPointer(),
+              valueBlockIdMem, retNextValueLen.getPointer());
         });
 
         if (result == INotesErrorConstants.ERR_ITEM_NOT_FOUND) {
@@ -1113,6 +1222,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   @Override
   public void attachCertificate(X509Certificate certificate) {
     Objects.requireNonNull(certificate, "certificate cannot be null");
+    invalidateItemValueCache();
     NotesErrorUtils
         .checkResult(LockUtil.lockHandle(getAllocations().getNoteHandle(), (noteHandleByVal) -> {
           try {
@@ -1133,6 +1243,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
     if (certificate == null) {
       return this;
     }
+    invalidateItemValueCache();
 
     NotesErrorUtils
         .checkResult(LockUtil.lockHandle(getAllocations().getNoteHandle(), (noteHandleByVal) -> {
@@ -1371,6 +1482,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
     while (hasItem(itemName)) {
       removeItem(itemName);
     }
+    invalidateItemValueCache(itemName);
 
     short flagsShort = ItemFlag.PLACEHOLDER.getValue().shortValue();
     Memory itemNameMem = NotesStringUtils.toLMBCS(itemName, false);
@@ -1596,6 +1708,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
       Object value, DocumentValueConverter valueConverter, boolean allowDataTypeChanges) {
 
     checkDisposed();
+    invalidateItemValueCache(itemName);
 
     // remove our own pseudo flags:
     boolean keepLineBreaks = flagsOrig.contains(ItemFlag.KEEPLINEBREAKS);
@@ -2218,6 +2331,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   public Document appendItemValue(String itemName, Set<ItemFlag> flags, DHANDLE.ByValue hItemValue,
       int valueLength) {
     checkDisposed();
+    invalidateItemValueCache(itemName);
 
     Memory itemNameMem = NotesStringUtils.toLMBCS(itemName, false);
 
@@ -2257,6 +2371,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   public Document appendItemValue(String itemName, Set<ItemFlag> flags, int itemType, Pointer ptr,
       int valueLength) {
     checkDisposed();
+    invalidateItemValueCache(itemName);
 
     Memory itemNameMem = NotesStringUtils.toLMBCS(itemName, false);
 
@@ -2286,6 +2401,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   @Override
   public RichTextWriter createRichTextItem(String itemName) {
     checkDisposed();
+    invalidateItemValueCache(itemName);
     JNADocumentAllocations allocations = getAllocations();
 
     JNARichtextWriter writer = new JNARichtextWriter(this, itemName);
@@ -2303,6 +2419,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   public Attachment attachFile(String filePathOnDisk, String uniqueFileNameInNote,
       Compression compression) {
     checkDisposed();
+    invalidateItemValueCache();
 
     // make sure that the unique filename is really unique, since it will be used to return the
     // NotesAttachment object
@@ -2351,6 +2468,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
       TemporalAccessor fileModified, IAttachmentProducer producer) {
 
     checkDisposed();
+    invalidateItemValueCache();
 
     // currently we do not support compression, because we could not find a Java OutputStream
     // implementation for Huffman that produced compatible result and no implementation at all
@@ -2490,6 +2608,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   @Override
   public Document sign() {
     checkDisposed();
+    invalidateItemValueCache();
 
     Set<DocumentClass> docClass = getDocumentClass();
 
@@ -2522,6 +2641,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   @Override
   public Document sign(UserId id, boolean signNotesIfMimePresent) {
     checkDisposed();
+    invalidateItemValueCache();
 
     LockUtil.lockHandle(getAllocations().getNoteHandle(), (hNoteByVal) -> {
       short result = NotesCAPI.get().NSFNoteExpand(hNoteByVal);
@@ -2564,6 +2684,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   @Override
   public Document unsign() {
     checkDisposed();
+    invalidateItemValueCache();
 
     short result = LockUtil.lockHandle(getAllocations().getNoteHandle(), (hNoteByVal) -> {
       return NotesCAPI.get().NSFNoteUnsign(hNoteByVal);
@@ -2675,6 +2796,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   @Override
   public Document decrypt(UserId id) {
     checkDisposed();
+    invalidateItemValueCache();
 
     short decryptFlags = NotesConstants.DECRYPT_ATTACHMENTS_IN_PLACE;
 
@@ -3310,7 +3432,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
     JNADocumentAllocations allocations = getAllocations();
     short result = LockUtil.lockHandle(allocations.getNoteHandle(), (noteHandleByVal) -> {
       short name_len = itemNameMem == null ? 0 : (short) (itemNameMem.size() & 0xffff);
-      return NotesCAPI.get().NSFItemInfo(noteHandleByVal, itemNameMem, name_len,
+      return NotesFastCAPI.get().NSFItemInfo(noteHandleByVal.getValue(), itemNameMem, name_len,
           null, null, null, null);
 
     });
@@ -3320,10 +3442,10 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   @Override
   public List<String> getItemNames() {
     Set<String> itemNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
-    getItems("", item -> { //$NON-NLS-1$
-      itemNames.add(item.getName());
-      return IItemCallback.Action.Continue;
-    });
+    JNAItemInfoTable table = getItemInfoTable(null);
+    for (int i = 0; i < table.size(); i++) {
+      itemNames.add(table.getName(i));
+    }
 
     return new ArrayList<>(itemNames);
   }
@@ -3427,6 +3549,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   @Override
   public Document removeItem(String itemName) {
     checkDisposed();
+    invalidateItemValueCache(itemName);
 
     Memory itemNameMem = NotesStringUtils.toLMBCS(itemName, false);
 
@@ -3447,11 +3570,25 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
 
   @Override
   public <T> T get(String itemName, Class<T> valueType, T defaultValue) {
+    ItemValueCache cache = m_itemValueCache;
+    if (cache != null && ItemValueCache.isCacheableType(valueType)) {
+      checkDisposed();
+      // conversions return the default value if there is no value, so we cache the result for null
+      T value = valueType.cast(cache.getScalar(itemName, valueType, () -> m_typedAccess.get(itemName, valueType, null)));
+      return value == null ? defaultValue : value;
+    }
     return m_typedAccess.get(itemName, valueType, defaultValue);
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <T> List<T> getAsList(String itemName, Class<T> valueType, List<T> defaultValue) {
+    ItemValueCache cache = m_itemValueCache;
+    if (cache != null && ItemValueCache.isCacheableType(valueType)) {
+      checkDisposed();
+      List<T> value = (List<T>) cache.getList(itemName, valueType, () -> m_typedAccess.getAsList(itemName, valueType, null));
+      return value == null ? defaultValue : new ArrayList<>(value);
+    }
     return m_typedAccess.getAsList(itemName, valueType, defaultValue);
   }
 
@@ -3465,6 +3602,11 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
     return m_typedAccess.getAsListOptional(itemName, valueType);
   }
 
+  @Override
+  public double[] getAsDoubleArray(String itemName, double[] defaultValue) {
+    return m_typedAccess.getAsDoubleArray(itemName, defaultValue);
+  }
+
   private String[] parseProfileAndUserName() {
     String name = get("$name", String.class, ""); // $profile_015calendarprofile_<username> //$NON-NLS-1$ //$NON-NLS-2$
     if (StringUtil.isEmpty(name) || !name.startsWith("$profile_")) { //$NON-NLS-1$
@@ -3922,6 +4064,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   @Override
   public Document send(boolean attachform, Collection<String> recipients) {
     checkDisposed();
+    invalidateItemValueCache();
 
     JNADatabase parentDb = (JNADatabase) getParentDatabase();
 
@@ -4272,6 +4415,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   public Document computeWithForm(boolean continueOnError, Form form,
       final ComputeWithFormCallback callback) {
     checkDisposed();
+    invalidateItemValueCache();
 
     int dwFlags = continueOnError ? NotesConstants.CWF_CONTINUE_ON_ERROR : 0;
 
@@ -4383,6 +4527,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
 
   @Override
   public void convertRFC822Items() {
+    invalidateItemValueCache();
     short result = LockUtil.lockHandle(getAllocations().getNoteHandle(), (hNoteByVal) -> {
       boolean isCanonical =
           (getFlags() & NotesConstants.NOTE_FLAG_CANONICAL) == NotesConstants.NOTE_FLAG_CANONICAL;
@@ -4444,6 +4589,7 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   @Override
   public Document compileLotusScript() {
     checkDisposed();
+    invalidateItemValueCache();
 
     JNADatabaseAllocations parentDbAllocations =
         (JNADatabaseAllocations) getParent().getAdapter(APIObjectAllocations.class);
@@ -4492,6 +4638,14 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   public String getAsText(String itemName, char separator) {
     checkDisposed();
 
+    ItemValueCache cache = m_itemValueCache;
+    if (cache != null) {
+      return cache.getText(itemName, separator, () -> readItemAsText(itemName, separator));
+    }
+    return readItemAsText(itemName, separator);
+  }
+
+  private String readItemAsText(String itemName, char separator) {
     try (DisposableMemory returnBuf = new DisposableMemory(60 * 1024)) {
       short txtLengthAsShort =
           LockUtil.lockHandle(getAllocations().getNoteHandle(), (hNoteByVal) -> {
@@ -4513,28 +4667,28 @@ public class JNADocument extends BaseJNAAPIObject<JNADocumentAllocations>
   public long size() {
     checkDisposed();
 
-    long[] totalSize = new long[1];
+    long totalSize = 0;
 
-    getItems(null, (item) -> {
-      totalSize[0] += item.getValueLength();
+    JNAItemInfoTable table = getItemInfoTable(null);
+    for (int i = 0; i < table.size(); i++) {
+      totalSize += table.getValueLength(i);
 
-      if (item.getType() == ItemDataType.TYPE_OBJECT) {
-        List<Object> fileDataAsList = item.getValue();
+      if (table.getDataType(i) == ItemDataType.TYPE_OBJECT.getValue()) {
+        List<Object> fileDataAsList = new JNAItem(this, table, i).getValue();
         if (!fileDataAsList.isEmpty() && fileDataAsList.get(0) instanceof Attachment) {
           Attachment att = (Attachment) fileDataAsList.get(0);
-          totalSize[0] += att.getFileSize();
+          totalSize += att.getFileSize();
         }
       }
+    }
 
-      return IItemCallback.Action.Continue;
-    });
-
-    return totalSize[0];
+    return totalSize;
   }
 
   @Override
   public Document appendToTextList(String itemName, String value, boolean allowDuplicates) {
     checkDisposed();
+    invalidateItemValueCache(itemName);
 
     Memory itemNameMem = NotesStringUtils.toLMBCS(itemName, true);
     Memory valueMem = NotesStringUtils.toLMBCS(Objects.requireNonNull(value), false);
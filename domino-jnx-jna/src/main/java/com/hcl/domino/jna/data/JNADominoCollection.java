@@ -37,6 +37,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import com.hcl.domino.BuildVersionInfo;
 import com.hcl.domino.DominoException;
@@ -73,10 +74,11 @@ import com.hcl.domino.exception.ObjectDisposedException;
 import com.hcl.domino.jna.BaseJNAAPIObject;
 import com.hcl.domino.jna.JNADominoClient;
 import com.hcl.domino.jna.data.CollectionDataCache.CacheState;
-import com.hcl.domino.jna.data.JNACollectionEntry.CacheableViewEntryData;
+import com.hcl.domino.jna.data.CollectionDataCache.CollectionIdentity;
 import com.hcl.domino.jna.internal.Mem;
 import com.hcl.domino.jna.internal.callbacks.NotesCallbacks;
 import com.hcl.domino.jna.internal.capi.NotesCAPI;
+import com.hcl.domino.jna.internal.capi.NotesFastCAPI;
 import com.hcl.domino.jna.internal.gc.allocations.JNADominoCollectionAllocations;
 import com.hcl.domino.jna.internal.gc.allocations.JNAIDTableAllocations;
 import com.hcl.domino.jna.internal.gc.handles.DHANDLE;
@@ -85,6 +87,7 @@ import com.hcl.domino.jna.internal.gc.handles.LockUtil;
 import com.hcl.domino.jna.internal.structs.NIFFindByKeyContextStruct;
 import com.hcl.domino.jna.internal.structs.NotesCollectionPositionStruct;
 import com.hcl.domino.jna.internal.structs.NotesTimeDateStruct;
+import com.hcl.domino.jna.internal.views.NotesLookupResultBufferCursor;
 import com.hcl.domino.jna.internal.views.NotesLookupResultBufferDecoder;
 import com.hcl.domino.jna.internal.views.NotesSearchKeyEncoder;
 import com.hcl.domino.jna.internal.views.NotesViewLookupResultData;
@@ -525,7 +528,7 @@ public class JNADominoCollection extends BaseJNAAPIObject<JNADominoCollectionAll
    * 
    * @param collation collation
    */
-  private void setCollation(short collation) {
+  void setCollation(short collation) {
     checkDisposed();
 
     JNADominoCollectionAllocations allocations = getAllocations();
@@ -1143,6 +1146,87 @@ public class JNADominoCollection extends BaseJNAAPIObject<JNADominoCollectionAll
   public NotesViewLookupResultData readEntries(JNADominoCollectionPosition startPos,
       Navigate skipNavigator, boolean skipNavigatorContinue,
       int skipCount, Navigate returnNavigator, int returnCount, EnumSet<ReadMask> returnMask) {
+    return readEntriesBuffer(startPos, skipNavigator, skipNavigatorContinue, skipCount, returnNavigator,
+        returnCount, returnMask,
+        (retBuffer, numEntriesSkipped, numEntriesReturned, signalFlags, indexModifiedSequenceNo) -> {
+          if (retBuffer == null) {
+            return new NotesViewLookupResultData(null, new ArrayList<JNACollectionEntry>(0),
+                numEntriesSkipped, numEntriesReturned, signalFlags, null, indexModifiedSequenceNo, null);
+          } else {
+            boolean convertStringsLazily = true;
+            boolean convertNotesTimeDateToCalendar = false;
+
+            NotesViewLookupResultData viewData =
+                NotesLookupResultBufferDecoder.decodeCollectionLookupResultBuffer(this, retBuffer,
+                    numEntriesSkipped, numEntriesReturned, returnMask, signalFlags, null,
+                    indexModifiedSequenceNo, null, convertStringsLazily, convertNotesTimeDateToCalendar,
+                    null);
+            return viewData;
+          }
+        });
+  }
+
+  /**
+   * Reads collection entries (using NIFReadEntries method) like
+   * {@link #readEntries(JNADominoCollectionPosition, Navigate, boolean, int, Navigate, int, EnumSet)},
+   * but does not decode the returned buffer into {@link JNACollectionEntry} objects.<br>
+   * Instead the consumer receives a {@link NotesLookupResultBufferCursor} that reads note ids and
+   * column values on demand from the locked buffer, which is much cheaper for large scans
+   * that only need a few columns.
+   * 
+   * @param <T> result type
+   * @param startPos start position for the scan; will be modified by the method to reflect the
+   *        current position
+   * @param skipNavigator navigator to use for the skip operation
+   * @param skipNavigatorContinue true to set NAVIGATE_CONTINUE (don't return error when skipping
+   *        too many entries)
+   * @param skipCount number of entries to skip
+   * @param returnNavigator navigator to use for the read operation
+   * @param returnCount number of entries to read
+   * @param returnMask bitmask of data to read
+   * @param consumer function to process the entries; the cursor is only valid while the function runs
+   * @return result of the consumer
+   * @since 1.54.0
+   */
+  public <T> T readEntries(JNADominoCollectionPosition startPos,
+      Navigate skipNavigator, boolean skipNavigatorContinue,
+      int skipCount, Navigate returnNavigator, int returnCount, EnumSet<ReadMask> returnMask,
+      Function<NotesLookupResultBufferCursor, T> consumer) {
+    return readEntriesBuffer(startPos, skipNavigator, skipNavigatorContinue, skipCount, returnNavigator,
+        returnCount, returnMask,
+        (retBuffer, numEntriesSkipped, numEntriesReturned, signalFlags, indexModifiedSequenceNo) -> {
+          boolean convertNotesTimeDateToCalendar = false;
+          return NotesLookupResultBufferDecoder.scanCollectionLookupResultBuffer(retBuffer,
+              numEntriesSkipped, numEntriesReturned, returnMask, signalFlags, indexModifiedSequenceNo,
+              convertNotesTimeDateToCalendar, consumer);
+        });
+  }
+
+  /**
+   * Callback to process the buffer returned by NIFReadEntries
+   * 
+   * @param <T> result type
+   */
+  @FunctionalInterface
+  private interface ReadEntriesBufferHandler<T> {
+    /**
+     * Processes the read buffer. Implementations are responsible for freeing the buffer.
+     * 
+     * @param retBuffer buffer handle or null if the buffer is empty
+     * @param numEntriesSkipped number of skipped entries
+     * @param numEntriesReturned number of returned entries
+     * @param signalFlags signal flags returned by NIFReadEntries
+     * @param indexModifiedSequenceNo index modified sequence number
+     * @return result
+     */
+    T handle(DHANDLE retBuffer, int numEntriesSkipped, int numEntriesReturned, short signalFlags,
+        int indexModifiedSequenceNo);
+  }
+
+  private <T> T readEntriesBuffer(JNADominoCollectionPosition startPos,
+      Navigate skipNavigator, boolean skipNavigatorContinue,
+      int skipCount, Navigate returnNavigator, int returnCount, EnumSet<ReadMask> returnMask,
+      ReadEntriesBufferHandler<T> handler) {
     checkDisposed();
 
     IntByReference retNumEntriesSkipped = new IntByReference();
@@ -1189,22 +1273,8 @@ public class JNADominoCollection extends BaseJNAAPIObject<JNADominoCollectionAll
     int indexModifiedSequenceNo = getIndexModifiedSequenceNo();
 
     int iBufLength = retBufferLength.getValue() & 0xffff;
-    if (iBufLength == 0) {
-      return new NotesViewLookupResultData(null, new ArrayList<JNACollectionEntry>(0),
-          retNumEntriesSkipped.getValue(), retNumEntriesReturned.getValue(),
-          retSignalFlags.getValue(), null, indexModifiedSequenceNo, null);
-    } else {
-      boolean convertStringsLazily = true;
-      boolean convertNotesTimeDateToCalendar = false;
-
-      NotesViewLookupResultData viewData =
-          NotesLookupResultBufferDecoder.decodeCollectionLookupResultBuffer(this, retBuffer,
-              retNumEntriesSkipped.getValue(), retNumEntriesReturned.getValue(), returnMask,
-              retSignalFlags.getValue(), null,
-              indexModifiedSequenceNo, null, convertStringsLazily, convertNotesTimeDateToCalendar,
-              null);
-      return viewData;
-    }
+    return handler.handle(iBufLength == 0 ? null : retBuffer, retNumEntriesSkipped.getValue(),
+        retNumEntriesReturned.getValue(), retSignalFlags.getValue(), indexModifiedSequenceNo);
   }
 
   /**
@@ -1294,14 +1364,14 @@ public class JNADominoCollection extends BaseJNAAPIObject<JNADominoCollectionAll
         idTableHandle,
         (hCollectionByVal, hDiffIdTableByVal) -> {
 
-          return NotesCAPI.get().NIFReadEntriesExt(hCollectionByVal, startPosStruct,
+          return NotesFastCAPI.get().NIFReadEntriesExt(hCollectionByVal.getValue(), startPosStruct,
               skipNavBitMask,
               skipCount, returnNavBitMask, returnCount, readMaskBitMask,
-              diffTimeStruct, hDiffIdTableByVal,
-              columnNumber == null ? NotesConstants.MAXDWORD : columnNumber, flags, retBuffer,
-              retBufferLength,
-              retNumEntriesSkipped, retNumEntriesReturned, retSignalFlags,
-              retDiffTimeStruct, retModifiedTimeStruct, retSequence);
+              diffTimeStruct, hDiffIdTableByVal.getValue(),
+              columnNumber == null ? NotesConstants.MAXDWORD : columnNumber, flags, retBuffer.getPointer(),
+              retBufferLength.getPointer(),
+              retNumEntriesSkipped.getPointer(), retNumEntriesReturned.getPointer(), retSignalFlags.getPointer(),
+              retDiffTimeStruct, retModifiedTimeStruct, retSequence.getPointer());
         });
 
 
@@ -1431,12 +1501,14 @@ public class JNADominoCollection extends BaseJNAAPIObject<JNADominoCollectionAll
       dataCache = null;
     }
 
+    CollectionIdentity cacheIdentity = null;
     if (dataCache != null) {
       // if caching is used, make sure that we read the note id, because that's how we hash our data
       if (!useReturnMask.contains(ReadMask.NOTEID)) {
         useReturnMask = EnumSet.copyOf(useReturnMask);
         useReturnMask.add(ReadMask.NOTEID);
       }
+      cacheIdentity = CollectionIdentity.of(this);
     }
 
     long t0 = System.currentTimeMillis();
@@ -1489,17 +1561,17 @@ public class JNADominoCollection extends BaseJNAAPIObject<JNADominoCollectionAll
       JNAIDTable diffIDTable = null;
 
       if (dataCache != null) {
-        CacheState cacheState = dataCache.getCacheState();
+        CacheState cacheState = dataCache.getCacheState(cacheIdentity);
 
         // only use cache content if read masks are compatible
-        Map<Integer, CacheableViewEntryData> cacheEntries = cacheState.getCacheEntries();
-        if (cacheEntries != null && !cacheEntries.isEmpty()) {
+        List<Integer> cachedNoteIds = cacheState.getNoteIds();
+        if (!cachedNoteIds.isEmpty()) {
           Set<ReadMask> cacheReadMask = cacheState.getReadMask();
           if (useReturnMask.equals(cacheReadMask)) {
             diffTime = cacheState.getDiffTime();
 
             diffIDTable = new JNAIDTable(getParentDominoClient());
-            diffIDTable.addAll(cacheEntries.keySet());
+            diffIDTable.addAll(cachedNoteIds);
           }
         }
       }
@@ -1596,7 +1668,7 @@ public class JNADominoCollection extends BaseJNAAPIObject<JNADominoCollectionAll
           if (callback instanceof JNACollectionEntryProcessor && dataCache != null
               && retDiffTime != null) {
             if (!entriesToUpdateCache.isEmpty()) {
-              dataCache.addCacheValues(useReturnMask, retDiffTime, entriesToUpdateCache);
+              dataCache.addCacheValues(cacheIdentity, useReturnMask, retDiffTime, entriesToUpdateCache);
             }
             ((JNACollectionEntryProcessor<T>) callback).setNewDiffTime(retDiffTime);
           }
@@ -1623,7 +1695,7 @@ public class JNADominoCollection extends BaseJNAAPIObject<JNADominoCollectionAll
             if (callback instanceof JNACollectionEntryProcessor && dataCache != null
                 && retDiffTime != null) {
               if (!entriesToUpdateCache.isEmpty()) {
-                dataCache.addCacheValues(useReturnMask, retDiffTime, entriesToUpdateCache);
+                dataCache.addCacheValues(cacheIdentity, useReturnMask, retDiffTime, entriesToUpdateCache);
               }
               ((JNACollectionEntryProcessor<T>) callback).setNewDiffTime(retDiffTime);
             }
@@ -1639,7 +1711,7 @@ public class JNADominoCollection extends BaseJNAAPIObject<JNADominoCollectionAll
       if (callback instanceof JNACollectionEntryProcessor && dataCache != null
           && retDiffTime != null) {
         if (!entriesToUpdateCache.isEmpty()) {
-          dataCache.addCacheValues(useReturnMask, retDiffTime, entriesToUpdateCache);
+          dataCache.addCacheValues(cacheIdentity, useReturnMask, retDiffTime, entriesToUpdateCache);
         }
         ((JNACollectionEntryProcessor<T>) callback).setNewDiffTime(retDiffTime);
       }
@@ -1798,7 +1870,7 @@ public class JNADominoCollection extends BaseJNAAPIObject<JNADominoCollectionAll
    * 
    * @return collation
    */
-  private short getCollation() {
+  short getCollation() {
     checkDisposed();
 
     ShortByReference retCollationNum = new ShortByReference();
@@ -175,7 +175,7 @@ public class JNAFormula extends BaseJNAAPIObject<JNAFormulaAllocations> implemen
 		}
 		case TYPE_NUMBER_RANGE: {
 			List<Object> numberList = ItemDecoder.decodeNumberList(valueDataPtr, valueDataLength);
-			return numberList==null ? Collections.emptyList() : numberList;
+			return numberList==null ? Collections.emptyList() : JNADocument.toModifiableList(numberList);
 		}
 		case TYPE_TIME: {
 			DominoDateTime td = ItemDecoder.decodeTimeDateAsNotesTimeDate(valueDataPtr, valueDataLength);
@@ -183,7 +183,7 @@ public class JNAFormula extends BaseJNAAPIObject<JNAFormulaAllocations> implemen
 		}
 		case TYPE_TIME_RANGE: {
 			List<Object> tdValues = ItemDecoder.decodeTimeDateListAsNotesTimeDate(valueDataPtr);
-			return tdValues==null ? Collections.emptyList() : tdValues;
+			return tdValues==null ? Collections.emptyList() : JNADocument.toModifiableList(tdValues);
 		}
 		case TYPE_UNAVAILABLE: {
 			//e.g. returned by formula "@DeleteDocument"
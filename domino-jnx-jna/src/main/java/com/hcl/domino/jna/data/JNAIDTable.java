@@ -27,14 +27,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import com.hcl.domino.DominoException;
+import com.hcl.domino.commons.data.CompressedIDTable;
 import com.hcl.domino.commons.errors.INotesErrorConstants;
 import com.hcl.domino.commons.gc.APIObjectAllocations;
 import com.hcl.domino.commons.gc.IAPIObject;
@@ -47,6 +47,7 @@ import com.hcl.domino.jna.JNADominoClient;
 import com.hcl.domino.jna.internal.Mem;
 import com.hcl.domino.jna.internal.callbacks.NotesCallbacks;
 import com.hcl.domino.jna.internal.capi.NotesCAPI;
+import com.hcl.domino.jna.internal.capi.NotesFastCAPI;
 import com.hcl.domino.jna.internal.gc.allocations.JNAIDTableAllocations;
 import com.hcl.domino.jna.internal.gc.handles.DHANDLE;
 import com.hcl.domino.jna.internal.gc.handles.LockUtil;
@@ -69,6 +70,13 @@ public class JNAIDTable extends BaseJNAAPIObject<JNAIDTableAllocations> implemen
     if (!noteIds.isEmpty()) {
       addAll(noteIds);
     }
+    if (noteIds instanceof CompressedIDTable) {
+      CompressedIDTable compressed = (CompressedIDTable) noteIds;
+      if (compressed.isInverted()) {
+        setInverted(true);
+      }
+      compressed.getDateTime().ifPresent(this::setDateTime);
+    }
 
     setInitialized();
   }
@@ -134,7 +142,7 @@ public class JNAIDTable extends BaseJNAAPIObject<JNAIDTableAllocations> implemen
     IntByReference retID = new IntByReference();
     boolean first = true;
     boolean hasData = LockUtil.lockHandle(getAllocations().getIdTableHandle(), (handleByVal) -> {
-      return NotesCAPI.get().IDScan(handleByVal, first, retID) && retID.getValue() != 0;
+      return NotesFastCAPI.get().IDScan(handleByVal.getValue(), first, retID.getPointer()) && retID.getValue() != 0;
     });
 
     return !hasData;
@@ -380,14 +388,65 @@ public class JNAIDTable extends BaseJNAAPIObject<JNAIDTableAllocations> implemen
     return addAll(c, addToEnd);
   }
 
-  private final Comparator<Integer> unsignedIntComparator = new Comparator<Integer>() {
-    @Override
-    public int compare(Integer o1, Integer o2) {
-      long l1 = o1.longValue() & 0xFFFFFFFFL;
-      long l2 = o2.longValue() & 0xFFFFFFFFL;
-      return Long.compare(l1, l2);
+  /**
+   * Sorts note ids in the order of the C API, which treats them as unsigned values
+   * 
+   * @param noteIds note ids
+   * @param count number of valid entries in {@code noteIds}
+   * @return sorted array with {@code count} entries
+   */
+  private static int[] sortUnsigned(int[] noteIds, int count) {
+    int[] result = noteIds.length == count ? noteIds : Arrays.copyOf(noteIds, count);
+    // flipping the sign bit maps unsigned order to signed order
+    for (int i = 0; i < count; i++) {
+      result[i] ^= Integer.MIN_VALUE;
     }
-  };
+    Arrays.sort(result);
+    for (int i = 0; i < count; i++) {
+      result[i] ^= Integer.MIN_VALUE;
+    }
+    return result;
+  }
+
+  /**
+   * Inserts note ids sorted in C API order, collapsing consecutive ids into ranges
+   * to reduce the number of insert operations
+   * 
+   * @param noteIds sorted note ids
+   * @param addToEnd true if all ids are known to follow the current content
+   */
+  private void insertSorted(int[] noteIds, boolean addToEnd) {
+    if (noteIds.length == 0) {
+      return;
+    }
+    JNAIDTableAllocations allocations = getAllocations();
+
+    IntByReference retInserted = new IntByReference();
+    LockUtil.lockHandle(allocations.getIdTableHandle(), (ourIDTableHandleByVal) -> {
+      int rangeStart = 0;
+      for (int i = 1; i <= noteIds.length; i++) {
+        if (i < noteIds.length && noteIds[i] == noteIds[i - 1]) {
+          // skip duplicates from plain collections
+          continue;
+        }
+        if (i < noteIds.length && noteIds[i] == noteIds[i - 1] + 4) {
+          continue;
+        }
+
+        int first = noteIds[rangeStart];
+        int last = noteIds[i - 1];
+        short result;
+        if (first == last) {
+          result = NotesCAPI.get().IDInsert(ourIDTableHandleByVal, first, retInserted);
+        } else {
+          result = NotesCAPI.get().IDInsertRange(ourIDTableHandleByVal, first, last, addToEnd);
+        }
+        NotesErrorUtils.checkResult(result);
+        rangeStart = i;
+      }
+      return 0;
+    });
+  }
 
   private boolean addAll(Collection<? extends Integer> c, boolean addToEnd) {
     checkDisposed();
@@ -413,73 +472,22 @@ public class JNAIDTable extends BaseJNAAPIObject<JNAIDTableAllocations> implemen
 
       NotesErrorUtils.checkResult(result);
     } else {
-      Integer[] noteIdsArr = c.toArray(new Integer[c.size()]);
-      // sorts category note ids to the end of the list (with NOTEID_CATEGORY bit set)
-      Arrays.sort(noteIdsArr, unsignedIntComparator);
-
-      LinkedList<Long> currIdRange = new LinkedList<>();
-
-      LockUtil.lockHandle(
-          allocations.getIdTableHandle(),
-          (ourIDTableHandleByVal) -> {
-            // find consecutive id ranges to reduce number of insert operations (insert ranges)
-            for (int i = 0; i < noteIdsArr.length; i++) {
-              int currNoteId = noteIdsArr[i];
-              long currNoteIdUnsigned = Integer.toUnsignedLong(currNoteId);
-
-              if (currIdRange.isEmpty()) {
-                currIdRange.add(currNoteIdUnsigned);
-              } else {
-                Long highestRangeId = currIdRange.getLast();
-                if (currNoteIdUnsigned == (highestRangeId.intValue() + 4)) {
-                  currIdRange.add(currNoteIdUnsigned);
-                } else {
-                  long first = currIdRange.getFirst();
-                  // convert to signed int
-                  int firstAsInt = (int) first;
-
-                  if (currIdRange.size() == 1) {
-                    add(firstAsInt);
-                  } else {
-                    long last = currIdRange.getLast();
-                    // convert to signed int
-                    int lastAsInt = (int) last;
-
-                    short result = NotesCAPI.get().IDInsertRange(ourIDTableHandleByVal,
-                        firstAsInt,
-                        lastAsInt, addToEnd);
-                    NotesErrorUtils.checkResult(result);
-                  }
-                  // flush range list
-                  currIdRange.clear();
-                  currIdRange.add(currNoteIdUnsigned);
-                }
-              }
-            }
-
-            if (!currIdRange.isEmpty()) {
-              long first = currIdRange.getFirst();
-              // convert to signed int
-              int firstAsInt = (int) first;
-
-              if (currIdRange.size() == 1) {
-                add(firstAsInt);
-              } else {
-                long last = currIdRange.getLast();
-
-                // convert to signed int
-                int lastAsInt = (int) last;
-
-                short result = NotesCAPI.get().IDInsertRange(ourIDTableHandleByVal,
-                    firstAsInt,
-                    lastAsInt, addToEnd);
-                NotesErrorUtils.checkResult(result);
-              }
-            }
-
-            return 0;
-          });
+      int[] noteIds;
+      if (c instanceof IDTable) {
+        // other ID tables are already sorted
+        noteIds = ((IDTable) c).toIntArray();
+      } else {
+        noteIds = new int[c.size()];
+        int count = 0;
+        for (Integer noteId : c) {
+          if (noteId != null) {
+            noteIds[count++] = noteId;
+          }
+        }
+        noteIds = sortUnsigned(noteIds, count);
+      }
 
+      insertSorted(noteIds, addToEnd);
     }
 
     return oldSize != size();
@@ -807,7 +815,7 @@ public class JNAIDTable extends BaseJNAAPIObject<JNAIDTableAllocations> implemen
             m_nextId = null;
           }
         } else {
-          if (NotesCAPI.get().IDScan(handleByVal, isFirstVal, m_nextIdRef)) {
+          if (NotesFastCAPI.get().IDScan(handleByVal.getValue(), isFirstVal, m_nextIdRef.getPointer())) {
             m_nextId = m_nextIdRef.getValue();
           } else {
             m_nextId = null;
@@ -850,7 +858,7 @@ public class JNAIDTable extends BaseJNAAPIObject<JNAIDTableAllocations> implemen
     return LockUtil.lockHandle(allocations.getIdTableHandle(), (handleByVal) -> {
       IntByReference retID = new IntByReference();
 
-      if (NotesCAPI.get().IDScan(handleByVal, true, retID)) {
+      if (NotesFastCAPI.get().IDScan(handleByVal.getValue(), true, retID.getPointer())) {
         return retID.getValue();
       } else {
         throw new DominoException(INotesErrorConstants.ERR_IDTABLE_LENGTH_MISMATCH,
@@ -897,6 +905,25 @@ public class JNAIDTable extends BaseJNAAPIObject<JNAIDTableAllocations> implemen
     return result;
   }
 
+  @Override
+  public void forEachInt(IntConsumer action) {
+    enumerate(noteId -> {
+      action.accept(noteId);
+      return IEnumerateCallback.Action.Continue;
+    });
+  }
+
+  /**
+   * Copies the content, flags and date/time of this ID table into a
+   * {@link CompressedIDTable} that can be used without the C API
+   * 
+   * @return a new {@link CompressedIDTable}
+   * @since 1.54.0
+   */
+  public CompressedIDTable toCompressedIDTable() {
+    return CompressedIDTable.of((IDTable) this);
+  }
+
   /**
    * Creates a new ID table with the IDs of this table, but with high order
    * bit set (0x80000000L).
@@ -904,14 +931,17 @@ public class JNAIDTable extends BaseJNAAPIObject<JNAIDTableAllocations> implemen
    * @return ID table
    */
   public JNAIDTable withHighOrderBit() {
-    List<Integer> ids = toList(Integer.MAX_VALUE);
+    int[] ids = toIntArray();
 
-    for (int i = 0; i < ids.size(); i++) {
-      long currId = ids.get(i) | NotesConstants.NOTEID_RESERVED;
-      ids.set(i, (int) (currId & 0xffffffffL));
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] |= (int) NotesConstants.NOTEID_RESERVED;
     }
+    // ids that already had the bit set may now be duplicated or out of order
+    ids = sortUnsigned(ids, ids.length);
 
-    return new JNAIDTable(getParentDominoClient(), ids);
+    JNAIDTable result = new JNAIDTable(getParentDominoClient());
+    result.insertSorted(ids, true);
+    return result;
   }
 
   @Override
@@ -78,6 +78,11 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 	private int m_valueLength;
 	private String m_itemName;
 
+	private int m_itemPool;
+	private short m_itemBlock;
+	private int m_valuePool;
+	private short m_valueBlock;
+	// created on demand from the pool/block values
 	private BlockID m_itemBlockId;
 	private BlockID m_valueBlockId;
 	/**
@@ -95,8 +100,37 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 		
 		m_parentDoc = parentDoc;
 		m_itemBlockId = itemBlockId;
+		m_itemPool = itemBlockId.getPool();
+		m_itemBlock = itemBlockId.getBlock();
 		m_dataType = dataType;
 		m_valueBlockId = valueBlockId;
+		m_valuePool = valueBlockId.getPool();
+		m_valueBlock = valueBlockId.getBlock();
+	}
+	
+	/**
+	 * Creates an item from an entry of an item info table, which already contains
+	 * the item name and flags
+	 * 
+	 * @param parentDoc parent document
+	 * @param table item info table read from the parent document
+	 * @param index index of the item in the table
+	 */
+	JNAItem(JNADocument parentDoc, JNAItemInfoTable table, int index) {
+		super(parentDoc);
+		
+		m_parentDoc = parentDoc;
+		m_itemPool = table.getItemPool(index);
+		m_itemBlock = table.getItemBlock(index);
+		m_valuePool = table.getValuePool(index);
+		m_valueBlock = table.getValueBlock(index);
+		m_dataType = table.getDataType(index);
+		m_valueLength = table.getValueLength(index);
+		m_itemFlags = table.getFlags(index);
+		m_seq = table.getSequenceNumber(index);
+		m_dupItemId = table.getDupItemId(index);
+		m_itemName = table.getName(index);
+		m_itemFlagsLoaded = true;
 	}
 	
 	/**
@@ -105,6 +139,11 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 	 * @return item block id
 	 */
 	BlockID getItemBlockId() {
+		if (m_itemBlockId==null) {
+			m_itemBlockId = MemoryStructureUtil.newStructure(BlockID.class, 0)
+					.setPool(m_itemPool)
+					.setBlock(m_itemBlock);
+		}
 		return m_itemBlockId;
 	}
 
@@ -114,6 +153,11 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 	 * @return value block id
 	 */
 	BlockID getValueBlockId() {
+		if (m_valueBlockId==null) {
+			m_valueBlockId = MemoryStructureUtil.newStructure(BlockID.class, 0)
+					.setPool(m_valuePool)
+					.setBlock(m_valueBlock);
+		}
 		return m_valueBlockId;
 	}
 
@@ -125,17 +169,16 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 	 */
 	public DisposableMemory getValueRaw(boolean prefixDataType) {
 		loadItemNameAndFlags();
-		BlockID valueBlockId = getValueBlockId();
 		
 		DisposableMemory mem = new DisposableMemory(prefixDataType ? m_valueLength : m_valueLength-2);
-		Pointer valuePtr = Mem.OSLockObject(valueBlockId);
+		Pointer valuePtr = Mem.OSLockObject(m_valuePool, m_valueBlock);
 		try {
 			byte[] valueArr = prefixDataType ? valuePtr.getByteArray(0, m_valueLength) : valuePtr.getByteArray(2, m_valueLength-2);
 			mem.write(0, valueArr, 0, valueArr.length);
 			return mem;
 		}
 		finally {
-			Mem.OSUnlockObject(valueBlockId);
+			Mem.OSUnlockObject(m_valuePool);
 		}
 	}
 	
@@ -176,8 +219,8 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
         IntByReference retValueLen = new IntByReference();
 
         NotesBlockIdStruct.ByValue itemBlockIdByVal = THREAD_BLOCKID.get();
-        itemBlockIdByVal.pool = m_itemBlockId.getPool();
-        itemBlockIdByVal.block = m_itemBlockId.getBlock();
+        itemBlockIdByVal.pool = m_itemPool;
+        itemBlockIdByVal.block = m_itemBlock;
 
         int sizeOfBlockId = MemoryStructureUtil.sizeOf(BlockID.class);
         try (DisposableMemory retValueBidMem = new DisposableMemory(sizeOfBlockId)) {
@@ -236,9 +279,9 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 		loadItemNameAndFlags();
 
 		int valueLength = getValueLength();
-		List<Object> values = m_parentDoc.getItemValue(m_itemName, m_itemBlockId, m_valueBlockId,
+		List<Object> values = m_parentDoc.getItemValue(m_itemName, getItemBlockId(), getValueBlockId(),
 				valueLength);
-		return values;
+		return JNADocument.toModifiableList(values);
 	}
 
 	@Override
@@ -265,12 +308,12 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 			public <U> U get(String itemName, Class<U> valueType, U defaultValue) {
 			  // Specialized support for byte[] for the raw data
 			  if(byte[].class.equals(valueType)) {
-  			  Pointer valuePtr = Mem.OSLockObject(m_valueBlockId);
+  			  Pointer valuePtr = Mem.OSLockObject(m_valuePool, m_valueBlock);
   		    try {
             return (U)valuePtr.getByteArray(0, m_valueLength);
   		    }
   		    finally {
-  		      Mem.OSUnlockObject(m_valueBlockId);
+  		      Mem.OSUnlockObject(m_valuePool);
   		    }
 			  }
 			  
@@ -314,8 +357,8 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
         int valueLength = getValueLength();
         
         NotesBlockIdStruct.ByValue blockId = THREAD_BLOCKID.get();
-        blockId.block = m_valueBlockId.getBlock();
-        blockId.pool = m_valueBlockId.getPool();
+        blockId.block = m_valueBlock;
+        blockId.pool = m_valuePool;
         blockId.write();
         short txtLengthAsShort = NotesCAPI.get().NSFItemConvertValueToText(typeValue,
             blockId, valueLength, returnBuf, (short) (60 * 1024), separator);
@@ -344,13 +387,16 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 			}
 		}
 		NotesBlockIdStruct.ByValue itemBlockIdByVal = THREAD_BLOCKID.get();
-		itemBlockIdByVal.pool = m_itemBlockId.getPool();
-		itemBlockIdByVal.block = m_itemBlockId.getBlock();
+		itemBlockIdByVal.pool = m_itemPool;
+		itemBlockIdByVal.block = m_itemBlock;
 
 		short result = LockUtil.lockHandle(targetDocAllocations.getNoteHandle(), (targetDocHandleByVal) -> {
 			return NotesCAPI.get().NSFItemCopy(targetDocHandleByVal, itemBlockIdByVal);
 		});
 		NotesErrorUtils.checkResult(result);
+		if (doc instanceof JNADocument) {
+			((JNADocument) doc).invalidateItemValueCache(getName());
+		}
 	}
 
 	@Override
@@ -371,13 +417,16 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 		Memory newItemNameMem = NotesStringUtils.toLMBCS(newItemName, true);
 
 		NotesBlockIdStruct.ByValue itemBlockIdByVal = THREAD_BLOCKID.get();
-		itemBlockIdByVal.pool = m_itemBlockId.getPool();
-		itemBlockIdByVal.block = m_itemBlockId.getBlock();
+		itemBlockIdByVal.pool = m_itemPool;
+		itemBlockIdByVal.block = m_itemBlock;
 
 		short result = LockUtil.lockHandle(targetDocAllocations.getNoteHandle(), (targetDocHandleByVal) -> {
 			return NotesCAPI.get().NSFItemCopyAndRename(targetDocHandleByVal, itemBlockIdByVal, newItemNameMem);
 		});
 		NotesErrorUtils.checkResult(result);
+		if (doc instanceof JNADocument) {
+			((JNADocument) doc).invalidateItemValueCache(newItemName);
+		}
 	}
 
 	@Override
@@ -468,8 +517,8 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 	  loadItemNameAndFlags();
 
 	  NotesBlockIdStruct.ByValue itemBlockIdByVal = THREAD_BLOCKID.get();
-	  itemBlockIdByVal.pool = m_itemBlockId.getPool();
-	  itemBlockIdByVal.block = m_itemBlockId.getBlock();
+	  itemBlockIdByVal.pool = m_itemPool;
+	  itemBlockIdByVal.block = m_itemBlock;
 
 	  int itemFlags = getFlagsAsInt();
 	  try(DisposableMemory itemValue = getValueRaw(false)) {
@@ -480,6 +529,7 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 	    });
 	    NotesErrorUtils.checkResult(result);
 	  }
+	  m_parentDoc.invalidateItemValueCache(m_itemName);
 	}
 	
 	private void setItemFlags(short newFlags) {
@@ -489,10 +539,10 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 		loadItemNameAndFlags();
 
 		NotesBlockIdStruct.ByValue itemBlockIdByVal = THREAD_BLOCKID.get();
-		itemBlockIdByVal.pool = m_itemBlockId.getPool();
-		itemBlockIdByVal.block = m_itemBlockId.getBlock();
+		itemBlockIdByVal.pool = m_itemPool;
+		itemBlockIdByVal.block = m_itemBlock;
 
-		Pointer poolPtr = Mem.OSLockObject(m_itemBlockId);
+		Pointer poolPtr = Mem.OSLockObject(m_itemPool, m_itemBlock);
 		try {
 			Pointer itemFlagsPtr = poolPtr.share(16);
 
@@ -503,7 +553,7 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 			}
 		}
 		finally {
-			Mem.OSUnlockObject(m_itemBlockId);
+			Mem.OSUnlockObject(m_itemPool);
 		}
 	}
 
@@ -657,12 +707,12 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 		checkDisposed();
 
 		NotesBlockIdStruct.ByValue itemBlockIdByVal = THREAD_BLOCKID.get();
-		itemBlockIdByVal.pool = m_itemBlockId.getPool();
-		itemBlockIdByVal.block = m_itemBlockId.getBlock();
+		itemBlockIdByVal.pool = m_itemPool;
+		itemBlockIdByVal.block = m_itemBlock;
 
 		NotesBlockIdStruct.ByValue valueBlockIdByVal = NotesBlockIdStruct.ByValue.newInstance();
-		valueBlockIdByVal.pool = m_valueBlockId.getPool();
-		valueBlockIdByVal.block = m_valueBlockId.getBlock();
+		valueBlockIdByVal.pool = m_valuePool;
+		valueBlockIdByVal.block = m_valueBlock;
 
 		JNADocumentAllocations docAllocations = (JNADocumentAllocations) m_parentDoc.getAdapter(APIObjectAllocations.class);
 		docAllocations.checkDisposed();
@@ -678,6 +728,7 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 
 			return null;
 		});
+		m_parentDoc.invalidateItemValueCache(m_itemName);
 		
 		return this;
 	}
@@ -687,8 +738,8 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 		checkDisposed();
 
 		NotesBlockIdStruct.ByValue itemBlockIdByVal = THREAD_BLOCKID.get();
-		itemBlockIdByVal.pool = m_itemBlockId.getPool();
-		itemBlockIdByVal.block = m_itemBlockId.getBlock();
+		itemBlockIdByVal.pool = m_itemPool;
+		itemBlockIdByVal.block = m_itemBlock;
 
 		JNADocumentAllocations docAllocations = (JNADocumentAllocations) m_parentDoc.getAdapter(APIObjectAllocations.class);
 		docAllocations.checkDisposed();
@@ -697,6 +748,7 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 			return NotesCAPI.get().NSFItemDeleteByBLOCKID(hNoteByVal, itemBlockIdByVal);
 		});
 		NotesErrorUtils.checkResult(result);
+		m_parentDoc.invalidateItemValueCache(getName());
 		
 		dispose();
 	}
@@ -712,7 +764,7 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 			throw new UnsupportedOperationException(MessageFormat.format("Item is not of type TYPE_COMPOSITE (type found: {0})", getType()));
 		}
 
-		Pointer valuePtr = Mem.OSLockObject(m_valueBlockId);
+		Pointer valuePtr = Mem.OSLockObject(m_valuePool, m_valueBlock);
 
 		try {
 			int fixedSize;
@@ -806,7 +858,7 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 			}
 		}
 		finally {
-			Mem.OSUnlockObject(m_valueBlockId);
+			Mem.OSUnlockObject(m_valuePool);
 		}
 	}
 
@@ -854,12 +906,12 @@ public class JNAItem extends BaseJNAAPIObject<JNAItemAllocations> implements Ite
 	  if (clazz == NotesBlockIdStruct[].class) {
 	    //give readonly access to some internals used for debugging and checking for the right item instance
 	    NotesBlockIdStruct itemBlockIdClone = NotesBlockIdStruct.newInstance();
-	    itemBlockIdClone.block = m_itemBlockId.getBlock();
-	    itemBlockIdClone.pool = m_itemBlockId.getPool();
+	    itemBlockIdClone.block = m_itemBlock;
+	    itemBlockIdClone.pool = m_itemPool;
 	    
 	    NotesBlockIdStruct valueBlockIdClone = NotesBlockIdStruct.newInstance();
-	    valueBlockIdClone.block = m_valueBlockId.getBlock();
-	    valueBlockIdClone.pool = m_valueBlockId.getPool();
+	    valueBlockIdClone.block = m_valueBlock;
+	    valueBlockIdClone.pool = m_valuePool;
 	    
 	    return (T) new NotesBlockIdStruct[] {itemBlockIdClone, valueBlockIdClone};
 	  }
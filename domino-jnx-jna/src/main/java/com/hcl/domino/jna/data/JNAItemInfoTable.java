@@ -0,0 +1,210 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.data;
+
+import java.util.Arrays;
+
+import com.hcl.domino.commons.errors.INotesErrorConstants;
+import com.hcl.domino.commons.util.NotesErrorUtils;
+import com.hcl.domino.commons.util.StringUtil;
+import com.hcl.domino.jna.internal.DisposableMemory;
+import com.hcl.domino.jna.internal.NotesStringUtils;
+import com.hcl.domino.jna.internal.capi.INotesFastCAPI;
+import com.hcl.domino.jna.internal.capi.NotesFastCAPI;
+import com.hcl.domino.jna.internal.gc.handles.DHANDLE;
+import com.hcl.domino.jna.internal.gc.handles.LockUtil;
+import com.hcl.domino.jna.internal.structs.NotesBlockIdStruct;
+import com.hcl.domino.misc.NotesConstants;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+
+/**
+ * Descriptors of the items of a note, stored in primitive arrays.<br>
+ * <br>
+ * The table is read with a single lock of the note handle, calling NSFItemInfo/NSFItemInfoNext
+ * to walk the items and NSFItemQueryEx to read name and flags of each item, so
+ * {@link JNAItem} objects created from it do not need to query the note again.
+ * The table is a snapshot; items added or removed later are not reflected.
+ */
+final class JNAItemInfoTable {
+  private static final int INITIAL_CAPACITY = 32;
+
+  // offsets of the return values in the shared scratch buffer
+  private static final int OFFSET_ITEMBID = 0;
+  private static final int OFFSET_VALUEBID = 8;
+  private static final int OFFSET_DATATYPE = 16;
+  private static final int OFFSET_VALUELEN = 20;
+  private static final int OFFSET_NAMELEN = 24;
+  private static final int OFFSET_FLAGS = 26;
+  private static final int OFFSET_SEQ = 28;
+  private static final int OFFSET_DUPID = 29;
+  private static final int OFFSET_NAME = 32;
+
+  private int m_size;
+  private int[] m_itemPool = new int[INITIAL_CAPACITY];
+  private short[] m_itemBlock = new short[INITIAL_CAPACITY];
+  private int[] m_valuePool = new int[INITIAL_CAPACITY];
+  private short[] m_valueBlock = new short[INITIAL_CAPACITY];
+  private short[] m_dataType = new short[INITIAL_CAPACITY];
+  private int[] m_valueLength = new int[INITIAL_CAPACITY];
+  private short[] m_flags = new short[INITIAL_CAPACITY];
+  private byte[] m_seq = new byte[INITIAL_CAPACITY];
+  private byte[] m_dupItemId = new byte[INITIAL_CAPACITY];
+  private String[] m_names = new String[INITIAL_CAPACITY];
+
+  /**
+   * Reads the descriptors of all items with the specified name
+   * 
+   * @param noteHandle handle of the note
+   * @param itemName item name or null/empty string for all items
+   * @return table
+   */
+  static JNAItemInfoTable read(DHANDLE noteHandle, String itemName) {
+    Memory itemNameMem = StringUtil.isEmpty(itemName) ? null : NotesStringUtils.toLMBCS(itemName, false);
+    short itemNameLen = itemNameMem == null ? 0 : (short) (itemNameMem.size() & 0xffff);
+
+    JNAItemInfoTable table = new JNAItemInfoTable();
+
+    try (DisposableMemory buf = new DisposableMemory(OFFSET_NAME + NotesConstants.MAXUSERNAME)) {
+      Pointer retItemBid = buf.share(OFFSET_ITEMBID);
+      Pointer retValueBid = buf.share(OFFSET_VALUEBID);
+      Pointer retDataType = buf.share(OFFSET_DATATYPE);
+      Pointer retValueLen = buf.share(OFFSET_VALUELEN);
+      Pointer retNameLen = buf.share(OFFSET_NAMELEN);
+      Pointer retFlags = buf.share(OFFSET_FLAGS);
+      Pointer retSeq = buf.share(OFFSET_SEQ);
+      Pointer retDupId = buf.share(OFFSET_DUPID);
+      Pointer retName = buf.share(OFFSET_NAME);
+      NotesBlockIdStruct.ByValue itemBid = NotesBlockIdStruct.ByValue.newInstance();
+
+      short result = LockUtil.lockHandle(noteHandle, (noteHandleByVal) -> {
+        INotesFastCAPI api = NotesFastCAPI.get();
+        long hNote = noteHandleByVal.getValue();
+
+        short err = api.NSFItemInfo(hNote, itemNameMem, itemNameLen, retItemBid, retDataType, retValueBid, retValueLen);
+        while (err == 0) {
+          itemBid.pool = retItemBid.getInt(0);
+          itemBid.block = retItemBid.getShort(4);
+
+          api.NSFItemQueryEx(hNote, itemBid, retName, (short) NotesConstants.MAXUSERNAME, retNameLen, retFlags,
+              retDataType, retValueBid, retValueLen, retSeq, retDupId);
+
+          table.add(itemBid.pool, itemBid.block, retValueBid.getInt(0), retValueBid.getShort(4),
+              retDataType.getShort(0), retValueLen.getInt(0), retFlags.getShort(0), retSeq.getByte(0),
+              retDupId.getByte(0), NotesStringUtils.fromLMBCS(retName, retNameLen.getShort(0) & 0xffff));
+
+          err = api.NSFItemInfoNext(hNote, itemBid, itemNameMem, itemNameLen, retItemBid, retDataType, retValueBid,
+              retValueLen);
+        }
+        return err;
+      });
+
+      if (result != INotesErrorConstants.ERR_ITEM_NOT_FOUND) {
+        NotesErrorUtils.checkResult(result);
+      }
+    }
+
+    return table;
+  }
+
+  private void add(int itemPool, short itemBlock, int valuePool, short valueBlock, short dataType, int valueLength,
+      short flags, byte seq, byte dupItemId, String name) {
+    if (m_size == m_itemPool.length) {
+      grow();
+    }
+    int i = m_size++;
+    m_itemPool[i] = itemPool;
+    m_itemBlock[i] = itemBlock;
+    m_valuePool[i] = valuePool;
+    m_valueBlock[i] = valueBlock;
+    m_dataType[i] = dataType;
+    m_valueLength[i] = valueLength;
+    m_flags[i] = flags;
+    m_seq[i] = seq;
+    m_dupItemId[i] = dupItemId;
+    m_names[i] = name;
+  }
+
+  private void grow() {
+    int capacity = m_itemPool.length * 2;
+    m_itemPool = Arrays.copyOf(m_itemPool, capacity);
+    m_itemBlock = Arrays.copyOf(m_itemBlock, capacity);
+    m_valuePool = Arrays.copyOf(m_valuePool, capacity);
+    m_valueBlock = Arrays.copyOf(m_valueBlock, capacity);
+    m_dataType = Arrays.copyOf(m_dataType, capacity);
+    m_valueLength = Arrays.copyOf(m_valueLength, capacity);
+    m_flags = Arrays.copyOf(m_flags, capacity);
+    m_seq = Arrays.copyOf(m_seq, capacity);
+    m_dupItemId = Arrays.copyOf(m_dupItemId, capacity);
+    m_names = Arrays.copyOf(m_names, capacity);
+  }
+
+  /**
+   * Returns the number of items in the table
+   * 
+   * @return number of items
+   */
+  int size() {
+    return m_size;
+  }
+
+  int getItemPool(int index) {
+    return m_itemPool[index];
+  }
+
+  short getItemBlock(int index) {
+    return m_itemBlock[index];
+  }
+
+  int getValuePool(int index) {
+    return m_valuePool[index];
+  }
+
+  short getValueBlock(int index) {
+    return m_valueBlock[index];
+  }
+
+  int getDataType(int index) {
+    return m_dataType[index] & 0xffff;
+  }
+
+  /**
+   * Returns the value length including the data type WORD
+   * 
+   * @param index item index
+   * @return length
+   */
+  int getValueLength(int index) {
+    return m_valueLength[index];
+  }
+
+  int getFlags(int index) {
+    return m_flags[index] & 0xffff;
+  }
+
+  byte getSequenceNumber(int index) {
+    return m_seq[index];
+  }
+
+  byte getDupItemId(int index) {
+    return m_dupItemId[index];
+  }
+
+  String getName(int index) {
+    return m_names[index];
+  }
+}
@@ -17,6 +17,7 @@
 package com.hcl.domino.jna.data;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.text.MessageFormat;
 import java.util.Arrays;
@@ -28,8 +29,7 @@ import com.hcl.domino.DominoException;
 import com.hcl.domino.commons.richtext.RichTextUtil;
 import com.hcl.domino.commons.util.NotesErrorUtils;
 import com.hcl.domino.data.NativeItemCoder;
-import com.hcl.domino.jna.internal.DisposableMemory;
-import com.hcl.domino.jna.internal.ItemDecoder;
+import com.hcl.domino.jna.internal.ByteBufferItemDecoder;
 import com.hcl.domino.jna.internal.Mem;
 import com.hcl.domino.jna.internal.NotesStringUtils;
 import com.hcl.domino.jna.internal.capi.NotesCAPI;
@@ -51,22 +51,16 @@ public class JNANativeItemCoder implements NativeItemCoder {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<String> decodeStringList(byte[] buf) {
-	    try(DisposableMemory mem = new DisposableMemory(buf.length)) {
-    		ByteBuffer dest = mem.getByteBuffer(0, mem.size());
-    		dest.put(buf);
-    		return (List<String>)(List<?>)ItemDecoder.decodeTextListValue(mem, false);
-	    }
+		return (List<String>)(List<?>)ByteBufferItemDecoder.decodeTextListValue(ByteBuffer.wrap(buf), false);
 	}
 	
 	@SuppressWarnings("unchecked")
   @Override
 	public List<Object> decodeItemValue(byte[] buf, RecordType.Area area) {
-	  try(DisposableMemory mem = new DisposableMemory(buf.length)) {
-        ByteBuffer dest = mem.getByteBuffer(0, mem.size());
-        dest.put(buf);
-        Object val = ItemDecoder.readItemValue(mem.share(2), mem.getShort(0), buf.length-2, area);
-        return val instanceof List ? (List<Object>)val : Arrays.asList(val);
-	  }
+	  ByteBuffer data = ByteBuffer.wrap(buf).order(ByteOrder.nativeOrder());
+	  short typeVal = data.getShort();
+	  Object val = ByteBufferItemDecoder.readItemValue(data, typeVal, area);
+	  return val instanceof List ? (List<Object>)val : Arrays.asList(val);
 	}
 
 	@Override
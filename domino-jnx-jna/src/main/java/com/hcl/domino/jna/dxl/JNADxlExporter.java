@@ -42,34 +42,45 @@ import static com.hcl.domino.commons.dxl.DxlExportProperty.PictureOmittedText;
 import static com.hcl.domino.commons.dxl.DxlExportProperty.RestrictToItemNames;
 import static com.hcl.domino.commons.dxl.DxlExportProperty.UncompressAttachments;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.lang.ref.ReferenceQueue;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.text.MessageFormat;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.xml.parsers.ParserConfigurationException;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
+import com.hcl.domino.DominoClient;
 import com.hcl.domino.commons.dxl.DxlExportProperty;
 import com.hcl.domino.commons.dxl.DxlExporterLogImpl;
+import com.hcl.domino.commons.dxl.ParallelDxlExport;
 import com.hcl.domino.commons.gc.APIObjectAllocations;
 import com.hcl.domino.commons.gc.IAPIObject;
 import com.hcl.domino.commons.gc.IGCDominoClient;
 import com.hcl.domino.commons.util.NotesErrorUtils;
 import com.hcl.domino.data.Database;
 import com.hcl.domino.data.Document;
+import com.hcl.domino.data.DocumentClass;
 import com.hcl.domino.data.IDTable;
 import com.hcl.domino.dxl.DxlExporter;
 import com.hcl.domino.dxl.DxlExporterLog;
 import com.hcl.domino.exception.DxlExportException;
 import com.hcl.domino.jna.JNADominoClient;
+import com.hcl.domino.jna.data.JNAIDTable;
+import com.hcl.domino.jna.internal.DxlExportOutput;
 import com.hcl.domino.jna.internal.callbacks.NotesCallbacks;
 import com.hcl.domino.jna.internal.capi.NotesCAPI;
 import com.hcl.domino.jna.internal.gc.allocations.JNADxlExporterAllocations;
@@ -94,23 +105,29 @@ public class JNADxlExporter extends
 
   @Override
   public void exportDocument(Document doc, Writer out) throws IOException {
-    Objects.requireNonNull(doc, "Document cannot be null");
     Objects.requireNonNull(out, "Writer cannot be null");
+    exportDocument(doc, DxlExportOutput.forWriter(out, getJDKExportCharset().get()));
+  }
+
+  @Override
+  public void exportDocument(Document doc, OutputStream out) throws IOException {
+    Objects.requireNonNull(out, "OutputStream cannot be null");
+    exportDocument(doc, DxlExportOutput.forStream(out));
+  }
+
+  @Override
+  public void exportDocument(Document doc, WritableByteChannel out) throws IOException {
+    Objects.requireNonNull(out, "WritableByteChannel cannot be null");
+    exportDocument(doc, DxlExportOutput.forChannel(out));
+  }
+
+  private void exportDocument(Document doc, DxlExportOutput output) throws IOException {
+    Objects.requireNonNull(doc, "Document cannot be null");
 
     checkDisposed();
 
     LockUtil.lockHandle(doc.getAdapter(DHANDLE.class), handle -> {
-      NotesCallbacks.XML_WRITE_FUNCTION func;
-
-      func = (pBuffer, length, pAction) -> {
-        byte[] bytes = pBuffer.getByteArray(0, length);
-        String chunk = new String(bytes, getJDKExportCharset().get());
-        try {
-          out.write(chunk);
-        } catch (IOException e) {
-          throw new RuntimeException(e);
-        }
-      };
+      NotesCallbacks.XML_WRITE_FUNCTION func = (pBuffer, length, pAction) -> output.write(pBuffer, length);
 
       int exporterHandler = getAllocations().getDxlExporterHandle();
       short result = AccessController.doPrivileged((PrivilegedAction<Short>) () -> {
@@ -122,13 +139,29 @@ public class JNADxlExporter extends
 
       return null;
     });
-
+    output.finish();
   }
 
   @Override
   public void exportIDs(Database db, Collection<Integer> ids, Writer out) throws IOException {
-    Objects.requireNonNull(ids, "Ids cannot be null");
     Objects.requireNonNull(out, "Writer cannot be null");
+    exportIDs(db, ids, DxlExportOutput.forWriter(out, getJDKExportCharset().get()));
+  }
+
+  @Override
+  public void exportIDs(Database db, Collection<Integer> ids, OutputStream out) throws IOException {
+    Objects.requireNonNull(out, "OutputStream cannot be null");
+    exportIDs(db, ids, DxlExportOutput.forStream(out));
+  }
+
+  @Override
+  public void exportIDs(Database db, Collection<Integer> ids, WritableByteChannel out) throws IOException {
+    Objects.requireNonNull(out, "WritableByteChannel cannot be null");
+    exportIDs(db, ids, DxlExportOutput.forChannel(out));
+  }
+
+  private void exportIDs(Database db, Collection<Integer> ids, DxlExportOutput output) throws IOException {
+    Objects.requireNonNull(ids, "Ids cannot be null");
 
     checkDisposed();
 
@@ -142,15 +175,7 @@ public class JNADxlExporter extends
 
     LockUtil.lockHandles(db.getAdapter(HANDLE.class), idTable.getAdapter(DHANDLE.class),
         (hDB, hTable) -> {
-          NotesCallbacks.XML_WRITE_FUNCTION func = (pBuffer, length, pAction) -> {
-            byte[] bytes = pBuffer.getByteArray(0, length);
-            String chunk = new String(bytes, getJDKExportCharset().get());
-            try {
-              out.write(chunk);
-            } catch (IOException e) {
-              throw new RuntimeException(e);
-            }
-          };
+          NotesCallbacks.XML_WRITE_FUNCTION func = (pBuffer, length, pAction) -> output.write(pBuffer, length);
 
           short result = NotesCAPI.get().DXLExportIDTable(getAllocations().getDxlExporterHandle(),
               func, hDB, hTable, null);
@@ -159,24 +184,33 @@ public class JNADxlExporter extends
 
           return null;
         });
+    output.finish();
   }
 
   @Override
   public void exportDatabase(Database db, Writer out) throws IOException {
-    Objects.requireNonNull(db, "Database cannot be null");
     Objects.requireNonNull(out, "Writer cannot be null");
+    exportDatabase(db, DxlExportOutput.forWriter(out, getJDKExportCharset().get()));
+  }
+
+  @Override
+  public void exportDatabase(Database db, OutputStream out) throws IOException {
+    Objects.requireNonNull(out, "OutputStream cannot be null");
+    exportDatabase(db, DxlExportOutput.forStream(out));
+  }
+
+  @Override
+  public void exportDatabase(Database db, WritableByteChannel out) throws IOException {
+    Objects.requireNonNull(out, "WritableByteChannel cannot be null");
+    exportDatabase(db, DxlExportOutput.forChannel(out));
+  }
+
+  private void exportDatabase(Database db, DxlExportOutput output) throws IOException {
+    Objects.requireNonNull(db, "Database cannot be null");
 
     checkDisposed();
     LockUtil.lockHandle(db.getAdapter(HANDLE.class), handle -> {
-      NotesCallbacks.XML_WRITE_FUNCTION func = (pBuffer, length, pAction) -> {
-        byte[] bytes = pBuffer.getByteArray(0, length);
-        String chunk = new String(bytes, getJDKExportCharset().get());
-        try {
-          out.write(chunk);
-        } catch (IOException e) {
-          throw new RuntimeException(e);
-        }
-      };
+      NotesCallbacks.XML_WRITE_FUNCTION func = (pBuffer, length, pAction) -> output.write(pBuffer, length);
 
       short result = NotesCAPI.get().DXLExportDatabase(getAllocations().getDxlExporterHandle(),
           func, handle, null);
@@ -185,24 +219,129 @@ public class JNADxlExporter extends
 
       return null;
     });
+    output.finish();
   }
 
   @Override
-  public void exportACL(Database db, Writer out) throws IOException {
+  public int exportDatabaseParallel(Database db, int parallelism, PartitionOutput output) throws IOException {
     Objects.requireNonNull(db, "Database cannot be null");
+    Objects.requireNonNull(output, "PartitionOutput cannot be null");
+
+    checkDisposed();
+
+    DominoClient client = db.getParentDominoClient();
+    String server = db.getServer();
+    String filePath = db.getRelativeFilePath();
+    int[] noteIds = db.getAllNoteIds(EnumSet.of(DocumentClass.ALL), false).toIntArray();
+    //the settings are read here, since the exporter handle should stay on the current thread
+    Consumer<DxlExporter> settings = getSettings();
+
+    return ParallelDxlExport.run(noteIds, parallelism, client.getThreadFactory(), (partition, partitionCount, partitionIds) -> {
+      Database partitionDb = client.openDatabase(server, filePath);
+      JNADxlExporter exporter = null;
+      JNAIDTable idTable = null;
+      try {
+        exporter = (JNADxlExporter) client.createDxlExporter();
+        settings.accept(exporter);
+
+        idTable = (JNAIDTable) client.createIDTable();
+        idTable.addAll(IntStream.of(partitionIds).boxed().collect(Collectors.toList()));
+
+        try (OutputStream out = output.open(partition, partitionCount)) {
+          exporter.exportIDs(partitionDb, idTable, out);
+        }
+      } finally {
+        // free the native handles right away instead of leaving them to the GC of the export thread
+        if (idTable != null) {
+          idTable.dispose();
+        }
+        if (exporter != null) {
+          exporter.dispose();
+        }
+        partitionDb.close();
+      }
+    });
+  }
+
+  /**
+   * Reads the settings of this exporter to apply them to exporters on other threads
+   *
+   * @return function to apply the settings
+   */
+  private Consumer<DxlExporter> getSettings() {
+    boolean outputXmlDecl = isOutputXmlDecl();
+    boolean outputDoctype = isOutputDoctype();
+    boolean convertNotesbitmapsToGIF = isConvertNotesbitmapsToGIF();
+    boolean omitRichTextAttachments = isOmitRichTextAttachments();
+    boolean omitOLEObjects = isOmitOLEObjects();
+    boolean omitMiscFileObjects = isOmitMiscFileObjects();
+    boolean omitPictures = isOmitPictures();
+    boolean uncompressAttachments = isUncompressAttachments();
+    boolean forceNoteFormat = isForceNoteFormat();
+    String doctypeSYSTEM = getDoctypeSYSTEM();
+    String bannerComments = getDXLBannerComments();
+    String resultLogComment = getDxlExportResultLogComment();
+    String schemaLocation = getDxlSchemaLocation();
+    String attachmentOmittedText = getAttachmentOmittedText();
+    String oleObjectOmittedText = getOLEObjectOmittedText();
+    String pictureOmittedText = getPictureOmittedText();
+    List<String> omitItemNames = getOmitItemNames();
+    List<String> restrictToItemNames = getRestrictToItemNames();
+    DXLExportCharset exportCharset = getExportCharset();
+    DXLMIMEOption mimeOption = getMIMEOption();
+    DXLRichTextOption richTextOption = getRichTextOption();
+    DXLValidationStyle validationStyle = getValidationStyle();
+
+    return exporter -> {
+      exporter.setOutputXmlDecl(outputXmlDecl);
+      exporter.setOutputDoctype(outputDoctype);
+      exporter.setConvertNotesbitmapsToGIF(convertNotesbitmapsToGIF);
+      exporter.setOmitRichTextAttachments(omitRichTextAttachments);
+      exporter.setOmitOLEObjects(omitOLEObjects);
+      exporter.setOmitMiscFileObjects(omitMiscFileObjects);
+      exporter.setOmitPictures(omitPictures);
+      exporter.setUncompressAttachments(uncompressAttachments);
+      exporter.setForceNoteFormat(forceNoteFormat);
+      exporter.setDoctypeSYSTEM(doctypeSYSTEM);
+      exporter.setDXLBannerComments(bannerComments);
+      exporter.setDxlExportResultLogComment(resultLogComment);
+      exporter.setDxlSchemaLocation(schemaLocation);
+      exporter.setAttachmentOmittedText(attachmentOmittedText);
+      exporter.setOLEObjectOmittedText(oleObjectOmittedText);
+      exporter.setPictureOmittedText(pictureOmittedText);
+      exporter.setOmitItemNames(omitItemNames);
+      exporter.setRestrictToItemNames(restrictToItemNames);
+      exporter.setExportCharset(exportCharset);
+      exporter.setMIMEOption(mimeOption);
+      exporter.setRichTextOption(richTextOption);
+      exporter.setValidationStyle(validationStyle);
+    };
+  }
+
+  @Override
+  public void exportACL(Database db, Writer out) throws IOException {
     Objects.requireNonNull(out, "Writer cannot be null");
+    exportACL(db, DxlExportOutput.forWriter(out, getJDKExportCharset().get()));
+  }
+
+  @Override
+  public void exportACL(Database db, OutputStream out) throws IOException {
+    Objects.requireNonNull(out, "OutputStream cannot be null");
+    exportACL(db, DxlExportOutput.forStream(out));
+  }
+
+  @Override
+  public void exportACL(Database db, WritableByteChannel out) throws IOException {
+    Objects.requireNonNull(out, "WritableByteChannel cannot be null");
+    exportACL(db, DxlExportOutput.forChannel(out));
+  }
+
+  private void exportACL(Database db, DxlExportOutput output) throws IOException {
+    Objects.requireNonNull(db, "Database cannot be null");
 
     checkDisposed();
     LockUtil.lockHandle(db.getAdapter(HANDLE.class), handle -> {
-      NotesCallbacks.XML_WRITE_FUNCTION func = (pBuffer, length, pAction) -> {
-        byte[] bytes = pBuffer.getByteArray(0, length);
-        String chunk = new String(bytes, getJDKExportCharset().get());
-        try {
-          out.write(chunk);
-        } catch (IOException e) {
-          throw new RuntimeException(e);
-        }
-      };
+      NotesCallbacks.XML_WRITE_FUNCTION func = (pBuffer, length, pAction) -> output.write(pBuffer, length);
 
       short result =
           NotesCAPI.get().DXLExportACL(getAllocations().getDxlExporterHandle(), func, handle, null);
@@ -210,6 +349,7 @@ public class JNADxlExporter extends
       checkError();
       return null;
     });
+    output.finish();
   }
 
   @Override
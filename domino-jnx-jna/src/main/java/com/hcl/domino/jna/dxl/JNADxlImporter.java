@@ -28,6 +28,7 @@ import static com.hcl.domino.commons.dxl.DxlImportProperty.ReplicaRequiredForRep
 import static com.hcl.domino.commons.dxl.DxlImportProperty.ResultLog;
 import static com.hcl.domino.commons.dxl.DxlImportProperty.ResultLogComment;
 import static com.hcl.domino.commons.dxl.DxlImportProperty.UnknownTokenLogOption;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.ref.ReferenceQueue;
@@ -38,10 +39,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import javax.xml.parsers.ParserConfigurationException;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
+import com.hcl.domino.DominoClient;
+import com.hcl.domino.DominoException;
+import com.hcl.domino.commons.dxl.DefaultDxlImportPipeline;
 import com.hcl.domino.commons.dxl.DxlImportProperty;
 import com.hcl.domino.commons.dxl.DxlImporterLogImpl;
 import com.hcl.domino.commons.gc.APIObjectAllocations;
@@ -49,7 +55,10 @@ import com.hcl.domino.commons.gc.IAPIObject;
 import com.hcl.domino.commons.gc.IGCDominoClient;
 import com.hcl.domino.commons.util.NotesErrorUtils;
 import com.hcl.domino.data.Database;
+import com.hcl.domino.data.Document;
 import com.hcl.domino.data.IDTable;
+import com.hcl.domino.dxl.DxlExporter;
+import com.hcl.domino.dxl.DxlImportPipeline;
 import com.hcl.domino.dxl.DxlImporter;
 import com.hcl.domino.dxl.DxlImporterLog;
 import com.hcl.domino.exception.DxlImportException;
@@ -223,38 +232,153 @@ public class JNADxlImporter extends
 
     checkDisposed();
 
-    LockUtil.lockHandle(db.getAdapter(HANDLE.class), handle -> {
-      NotesCallbacks.XML_READ_FUNCTION func = (pBuffer, length, pAction) -> {
-        try {
-          int remaining = in.available();
-          if (remaining < 1) {
-            return 0;
-          }
-
-          byte[] block;
-          if (remaining > length) {
-            block = new byte[length];
-          } else {
-            block = new byte[remaining];
-          }
-          in.read(block);
-          pBuffer.write(0, block, 0, block.length);
-          return block.length;
-        } catch (IOException e) {
-          throw new RuntimeException(e);
+    //exceptions thrown in the callback do not reach this thread, so we store the first one
+    IOException[] readError = new IOException[1];
+    byte[][] block = new byte[1][];
+    NotesCallbacks.XML_READ_FUNCTION func = (pBuffer, length, pAction) -> {
+      if (readError[0] != null) {
+        return 0;
+      }
+      try {
+        if (block[0] == null || block[0].length < length) {
+          block[0] = new byte[length];
+        }
+        int read = in.read(block[0], 0, length);
+        if (read < 1) {
+          return 0;
         }
-      };
+        pBuffer.write(0, block[0], 0, read);
+        return read;
+      } catch (IOException e) {
+        readError[0] = e;
+        return 0;
+      }
+    };
 
+    LockUtil.lockHandle(db.getAdapter(HANDLE.class), handle -> {
       short result = AccessController.doPrivileged((PrivilegedAction<Short>) () -> {
         return NotesCAPI.get().DXLImport(getAllocations().getDxlImporterHandle(), func, handle,
             null);
       });
 
-      NotesErrorUtils.checkResult(result);
+      if (readError[0] == null) {
+        NotesErrorUtils.checkResult(result);
 
-      checkError();
+        checkError();
+      }
       return null;
     });
+
+    if (readError[0] != null) {
+      throw readError[0];
+    }
+  }
+
+  @Override
+  public DxlImportPipeline openImportPipeline(Database db, int batchSize, int maxPendingBatches,
+      Consumer<DxlImportPipeline.BatchResult> listener) {
+    Objects.requireNonNull(db, "Database cannot be null");
+
+    checkDisposed();
+
+    DominoClient client = db.getParentDominoClient();
+    String server = db.getServer();
+    String filePath = db.getRelativeFilePath();
+    //the settings are read here, since the importer handle should stay on the current thread
+    Consumer<DxlImporter> settings = getSettings();
+
+    DxlExporter[] exporter = new DxlExporter[1];
+    Function<Document, String> documentToDxl = doc -> {
+      if (exporter[0] == null) {
+        exporter[0] = client.createDxlExporter();
+        exporter[0].setOutputXmlDecl(false);
+        exporter[0].setOutputDoctype(false);
+      }
+      try {
+        return exporter[0].exportDocument(doc);
+      } catch (IOException e) {
+        throw new DominoException("Error exporting document to DXL", e);
+      }
+    };
+
+    DefaultDxlImportPipeline.BatchImporter batchImporter = new DefaultDxlImportPipeline.BatchImporter() {
+      //opened on the import thread with the first batch
+      private Database batchDb;
+      private JNADxlImporter importer;
+
+      @Override
+      public int[] importBatch(int batchIndex, int documentCount, byte[] dxl) {
+        if (this.batchDb == null) {
+          this.batchDb = client.openDatabase(server, filePath);
+          this.importer = (JNADxlImporter) client.createDxlImporter();
+          settings.accept(this.importer);
+          // each batch is wrapped in a <database> element without attributes
+          this.importer.setReplaceDbProperties(false);
+        }
+        try {
+          this.importer.importDxl(new ByteArrayInputStream(dxl), this.batchDb);
+        } catch (IOException e) {
+          throw new DominoException(MessageFormat.format("Error importing DXL batch {0}", batchIndex), e);
+        }
+        return this.importer.getImportedNoteIds().map(IDTable::toIntArray).orElseGet(() -> new int[0]);
+      }
+
+      @Override
+      public void close() {
+        // free the native handle right away instead of leaving it to the GC of the import thread
+        try {
+          if (this.importer != null) {
+            this.importer.dispose();
+          }
+        } finally {
+          if (this.batchDb != null) {
+            this.batchDb.close();
+          }
+        }
+      }
+    };
+
+    Runnable disposeExporter = () -> {
+      if (exporter[0] != null) {
+        ((JNADxlExporter) exporter[0]).dispose();
+      }
+    };
+
+    return DefaultDxlImportPipeline.start(batchSize, maxPendingBatches, client.getThreadFactory(), documentToDxl,
+        batchImporter, listener, disposeExporter);
+  }
+
+  /**
+   * Reads the settings of this importer to apply them to importers on other threads
+   *
+   * @return function to apply the settings
+   */
+  private Consumer<DxlImporter> getSettings() {
+    DXLImportOption aclImportOption = getACLImportOption();
+    DXLImportOption designImportOption = getDesignImportOption();
+    DXLImportOption documentsImportOption = getDocumentsImportOption();
+    boolean createFullTextIndex = isCreateFullTextIndex();
+    boolean replaceDbProperties = isReplaceDbProperties();
+    XMLValidationOption inputValidationOption = getInputValidationOption();
+    boolean replicaRequiredForReplaceOrUpdate = isReplicaRequiredForReplaceOrUpdate();
+    boolean exitOnFirstFatalError = isExitOnFirstFatalError();
+    DXLLogOption unknownTokenLogOption = getUnknownTokenLogOption();
+    String resultLogComment = getResultLogComment();
+
+    return importer -> {
+      importer.setACLImportOption(aclImportOption);
+      importer.setDesignImportOption(designImportOption);
+      importer.setDocumentsImportOption(documentsImportOption);
+      importer.setCreateFullTextIndex(createFullTextIndex);
+      importer.setReplaceDbProperties(replaceDbProperties);
+      importer.setInputValidationOption(inputValidationOption);
+      importer.setReplicaRequiredForReplaceOrUpdate(replicaRequiredForReplaceOrUpdate);
+      importer.setExitOnFirstFatalError(exitOnFirstFatalError);
+      importer.setUnknownTokenLogOption(unknownTokenLogOption);
+      if (resultLogComment != null) {
+        importer.setResultLogComment(resultLogComment);
+      }
+    };
   }
 
   @SuppressWarnings("rawtypes")
@@ -0,0 +1,253 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.text.MessageFormat;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.hcl.domino.commons.data.DefaultDominoDateRange;
+import com.hcl.domino.commons.data.DoubleList;
+import com.hcl.domino.commons.richtext.RichTextUtil;
+import com.hcl.domino.data.DominoDateTime;
+import com.hcl.domino.data.ItemDataType;
+import com.hcl.domino.jna.data.JNADominoDateTime;
+import com.hcl.domino.misc.DominoEnumUtil;
+import com.hcl.domino.richtext.records.RecordType;
+
+/**
+ * Pure Java variant of {@link ItemDecoder} that reads item values from a {@link ByteBuffer},
+ * e.g. a heap buffer or a direct buffer over locked native memory.<br>
+ * <br>
+ * Number lists are bulk-copied into a {@link DoubleList} and time/date lists into an innards
+ * array that is decoded to {@link DominoDateTime} objects on access, so no per-value objects
+ * are allocated while decoding. Text lists are parsed without calling ListGetText.<br>
+ * <br>
+ * All methods read from the buffer's current position to its limit and do not modify the
+ * position of the passed buffer.
+ * 
+ * @since 1.54.0
+ */
+public class ByteBufferItemDecoder {
+	/** size of the RANGE header of number and time/date lists */
+	private static final int RANGE_SIZE = 4;
+	private static final int TIMEDATE_SIZE = 8;
+	
+	private static ByteBuffer nativeOrder(ByteBuffer buf) {
+		return buf.slice().order(ByteOrder.nativeOrder());
+	}
+	
+	public static double decodeNumber(ByteBuffer buf) {
+		return nativeOrder(buf).getDouble(0);
+	}
+	
+	public static Object decodeTextValue(ByteBuffer buf, boolean convertStringsLazily) {
+		int valueLength = buf.remaining();
+		if (valueLength<=0) {
+			return ""; //$NON-NLS-1$
+		}
+		
+		byte[] stringDataArr = new byte[valueLength];
+		buf.duplicate().get(stringDataArr);
+		return convertStringsLazily ? new LMBCSString(stringDataArr) : NotesStringUtils.fromLMBCS(stringDataArr);
+	}
+	
+	public static List<Object> decodeTextListValue(ByteBuffer buf, boolean convertStringsLazily) {
+		ByteBuffer data = nativeOrder(buf);
+		if (data.remaining()<2) {
+			return Collections.emptyList();
+		}
+		
+		int listCountAsInt = data.getShort(0) & 0xffff;
+		List<Object> listValues = new ArrayList<>(listCountAsInt);
+		
+		int textOffset = 2 + 2*listCountAsInt;
+		for (int i=0; i<listCountAsInt; i++) {
+			int textLength = data.getShort(2 + 2*i) & 0xffff;
+			if (textLength==0) {
+				listValues.add(""); //$NON-NLS-1$
+			}
+			else {
+				byte[] stringDataArr = new byte[textLength];
+				data.position(textOffset);
+				data.get(stringDataArr);
+				listValues.add(convertStringsLazily ? new LMBCSString(stringDataArr) : NotesStringUtils.fromLMBCS(stringDataArr));
+			}
+			textOffset += textLength;
+		}
+		return listValues;
+	}
+	
+	public static DominoDateTime decodeTimeDate(ByteBuffer buf) {
+		ByteBuffer data = nativeOrder(buf);
+		return new JNADominoDateTime(new int[] { data.getInt(0), data.getInt(4) });
+	}
+	
+	/**
+	 * Decodes a number list. Lists without number ranges are returned as {@link DoubleList}.
+	 * 
+	 * @param buf buffer with RANGE header and values
+	 * @return list of {@link Double} values and <code>double[]</code> pairs for ranges
+	 */
+	public static List<Object> decodeNumberList(ByteBuffer buf) {
+		ByteBuffer data = nativeOrder(buf);
+		int listEntriesAsInt = data.getShort(0) & 0xffff;
+		int rangeEntriesAsInt = data.getShort(2) & 0xffff;
+		
+		double[] values = readDoubles(data, RANGE_SIZE, listEntriesAsInt);
+		if (rangeEntriesAsInt==0) {
+			@SuppressWarnings("unchecked")
+			List<Object> list = (List<Object>) (List<?>) new DoubleList(values);
+			return list;
+		}
+		
+		//number ranges are stored as double[] pairs (not sure whether they exist in real life)
+		List<Object> numberValues = new ArrayList<>(listEntriesAsInt + rangeEntriesAsInt);
+		for (double value : values) {
+			numberValues.add(value);
+		}
+		double[] pairs = readDoubles(data, RANGE_SIZE + 8*listEntriesAsInt, 2*rangeEntriesAsInt);
+		for (int t=0; t<rangeEntriesAsInt; t++) {
+			numberValues.add(new double[] { pairs[2*t], pairs[2*t + 1] });
+		}
+		return numberValues;
+	}
+	
+	/**
+	 * Decodes the list entries of a number list into a primitive array
+	 * 
+	 * @param buf buffer with RANGE header and values
+	 * @return values, number ranges are not included
+	 */
+	public static double[] decodeNumberListAsArray(ByteBuffer buf) {
+		ByteBuffer data = nativeOrder(buf);
+		return readDoubles(data, RANGE_SIZE, data.getShort(0) & 0xffff);
+	}
+	
+	/**
+	 * Decodes a time/date list. The {@link DominoDateTime} objects of the list entries
+	 * are created on first access.
+	 * 
+	 * @param buf buffer with RANGE header and values
+	 * @return list of {@link DominoDateTime} and {@link DefaultDominoDateRange} values
+	 */
+	public static List<Object> decodeTimeDateList(ByteBuffer buf) {
+		ByteBuffer data = nativeOrder(buf);
+		int listEntriesAsInt = data.getShort(0) & 0xffff;
+		int rangeEntriesAsInt = data.getShort(2) & 0xffff;
+		
+		int[] innards = readInts(data, RANGE_SIZE, 2*listEntriesAsInt);
+		TimeDateList timeDates = new TimeDateList(innards);
+		if (rangeEntriesAsInt==0) {
+			return timeDates;
+		}
+		
+		List<Object> values = new ArrayList<>(listEntriesAsInt + rangeEntriesAsInt);
+		values.addAll(timeDates);
+		int[] pairInnards = readInts(data, RANGE_SIZE + TIMEDATE_SIZE*listEntriesAsInt, 4*rangeEntriesAsInt);
+		for (int t=0; t<rangeEntriesAsInt; t++) {
+			int offset = 4*t;
+			DominoDateTime lower = new JNADominoDateTime(new int[] { pairInnards[offset], pairInnards[offset+1] });
+			DominoDateTime upper = new JNADominoDateTime(new int[] { pairInnards[offset+2], pairInnards[offset+3] });
+			values.add(new DefaultDominoDateRange(lower, upper));
+		}
+		return values;
+	}
+	
+	/**
+	 * Reads a value of the types supported by {@link ItemDecoder#readItemValue}
+	 * 
+	 * @param buf buffer with the item data, without the data type prefix
+	 * @param typeVal the type of the item data, corresponding to {@link ItemDataType} values
+	 * @param area the rich-text record category to use when interpreting composite data
+	 * @return a parsed Java object representing the data
+	 */
+	public static Object readItemValue(ByteBuffer buf, short typeVal, RecordType.Area area) {
+		ItemDataType type = DominoEnumUtil.valueOf(ItemDataType.class, typeVal)
+			.orElseThrow(() -> new IllegalArgumentException(MessageFormat.format("Unsupported data type: {0}", typeVal)));
+		
+		switch(type) {
+		case TYPE_TEXT:
+			return decodeTextValue(buf, false);
+		case TYPE_TEXT_LIST:
+			return decodeTextListValue(buf, false);
+		case TYPE_NUMBER:
+			return decodeNumber(buf);
+		case TYPE_TIME:
+			return decodeTimeDate(buf);
+		case TYPE_NUMBER_RANGE:
+			return decodeNumberList(buf);
+		case TYPE_TIME_RANGE:
+			return decodeTimeDateList(buf);
+		case TYPE_COMPOSITE:
+			// Add back space for the type val
+			byte[] data = new byte[buf.remaining()+2];
+			buf.duplicate().get(data, 2, data.length-2);
+			return RichTextUtil.readMemoryRecords(data, area);
+		default:
+			throw new IllegalArgumentException(MessageFormat.format("Unsupported data type: {0}", type));
+		}
+	}
+	
+	private static double[] readDoubles(ByteBuffer data, int offset, int count) {
+		double[] values = new double[count];
+		data.position(offset);
+		data.asDoubleBuffer().get(values);
+		return values;
+	}
+	
+	private static int[] readInts(ByteBuffer data, int offset, int count) {
+		int[] values = new int[count];
+		data.position(offset);
+		data.asIntBuffer().get(values);
+		return values;
+	}
+	
+	/**
+	 * Fixed-size list of time/date values that are stored as innards and converted
+	 * to {@link DominoDateTime} on first access
+	 */
+	private static class TimeDateList extends AbstractList<Object> implements RandomAccess {
+		private final int[] m_innards;
+		private final DominoDateTime[] m_values;
+		
+		public TimeDateList(int[] innards) {
+			m_innards = innards;
+			m_values = new DominoDateTime[innards.length / 2];
+		}
+		
+		@Override
+		public Object get(int index) {
+			DominoDateTime value = m_values[index];
+			if (value==null) {
+				value = new JNADominoDateTime(new int[] { m_innards[2*index], m_innards[2*index + 1] });
+				m_values[index] = value;
+			}
+			return value;
+		}
+		
+		@Override
+		public int size() {
+			return m_values.length;
+		}
+	}
+}
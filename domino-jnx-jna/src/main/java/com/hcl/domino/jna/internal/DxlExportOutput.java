@@ -0,0 +1,204 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Objects;
+
+import com.sun.jna.Pointer;
+
+/**
+ * Target for the chunks of DXL passed to {@code XML_WRITE_FUNCTION} callbacks.<br>
+ * <br>
+ * Byte targets receive the native buffers without an intermediate {@link String}.
+ * The {@link Writer} target decodes the bytes with a streaming {@link CharsetDecoder},
+ * so multibyte characters split across two chunks are decoded correctly.<br>
+ * <br>
+ * Exceptions thrown in a JNA callback do not reach the caller of the C function, so
+ * the first write error is kept and rethrown by {@link #finish()}; later chunks are
+ * skipped.
+ * 
+ * @since 1.54.0
+ */
+public abstract class DxlExportOutput {
+	private IOException m_error;
+	
+	/**
+	 * Creates a target that writes the native buffers directly to a channel
+	 * 
+	 * @param channel target channel
+	 * @return output
+	 */
+	public static DxlExportOutput forChannel(WritableByteChannel channel) {
+		Objects.requireNonNull(channel, "channel cannot be null");
+		return new DxlExportOutput() {
+			@Override
+			protected void write(ByteBuffer data) throws IOException {
+				while (data.hasRemaining()) {
+					channel.write(data);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Creates a target that writes the bytes to a stream, copied via a reused array
+	 * 
+	 * @param out target stream
+	 * @return output
+	 */
+	public static DxlExportOutput forStream(OutputStream out) {
+		Objects.requireNonNull(out, "out cannot be null");
+		return new DxlExportOutput() {
+			private byte[] m_buffer;
+			
+			@Override
+			protected void write(ByteBuffer data) throws IOException {
+				if (m_buffer == null || m_buffer.length < data.remaining()) {
+					m_buffer = new byte[data.remaining()];
+				}
+				int len = data.remaining();
+				data.get(m_buffer, 0, len);
+				out.write(m_buffer, 0, len);
+			}
+		};
+	}
+	
+	/**
+	 * Creates a target that decodes the bytes to characters
+	 * 
+	 * @param writer target writer
+	 * @param charset charset of the exported DXL
+	 * @return output
+	 */
+	public static DxlExportOutput forWriter(Writer writer, Charset charset) {
+		Objects.requireNonNull(writer, "writer cannot be null");
+		return new WriterOutput(writer, charset);
+	}
+	
+	/**
+	 * Writes a chunk received in an {@code XML_WRITE_FUNCTION} callback
+	 * 
+	 * @param buffer pointer to the chunk
+	 * @param length length of the chunk in bytes
+	 */
+	public void write(Pointer buffer, int length) {
+		if (m_error != null || length <= 0) {
+			return;
+		}
+		try {
+			write(buffer.getByteBuffer(0, length));
+		} catch (IOException e) {
+			m_error = e;
+		}
+	}
+	
+	/**
+	 * Writes a chunk of DXL
+	 * 
+	 * @param data chunk, only valid during the call
+	 * @throws IOException in case of I/O errors
+	 */
+	protected abstract void write(ByteBuffer data) throws IOException;
+	
+	/**
+	 * Writes pending data after the export
+	 * 
+	 * @throws IOException the first error that occurred while writing the chunks
+	 */
+	public void finish() throws IOException {
+		if (m_error != null) {
+			throw m_error;
+		}
+	}
+	
+	private static class WriterOutput extends DxlExportOutput {
+		/** large enough for the incomplete tail of a character in any charset */
+		private static final int MAX_PENDING_BYTES = 16;
+		
+		private final Writer m_writer;
+		private final CharsetDecoder m_decoder;
+		private final CharBuffer m_chars = CharBuffer.allocate(8192);
+		private final ByteBuffer m_pending = ByteBuffer.allocate(MAX_PENDING_BYTES);
+		
+		public WriterOutput(Writer writer, Charset charset) {
+			m_writer = writer;
+			//same handling of invalid input as new String(byte[], Charset)
+			m_decoder = charset.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		}
+		
+		@Override
+		protected void write(ByteBuffer data) throws IOException {
+			ByteBuffer in = data;
+			if (m_pending.position() > 0) {
+				//continue the character split at the end of the previous chunk
+				m_pending.flip();
+				in = ByteBuffer.allocate(m_pending.remaining() + data.remaining());
+				in.put(m_pending).put(data).flip();
+				m_pending.clear();
+			}
+			decode(in, false);
+			if (in.hasRemaining()) {
+				if (in.remaining() > MAX_PENDING_BYTES) {
+					throw new IOException("Unable to decode the exported DXL");
+				}
+				m_pending.put(in);
+			}
+		}
+		
+		private void decode(ByteBuffer in, boolean endOfInput) throws IOException {
+			CoderResult result;
+			do {
+				result = m_decoder.decode(in, m_chars, endOfInput);
+				writeChars();
+			} while (result.isOverflow());
+		}
+		
+		private void writeChars() throws IOException {
+			m_chars.flip();
+			if (m_chars.hasRemaining()) {
+				m_writer.write(m_chars.array(), m_chars.arrayOffset() + m_chars.position(), m_chars.remaining());
+			}
+			m_chars.clear();
+		}
+		
+		@Override
+		public void finish() throws IOException {
+			super.finish();
+			
+			m_pending.flip();
+			decode(m_pending, true);
+			m_pending.clear();
+			while (m_decoder.flush(m_chars).isOverflow()) {
+				writeChars();
+			}
+			writeChars();
+			m_decoder.reset();
+		}
+	}
+}
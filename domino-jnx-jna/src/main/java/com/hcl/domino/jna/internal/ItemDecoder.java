@@ -23,23 +23,17 @@ import java.util.Collections;
 import java.util.List;
 import java.util.TimeZone;
 
-import com.hcl.domino.commons.data.DefaultDominoDateRange;
 import com.hcl.domino.commons.richtext.RichTextUtil;
 import com.hcl.domino.commons.util.NotesDateTimeUtils;
-import com.hcl.domino.commons.util.NotesErrorUtils;
 import com.hcl.domino.data.DominoDateTime;
 import com.hcl.domino.data.ItemDataType;
 import com.hcl.domino.jna.data.JNADominoDateTime;
-import com.hcl.domino.jna.internal.capi.NotesCAPI;
-import com.hcl.domino.jna.internal.structs.NotesNumberPairStruct;
 import com.hcl.domino.jna.internal.structs.NotesRangeStruct;
 import com.hcl.domino.jna.internal.structs.NotesTimeDatePairStruct;
 import com.hcl.domino.jna.internal.structs.NotesTimeDateStruct;
 import com.hcl.domino.misc.DominoEnumUtil;
 import com.hcl.domino.richtext.records.RecordType;
-import com.sun.jna.Native;
 import com.sun.jna.Pointer;
-import com.sun.jna.ptr.ShortByReference;
 
 public class ItemDecoder {
 
@@ -69,40 +63,12 @@ public class ItemDecoder {
 	public static List<Object> decodeTextListValue(Pointer ptr, boolean convertStringsLazily) {
 		//read a text list item value
 		int listCountAsInt = ptr.getShort(0) & 0xffff;
-		
-		List<Object> listValues = new ArrayList<>(listCountAsInt);
-		
-		try(DisposableMemory retTextPointer = new DisposableMemory(Native.POINTER_SIZE)) {
-    		ShortByReference retTextLength = new ShortByReference();
-    		
-    		for (int i=0; i<listCountAsInt; i++) {
-    			short result = NotesCAPI.get().ListGetText(ptr, false, (char) i, retTextPointer, retTextLength);
-    			NotesErrorUtils.checkResult(result);
-    			
-    			//retTextPointer[0] points to the list entry text
-    			Pointer pointerToTextInMem = retTextPointer.getPointer(0);
-    			int retTextLengthAsInt = retTextLength.getValue() & 0xffff;
-    			
-    			if (retTextLengthAsInt==0) {
-    				listValues.add(""); //$NON-NLS-1$
-    			}
-    			else {
-    				if (convertStringsLazily) {
-    					byte[] stringDataArr = new byte[retTextLengthAsInt];
-    					pointerToTextInMem.read(0, stringDataArr, 0, retTextLengthAsInt);
-    
-    					LMBCSString lmbcsString = new LMBCSString(stringDataArr);
-    					listValues.add(lmbcsString);
-    				}
-    				else {
-    					String currListEntry = NotesStringUtils.fromLMBCS(pointerToTextInMem, retTextLengthAsInt);
-    					listValues.add(currListEntry);
-    				}
-    			}
-    		}
+		int listSize = 2 + 2*listCountAsInt;
+		for (int i=0; i<listCountAsInt; i++) {
+			listSize += ptr.getShort(2 + 2*i) & 0xffff;
 		}
 		
-		return listValues;
+		return ByteBufferItemDecoder.decodeTextListValue(ptr.getByteBuffer(0, listSize), convertStringsLazily);
 	}
 	
 	public static DominoDateTime decodeTimeDateAsNotesTimeDate(final Pointer ptr, int valueLength) {
@@ -119,79 +85,25 @@ public class ItemDecoder {
 	}
 
 	public static List<Object> decodeNumberList(Pointer ptr, int valueLength) {
-		NotesRangeStruct range = NotesRangeStruct.newInstance(ptr);
-		range.read();
-		
-		//read number of list and range entries in range
-		int listEntriesAsInt = range.ListEntries & 0xffff;
-		int rangeEntriesAsInt = range.RangeEntries & 0xffff;
-		
-		//skip range header
-		Pointer ptrAfterRange = ptr.share(JNANotesConstants.rangeSize);
-		
-		//we create an object list, because number ranges contain double[] array
-		//(not sure whether number ranges exist in real life)
-		List<Object> numberValues = new ArrayList<>(listEntriesAsInt + rangeEntriesAsInt);
-		for (int t=0; t<listEntriesAsInt; t++) {
-			double numVal = ptrAfterRange.getDouble(t * 8);
-			numberValues.add(numVal);
-		}
-		//skip list entries part of the buffer
-		Pointer ptrAfterListEntries = ptrAfterRange.share(8 * listEntriesAsInt);
-		
-		for (int t=0; t<rangeEntriesAsInt; t++) {
-			Pointer ptrListEntry = ptrAfterListEntries.share(t * JNANotesConstants.numberPairSize);
-			NotesNumberPairStruct numPair = NotesNumberPairStruct.newInstance(ptrListEntry);
-			numPair.read();
-			double lower = numPair.Lower;
-			double upper = numPair.Upper;
-			
-			numberValues.add(new double[] {lower, upper});
-		}
-		
-		return numberValues;
+		return ByteBufferItemDecoder.decodeNumberList(ptr.getByteBuffer(0, rangeSize(ptr, 8, JNANotesConstants.numberPairSize)));
 	}
+	
 	public static List<Object> decodeTimeDateListAsNotesTimeDate(Pointer ptr) {
-		NotesRangeStruct range = NotesRangeStruct.newInstance(ptr);
-		range.read();
-		
-		//read number of list and range entries in range
-		int listEntriesAsInt = range.ListEntries & 0xffff;
-		int rangeEntriesAsInt = range.RangeEntries & 0xffff;
-		
-		//skip range header
-		Pointer ptrAfterRange = ptr.share(JNANotesConstants.rangeSize);
-		
-		List<Object> calendarValues = new ArrayList<>(listEntriesAsInt + rangeEntriesAsInt);
-		
-		for (int t=0; t<listEntriesAsInt; t++) {
-			Pointer ptrListEntry = ptrAfterRange.share(t * JNANotesConstants.timeDateSize);
-			int[] innards = ptrListEntry.getIntArray(0, 2);
-			calendarValues.add(new JNADominoDateTime(innards));
-		}
-		
-		//move position to the range data
-		Pointer ptrAfterListEntries = ptrAfterRange.share(listEntriesAsInt * JNANotesConstants.timeDateSize);
-		
-		for (int t=0; t<rangeEntriesAsInt; t++) {
-			Pointer ptrRangeEntry = ptrAfterListEntries.share(t * JNANotesConstants.timeDatePairSize);
-			NotesTimeDatePairStruct timeDatePair = NotesTimeDatePairStruct.newInstance(ptrRangeEntry);
-			timeDatePair.read();
-			
-			NotesTimeDateStruct lowerTimeDateStruct = timeDatePair.Lower;
-			NotesTimeDateStruct upperTimeDateStruct = timeDatePair.Upper;
-			
-			int[] lowerTimeDateInnards = lowerTimeDateStruct.Innards;
-			int[] upperTimeDateInnards = upperTimeDateStruct.Innards;
-			
-			DominoDateTime lowerTimeDate = new JNADominoDateTime(lowerTimeDateInnards);
-			DominoDateTime upperTimeDate = new JNADominoDateTime(upperTimeDateInnards);
-			
-			calendarValues.add(new DefaultDominoDateRange(lowerTimeDate, upperTimeDate));
-		}
-		
-		return calendarValues;
+		return ByteBufferItemDecoder.decodeTimeDateList(ptr.getByteBuffer(0, rangeSize(ptr, JNANotesConstants.timeDateSize, JNANotesConstants.timeDatePairSize)));
+	}
 	
+	/**
+	 * Computes the size of a RANGE structure with its list and range entries
+	 * 
+	 * @param ptr pointer to the RANGE header
+	 * @param listEntrySize size of a list entry
+	 * @param rangeEntrySize size of a range entry
+	 * @return size in bytes
+	 */
+	private static long rangeSize(Pointer ptr, int listEntrySize, int rangeEntrySize) {
+		int listEntriesAsInt = ptr.getShort(0) & 0xffff;
+		int rangeEntriesAsInt = ptr.getShort(2) & 0xffff;
+		return JNANotesConstants.rangeSize + (long) listEntriesAsInt*listEntrySize + (long) rangeEntriesAsInt*rangeEntrySize;
 	}
 	
 	/**
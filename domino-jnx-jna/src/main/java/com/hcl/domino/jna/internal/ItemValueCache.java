@@ -0,0 +1,285 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.hcl.domino.commons.data.DoubleList;
+import com.hcl.domino.jna.utils.CacheStats;
+
+/**
+ * Cache for the decoded item values of a single document, keyed by item name
+ * (case-insensitive) and by the type the values were converted to.<br>
+ * <br>
+ * The cache does not detect changes of the note; the document invalidates entries
+ * when items are written.
+ *
+ * @since 1.54.0
+ */
+public class ItemValueCache {
+	/** Conversion results for these types are immutable and can be shared between callers */
+	private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+			String.class, Integer.class, Long.class, Double.class,
+			LocalDate.class, LocalTime.class, OffsetDateTime.class));
+	
+	/** Stored for conversions that returned null */
+	private static final Object NULL_VALUE = new Object();
+	
+	private final String m_name;
+	private final Map<String,Entry> m_entries = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private long m_hits;
+	private long m_misses;
+	private long m_invalidations;
+	/** Incremented on invalidations, so that loads that overlap with one are not stored */
+	private long m_modCount;
+	
+	private static class Entry {
+		private List<?> m_values;
+		private Map<Class<?>,Object> m_scalars;
+		private Map<Class<?>,Object> m_lists;
+		private Map<Character,String> m_texts;
+	}
+	
+	/**
+	 * Creates a new cache
+	 * 
+	 * @param name name used in the cache statistics
+	 */
+	public ItemValueCache(String name) {
+		m_name = name;
+	}
+	
+	/**
+	 * Checks whether conversion results of the specified type can be cached
+	 * 
+	 * @param valueType value type
+	 * @return true if results are immutable
+	 */
+	public static boolean isCacheableType(Class<?> valueType) {
+		return IMMUTABLE_TYPES.contains(valueType);
+	}
+	
+	/**
+	 * Checks whether decoded item values can be cached, i.e. all of them are of
+	 * immutable types. Lists with other values, e.g. {@link com.hcl.domino.data.DominoDateTime}
+	 * or number ranges, are returned by {@link #getValues(String, Function)} without being cached.
+	 * 
+	 * @param values decoded values
+	 * @return true if cacheable
+	 */
+	public static boolean isShareable(List<?> values) {
+		if (values instanceof DoubleList) {
+			return true;
+		}
+		for (Object value : values) {
+			if (value!=null && !IMMUTABLE_TYPES.contains(value.getClass())) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Copies cached values for a caller that may modify the list
+	 * 
+	 * @param values cached values
+	 * @return modifiable copy
+	 */
+	public static List<?> copyValues(List<?> values) {
+		return new ArrayList<>(values);
+	}
+	
+	private Entry getOrCreateEntry(String itemName) {
+		return m_entries.computeIfAbsent(itemName, (name) -> new Entry());
+	}
+	
+	/*
+	 * The loaders run outside of the monitor, so a slow decode does not block other
+	 * readers. A result is only stored if no invalidation happened in the meantime.
+	 */
+	
+	/**
+	 * Returns the decoded values of an item
+	 * 
+	 * @param itemName item name
+	 * @param loader reads the values on a cache miss
+	 * @return cached values, must not be modified by the caller, or the loaded values
+	 *         if they are not {@link #isShareable(List) shareable}
+	 */
+	public List<?> getValues(String itemName, Function<String,List<?>> loader) {
+		long modCount;
+		synchronized (this) {
+			Entry entry = m_entries.get(itemName);
+			if (entry!=null && entry.m_values!=null) {
+				m_hits++;
+				return entry.m_values;
+			}
+			m_misses++;
+			modCount = m_modCount;
+		}
+		List<?> values = loader.apply(itemName);
+		if (isShareable(values)) {
+			synchronized (this) {
+				if (modCount==m_modCount) {
+					getOrCreateEntry(itemName).m_values = values;
+				}
+			}
+		}
+		return values;
+	}
+	
+	/**
+	 * Returns the value of an item converted to a single value of the specified type
+	 * 
+	 * @param itemName item name
+	 * @param valueType value type, see {@link #isCacheableType(Class)}
+	 * @param loader converts the value on a cache miss
+	 * @return converted value or null
+	 */
+	public Object getScalar(String itemName, Class<?> valueType, Supplier<?> loader) {
+		long modCount;
+		synchronized (this) {
+			Entry entry = m_entries.get(itemName);
+			Object value = entry==null || entry.m_scalars==null ? null : entry.m_scalars.get(valueType);
+			if (value!=null) {
+				m_hits++;
+				return value==NULL_VALUE ? null : value;
+			}
+			m_misses++;
+			modCount = m_modCount;
+		}
+		Object value = loader.get();
+		synchronized (this) {
+			if (modCount==m_modCount) {
+				Entry entry = getOrCreateEntry(itemName);
+				if (entry.m_scalars==null) {
+					entry.m_scalars = new HashMap<>();
+				}
+				entry.m_scalars.put(valueType, value==null ? NULL_VALUE : value);
+			}
+		}
+		return value;
+	}
+	
+	/**
+	 * Returns the value of an item converted to a list of the specified type
+	 * 
+	 * @param itemName item name
+	 * @param valueType list element type, see {@link #isCacheableType(Class)}
+	 * @param loader converts the value on a cache miss
+	 * @return converted list or null, must not be modified by the caller
+	 */
+	public List<?> getList(String itemName, Class<?> valueType, Supplier<List<?>> loader) {
+		long modCount;
+		synchronized (this) {
+			Entry entry = m_entries.get(itemName);
+			Object value = entry==null || entry.m_lists==null ? null : entry.m_lists.get(valueType);
+			if (value!=null) {
+				m_hits++;
+				return value==NULL_VALUE ? null : (List<?>) value;
+			}
+			m_misses++;
+			modCount = m_modCount;
+		}
+		List<?> list = loader.get();
+		synchronized (this) {
+			if (modCount==m_modCount) {
+				Entry entry = getOrCreateEntry(itemName);
+				if (entry.m_lists==null) {
+					entry.m_lists = new HashMap<>();
+				}
+				entry.m_lists.put(valueType, list==null ? NULL_VALUE : list);
+			}
+		}
+		return list;
+	}
+	
+	/**
+	 * Returns the text representation of an item value
+	 * 
+	 * @param itemName item name
+	 * @param separator separator for multiple values
+	 * @param loader produces the text on a cache miss
+	 * @return text
+	 */
+	public String getText(String itemName, char separator, Supplier<String> loader) {
+		long modCount;
+		synchronized (this) {
+			Entry entry = m_entries.get(itemName);
+			String text = entry==null || entry.m_texts==null ? null : entry.m_texts.get(separator);
+			if (text!=null) {
+				m_hits++;
+				return text;
+			}
+			m_misses++;
+			modCount = m_modCount;
+		}
+		String text = loader.get();
+		synchronized (this) {
+			if (modCount==m_modCount) {
+				Entry entry = getOrCreateEntry(itemName);
+				if (entry.m_texts==null) {
+					entry.m_texts = new HashMap<>();
+				}
+				entry.m_texts.put(separator, text);
+			}
+		}
+		return text;
+	}
+	
+	/**
+	 * Removes all cached values of an item
+	 * 
+	 * @param itemName item name
+	 */
+	public synchronized void invalidate(String itemName) {
+		m_modCount++;
+		if (m_entries.remove(itemName)!=null) {
+			m_invalidations++;
+		}
+	}
+	
+	/**
+	 * Removes all cached values
+	 */
+	public synchronized void invalidateAll() {
+		m_modCount++;
+		m_invalidations += m_entries.size();
+		m_entries.clear();
+	}
+	
+	/**
+	 * Returns the usage statistics; invalidated item entries are reported as evictions
+	 * 
+	 * @return statistics
+	 */
+	public synchronized CacheStats getStats() {
+		return new CacheStats(m_name, m_hits, m_misses, m_invalidations, 0, 0, 0, m_entries.size());
+	}
+}
@@ -0,0 +1,503 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.hcl.domino.commons.util.DominoUtils;
+import com.hcl.domino.jna.internal.NotesStringUtils.LineBreakConversion;
+
+/**
+ * Table-driven Java implementation of the LMBCS (Lotus Multi-Byte Character Set)
+ * encoding, used to convert between LMBCS and Java strings without calling
+ * {@code OSTranslate32}.<br>
+ * <br>
+ * Decoding supports the single byte groups 0x01-0x0B, the double byte groups 0x10-0x13,
+ * the control group 0x0F and the Unicode group 0x14. Group 0x01 (code page 850) is the
+ * optimization group, so its characters are written without group byte. Encoding writes
+ * ASCII, group 0x01 and control characters like Notes does and uses the Unicode group for
+ * everything else, which every LMBCS reader can decode.<br>
+ * <br>
+ * Sequences that cannot be handled here (unknown groups or code pages not available in the
+ * JVM) are reported to the caller, which is expected to fall back to the native conversion.
+ * Setting the Java property {@code jnx.lmbcs.native} or the environment variable
+ * {@code JNX_LMBCS_NATIVE} to {@code true} disables this codec completely.
+ *
+ * @since 1.54.0
+ */
+public class LMBCSCodec {
+  /** Return value of {@link #decodeNext(byte[], int, int)} if the sequence is incomplete */
+  public static final int UNDERFLOW = -1;
+  /** Return value of {@link #decodeNext(byte[], int, int)} if the sequence cannot be decoded in Java */
+  public static final int UNMAPPABLE = -2;
+  /** Max number of bytes written by {@link #encodeNext(char, byte[], int)} */
+  public static final int MAX_BYTES_PER_CHAR = 3;
+  /** Max number of bytes of a single LMBCS sequence */
+  public static final int MAX_SEQUENCE_LENGTH = 3;
+
+  private static final int GROUP_OPT = 0x01;
+  private static final int GROUP_CTRL = 0x0F;
+  private static final int GROUP_DBCS_START = 0x10;
+  private static final int GROUP_UNICODE = 0x14;
+  private static final int SYSTEMRANGE_123 = 0x19;
+  private static final int CTRL_OFFSET = 0x20;
+  private static final int C1_START = 0x80;
+  private static final int UNICODE_COMPAT_ZERO = 0xF6;
+
+  /** Code pages of the LMBCS groups, indexed by group byte */
+  private static final String[] GROUP_CHARSETS = new String[GROUP_UNICODE];
+  static {
+    GROUP_CHARSETS[0x01] = "IBM850"; // Latin-1 //$NON-NLS-1$
+    GROUP_CHARSETS[0x02] = "IBM851"; // Greek //$NON-NLS-1$
+    GROUP_CHARSETS[0x03] = "windows-1255"; // Hebrew //$NON-NLS-1$
+    GROUP_CHARSETS[0x04] = "windows-1256"; // Arabic //$NON-NLS-1$
+    GROUP_CHARSETS[0x05] = "windows-1251"; // Cyrillic //$NON-NLS-1$
+    GROUP_CHARSETS[0x06] = "IBM852"; // Latin-2 //$NON-NLS-1$
+    GROUP_CHARSETS[0x08] = "windows-1254"; // Turkish //$NON-NLS-1$
+    GROUP_CHARSETS[0x0B] = "x-IBM874"; // Thai //$NON-NLS-1$
+    GROUP_CHARSETS[0x10] = "windows-31j"; // Japanese //$NON-NLS-1$
+    GROUP_CHARSETS[0x11] = "x-windows-949"; // Korean //$NON-NLS-1$
+    GROUP_CHARSETS[0x12] = "x-windows-950"; // Traditional Chinese //$NON-NLS-1$
+    GROUP_CHARSETS[0x13] = "GBK"; // Simplified Chinese //$NON-NLS-1$
+  }
+
+  /** Decode tables of the single byte groups for the bytes 0x80-0xFF, 0 for unmapped */
+  private static final char[][] SBCS_TABLES = new char[GROUP_DBCS_START][];
+  /** Lazily built decode tables of the double byte groups */
+  private static final DbcsTable[] DBCS_TABLES = new DbcsTable[GROUP_UNICODE - GROUP_DBCS_START];
+
+  /** Encode table for U+00A0-U+00FF in the optimization group */
+  private static final byte[] LATIN1_TO_OPT = new byte[0x60];
+  /** Sorted chars of the optimization group outside of Latin-1 */
+  private static final char[] OPT_EXTRA_CHARS;
+  /** Bytes matching {@link #OPT_EXTRA_CHARS} */
+  private static final byte[] OPT_EXTRA_BYTES;
+
+  private static final boolean ENABLED;
+
+  static {
+    for (int group = 1; group < GROUP_DBCS_START; group++) {
+      SBCS_TABLES[group] = buildSbcsTable(GROUP_CHARSETS[group]);
+    }
+
+    char[] optTable = SBCS_TABLES[GROUP_OPT];
+    int extraCount = 0;
+    char[] extraChars = new char[0x80];
+    for (int i = 0; i < 0x80; i++) {
+      char c = optTable == null ? 0 : optTable[i];
+      if (c >= 0xA0 && c <= 0xFF) {
+        LATIN1_TO_OPT[c - 0xA0] = (byte) (0x80 + i);
+      } else if (c != 0) {
+        extraChars[extraCount++] = c;
+      }
+    }
+    OPT_EXTRA_CHARS = Arrays.copyOf(extraChars, extraCount);
+    Arrays.sort(OPT_EXTRA_CHARS);
+    OPT_EXTRA_BYTES = new byte[extraCount];
+    for (int i = 0; i < 0x80; i++) {
+      char c = optTable == null ? 0 : optTable[i];
+      int idx = Arrays.binarySearch(OPT_EXTRA_CHARS, c);
+      if (c != 0 && idx >= 0) {
+        OPT_EXTRA_BYTES[idx] = (byte) (0x80 + i);
+      }
+    }
+
+    ENABLED = optTable != null && !DominoUtils.checkBooleanProperty("jnx.lmbcs.native", "JNX_LMBCS_NATIVE"); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  private LMBCSCodec() {
+  }
+
+  /**
+   * Returns whether the Java conversion should be used. If {@code false}, callers
+   * should use {@code OSTranslate32} instead.
+   *
+   * @return true if enabled
+   */
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /**
+   * Converts LMBCS data to a Java String
+   *
+   * @param data LMBCS data
+   * @param offset start offset in the array
+   * @param length number of bytes to convert
+   * @param nullReplacement string to insert for each null byte (the LMBCS line delimiter)
+   * @return decoded string or null if the data contains sequences that can only be converted natively
+   */
+  public static String decode(byte[] data, int offset, int length, String nullReplacement) {
+    final int end = offset + length;
+    int pos = offset;
+    // fast path for printable 7 bit ASCII, bytes >= 0x80 are negative
+    while (pos < end && data[pos] >= CTRL_OFFSET) {
+      pos++;
+    }
+    if (pos == end) {
+      return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+    }
+
+    final int nullReplLen = nullReplacement.length();
+    final char[] out = new char[length * Math.max(1, nullReplLen)];
+    int outPos = 0;
+    for (int i = offset; i < pos; i++) {
+      out[outPos++] = (char) data[i];
+    }
+
+    while (pos < end) {
+      final int b = data[pos] & 0xff;
+      if (b >= CTRL_OFFSET && b < C1_START) {
+        out[outPos++] = (char) b;
+        pos++;
+      } else if (b == 0) {
+        nullReplacement.getChars(0, nullReplLen, out, outPos);
+        outPos += nullReplLen;
+        pos++;
+      } else {
+        final int result = decodeNext(data, pos, end);
+        if (result < 0) {
+          return null;
+        }
+        out[outPos++] = (char) (result & 0xffff);
+        pos += result >>> 16;
+      }
+    }
+    return new String(out, 0, outPos);
+  }
+
+  /**
+   * Decodes the LMBCS sequence at the specified position. A null byte is returned as
+   * character 0.
+   *
+   * @param data LMBCS data
+   * @param pos position of the first byte of the sequence
+   * @param limit end of the available data (exclusive)
+   * @return the decoded character in the lower 16 bits and the number of consumed bytes in
+   *         the upper 16 bits, {@link #UNDERFLOW} if the sequence is incomplete or
+   *         {@link #UNMAPPABLE} if it cannot be decoded in Java
+   */
+  public static int decodeNext(byte[] data, int pos, int limit) {
+    if (pos >= limit) {
+      return UNDERFLOW;
+    }
+    final int b = data[pos] & 0xff;
+    if (b >= CTRL_OFFSET) {
+      if (b < C1_START) {
+        return 1 << 16 | b;
+      }
+      return sbcs(GROUP_OPT, b, 1);
+    }
+
+    switch (b) {
+      case 0:
+      case 0x09:
+      case 0x0A:
+      case 0x0D:
+      case SYSTEMRANGE_123:
+        return 1 << 16 | b;
+      default:
+        break;
+    }
+
+    if (pos + 1 >= limit) {
+      return UNDERFLOW;
+    }
+    final int b1 = data[pos + 1] & 0xff;
+
+    if (b == GROUP_CTRL) {
+      if (b1 >= C1_START) {
+        return 2 << 16 | b1;
+      } else if (b1 >= CTRL_OFFSET) {
+        return 2 << 16 | b1 - CTRL_OFFSET;
+      } else {
+        return UNMAPPABLE;
+      }
+    } else if (b < GROUP_DBCS_START) {
+      return b1 >= C1_START ? sbcs(b, b1, 2) : UNMAPPABLE;
+    } else if (b < GROUP_UNICODE) {
+      final DbcsTable table = getDbcsTable(b);
+      if (table == null) {
+        return UNMAPPABLE;
+      }
+      if (!table.lead[b1]) {
+        final char c = table.single[b1];
+        return c == 0 ? UNMAPPABLE : 2 << 16 | c;
+      }
+      if (pos + 2 >= limit) {
+        return UNDERFLOW;
+      }
+      final char c = table.dbcs[b1 << 8 | data[pos + 2] & 0xff];
+      return c == 0 ? UNMAPPABLE : 3 << 16 | c;
+    } else if (b == GROUP_UNICODE) {
+      if (pos + 2 >= limit) {
+        return UNDERFLOW;
+      }
+      final int b2 = data[pos + 2] & 0xff;
+      if (b1 == UNICODE_COMPAT_ZERO) {
+        return 3 << 16 | b2 << 8;
+      }
+      return 3 << 16 | b1 << 8 | b2;
+    } else {
+      return UNMAPPABLE;
+    }
+  }
+
+  /**
+   * Determines the length of the LMBCS sequence at the specified position without
+   * decoding it. Works regardless of {@link #isEnabled()}, so it can be used to find
+   * safe split positions for native conversion.
+   *
+   * @param data LMBCS data
+   * @param pos position of the first byte of the sequence
+   * @param limit end of the available data (exclusive)
+   * @return sequence length, {@link #UNDERFLOW} if more data is needed to determine it or
+   *         {@link #UNMAPPABLE} if the data does not start with a known sequence
+   */
+  public static int getSequenceLength(byte[] data, int pos, int limit) {
+    if (pos >= limit) {
+      return UNDERFLOW;
+    }
+    final int b = data[pos] & 0xff;
+    if (b >= CTRL_OFFSET || b == 0 || b == 0x09 || b == 0x0A || b == 0x0D || b == SYSTEMRANGE_123) {
+      return 1;
+    } else if (b < GROUP_DBCS_START) {
+      return 2;
+    } else if (b == GROUP_UNICODE) {
+      return 3;
+    } else if (b > GROUP_UNICODE) {
+      return UNMAPPABLE;
+    }
+
+    if (pos + 1 >= limit) {
+      return UNDERFLOW;
+    }
+    final DbcsTable table = getDbcsTable(b);
+    if (table == null) {
+      return UNMAPPABLE;
+    }
+    return table.lead[data[pos + 1] & 0xff] ? 3 : 2;
+  }
+
+  private static int sbcs(int group, int b, int consumed) {
+    final char[] table = SBCS_TABLES[group];
+    if (table == null) {
+      return UNMAPPABLE;
+    }
+    final char c = table[b - C1_START];
+    return c == 0 ? UNMAPPABLE : consumed << 16 | c;
+  }
+
+  /**
+   * Converts a Java String to LMBCS
+   *
+   * @param str string to convert
+   * @param lineBreakConversion how to convert line breaks
+   * @param addNull true to add a null terminator
+   * @return LMBCS data or null if the string contains characters that can only be converted natively
+   */
+  public static byte[] encode(CharSequence str, LineBreakConversion lineBreakConversion, boolean addNull) {
+    final int len = str.length();
+    byte[] out = new byte[len * MAX_BYTES_PER_CHAR + (addNull ? 1 : 0)];
+    int pos = 0;
+    for (int i = 0; i < len; i++) {
+      final char c = str.charAt(i);
+      if (c >= CTRL_OFFSET && c < C1_START) {
+        out[pos++] = (byte) c;
+        continue;
+      }
+      if (lineBreakConversion != LineBreakConversion.ORIGINAL) {
+        if (c == '\r' && i + 1 < len && str.charAt(i + 1) == '\n') {
+          continue;
+        }
+        if (c == '\n') {
+          out[pos++] = lineBreakConversion == LineBreakConversion.NULL ? 0 : (byte) '\n';
+          continue;
+        }
+      }
+      pos = encodeNext(c, out, pos);
+      if (pos < 0) {
+        return null;
+      }
+    }
+    if (addNull) {
+      out[pos++] = 0;
+    }
+    return pos == out.length ? out : Arrays.copyOf(out, pos);
+  }
+
+  /**
+   * Encodes a single character as LMBCS
+   *
+   * @param c character
+   * @param dest target array, must have space for {@link #MAX_BYTES_PER_CHAR} bytes
+   * @param pos write position
+   * @return new write position or -1 if the character can only be converted natively
+   */
+  public static int encodeNext(char c, byte[] dest, int pos) {
+    if (c < C1_START) {
+      if (c >= CTRL_OFFSET || c == 0 || c == 0x09 || c == 0x0A || c == 0x0D || c == SYSTEMRANGE_123) {
+        dest[pos] = (byte) c;
+        return pos + 1;
+      }
+      dest[pos] = GROUP_CTRL;
+      dest[pos + 1] = (byte) (c + CTRL_OFFSET);
+      return pos + 2;
+    }
+    if (c < C1_START + CTRL_OFFSET) {
+      dest[pos] = GROUP_CTRL;
+      dest[pos + 1] = (byte) c;
+      return pos + 2;
+    }
+    if (c <= 0xFF) {
+      final byte optByte = LATIN1_TO_OPT[c - 0xA0];
+      if (optByte != 0) {
+        dest[pos] = optByte;
+        return pos + 1;
+      }
+    } else {
+      final int idx = Arrays.binarySearch(OPT_EXTRA_CHARS, c);
+      if (idx >= 0) {
+        dest[pos] = OPT_EXTRA_BYTES[idx];
+        return pos + 1;
+      }
+    }
+
+    final int hi = c >>> 8;
+    final int lo = c & 0xff;
+    if (hi == UNICODE_COMPAT_ZERO) {
+      // would be ambiguous with the compatibility zero marker
+      return -1;
+    }
+    dest[pos] = GROUP_UNICODE;
+    if (lo == 0) {
+      dest[pos + 1] = (byte) UNICODE_COMPAT_ZERO;
+      dest[pos + 2] = (byte) hi;
+    } else {
+      dest[pos + 1] = (byte) hi;
+      dest[pos + 2] = (byte) lo;
+    }
+    return pos + 3;
+  }
+
+  private static char[] buildSbcsTable(String charsetName) {
+    if (charsetName == null || !Charset.isSupported(charsetName)) {
+      return null;
+    }
+    final CharsetDecoder decoder = newReportingDecoder(charsetName);
+    final char[] table = new char[0x80];
+    final ByteBuffer in = ByteBuffer.allocate(1);
+    final CharBuffer out = CharBuffer.allocate(2);
+    for (int i = 0; i < 0x80; i++) {
+      in.clear();
+      in.put((byte) (C1_START + i));
+      in.flip();
+      table[i] = decodeSingleChar(decoder, in, out);
+    }
+    return table;
+  }
+
+  private static DbcsTable getDbcsTable(int group) {
+    final int idx = group - GROUP_DBCS_START;
+    DbcsTable table = DBCS_TABLES[idx];
+    if (table == null) {
+      synchronized (DBCS_TABLES) {
+        table = DBCS_TABLES[idx];
+        if (table == null) {
+          table = DbcsTable.build(GROUP_CHARSETS[group]);
+          DBCS_TABLES[idx] = table;
+        }
+      }
+    }
+    return table == DbcsTable.UNSUPPORTED ? null : table;
+  }
+
+  private static CharsetDecoder newReportingDecoder(String charsetName) {
+    return Charset.forName(charsetName).newDecoder()
+        .onMalformedInput(CodingErrorAction.REPORT)
+        .onUnmappableCharacter(CodingErrorAction.REPORT);
+  }
+
+  /**
+   * Decodes the complete input to exactly one character
+   *
+   * @return character or 0 if the input does not represent exactly one character
+   */
+  private static char decodeSingleChar(CharsetDecoder decoder, ByteBuffer in, CharBuffer out) {
+    decoder.reset();
+    out.clear();
+    final CoderResult result = decoder.decode(in, out, true);
+    if (result.isError() || in.hasRemaining() || decoder.flush(out).isError() || out.position() != 1) {
+      return 0;
+    }
+    final char c = out.get(0);
+    return c == '\uFFFD' ? 0 : c;
+  }
+
+  /**
+   * Decode tables of a double byte LMBCS group
+   */
+  private static class DbcsTable {
+    static final DbcsTable UNSUPPORTED = new DbcsTable(0);
+
+    final boolean[] lead;
+    final char[] single;
+    final char[] dbcs;
+
+    private DbcsTable(int size) {
+      this.lead = new boolean[size == 0 ? 0 : 0x100];
+      this.single = new char[size == 0 ? 0 : 0x100];
+      this.dbcs = new char[size];
+    }
+
+    static DbcsTable build(String charsetName) {
+      if (charsetName == null || !Charset.isSupported(charsetName)) {
+        return UNSUPPORTED;
+      }
+      final DbcsTable table = new DbcsTable(0x10000);
+      final CharsetDecoder decoder = newReportingDecoder(charsetName);
+      final ByteBuffer in = ByteBuffer.allocate(2);
+      final CharBuffer out = CharBuffer.allocate(2);
+      for (int b = C1_START; b < 0x100; b++) {
+        for (int t = 0x40; t < 0x100; t++) {
+          in.clear();
+          in.put((byte) b).put((byte) t);
+          in.flip();
+          final char c = decodeSingleChar(decoder, in, out);
+          if (c != 0) {
+            table.dbcs[b << 8 | t] = c;
+            table.lead[b] = true;
+          }
+        }
+        if (!table.lead[b]) {
+          in.clear();
+          in.put((byte) b);
+          in.flip();
+          table.single[b] = decodeSingleChar(decoder, in, out);
+        }
+      }
+      return table;
+    }
+  }
+}
@@ -74,13 +74,22 @@ public class LMBCSString {
 	}
 	
 	/**
-	 * Returns the string value. Converts from LMBCS on the first call.
+	 * Returns the string value. Converts from LMBCS on the first call, either directly
+	 * via {@link LMBCSCodec} or, for data that needs the native conversion, via the
+	 * {@link LMBCSStringConversionCache}.
 	 * 
 	 * @return value
 	 */
 	public String getValue() {
 		if (m_strValue==null) {
-			m_strValue = LMBCSStringConversionCache.get(this);
+			String value = null;
+			if (LMBCSCodec.isEnabled()) {
+				value = LMBCSCodec.decode(m_data, 0, m_data.length, NotesStringUtils.getLineDelimiter());
+			}
+			if (value==null) {
+				value = LMBCSStringConversionCache.get(this);
+			}
+			m_strValue = value;
 		}
 		return m_strValue;
 	}
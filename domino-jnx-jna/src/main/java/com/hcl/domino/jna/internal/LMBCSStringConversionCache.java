@@ -16,8 +16,13 @@
  */
 package com.hcl.domino.jna.internal;
 
+import com.hcl.domino.jna.utils.CacheStats;
+
 /**
- * Cache to optimize performance of LMBCS String conversion to Java Strings.
+ * Cache to optimize performance of LMBCS String conversion to Java Strings.<br>
+ * <br>
+ * The max size in bytes can be set via the Java property {@code jnx.cache.lmbcs2string.maxsize},
+ * 0 disables the cache.
  * 
  * @author Karsten Lehmann
  */
@@ -29,7 +34,8 @@ public class LMBCSStringConversionCache {
 
 	private static final int MAX_LMBCS2STRING_SIZE_BYTES = 1000000;
 
-	private static SizeLimitedLRUCache<LMBCSString,String> LMBCS2STRINGCACHE = new SizeLimitedLRUCache<LMBCSString,String>(MAX_LMBCS2STRING_SIZE_BYTES) {
+	private static TinyLfuCache<LMBCSString,String> LMBCS2STRINGCACHE = new TinyLfuCache<LMBCSString,String>("lmbcs2string", //$NON-NLS-1$
+			TinyLfuCache.getConfiguredMaxSize("lmbcs2string", MAX_LMBCS2STRING_SIZE_BYTES)) { //$NON-NLS-1$
 		@Override
 		protected int computeSize(LMBCSString key, String value) {
 			return key.size() + value.length()*2;
@@ -39,6 +45,16 @@ public class LMBCSStringConversionCache {
 	public static long getCacheSize() {
 		return LMBCS2STRINGCACHE.getCurrentCacheSizeInUnits();
 	}
+	
+	/**
+	 * Returns the usage statistics of the LMBCS to String conversion cache
+	 * 
+	 * @return stats
+	 * @since 1.54.0
+	 */
+	public static CacheStats getCacheStats() {
+		return LMBCS2STRINGCACHE.getStats();
+	}
 
 	/**
 	 * Converts an LMBCS string to a Java String. If already cached, no native call is made.
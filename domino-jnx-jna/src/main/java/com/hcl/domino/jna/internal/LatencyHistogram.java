@@ -0,0 +1,146 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with logarithmic buckets.<br>
+ * <br>
+ * Like HdrHistogram, each power of two is split into {@value #SUB_BUCKETS} linear
+ * sub-buckets, so recorded values keep a relative precision of 1/{@value #SUB_BUCKETS}
+ * from nanoseconds to hours in a fixed array of counters.
+ * 
+ * @since 1.54.0
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+	
+	private final AtomicLongArray m_buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder m_count = new LongAdder();
+	private final LongAdder m_total = new LongAdder();
+	private final AtomicLong m_max = new AtomicLong();
+	
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) Math.max(0, value);
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+	
+	/**
+	 * Returns the highest value that is counted in a bucket
+	 * 
+	 * @param index bucket index
+	 * @return value
+	 */
+	static long bucketMaxValue(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+		int shift = exponent - SUB_BUCKET_BITS;
+		if (subBucket + 1 > (Long.MAX_VALUE >>> shift)) {
+			return Long.MAX_VALUE;
+		}
+		return ((subBucket + 1) << shift) - 1;
+	}
+	
+	/**
+	 * Records a duration
+	 * 
+	 * @param nanos duration in nanoseconds, negative values are counted as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		m_buckets.incrementAndGet(bucketIndex(value));
+		m_count.increment();
+		m_total.add(value);
+		
+		long max = m_max.get();
+		while (value > max && !m_max.compareAndSet(max, value)) {
+			max = m_max.get();
+		}
+	}
+	
+	public long getCount() {
+		return m_count.sum();
+	}
+	
+	/**
+	 * @return sum of all recorded durations in nanoseconds
+	 */
+	public long getTotal() {
+		return m_total.sum();
+	}
+	
+	/**
+	 * @return highest recorded duration in nanoseconds
+	 */
+	public long getMax() {
+		return m_max.get();
+	}
+	
+	/**
+	 * Returns an upper bound of the duration below which the given percentage of
+	 * the recorded durations fall
+	 * 
+	 * @param percentile percentile between 0 and 100
+	 * @return duration in nanoseconds, 0 if nothing has been recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long[] counts = new long[BUCKET_COUNT];
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = m_buckets.get(i);
+			count += counts[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		
+		long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+		long seen = 0;
+		long max = m_max.get();
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts[i];
+			if (seen >= target) {
+				return Math.min(bucketMaxValue(i), max);
+			}
+		}
+		return max;
+	}
+	
+	/**
+	 * Clears all recorded values
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			m_buckets.set(i, 0);
+		}
+		m_count.reset();
+		m_total.reset();
+		m_max.set(0);
+	}
+}
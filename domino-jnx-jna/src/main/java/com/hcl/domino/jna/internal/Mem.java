@@ -19,6 +19,7 @@ package com.hcl.domino.jna.internal;
 import java.util.function.Function;
 import com.hcl.domino.exception.ObjectDisposedException;
 import com.hcl.domino.jna.internal.capi.NotesCAPI;
+import com.hcl.domino.jna.internal.capi.NotesFastCAPI;
 import com.hcl.domino.jna.internal.gc.handles.DHANDLE;
 import com.hcl.domino.jna.internal.gc.handles.HANDLE;
 import com.hcl.domino.jna.internal.gc.handles.LockUtil;
@@ -55,34 +56,50 @@ public class Mem {
 	}
 
 	public static Pointer OSLockObject(BlockID blockId) {
-		DHANDLE.ByValue hdlByVal = DHANDLE.newInstanceByValue(blockId.getPool());
-		
-		if (hdlByVal.isNull()) {
+		return OSLockObject(blockId.getPool(), blockId.getBlock());
+	}
+
+	/**
+	 * Locks the pool of a BLOCKID and returns a pointer to the block
+	 * 
+	 * @param pool pool handle
+	 * @param block block offset within the pool
+	 * @return pointer to the block
+	 */
+	public static Pointer OSLockObject(int pool, short block) {
+		if (pool==0) {
 			throw new IllegalArgumentException("Null handle cannot be unlocked");
 		}
 		
-		Pointer poolPtr = NotesCAPI.get().OSLockObject(hdlByVal);
+		Pointer poolPtr = NotesFastCAPI.get().OSLockObject(pool);
 
-		int block = Short.toUnsignedInt(blockId.getBlock());
-		long poolPtrLong = Pointer.nativeValue(poolPtr) + block;
+		long poolPtrLong = Pointer.nativeValue(poolPtr) + Short.toUnsignedInt(block);
 		return new Pointer(poolPtrLong);
 	}
 
 	public static boolean OSUnlockObject(BlockID blockId) {
-		DHANDLE.ByValue hdlByVal = DHANDLE.newInstanceByValue(blockId.getPool());
-		
-		if (hdlByVal.isNull()) {
+		return OSUnlockObject(blockId.getPool());
+	}
+
+	/**
+	 * Unlocks the pool of a BLOCKID
+	 * 
+	 * @param pool pool handle
+	 * @return true if the object is no longer locked
+	 */
+	public static boolean OSUnlockObject(int pool) {
+		if (pool==0) {
 			throw new IllegalArgumentException("Null handle cannot be unlocked");
 		}
 		
-		return NotesCAPI.get().OSUnlockObject(hdlByVal);
+		return NotesFastCAPI.get().OSUnlockObject(pool);
 	}
 	
 	public static Pointer OSLockObject(DHANDLE.ByValue hdl) {
 		if (hdl==null || hdl.isNull()) {
 			throw new IllegalArgumentException("Null handle cannot be locked");
 		}
-		Pointer ptr = NotesCAPI.get().OSLockObject(hdl);
+		Pointer ptr = NotesFastCAPI.get().OSLockObject(hdl.getValue());
 		return ptr;
 	}
 
@@ -94,7 +111,7 @@ public class Mem {
 				throw new IllegalArgumentException("Null handle cannot be unlocked");
 			}
 			
-			Pointer ptr = NotesCAPI.get().OSLockObject(dhdlByVal);
+			Pointer ptr = NotesFastCAPI.get().OSLockObject(dhdlByVal.getValue());
 			return ptr;
 		});
 	}
@@ -116,7 +133,7 @@ public class Mem {
 				throw new IllegalArgumentException("Null handle cannot be unlocked");
 			}
 			
-			return NotesCAPI.get().OSUnlockObject(dhdlByVal);
+			return NotesFastCAPI.get().OSUnlockObject(dhdlByVal.getValue());
 		});
 	}
 	
@@ -124,7 +141,7 @@ public class Mem {
 		if (hdl==null || hdl.isNull()) {
 			throw new IllegalArgumentException("Null handle cannot be unlocked");
 		}
-		return NotesCAPI.get().OSUnlockObject(hdl);
+		return NotesFastCAPI.get().OSUnlockObject(hdl.getValue());
 	}
 	
 	public static short OSMemGetSize(DHANDLE.ByValue hdl, IntByReference retSize) {
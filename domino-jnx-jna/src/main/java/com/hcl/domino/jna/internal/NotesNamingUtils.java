@@ -20,16 +20,17 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 import com.hcl.domino.DominoException;
 import com.hcl.domino.commons.gc.IAPIObject;
+import com.hcl.domino.commons.util.DistinguishedNameUtil;
 import com.hcl.domino.commons.util.NotesErrorUtils;
 import com.hcl.domino.commons.util.PlatformUtils;
 import com.hcl.domino.commons.util.ReverseStringTokenizer;
@@ -39,6 +40,7 @@ import com.hcl.domino.jna.data.JNAUserNamesList;
 import com.hcl.domino.jna.internal.capi.NotesCAPI;
 import com.hcl.domino.jna.internal.gc.handles.DHANDLE;
 import com.hcl.domino.jna.internal.gc.handles.LockUtil;
+import com.hcl.domino.jna.utils.CacheStats;
 import com.hcl.domino.misc.NotesConstants;
 import com.sun.jna.Memory;
 import com.sun.jna.Native;
@@ -53,7 +55,7 @@ import com.sun.jna.ptr.ShortByReference;
  * @author Karsten Lehmann
  */
 public class NotesNamingUtils {
-	private static final int MAX_STRINGCACHE_SIZE = 500;
+	private static final int MAX_STRINGCACHE_SIZE = 2000;
 	
 	/**
 	 * Names-list-building functions appear to be extrmely thread-sensitive, so this lock is used
@@ -61,32 +63,33 @@ public class NotesNamingUtils {
 	 */
 	private static final Object BUILDNAMESLIST_LOCK = new Object();
 	
-	private static Map<String, String> m_nameAbbrCache = Collections.synchronizedMap(new LinkedHashMap<String, String>(16,0.75f, true) {
-		private static final long serialVersionUID = -5818239831757810895L;
+	private static final TinyLfuCache<String, String> m_nameAbbrCache = new NameCache("nameabbr"); //$NON-NLS-1$
+	private static final TinyLfuCache<String, String> m_nameCanonicalCache = new NameCache("namecanonical"); //$NON-NLS-1$
+	
+	/**
+	 * Name conversion cache, weighted by number of entries
+	 */
+	private static class NameCache extends TinyLfuCache<String, String> {
 
-		@Override
-		protected boolean removeEldestEntry (Map.Entry<String,String> eldest) {
-			if (size() > MAX_STRINGCACHE_SIZE) {
-				return true;
-			}
-			else {
-				return false;
-			}
+		public NameCache(String name) {
+			super(name, getConfiguredMaxSize(name, MAX_STRINGCACHE_SIZE));
 		}
-	});
-	private static Map<String, String> m_nameCanonicalCache = Collections.synchronizedMap(new LinkedHashMap<String, String>(16,0.75f, true) {
-		private static final long serialVersionUID = -5818239831757810895L;
 
 		@Override
-		protected boolean removeEldestEntry (Map.Entry<String,String> eldest) {
-			if (size() > MAX_STRINGCACHE_SIZE) {
-				return true;
-			}
-			else {
-				return false;
-			}
+		protected int computeSize(String key, String value) {
+			return 1;
 		}
-	});
+	}
+	
+	/**
+	 * Returns the usage statistics of the abbreviated and canonical name conversion caches
+	 * 
+	 * @return stats
+	 * @since 1.54.0
+	 */
+	public static List<CacheStats> getCacheStats() {
+		return Arrays.asList(m_nameAbbrCache.getStats(), m_nameCanonicalCache.getStats());
+	}
 	
 	/**
 	 * This function converts a distinguished name in abbreviated format to canonical format.
@@ -109,13 +112,42 @@ public class NotesNamingUtils {
 	 * @return list of names in canonical format
 	 */
 	public static List<String> toCanonicalNames(Collection<String> names) {
+		return toCanonicalNames(names, null);
+	}
+	
+	/**
+	 * This function converts a list of distinguished names in abbreviated format to canonical format
+	 * in a single pass. Names found in the cache or in the common hierarchical format are converted
+	 * in Java, the C API is only called for the remaining names, sharing one output buffer.
+	 * 
+	 * @param names list of names
+	 * @param templateName name to be used when an input name is in common name format
+	 * @return list of names in canonical format
+	 * @since 1.54.0
+	 */
+	public static List<String> toCanonicalNames(Collection<String> names, String templateName) {
 		if (names==null) {
 			return null;
 		}
 		
 		List<String> namesCanonical = new ArrayList<>(names.size());
-		for (String currName : names) {
-			namesCanonical.add(toCanonicalName(currName));
+		DisposableMemory outNameMem = null;
+		try {
+			for (String currName : names) {
+				String canonicalName = toCanonicalNameInJava(currName, templateName);
+				if (canonicalName==null) {
+					if (outNameMem==null) {
+						outNameMem = new DisposableMemory(NotesConstants.MAXUSERNAME);
+					}
+					canonicalName = toCanonicalNameNative(currName, templateName, outNameMem);
+				}
+				namesCanonical.add(canonicalName);
+			}
+		}
+		finally {
+			if (outNameMem!=null) {
+				outNameMem.close();
+			}
 		}
 		return namesCanonical;
 	}
@@ -130,33 +162,54 @@ public class NotesNamingUtils {
 	 * @return canonical name
 	 */
 	public static String toCanonicalName(String name, String templateName) {
-		if (name==null) {
-			return null;
+		String canonicalName = toCanonicalNameInJava(name, templateName);
+		if (canonicalName!=null) {
+			return canonicalName;
 		}
-		if (name.length()==0) {
+		
+		try(DisposableMemory outNameMem = new DisposableMemory(NotesConstants.MAXUSERNAME)) {
+			return toCanonicalNameNative(name, templateName, outNameMem);
+		}
+	}
+	
+	/**
+	 * Looks up the canonical name in the cache or converts it in Java
+	 * 
+	 * @param name name to convert
+	 * @param templateName template name or null
+	 * @return canonical name or null if the C API is required
+	 */
+	private static String toCanonicalNameInJava(String name, String templateName) {
+		if (name==null || name.length()==0) {
 			return name;
 		}
-
-		String cacheKey = name + ((templateName!=null && templateName.length()>0) ? ("|" + templateName) : ""); //$NON-NLS-1$ //$NON-NLS-2$
-		String abbrName = m_nameCanonicalCache.get(cacheKey);
-		if (abbrName!=null) {
-			return abbrName;
+		
+		boolean hasTemplate = templateName!=null && templateName.length()>0;
+		String cacheKey = hasTemplate ? (name + "|" + templateName) : name; //$NON-NLS-1$
+		String canonicalName = m_nameCanonicalCache.get(cacheKey);
+		if (canonicalName==null && !hasTemplate) {
+			canonicalName = DistinguishedNameUtil.toCanonical(name);
+			if (canonicalName!=null) {
+				m_nameCanonicalCache.put(cacheKey, canonicalName);
+			}
 		}
-
+		return canonicalName;
+	}
+	
+	private static String toCanonicalNameNative(String name, String templateName, DisposableMemory outNameMem) {
 		Memory templateNameMem = templateName==null ? null : NotesStringUtils.toLMBCS(templateName, true); //used when abbrName is only a common name
 		Memory inNameMem = NotesStringUtils.toLMBCS(name, true);
-		try(DisposableMemory outNameMem = new DisposableMemory(NotesConstants.MAXUSERNAME)) {
-  		ShortByReference outLength = new ShortByReference();
-  		
-  		short result = NotesCAPI.get().DNCanonicalize(0, templateNameMem, inNameMem, outNameMem, NotesConstants.MAXUSERNAME, outLength);
-  		NotesErrorUtils.checkResult(result);
-  		
-  		String sOutName = NotesStringUtils.fromLMBCS(outNameMem, outLength.getValue() & 0xffff);
-      
-      m_nameCanonicalCache.put(cacheKey, sOutName);
-      
-      return sOutName;
-		}
+		ShortByReference outLength = new ShortByReference();
+		
+		short result = NotesCAPI.get().DNCanonicalize(0, templateNameMem, inNameMem, outNameMem, NotesConstants.MAXUSERNAME, outLength);
+		NotesErrorUtils.checkResult(result);
+		
+		String sOutName = NotesStringUtils.fromLMBCS(outNameMem, outLength.getValue() & 0xffff);
+		
+		String cacheKey = templateName!=null && templateName.length()>0 ? (name + "|" + templateName) : name; //$NON-NLS-1$
+		m_nameCanonicalCache.put(cacheKey, sOutName);
+		
+		return sOutName;
 	}
 	
 	/**
@@ -179,24 +232,27 @@ public class NotesNamingUtils {
 		String abbrName = m_nameAbbrCache.get(cacheKey);
 		
 		if (abbrName==null) {
-			StringTokenizerExt st=new StringTokenizerExt(name, "/"); //$NON-NLS-1$
-			StringBuilder sb=new StringBuilder(name.length());
-			while (st.hasMoreTokens()) {
-				String currToken=st.nextToken();
-				int iPos = currToken.indexOf("="); //$NON-NLS-1$
-				if (sb.length()>0) {
-					sb.append("/"); //$NON-NLS-1$
-				}
+			abbrName = DistinguishedNameUtil.toAbbreviated(name);
+			if (abbrName==null) {
+				StringTokenizerExt st=new StringTokenizerExt(name, "/"); //$NON-NLS-1$
+				StringBuilder sb=new StringBuilder(name.length());
+				while (st.hasMoreTokens()) {
+					String currToken=st.nextToken();
+					int iPos = currToken.indexOf("="); //$NON-NLS-1$
+					if (sb.length()>0) {
+						sb.append("/"); //$NON-NLS-1$
+					}
 				
-				if (iPos!=-1) {
-					sb.append(currToken.substring(iPos+1));
-				}
-				else {
-					sb.append(currToken);
+					if (iPos!=-1) {
+						sb.append(currToken.substring(iPos+1));
+					}
+					else {
+						sb.append(currToken);
+					}
 				}
-			}
 			
-			abbrName = sb.toString();
+				abbrName = sb.toString();
+			}
 			m_nameAbbrCache.put(cacheKey, abbrName);
 		}
 
@@ -223,6 +279,43 @@ public class NotesNamingUtils {
 		return namesAbbr;
 	}
 	
+	/**
+	 * This function converts a list of distinguished names in canonical format to abbreviated format
+	 * in a single pass. Names found in the cache or in the common hierarchical format are converted
+	 * in Java, the C API is only called for the remaining names, sharing one output buffer.
+	 * 
+	 * @param names list of names to convert
+	 * @param templateName name to be used when an input name is in common name format
+	 * @return list of abbreviated names
+	 * @since 1.54.0
+	 */
+	public static List<String> toAbbreviatedNames(Collection<String> names, String templateName) {
+		if (names==null) {
+			return null;
+		}
+		
+		List<String> namesAbbr = new ArrayList<>(names.size());
+		DisposableMemory outNameMem = null;
+		try {
+			for (String currName : names) {
+				String abbrName = toAbbreviatedNameInJava(currName, templateName);
+				if (abbrName==null) {
+					if (outNameMem==null) {
+						outNameMem = new DisposableMemory(NotesConstants.MAXUSERNAME);
+					}
+					abbrName = toAbbreviatedNameNative(currName, templateName, outNameMem);
+				}
+				namesAbbr.add(abbrName);
+			}
+		}
+		finally {
+			if (outNameMem!=null) {
+				outNameMem.close();
+			}
+		}
+		return namesAbbr;
+	}
+	
 	/**
 	 * Method to compare two Notes names. We compare the abbreviated forms of both names
 	 * ignoring the case
@@ -331,33 +424,55 @@ public class NotesNamingUtils {
 	 * @return abbreviated name
 	 */
 	public static String toAbbreviatedName(String name, String templateName) {
-		if (name==null) {
-			return null;
+		String abbrName = toAbbreviatedNameInJava(name, templateName);
+		if (abbrName!=null) {
+			return abbrName;
 		}
-		if (name.length()==0) {
+		
+		try(DisposableMemory outNameMem = new DisposableMemory(NotesConstants.MAXUSERNAME)) {
+			return toAbbreviatedNameNative(name, templateName, outNameMem);
+		}
+	}
+	
+	/**
+	 * Looks up the abbreviated name in the cache or converts it in Java
+	 * 
+	 * @param name name to convert
+	 * @param templateName template name or null
+	 * @return abbreviated name or null if the C API is required
+	 */
+	private static String toAbbreviatedNameInJava(String name, String templateName) {
+		if (name==null || name.length()==0) {
 			return name;
 		}
 		
-		String cacheKey = name + ((templateName!=null && templateName.length()>0) ? ("|" + templateName) : ""); //$NON-NLS-1$ //$NON-NLS-2$
+		boolean hasTemplate = templateName!=null && templateName.length()>0;
+		String cacheKey = hasTemplate ? (name + "|" + templateName) : name; //$NON-NLS-1$
 		String abbrName = m_nameAbbrCache.get(cacheKey);
-		if (abbrName!=null) {
-			return abbrName;
+		if (abbrName==null && !hasTemplate) {
+			abbrName = DistinguishedNameUtil.toAbbreviated(name);
+			if (abbrName!=null) {
+				m_nameAbbrCache.put(cacheKey, abbrName);
+			}
 		}
-		
-		Memory templateNameMem = templateName==null || templateName.length()==0 ? null : NotesStringUtils.toLMBCS(templateName, true); //used when abbrName is only a common name
+		return abbrName;
+	}
+	
+	private static String toAbbreviatedNameNative(String name, String templateName, DisposableMemory outNameMem) {
+		boolean hasTemplate = templateName!=null && templateName.length()>0;
+		Memory templateNameMem = hasTemplate ? NotesStringUtils.toLMBCS(templateName, true) : null; //used when abbrName is only a common name
 		Memory inNameMem = NotesStringUtils.toLMBCS(name, true);
-		try(DisposableMemory outNameMem = new DisposableMemory(NotesConstants.MAXUSERNAME)) {
-  		ShortByReference outLength = new ShortByReference();
-  		
-  		short result = NotesCAPI.get().DNAbbreviate(0, templateNameMem, inNameMem, outNameMem, NotesConstants.MAXUSERNAME, outLength);
-  		NotesErrorUtils.checkResult(result);
-  		
-  		String sOutName = NotesStringUtils.fromLMBCS(outNameMem, outLength.getValue() & 0xffff);
-  		
-  		m_nameAbbrCache.put(cacheKey, sOutName);
-  		
-  		return sOutName;
-		}
+		ShortByReference outLength = new ShortByReference();
+		
+		short result = NotesCAPI.get().DNAbbreviate(0, templateNameMem, inNameMem, outNameMem, NotesConstants.MAXUSERNAME, outLength);
+		NotesErrorUtils.checkResult(result);
+		
+		String sOutName = NotesStringUtils.fromLMBCS(outNameMem, outLength.getValue() & 0xffff);
+		
+		String cacheKey = hasTemplate ? (name + "|" + templateName) : name; //$NON-NLS-1$
+		m_nameAbbrCache.put(cacheKey, sOutName);
+		
+		return sOutName;
 	}
 
 	/**
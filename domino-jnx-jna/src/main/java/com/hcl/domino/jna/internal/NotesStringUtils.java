@@ -30,8 +30,10 @@ import com.hcl.domino.DominoException;
 import com.hcl.domino.commons.util.NotesErrorUtils;
 import com.hcl.domino.commons.util.PlatformUtils;
 import com.hcl.domino.commons.util.StringUtil;
-import com.hcl.domino.jna.internal.capi.INotesCAPI;
+import com.hcl.domino.jna.internal.capi.INotesFastCAPI;
 import com.hcl.domino.jna.internal.capi.NotesCAPI;
+import com.hcl.domino.jna.internal.capi.NotesFastCAPI;
+import com.hcl.domino.jna.utils.CacheStats;
 import com.hcl.domino.misc.NotesConstants;
 import com.hcl.domino.util.JNXStringUtil;
 import com.sun.jna.Memory;
@@ -53,15 +55,17 @@ public class NotesStringUtils {
 	private static final int MAX_STRING2LMBCS_KEY_LENGTH = 500;
 	
 	private static final int MAX_STRING2LMBCS_SIZE_BYTES = 1000000;
+	//max size of each of the string-lmbcs caches, configurable via jnx.cache.string2lmbcs.maxsize
+	private static final long STRING2LMBCS_CACHE_SIZE = TinyLfuCache.getConfiguredMaxSize("string2lmbcs", MAX_STRING2LMBCS_SIZE_BYTES); //$NON-NLS-1$
 	
-	private static LRUStringLMBCSCache m_string2LMBCSCache_NullTerminated_LinefeedLinebreaks = new LRUStringLMBCSCache(MAX_STRING2LMBCS_SIZE_BYTES);
-	private static LRUStringLMBCSCache m_string2LMBCSCache_NotNullTerminated_LinefeedLinebreaks = new LRUStringLMBCSCache(MAX_STRING2LMBCS_SIZE_BYTES);
+	private static LRUStringLMBCSCache m_string2LMBCSCache_NullTerminated_LinefeedLinebreaks = new LRUStringLMBCSCache("string2lmbcs-nullterm-linefeed"); //$NON-NLS-1$
+	private static LRUStringLMBCSCache m_string2LMBCSCache_NotNullTerminated_LinefeedLinebreaks = new LRUStringLMBCSCache("string2lmbcs-linefeed"); //$NON-NLS-1$
 	
-	private static LRUStringLMBCSCache m_string2LMBCSCache_NullTerminated_NullLinebreaks = new LRUStringLMBCSCache(MAX_STRING2LMBCS_SIZE_BYTES);
-	private static LRUStringLMBCSCache m_string2LMBCSCache_NotNullTerminated_NullLinebreaks = new LRUStringLMBCSCache(MAX_STRING2LMBCS_SIZE_BYTES);
+	private static LRUStringLMBCSCache m_string2LMBCSCache_NullTerminated_NullLinebreaks = new LRUStringLMBCSCache("string2lmbcs-nullterm-null"); //$NON-NLS-1$
+	private static LRUStringLMBCSCache m_string2LMBCSCache_NotNullTerminated_NullLinebreaks = new LRUStringLMBCSCache("string2lmbcs-null"); //$NON-NLS-1$
 
-	private static LRUStringLMBCSCache m_string2LMBCSCache_NullTerminated_OriginalLinebreaks = new LRUStringLMBCSCache(MAX_STRING2LMBCS_SIZE_BYTES);
-	private static LRUStringLMBCSCache m_string2LMBCSCache_NotNullTerminated_OriginalLinebreaks = new LRUStringLMBCSCache(MAX_STRING2LMBCS_SIZE_BYTES);
+	private static LRUStringLMBCSCache m_string2LMBCSCache_NullTerminated_OriginalLinebreaks = new LRUStringLMBCSCache("string2lmbcs-nullterm-original"); //$NON-NLS-1$
+	private static LRUStringLMBCSCache m_string2LMBCSCache_NotNullTerminated_OriginalLinebreaks = new LRUStringLMBCSCache("string2lmbcs-original"); //$NON-NLS-1$
 	
 	public static void flushCache() {
 		m_string2LMBCSCache_NullTerminated_LinefeedLinebreaks.clear();
@@ -72,6 +76,25 @@ public class NotesStringUtils {
 		m_string2LMBCSCache_NotNullTerminated_OriginalLinebreaks.clear();
 	}
 	
+	/**
+	 * Returns the usage statistics of the caches for String to LMBCS conversion. Their
+	 * max size in bytes can be set via the Java property {@code jnx.cache.string2lmbcs.maxsize}
+	 * (applied to each of the caches), 0 disables them.
+	 * 
+	 * @return stats
+	 * @since 1.54.0
+	 */
+	public static List<CacheStats> getCacheStats() {
+		return Arrays.asList(
+				m_string2LMBCSCache_NullTerminated_LinefeedLinebreaks.getStats(),
+				m_string2LMBCSCache_NotNullTerminated_LinefeedLinebreaks.getStats(),
+				m_string2LMBCSCache_NullTerminated_NullLinebreaks.getStats(),
+				m_string2LMBCSCache_NotNullTerminated_NullLinebreaks.getStats(),
+				m_string2LMBCSCache_NullTerminated_OriginalLinebreaks.getStats(),
+				m_string2LMBCSCache_NotNullTerminated_OriginalLinebreaks.getStats()
+				);
+	}
+	
 	/**
 	 * Method to control the LMBCS / Java String conversion for newline characters. By default
 	 * we insert \r\n on Windows and \n on other platforms like IBM does.<br>
@@ -263,6 +286,37 @@ public class NotesStringUtils {
 			return ""; //$NON-NLS-1$
 		}
 		
+		if (LMBCSCodec.isEnabled()) {
+			String decoded = LMBCSCodec.decode(data, 0, data.length, getLineDelimiter());
+			if (decoded!=null) {
+				return decoded;
+			}
+		}
+		
+		return fromLMBCSNative(data);
+	}
+	
+	/**
+	 * Returns the string that null bytes in LMBCS get converted to
+	 * 
+	 * @return line delimiter
+	 */
+	public static String getLineDelimiter() {
+		if (PlatformUtils.isWindows() && isUseOSLineDelimiter()) {
+			return "\r\n"; //$NON-NLS-1$
+		}
+		else {
+			return "\n"; //$NON-NLS-1$
+		}
+	}
+	
+	/**
+	 * Converts an LMBCS string to a Java String via OSTranslate32
+	 * 
+	 * @param data data array
+	 * @return decoded String
+	 */
+	private static String fromLMBCSNative(byte[] data) {
 		// If it's compatible ASCII, return without the native call
 		boolean isPureAscii = true;
         for (byte c : data) {
@@ -279,7 +333,7 @@ public class NotesStringUtils {
 		
 		List<String> lines = new ArrayList<>();
 		
-		INotesCAPI api = NotesCAPI.get();
+		INotesFastCAPI api = NotesFastCAPI.get();
 		
 		//output buffer shared across loop runs for each line
 		DisposableMemory outBufUTF8 = null;
@@ -406,13 +460,7 @@ public class NotesStringUtils {
 				outBufUTF8.close();
 			}
 		}
-		boolean useOSLineBreak = isUseOSLineDelimiter();
-		if (PlatformUtils.isWindows() && useOSLineBreak) {
-			return StringUtil.join(lines, "\r\n"); //$NON-NLS-1$
-		}
-		else {
-			return StringUtil.join(lines, "\n"); //$NON-NLS-1$
-		}
+		return StringUtil.join(lines, getLineDelimiter());
 	}
 	
 	/**
@@ -603,6 +651,73 @@ public class NotesStringUtils {
 			cacheToUse = null;
 		}
 
+		byte[] encoded = null;
+		if (LMBCSCodec.isEnabled()) {
+			encoded = LMBCSCodec.encode(inStr, lineBreakConversion, false);
+		}
+		if (encoded==null) {
+			encoded = toLMBCSNative(inStr, lineBreakConversion);
+		}
+		
+		if (addNull) {
+			int limit = encoded.length;
+			
+			Memory m;
+			if (noCache) {
+				m = new DisposableMemory(limit + 1);
+			}
+			else {
+				m = new ReadOnlyMemory(limit + 1);
+			}
+			
+			m.write(0, encoded, 0, limit);
+			m.setByte(limit, (byte) 0);
+			
+			if (!noCache) {
+				((ReadOnlyMemory)m).seal();
+				
+				if (USE_STRING2LMBCS_CACHE && inStr.length()<=MAX_STRING2LMBCS_KEY_LENGTH) {
+					if (cacheToUse!=null) {
+						cacheToUse.put(inStr, m);
+					}
+				}
+			}
+
+			return m;
+		}
+		else {
+			Memory m;
+			if (noCache) {
+				m = new DisposableMemory(encoded.length);
+			}
+			else {
+				m = new ReadOnlyMemory(encoded.length);
+			}
+
+			m.write(0, encoded, 0, encoded.length);
+			
+			if (!noCache) {
+				((ReadOnlyMemory)m).seal();
+				
+				if (USE_STRING2LMBCS_CACHE && inStr.length()<=MAX_STRING2LMBCS_KEY_LENGTH) {
+					if (cacheToUse!=null) {
+						cacheToUse.put(inStr, m);
+					}
+				}
+			}
+			
+			return m;
+		}
+	}
+	
+	/**
+	 * Converts a string to LMBCS format via OSTranslate32
+	 * 
+	 * @param inStr string
+	 * @param lineBreakConversion how to convert linebreaks in the string
+	 * @return encoded string without null terminator
+	 */
+	private static byte[] toLMBCSNative(String inStr, LineBreakConversion lineBreakConversion) {
 		boolean inStrHasLinebreaks;
 		String[] lines;
 		if (inStr.contains("\n") && lineBreakConversion != LineBreakConversion.ORIGINAL) { //$NON-NLS-1$
@@ -617,7 +732,7 @@ public class NotesStringUtils {
 		
 		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
 		
-		INotesCAPI api = NotesCAPI.get();
+		INotesFastCAPI api = NotesFastCAPI.get();
 		
 		DisposableMemory inputBufUTF8 = null;
 		DisposableMemory outputBufLMBCS = null;
@@ -725,57 +840,7 @@ public class NotesStringUtils {
 			}
 		}
 		
-		if (addNull) {
-			int limit = bOut.size();
-			
-			Memory m;
-			if (noCache) {
-				m = new DisposableMemory(limit + 1);
-			}
-			else {
-				m = new ReadOnlyMemory(limit + 1);
-			}
-			
-			byte[] data = bOut.toByteArray();
-			m.write(0, data, 0, data.length);
-			m.setByte(limit, (byte) 0);
-			
-			if (!noCache) {
-				((ReadOnlyMemory)m).seal();
-				
-				if (USE_STRING2LMBCS_CACHE && inStr.length()<=MAX_STRING2LMBCS_KEY_LENGTH) {
-					if (cacheToUse!=null) {
-						cacheToUse.put(inStr, m);
-					}
-				}
-			}
-
-			return m;
-		}
-		else {
-			Memory m;
-			if (noCache) {
-				m = new DisposableMemory(bOut.size());
-			}
-			else {
-				m = new ReadOnlyMemory(bOut.size());
-			}
-
-			byte[] data = bOut.toByteArray();
-			m.write(0, data, 0, data.length);
-			
-			if (!noCache) {
-				((ReadOnlyMemory)m).seal();
-				
-				if (USE_STRING2LMBCS_CACHE && inStr.length()<=MAX_STRING2LMBCS_KEY_LENGTH) {
-					if (cacheToUse!=null) {
-						cacheToUse.put(inStr, m);
-					}
-				}
-			}
-			
-			return m;
-		}
+		return bOut.toByteArray();
 	}
 	
 	/**
@@ -938,10 +1003,10 @@ public class NotesStringUtils {
 		return innards;
 	}
 	
-	private static class LRUStringLMBCSCache extends SizeLimitedLRUCache<String, Memory> {
+	private static class LRUStringLMBCSCache extends TinyLfuCache<String, Memory> {
 
-		public LRUStringLMBCSCache(int maxSizeUnits) {
-			super(maxSizeUnits);
+		public LRUStringLMBCSCache(String name) {
+			super(name, STRING2LMBCS_CACHE_SIZE);
 		}
 
 		@Override
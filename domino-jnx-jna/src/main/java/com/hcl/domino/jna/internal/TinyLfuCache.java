@@ -0,0 +1,504 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.hcl.domino.commons.util.DominoUtils;
+import com.hcl.domino.jna.utils.CacheStats;
+
+/**
+ * Abstract size-limited cache with a W-TinyLFU style admission policy.<br>
+ * <br>
+ * Lookups are lock-free: they read from a {@link ConcurrentHashMap} and record the access
+ * in a 4 bit count-min frequency sketch. Writes are applied to the map immediately and
+ * queued for the eviction policy, which is maintained by whichever thread gets the policy
+ * lock first; lookups and writes never wait for it.<br>
+ * <br>
+ * New entries go to a small FIFO admission window (1% of the max size). Entries leaving
+ * the window compete with a sampled victim of the main region and the one that was
+ * requested less often according to the sketch gets evicted, so one-off values cannot
+ * flush frequently used ones. Entries heavier than the window compete for the main
+ * region right away; entries heavier than the main region are not cached.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @since 1.54.0
+ */
+public abstract class TinyLfuCache<K,V> {
+	private static final int STATE_PENDING = 0;
+	private static final int STATE_WINDOW = 1;
+	private static final int STATE_MAIN = 2;
+	private static final int STATE_DEAD = 3;
+
+	/** number of main region entries compared to find an eviction victim */
+	private static final int SAMPLE_SIZE = 8;
+	/** assumed average entry weight to size the frequency sketch */
+	private static final int AVG_ENTRY_WEIGHT = 64;
+
+	private final String m_name;
+	private final long m_maxWeight;
+	private final long m_maxWindowWeight;
+	private final ConcurrentHashMap<K, Node<K,V>> m_data = new ConcurrentHashMap<>();
+	private final FrequencySketch m_sketch;
+
+	private final LongAdder m_hits = new LongAdder();
+	private final LongAdder m_misses = new LongAdder();
+	private final LongAdder m_evictions = new LongAdder();
+	private final LongAdder m_rejections = new LongAdder();
+
+	private final ConcurrentLinkedQueue<Node<K,V>> m_writeBuffer = new ConcurrentLinkedQueue<>();
+	private final ReentrantLock m_policyLock = new ReentrantLock();
+	// policy state, guarded by m_policyLock
+	// sentinel of the doubly linked FIFO window list
+	private final Node<K,V> m_window = new Node<>(null, null, 0);
+	private final List<Node<K,V>> m_main = new ArrayList<>();
+	private long m_windowWeight;
+	private long m_mainWeight;
+	private volatile long m_weightedSize;
+
+	/**
+	 * Creates a new cache
+	 *
+	 * @param name name of the cache, used for stats
+	 * @param maxWeight max weighted size of the cache, 0 disables caching
+	 */
+	public TinyLfuCache(String name, long maxWeight) {
+		m_name = name;
+		m_maxWeight = Math.max(0, maxWeight);
+		m_maxWindowWeight = Math.max(1, m_maxWeight / 100);
+		m_sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(16, m_maxWeight / AVG_ENTRY_WEIGHT)));
+	}
+
+	/**
+	 * Reads a cache size from the Java property {@code jnx.cache.<configName>.maxsize}
+	 *
+	 * @param configName name of the cache configuration
+	 * @param defaultMaxWeight size to use if the property is not set or invalid
+	 * @return max weighted size
+	 */
+	public static long getConfiguredMaxSize(String configName, long defaultMaxWeight) {
+		String propName = "jnx.cache." + configName + ".maxsize"; //$NON-NLS-1$ //$NON-NLS-2$
+		String value = DominoUtils.getJavaProperty(propName, null);
+		if (value != null) {
+			try {
+				return Math.max(0, Long.parseLong(value.trim()));
+			}
+			catch (NumberFormatException e) {
+				// fall back to default
+			}
+		}
+		return defaultMaxWeight;
+	}
+
+	/**
+	 * Implement this method to compute a size for the cache entry
+	 *
+	 * @param key key
+	 * @param value value
+	 * @return size in units
+	 */
+	protected abstract int computeSize(K key, V value);
+
+	/**
+	 * Returns the name of this cache
+	 *
+	 * @return name
+	 */
+	public String getName() {
+		return m_name;
+	}
+
+	/**
+	 * Returns the configured max weighted size
+	 *
+	 * @return max size in units
+	 */
+	public long getMaxSizeInUnits() {
+		return m_maxWeight;
+	}
+
+	/**
+	 * Returns the current weighted size of the cache
+	 *
+	 * @return size in units
+	 */
+	public final long getCurrentCacheSizeInUnits() {
+		return m_weightedSize;
+	}
+
+	/**
+	 * Returns a snapshot of the cache usage statistics
+	 *
+	 * @return stats
+	 */
+	public CacheStats getStats() {
+		return new CacheStats(m_name, m_hits.sum(), m_misses.sum(), m_evictions.sum(), m_rejections.sum(),
+				m_weightedSize, m_maxWeight, m_data.size());
+	}
+
+	/**
+	 * Resets the hit, miss, eviction and rejection counters
+	 */
+	public void resetStats() {
+		m_hits.reset();
+		m_misses.reset();
+		m_evictions.reset();
+		m_rejections.reset();
+	}
+
+	public List<K> getKeys() {
+		return new ArrayList<>(m_data.keySet());
+	}
+
+	/**
+	 * Method to look up a cache entry
+	 *
+	 * @param key key
+	 * @return value or null if not found
+	 */
+	public V get(K key) {
+		if (m_maxWeight == 0) {
+			return null;
+		}
+		m_sketch.increment(key.hashCode());
+		Node<K,V> node = m_data.get(key);
+		if (node == null) {
+			m_misses.increment();
+			return null;
+		}
+		m_hits.increment();
+		return node.value;
+	}
+
+	/**
+	 * Method to check whether the cache contains a key
+	 *
+	 * @param key key
+	 * @return true if value exists
+	 */
+	public boolean containsKey(K key) {
+		return m_data.containsKey(key);
+	}
+
+	/**
+	 * Adds an entry to the cache. The entry might be evicted right away if it
+	 * has been requested less frequently than the existing entries. Entries that
+	 * are heavier than 99% of the max size are not cached.
+	 *
+	 * @param key key
+	 * @param newValue value, if null we remove the cache entry
+	 * @return previously stored value or null
+	 */
+	public V put(K key, V newValue) {
+		if (newValue == null) {
+			return remove(key);
+		}
+		int weight = computeSize(key, newValue);
+		if (m_maxWeight == 0 || weight > m_maxWeight - m_maxWindowWeight) {
+			// does not fit into the main region
+			return remove(key);
+		}
+
+		Node<K,V> node = new Node<>(key, newValue, weight);
+		Node<K,V> old = m_data.put(key, node);
+		if (old != null) {
+			m_writeBuffer.add(old);
+		}
+		m_writeBuffer.add(node);
+		drainWriteBuffer();
+		return old == null ? null : old.value;
+	}
+
+	/**
+	 * Removes a key from the cache
+	 *
+	 * @param key key
+	 * @return previously stored value or null
+	 */
+	public V remove(K key) {
+		Node<K,V> old = m_data.remove(key);
+		if (old == null) {
+			return null;
+		}
+		m_writeBuffer.add(old);
+		drainWriteBuffer();
+		return old.value;
+	}
+
+	/**
+	 * Removes all entries from the cache
+	 */
+	public void clear() {
+		m_policyLock.lock();
+		try {
+			m_data.clear();
+			applyWriteBuffer();
+			for (Node<K,V> node = m_window.next; node != m_window; node = node.next) {
+				node.state = STATE_DEAD;
+			}
+			for (Node<K,V> node : m_main) {
+				node.state = STATE_DEAD;
+			}
+			m_window.prev = m_window;
+			m_window.next = m_window;
+			m_main.clear();
+			m_windowWeight = 0;
+			m_mainWeight = 0;
+			m_weightedSize = 0;
+		}
+		finally {
+			m_policyLock.unlock();
+		}
+	}
+
+	private void drainWriteBuffer() {
+		while (!m_writeBuffer.isEmpty() && m_policyLock.tryLock()) {
+			try {
+				applyWriteBuffer();
+				evict();
+				m_weightedSize = m_windowWeight + m_mainWeight;
+			}
+			finally {
+				m_policyLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Applies queued writes to the policy, must be called with the policy lock held.<br>
+	 * A node is queued once when it is added to the map and once when it is removed
+	 * or replaced, in any order.
+	 */
+	private void applyWriteBuffer() {
+		Node<K,V> node;
+		while ((node = m_writeBuffer.poll()) != null) {
+			switch (node.state) {
+			case STATE_PENDING:
+				if (m_data.get(node.key) != node) {
+					// removed before the addition was applied
+					node.state = STATE_DEAD;
+				}
+				else if (node.weight > m_maxWindowWeight) {
+					// would flush the admission window
+					admitToMain(node);
+				}
+				else {
+					node.state = STATE_WINDOW;
+					linkWindow(node);
+					m_windowWeight += node.weight;
+				}
+				break;
+			case STATE_WINDOW:
+				unlinkWindow(node);
+				node.state = STATE_DEAD;
+				m_windowWeight -= node.weight;
+				break;
+			case STATE_MAIN:
+				removeFromMain(node);
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Moves entries from the window to the main region and evicts entries until the
+	 * cache fits into its max size, must be called with the policy lock held
+	 */
+	private void evict() {
+		while (m_windowWeight > m_maxWindowWeight && m_window.next != m_window) {
+			Node<K,V> candidate = m_window.next;
+			unlinkWindow(candidate);
+			m_windowWeight -= candidate.weight;
+			admitToMain(candidate);
+		}
+	}
+
+	/**
+	 * Adds an entry to the main region if it has been requested more frequently than
+	 * the entries it has to replace, otherwise removes it from the cache; must be
+	 * called with the policy lock held
+	 *
+	 * @param candidate entry that is neither in the window nor in the main region
+	 */
+	private void admitToMain(Node<K,V> candidate) {
+		while (m_mainWeight + candidate.weight > m_maxWeight - m_maxWindowWeight && !m_main.isEmpty()) {
+			Node<K,V> victim = sampleVictim();
+			if (m_sketch.frequency(candidate.key.hashCode()) > m_sketch.frequency(victim.key.hashCode())) {
+				m_data.remove(victim.key, victim);
+				removeFromMain(victim);
+				m_evictions.increment();
+			}
+			else {
+				break;
+			}
+		}
+
+		if (m_mainWeight + candidate.weight <= m_maxWeight - m_maxWindowWeight) {
+			candidate.state = STATE_MAIN;
+			candidate.mainIndex = m_main.size();
+			m_main.add(candidate);
+			m_mainWeight += candidate.weight;
+		}
+		else {
+			candidate.state = STATE_DEAD;
+			m_data.remove(candidate.key, candidate);
+			m_rejections.increment();
+		}
+	}
+
+	private void linkWindow(Node<K,V> node) {
+		node.prev = m_window.prev;
+		node.next = m_window;
+		m_window.prev.next = node;
+		m_window.prev = node;
+	}
+
+	private void unlinkWindow(Node<K,V> node) {
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		node.prev = null;
+		node.next = null;
+	}
+
+	private Node<K,V> sampleVictim() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int size = m_main.size();
+		Node<K,V> victim = m_main.get(random.nextInt(size));
+		int victimFreq = m_sketch.frequency(victim.key.hashCode());
+		for (int i = 1; i < SAMPLE_SIZE && i < size; i++) {
+			Node<K,V> node = m_main.get(random.nextInt(size));
+			int freq = m_sketch.frequency(node.key.hashCode());
+			if (freq < victimFreq) {
+				victim = node;
+				victimFreq = freq;
+			}
+		}
+		return victim;
+	}
+
+	private void removeFromMain(Node<K,V> node) {
+		int idx = node.mainIndex;
+		int lastIdx = m_main.size() - 1;
+		Node<K,V> last = m_main.remove(lastIdx);
+		if (idx != lastIdx) {
+			m_main.set(idx, last);
+			last.mainIndex = idx;
+		}
+		node.state = STATE_DEAD;
+		m_mainWeight -= node.weight;
+	}
+
+	private static class Node<K,V> {
+		final K key;
+		final V value;
+		final int weight;
+		// guarded by the policy lock
+		int state = STATE_PENDING;
+		int mainIndex = -1;
+		Node<K,V> prev;
+		Node<K,V> next;
+
+		Node(K key, V value, int weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.prev = this;
+			this.next = this;
+		}
+	}
+
+	/**
+	 * Count-min sketch with four 4 bit counters per key. Updates are not atomic; lost
+	 * increments under contention only make the estimate a bit lower. Saturated counters
+	 * of hot keys are not written again, so frequent lookups do not contend on the table.
+	 */
+	static class FrequencySketch {
+		private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private final long[] m_table;
+		private final int m_tableMask;
+		private final int m_sampleSize;
+		private int m_size;
+
+		FrequencySketch(int expectedEntries) {
+			int length = Integer.highestOneBit(Math.max(2, expectedEntries) - 1) << 1;
+			m_table = new long[length];
+			m_tableMask = length - 1;
+			m_sampleSize = 10 * length;
+		}
+
+		private static int spread(int hash) {
+			int h = hash * 0x9e3779b9;
+			return h ^ h >>> 16;
+		}
+
+		private int indexOf(int hash, int i) {
+			long h = (hash + SEEDS[i]) * SEEDS[i];
+			h += h >>> 32;
+			return (int) h & m_tableMask;
+		}
+
+		int frequency(int hashCode) {
+			int hash = spread(hashCode);
+			int start = (hash & 3) << 2;
+			int freq = Integer.MAX_VALUE;
+			for (int i = 0; i < 4; i++) {
+				int offset = (start + i) << 2;
+				int count = (int) (m_table[indexOf(hash, i)] >>> offset & 0xfL);
+				freq = Math.min(freq, count);
+			}
+			return freq;
+		}
+
+		void increment(int hashCode) {
+			int hash = spread(hashCode);
+			int start = (hash & 3) << 2;
+			boolean added = false;
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int offset = (start + i) << 2;
+				long value = m_table[index];
+				if ((value >>> offset & 0xfL) != 0xfL) {
+					m_table[index] = value + (1L << offset);
+					added = true;
+				}
+			}
+			if (added && ++m_size >= m_sampleSize) {
+				reset();
+			}
+		}
+
+		/** Halves all counters to let the sketch forget old accesses */
+		private void reset() {
+			for (int i = 0; i < m_table.length; i++) {
+				m_table[i] = m_table[i] >>> 1 & RESET_MASK;
+			}
+			m_size = m_size >>> 1;
+		}
+
+	}
+}
@@ -0,0 +1,401 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal.capi;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal of C API calls in a fixed-size memory-mapped ring file, used instead of
+ * per-call stack trace files to identify the cause of JVM crashes.<br>
+ * <br>
+ * Every call occupies one slot of {@value #RECORD_SIZE} bytes with the function,
+ * thread, timestamp and hashes of the top stack frames, and is marked as finished
+ * when the native method returns. Slots are claimed with an atomic sequence counter,
+ * so writers never block each other. Since the file is memory-mapped, the records
+ * stay in the OS page cache when the JVM crashes.<br>
+ * <br>
+ * The texts behind the hashes are appended to a dictionary file next to the journal
+ * the first time they are seen. When two texts have the same hash, the later one is
+ * stored under the next free id of a fixed probe sequence, so every id maps to one text. {@link #main(String[])} decodes both files into
+ * readable call traces.
+ * 
+ * @since 1.54.0
+ */
+public class CallJournal {
+	private static final int MAGIC = 0x4A4E584A; // "JNXJ"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 64;
+	static final int RECORD_SIZE = 64;
+	static final int MAX_FRAMES = 5;
+	
+	/** Record layout: sequence number + 1, 0 for unused slots */
+	private static final int OFFSET_SEQ = 0;
+	private static final int OFFSET_TIME = 8;
+	private static final int OFFSET_THREADID = 16;
+	private static final int OFFSET_FUNCTION = 24;
+	private static final int OFFSET_FRAMECOUNT = 28;
+	private static final int OFFSET_STATE = 29;
+	private static final int OFFSET_THREADNAME = 32;
+	private static final int OFFSET_FRAMES = 36;
+	/** Copy of the sequence number, written last to detect torn records */
+	private static final int OFFSET_SEQ_END = 56;
+	
+	private static final byte STATE_STARTED = 1;
+	private static final byte STATE_FINISHED = 2;
+	
+	private static final String DICTIONARY_SUFFIX = ".dict"; //$NON-NLS-1$
+	
+	private final Path m_file;
+	private final int m_slotCount;
+	private final MappedByteBuffer m_buffer;
+	private final FileChannel m_dictChannel;
+	private final AtomicLong m_sequence = new AtomicLong();
+	/** Dictionary ids with the function name, thread name or {@link StackTraceElement} stored for them */
+	private final Map<Integer, Object> m_dictionary = new ConcurrentHashMap<>();
+	
+	/**
+	 * Creates a new journal file, replacing an existing one
+	 * 
+	 * @param file journal file; the dictionary is written to the same path with suffix {@value #DICTIONARY_SUFFIX}
+	 * @param slotCount number of calls kept in the ring
+	 * @return journal
+	 * @throws IOException if the files cannot be created
+	 */
+	public static CallJournal create(Path file, int slotCount) throws IOException {
+		if (slotCount < 1) {
+			throw new IllegalArgumentException(MessageFormat.format("Invalid slot count: {0}", slotCount));
+		}
+		return new CallJournal(file, slotCount);
+	}
+	
+	private CallJournal(Path file, int slotCount) throws IOException {
+		m_file = file;
+		m_slotCount = slotCount;
+		
+		long size = HEADER_SIZE + (long) slotCount * RECORD_SIZE;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			//the mapping stays valid after the channel is closed
+			m_buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+		m_buffer.order(ByteOrder.LITTLE_ENDIAN);
+		m_buffer.putInt(0, MAGIC);
+		m_buffer.putInt(4, VERSION);
+		m_buffer.putInt(8, RECORD_SIZE);
+		m_buffer.putInt(12, slotCount);
+		m_buffer.putLong(16, System.currentTimeMillis());
+		
+		m_dictChannel = FileChannel.open(getDictionaryFile(file), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+	}
+	
+	/**
+	 * @return journal file
+	 */
+	public Path getFile() {
+		return m_file;
+	}
+	
+	/**
+	 * Records the start of a call
+	 * 
+	 * @param function function name
+	 * @param stack stack of the caller, e.g. from {@link Throwable#getStackTrace()}
+	 * @param skipFrames number of frames at the top of the stack to skip
+	 * @return token to pass to {@link #end(long)}
+	 */
+	public long begin(String function, StackTraceElement[] stack, int skipFrames) {
+		long seq = m_sequence.getAndIncrement();
+		int offset = offsetOf(seq);
+		Thread thread = Thread.currentThread();
+		
+		int frameCount = Math.max(0, Math.min(MAX_FRAMES, stack.length - skipFrames));
+		
+		m_buffer.putLong(offset + OFFSET_SEQ, seq + 1);
+		m_buffer.putLong(offset + OFFSET_TIME, System.currentTimeMillis());
+		m_buffer.putLong(offset + OFFSET_THREADID, thread.getId());
+		m_buffer.putInt(offset + OFFSET_FUNCTION, register(function));
+		m_buffer.put(offset + OFFSET_FRAMECOUNT, (byte) frameCount);
+		m_buffer.put(offset + OFFSET_STATE, STATE_STARTED);
+		m_buffer.putInt(offset + OFFSET_THREADNAME, register(thread.getName()));
+		for (int i = 0; i < frameCount; i++) {
+			m_buffer.putInt(offset + OFFSET_FRAMES + 4 * i, register(stack[skipFrames + i]));
+		}
+		m_buffer.putLong(offset + OFFSET_SEQ_END, seq + 1);
+		
+		return seq;
+	}
+	
+	/**
+	 * Marks a call as finished
+	 * 
+	 * @param token value returned by {@link #begin(String, StackTraceElement[], int)}
+	 */
+	public void end(long token) {
+		int offset = offsetOf(token);
+		//the slot may have been reused by a later call when the ring wrapped around
+		if (m_buffer.getLong(offset + OFFSET_SEQ) == token + 1) {
+			m_buffer.put(offset + OFFSET_STATE, STATE_FINISHED);
+		}
+	}
+	
+	private int offsetOf(long seq) {
+		return HEADER_SIZE + (int) (seq % m_slotCount) * RECORD_SIZE;
+	}
+	
+	private int register(String text) {
+		return register(text.hashCode(), text);
+	}
+	
+	private int register(StackTraceElement frame) {
+		//String hash codes are cached, so this avoids building the frame text for every call
+		int hash = 31 * (31 * frame.getClassName().hashCode() + frame.getMethodName().hashCode()) + frame.getLineNumber();
+		return register(hash, frame);
+	}
+	
+	/**
+	 * Returns the dictionary id of a text or frame. The probe sequence starts with its hash
+	 * and skips ids that are already used by a different key.
+	 * 
+	 * @param hash hash of the key
+	 * @param key function name, thread name or frame
+	 * @return dictionary id
+	 */
+	private int register(int hash, Object key) {
+		int id = hash;
+		while (true) {
+			Object known = m_dictionary.get(id);
+			if (known == null) {
+				known = writeDictionary(id, key);
+			}
+			if (known == key || known.equals(key)) {
+				return id;
+			}
+			//hash collision with another key; this sequence visits every int value
+			id = id * 0x9E3779B9 + 1;
+		}
+	}
+	
+	/**
+	 * Stores a key under an id unless another thread used the id in the meantime
+	 * 
+	 * @param id dictionary id
+	 * @param key function name, thread name or frame
+	 * @return key stored under the id
+	 */
+	private synchronized Object writeDictionary(int id, Object key) {
+		Object known = m_dictionary.putIfAbsent(id, key);
+		if (known != null) {
+			return known;
+		}
+		String line = Integer.toHexString(id) + '\t' + key.toString().replace('\n', ' ') + '\n';
+		ByteBuffer data = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+		try {
+			while (data.hasRemaining()) {
+				m_dictChannel.write(data);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return key;
+	}
+	
+	static Path getDictionaryFile(Path journalFile) {
+		return journalFile.resolveSibling(journalFile.getFileName() + DICTIONARY_SUFFIX);
+	}
+	
+	/**
+	 * A call read from a journal file
+	 */
+	public static class Entry {
+		private final long m_sequence;
+		private final long m_time;
+		private final long m_threadId;
+		private final String m_threadName;
+		private final String m_function;
+		private final boolean m_finished;
+		private final List<String> m_frames;
+		
+		Entry(long sequence, long time, long threadId, String threadName, String function, boolean finished, List<String> frames) {
+			m_sequence = sequence;
+			m_time = time;
+			m_threadId = threadId;
+			m_threadName = threadName;
+			m_function = function;
+			m_finished = finished;
+			m_frames = frames;
+		}
+		
+		public long getSequence() {
+			return m_sequence;
+		}
+		
+		public long getTime() {
+			return m_time;
+		}
+		
+		public long getThreadId() {
+			return m_threadId;
+		}
+		
+		public String getThreadName() {
+			return m_threadName;
+		}
+		
+		public String getFunction() {
+			return m_function;
+		}
+		
+		/**
+		 * @return false if the native method had not returned when the journal was read, e.g. because it crashed the JVM
+		 */
+		public boolean isFinished() {
+			return m_finished;
+		}
+		
+		public List<String> getFrames() {
+			return m_frames;
+		}
+		
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append('#').append(m_sequence).append(' ').append(Instant.ofEpochMilli(m_time))
+				.append(" [").append(m_threadName).append(" (").append(m_threadId).append(")] ") //$NON-NLS-1$ //$NON-NLS-2$
+				.append(m_function);
+			if (!m_finished) {
+				sb.append(" - NOT FINISHED"); //$NON-NLS-1$
+			}
+			for (String frame : m_frames) {
+				sb.append("\n\tat ").append(frame); //$NON-NLS-1$
+			}
+			return sb.toString();
+		}
+	}
+	
+	/**
+	 * Reads the calls of a journal file and its dictionary
+	 * 
+	 * @param file journal file
+	 * @return calls, oldest first
+	 * @throws IOException if the files cannot be read or the journal has an unknown format
+	 */
+	public static List<Entry> read(Path file) throws IOException {
+		ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+		if (buf.capacity() < HEADER_SIZE || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+			throw new IOException(MessageFormat.format("{0} is not a JNX call journal", file));
+		}
+		int recordSize = buf.getInt(8);
+		int slotCount = buf.getInt(12);
+		
+		Map<Integer, String> dictionary = new HashMap<>();
+		Path dictFile = getDictionaryFile(file);
+		if (Files.exists(dictFile)) {
+			for (String line : Files.readAllLines(dictFile, StandardCharsets.UTF_8)) {
+				int tab = line.indexOf('\t');
+				if (tab > 0) {
+					dictionary.put(Integer.parseUnsignedInt(line.substring(0, tab), 16), line.substring(tab + 1));
+				}
+			}
+		}
+		
+		List<Entry> entries = new ArrayList<>();
+		for (int i = 0; i < slotCount; i++) {
+			int offset = HEADER_SIZE + i * recordSize;
+			if (offset + recordSize > buf.capacity()) {
+				break;
+			}
+			long seq = buf.getLong(offset + OFFSET_SEQ);
+			if (seq == 0 || buf.getLong(offset + OFFSET_SEQ_END) != seq) {
+				//unused or partially written slot
+				continue;
+			}
+			int frameCount = Math.min(MAX_FRAMES, buf.get(offset + OFFSET_FRAMECOUNT));
+			List<String> frames = new ArrayList<>(frameCount);
+			for (int f = 0; f < frameCount; f++) {
+				frames.add(lookup(dictionary, buf.getInt(offset + OFFSET_FRAMES + 4 * f)));
+			}
+			entries.add(new Entry(seq - 1, buf.getLong(offset + OFFSET_TIME), buf.getLong(offset + OFFSET_THREADID),
+					lookup(dictionary, buf.getInt(offset + OFFSET_THREADNAME)), lookup(dictionary, buf.getInt(offset + OFFSET_FUNCTION)),
+					buf.get(offset + OFFSET_STATE) == STATE_FINISHED, Collections.unmodifiableList(frames)));
+		}
+		entries.sort(Comparator.comparingLong(Entry::getSequence));
+		return entries;
+	}
+	
+	private static String lookup(Map<Integer, String> dictionary, int hash) {
+		String text = dictionary.get(hash);
+		return text == null ? "<" + Integer.toHexString(hash) + ">" : text; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	
+	/**
+	 * Prints the calls of a journal file, oldest first, followed by the calls that
+	 * have not finished
+	 * 
+	 * @param file journal file
+	 * @param out target stream
+	 * @throws IOException if the files cannot be read
+	 */
+	public static void print(Path file, PrintStream out) throws IOException {
+		List<Entry> entries = read(file);
+		for (Entry entry : entries) {
+			out.println(entry);
+		}
+		out.println();
+		out.println("Calls not finished:"); //$NON-NLS-1$
+		for (Entry entry : entries) {
+			if (!entry.isFinished()) {
+				out.println(entry);
+			}
+		}
+	}
+	
+	/**
+	 * Decodes a journal file to stdout
+	 * 
+	 * @param args path of the journal file
+	 * @throws IOException if the files cannot be read
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println(MessageFormat.format("Usage: java {0} <journal file>", CallJournal.class.getName()));
+			System.exit(1);
+		}
+		print(Paths.get(args[0]), System.out);
+	}
+}
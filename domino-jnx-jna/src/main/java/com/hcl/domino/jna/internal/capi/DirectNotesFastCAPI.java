@@ -0,0 +1,135 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal.capi;
+
+import com.hcl.domino.jna.internal.structs.NotesBlockIdStruct;
+import com.hcl.domino.jna.internal.structs.NotesCollectionPositionStruct;
+import com.hcl.domino.jna.internal.structs.NotesTimeDateStruct;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+
+/**
+ * {@link INotesFastCAPI} implementation that uses JNA direct mapping
+ * ({@link Native#register(Class, NativeLibrary)}), which calls the C functions
+ * without the reflective proxy and argument conversion of interface mappings.
+ * 
+ * @since 1.54.0
+ */
+public class DirectNotesFastCAPI implements INotesFastCAPI {
+	
+	/**
+	 * Binds the native methods to the specified library; the functions are bound once
+	 * per class loader, so later calls are ignored
+	 * 
+	 * @param library C API library
+	 * @return API instance
+	 * @throws UnsatisfiedLinkError if a function cannot be found in the library
+	 */
+	public static synchronized DirectNotesFastCAPI register(NativeLibrary library) {
+		if (!Natives.registered) {
+			Native.register(Natives.class, library);
+			Natives.registered = true;
+		}
+		return new DirectNotesFastCAPI();
+	}
+	
+	private DirectNotesFastCAPI() {
+	}
+	
+	private static class Natives {
+		private static boolean registered;
+		
+		static native Pointer OSLockObject(long handle);
+		
+		static native boolean OSUnlockObject(long handle);
+		
+		static native int OSTranslate32(short translateMode, Pointer in, int inLength, Pointer out, int outLength);
+		
+		static native short NSFItemInfo(long note_handle, Pointer item_name, short name_len, Pointer retbhItem,
+				Pointer retDataType, Pointer retbhValue, Pointer retValueLength);
+		
+		static native short NSFItemInfoNext(long note_handle, NotesBlockIdStruct.ByValue NextItem, Pointer item_name,
+				short name_len, Pointer retbhItem, Pointer retDataType, Pointer retbhValue, Pointer retValueLength);
+		
+		static native void NSFItemQueryEx(long note_handle, NotesBlockIdStruct.ByValue item_bid, Pointer item_name,
+				short return_buf_len, Pointer name_len_ptr, Pointer item_flags_ptr, Pointer value_datatype_ptr,
+				Pointer value_bid_ptr, Pointer value_len_ptr, Pointer retSeqByte, Pointer retDupItemID);
+		
+		static native boolean IDScan(long hTable, boolean fFirst, Pointer retID);
+		
+		static native short NIFReadEntriesExt(long hCollection, NotesCollectionPositionStruct collectionPos,
+				short skipNavigator, int skipCount, short returnNavigator, int returnCount, int returnMask,
+				NotesTimeDateStruct diffTime, long diffIDTable, int columnNumber, int flags, Pointer rethBuffer,
+				Pointer retBufferLength, Pointer retNumEntriesSkipped, Pointer retNumEntriesReturned,
+				Pointer retSignalFlags, NotesTimeDateStruct retDiffTime, NotesTimeDateStruct retModifiedTime,
+				Pointer retSequence);
+	}
+
+	@Override
+	public Pointer OSLockObject(long handle) {
+		return Natives.OSLockObject(handle);
+	}
+
+	@Override
+	public boolean OSUnlockObject(long handle) {
+		return Natives.OSUnlockObject(handle);
+	}
+
+	@Override
+	public int OSTranslate32(short translateMode, Pointer in, int inLength, Pointer out, int outLength) {
+		return Natives.OSTranslate32(translateMode, in, inLength, out, outLength);
+	}
+
+	@Override
+	public short NSFItemInfo(long note_handle, Pointer item_name, short name_len, Pointer retbhItem,
+			Pointer retDataType, Pointer retbhValue, Pointer retValueLength) {
+		return Natives.NSFItemInfo(note_handle, item_name, name_len, retbhItem, retDataType, retbhValue, retValueLength);
+	}
+
+	@Override
+	public short NSFItemInfoNext(long note_handle, NotesBlockIdStruct.ByValue NextItem, Pointer item_name,
+			short name_len, Pointer retbhItem, Pointer retDataType, Pointer retbhValue, Pointer retValueLength) {
+		return Natives.NSFItemInfoNext(note_handle, NextItem, item_name, name_len, retbhItem, retDataType,
+				retbhValue, retValueLength);
+	}
+
+	@Override
+	public void NSFItemQueryEx(long note_handle, NotesBlockIdStruct.ByValue item_bid, Pointer item_name,
+			short return_buf_len, Pointer name_len_ptr, Pointer item_flags_ptr, Pointer value_datatype_ptr,
+			Pointer value_bid_ptr, Pointer value_len_ptr, Pointer retSeqByte, Pointer retDupItemID) {
+		Natives.NSFItemQueryEx(note_handle, item_bid, item_name, return_buf_len, name_len_ptr, item_flags_ptr,
+				value_datatype_ptr, value_bid_ptr, value_len_ptr, retSeqByte, retDupItemID);
+	}
+
+	@Override
+	public boolean IDScan(long hTable, boolean fFirst, Pointer retID) {
+		return Natives.IDScan(hTable, fFirst, retID);
+	}
+
+	@Override
+	public short NIFReadEntriesExt(long hCollection, NotesCollectionPositionStruct collectionPos,
+			short skipNavigator, int skipCount, short returnNavigator, int returnCount, int returnMask,
+			NotesTimeDateStruct diffTime, long diffIDTable, int columnNumber, int flags, Pointer rethBuffer,
+			Pointer retBufferLength, Pointer retNumEntriesSkipped, Pointer retNumEntriesReturned,
+			Pointer retSignalFlags, NotesTimeDateStruct retDiffTime, NotesTimeDateStruct retModifiedTime,
+			Pointer retSequence) {
+		return Natives.NIFReadEntriesExt(hCollection, collectionPos, skipNavigator, skipCount, returnNavigator,
+				returnCount, returnMask, diffTime, diffIDTable, columnNumber, flags, rethBuffer, retBufferLength,
+				retNumEntriesSkipped, retNumEntriesReturned, retSignalFlags, retDiffTime, retModifiedTime, retSequence);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal.capi;
+
+import com.hcl.domino.jna.internal.structs.NotesBlockIdStruct;
+import com.hcl.domino.jna.internal.structs.NotesCollectionPositionStruct;
+import com.hcl.domino.jna.internal.structs.NotesTimeDateStruct;
+import com.sun.jna.Pointer;
+
+/**
+ * Subset of the C API functions that are called most often (item scans, memory
+ * locking, LMBCS translation, ID table scans and view reads), declared with
+ * primitive and {@link Pointer} arguments so that they can be bound via JNA direct
+ * mapping.<br>
+ * <br>
+ * Handles are passed as their {@code long} value and return values as pointers
+ * to caller-allocated memory, e.g. {@code IntByReference.getPointer()}.
+ * 
+ * @see NotesFastCAPI#get()
+ * @since 1.54.0
+ */
+public interface INotesFastCAPI {
+
+	Pointer OSLockObject(long handle);
+
+	boolean OSUnlockObject(long handle);
+
+	int OSTranslate32(short translateMode, Pointer in, int inLength, Pointer out, int outLength);
+
+	short NSFItemInfo(
+			long note_handle,
+			Pointer item_name,
+			short name_len,
+			Pointer retbhItem,
+			Pointer retDataType,
+			Pointer retbhValue,
+			Pointer retValueLength);
+
+	short NSFItemInfoNext(
+			long note_handle,
+			NotesBlockIdStruct.ByValue NextItem,
+			Pointer item_name,
+			short name_len,
+			Pointer retbhItem,
+			Pointer retDataType,
+			Pointer retbhValue,
+			Pointer retValueLength);
+
+	void NSFItemQueryEx(
+			long note_handle,
+			NotesBlockIdStruct.ByValue item_bid,
+			Pointer item_name,
+			short return_buf_len,
+			Pointer name_len_ptr,
+			Pointer item_flags_ptr,
+			Pointer value_datatype_ptr,
+			Pointer value_bid_ptr,
+			Pointer value_len_ptr,
+			Pointer retSeqByte,
+			Pointer retDupItemID);
+
+	boolean IDScan(long hTable, boolean fFirst, Pointer retID);
+
+	short NIFReadEntriesExt(long hCollection,
+			NotesCollectionPositionStruct collectionPos,
+			short skipNavigator, int skipCount,
+			short returnNavigator, int returnCount, int returnMask,
+			NotesTimeDateStruct diffTime, long diffIDTable, int columnNumber, int flags,
+			Pointer rethBuffer, Pointer retBufferLength,
+			Pointer retNumEntriesSkipped, Pointer retNumEntriesReturned,
+			Pointer retSignalFlags, NotesTimeDateStruct retDiffTime,
+			NotesTimeDateStruct retModifiedTime, Pointer retSequence);
+}
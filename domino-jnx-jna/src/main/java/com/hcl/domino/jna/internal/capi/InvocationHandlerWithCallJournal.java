@@ -0,0 +1,107 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal.capi;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import com.hcl.domino.commons.util.DominoUtils;
+
+/**
+ * {@link InvocationHandler} that records each call in a {@link CallJournal} before
+ * invoking the original method in order to identify the cause of JVM crashes.<br>
+ * <br>
+ * All API proxies share one journal file in the callstack log directory. Its number
+ * of slots can be set with the Java property {@code jnx.callstacklog.journalsize}
+ * or the environment variable {@code JNX_CALLSTACKLOG_JOURNALSIZE}.
+ * 
+ * @since 1.54.0
+ */
+public class InvocationHandlerWithCallJournal implements InvocationHandler {
+	private static final int DEFAULT_SLOT_COUNT = 65536;
+	/** {@link Throwable#getStackTrace()} frames of this handler and the proxy class */
+	private static final int SKIP_FRAMES = 2;
+	
+	private static CallJournal m_journal;
+	
+	private final Object m_obj;
+	private final CallJournal m_callJournal;
+	
+	/**
+	 * Returns the journal shared by all API proxies, creating it on first use
+	 * 
+	 * @return journal
+	 * @throws IOException if the journal file cannot be created
+	 */
+	static synchronized CallJournal getCallJournal() throws IOException {
+		if (m_journal == null) {
+			try {
+				m_journal = AccessController.doPrivileged((PrivilegedExceptionAction<CallJournal>) () -> {
+					DateFormat dtFormat = new SimpleDateFormat("yyyyMMddHHmmss"); //$NON-NLS-1$
+					Path file = InvocationHandlerWithStacktraceLogging.getCallstackLogDir()
+							.resolve("jnx-calls-" + dtFormat.format(new Date()) + ".bin"); //$NON-NLS-1$ //$NON-NLS-2$
+					CallJournal journal = CallJournal.create(file, getSlotCount());
+					System.out.println(MessageFormat.format("Writing JNX call journal to {0}", file)); //$NON-NLS-1$
+					return journal;
+				});
+			} catch (PrivilegedActionException e) {
+				throw (IOException) e.getException();
+			}
+		}
+		return m_journal;
+	}
+	
+	private static int getSlotCount() {
+		String size = DominoUtils.getJavaProperty("jnx.callstacklog.journalsize", null); //$NON-NLS-1$
+		if (size == null) {
+			size = DominoUtils.getenv("JNX_CALLSTACKLOG_JOURNALSIZE"); //$NON-NLS-1$
+		}
+		if (size != null) {
+			try {
+				return Integer.parseInt(size.trim());
+			} catch (NumberFormatException e) {
+				// fall through
+			}
+		}
+		return DEFAULT_SLOT_COUNT;
+	}
+	
+	public InvocationHandlerWithCallJournal(Object obj, CallJournal journal) {
+		m_obj = obj;
+		m_callJournal = journal;
+	}
+	
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		long token = m_callJournal.begin(method.getName(), new Throwable().getStackTrace(), SKIP_FRAMES);
+		try {
+			return method.invoke(m_obj, args);
+		}
+		finally {
+			m_callJournal.end(token);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal.capi;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+import com.hcl.domino.jna.utils.CAPIMetrics;
+
+/**
+ * {@link InvocationHandler} that records the duration of each call in the
+ * {@link CAPIMetrics}
+ * 
+ * @since 1.54.0
+ */
+public class InvocationHandlerWithMetrics implements InvocationHandler {
+	private final Object m_obj;
+	
+	public InvocationHandlerWithMetrics(Object obj) {
+		m_obj = obj;
+	}
+	
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		long start = System.nanoTime();
+		try {
+			return method.invoke(m_obj, args);
+		}
+		finally {
+			CAPIMetrics.recordCall(method.getName(), System.nanoTime() - start);
+		}
+	}
+}
@@ -79,26 +79,36 @@ public class InvocationHandlerWithStacktraceLogging implements InvocationHandler
 		});
 	}
 
+	/**
+	 * Returns the directory for callstack logs, creating it if needed
+	 * 
+	 * @return directory
+	 */
+	static Path getCallstackLogDir() {
+		String outDirPath = DominoUtils.getJavaProperty("jnx.callstacklogdir", null); //$NON-NLS-1$
+		
+		if (StringUtil.isEmpty(outDirPath)) {
+			outDirPath = DominoUtils.getenv("JNX_CALLSTACKLOGDIR"); //$NON-NLS-1$
+		}
+		
+		if (StringUtil.isEmpty(outDirPath)) {
+			outDirPath = DominoUtils.getJavaProperty("java.io.tmpdir", null); //$NON-NLS-1$
+		}
+		
+		Path outDir = Paths.get(outDirPath);
+		if (!Files.exists(outDir)) {
+			try {
+				Files.createDirectories(outDir);
+			} catch(IOException e1) {
+				throw new UncheckedIOException(e1);
+			}
+		}
+		return outDir;
+	}
+
 	private Path createStackTraceFile(final Exception e) {
 		return AccessController.doPrivileged((PrivilegedAction<Path>) () -> {
-			String outDirPath = DominoUtils.getJavaProperty("jnx.callstacklogdir", null); //$NON-NLS-1$
-			
-			if (StringUtil.isEmpty(outDirPath)) {
-				outDirPath = DominoUtils.getenv("JNX_CALLSTACKLOGDIR"); //$NON-NLS-1$
-			}
-			
-			if (StringUtil.isEmpty(outDirPath)) {
-				outDirPath = DominoUtils.getJavaProperty("java.io.tmpdir", null); //$NON-NLS-1$
-			}
-			
-			Path outDir = Paths.get(outDirPath);
-			if (!Files.exists(outDir)) {
-				try {
-					Files.createDirectories(outDir);
-				} catch(IOException e1) {
-					throw new UncheckedIOException(e1);
-				}
-			}
+			Path outDir = getCallstackLogDir();
 			
 			if (!m_loggedFileLocation) {
 				System.out.println(MessageFormat.format("Writing JNX callstack logs in directory {0}", outDir)); //$NON-NLS-1$
@@ -16,6 +16,8 @@
  */
 package com.hcl.domino.jna.internal.capi;
 
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.security.AccessController;
@@ -31,6 +33,7 @@ import com.hcl.domino.commons.util.PlatformUtils;
 import com.hcl.domino.exception.DominoInitException;
 import com.hcl.domino.jna.JNADominoProcess;
 import com.hcl.domino.jna.internal.capi.INotesCAPI.NativeFunctionName;
+import com.hcl.domino.jna.utils.CAPIMetrics;
 import com.sun.jna.FunctionMapper;
 import com.sun.jna.Library;
 import com.sun.jna.Native;
@@ -46,6 +49,7 @@ public class NotesCAPI {
 	private static DominoException m_initError;
 	private static int m_platformAlignment;
 	private static boolean m_callstackLogging;
+	private static boolean m_callJournal;
 
 	static {
 		if (PlatformUtils.isWindows()) {
@@ -72,6 +76,7 @@ public class NotesCAPI {
 		}
 		
 		m_callstackLogging = DominoUtils.checkBooleanProperty("jnx.callstacklog", "JNX_CALLSTACKLOG"); //$NON-NLS-1$ //$NON-NLS-2$
+		m_callJournal = DominoUtils.checkBooleanProperty("jnx.callstacklog.journal", "JNX_CALLSTACKLOG_JOURNAL"); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
 	public static int getPlatformAlignment() {
@@ -94,6 +99,26 @@ public class NotesCAPI {
 	public static void setCallstackLogging(boolean callstackLogging) {
       m_callstackLogging = callstackLogging;
     }
+	
+	/**
+	 * @return whether callstack logging records the API calls in a {@link CallJournal}
+	 *         instead of writing a stack trace file per call
+	 * @since 1.54.0
+	 */
+	public static boolean isCallJournal() {
+		return m_callJournal;
+	}
+	
+	/**
+	 * Has to be set before callstack logging is first used
+	 * 
+	 * @param callJournal whether callstack logging records the API calls in a {@link CallJournal}
+	 *        instead of writing a stack trace file per call
+	 * @since 1.54.0
+	 */
+	public static void setCallJournal(boolean callJournal) {
+		m_callJournal = callJournal;
+	}
 
 	 /**
    * Loads the Domino shared library and returns a Java Proxy object to map C functions to Java methods.
@@ -130,9 +155,9 @@ public class NotesCAPI {
 	    JNADominoProcess.checkThreadEnabledForDomino();
 		}
 		
-		if (m_callstackLogging) {
+		if (isInstrumented()) {
 			if (m_instanceWithStackLogging==null) {
-				m_instanceWithStackLogging = wrapWithCrashStackLogging(INotesCAPI.class, m_instance);
+				m_instanceWithStackLogging = wrapInstrumented(INotesCAPI.class, m_instance);
 			}
 			
 			return m_instanceWithStackLogging;
@@ -189,9 +214,46 @@ public class NotesCAPI {
 		return api;
 	}
 
+	/**
+	 * @return whether API calls go through a proxy for callstack logging or {@link CAPIMetrics}
+	 * @since 1.54.0
+	 */
+	public static boolean isInstrumented() {
+		return m_callstackLogging || CAPIMetrics.isEnabled();
+	}
+	
+	/**
+	 * Wraps the specified API object for {@link CAPIMetrics} and callstack logging,
+	 * depending on which of them is enabled
+	 * 
+	 * @param <T> API type
+	 * @param apiClazz API interface
+	 * @param api API implementation
+	 * @return wrapped API
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T wrapInstrumented(final Class<T> apiClazz, final T api) {
+		T result = api;
+		if (CAPIMetrics.isEnabled()) {
+			try {
+				final T metricsTarget = result;
+				result = AccessController.doPrivileged((PrivilegedExceptionAction<T>) () -> {
+					return (T) Proxy.newProxyInstance(api.getClass().getClassLoader(), new Class[] {apiClazz},
+							new InvocationHandlerWithMetrics(metricsTarget));
+				});
+			} catch (PrivilegedActionException e) {
+				e.printStackTrace();
+			}
+		}
+		if (m_callstackLogging) {
+			result = wrapWithCrashStackLogging(apiClazz, result);
+		}
+		return result;
+	}
+
 	/**
 	 * Wraps the specified API object to dump caller stacktraces right before invoking
-	 * native methods
+	 * native methods, either as stack trace files or in the {@link CallJournal}
 	 * 
 	 * @param apiClazz API interface
 	 * @return api API implementation
@@ -200,7 +262,18 @@ public class NotesCAPI {
 	static <T> T wrapWithCrashStackLogging(final Class<T> apiClazz, final T api) {
 		try {
 			return AccessController.doPrivileged((PrivilegedExceptionAction<T>) () -> {
-				InvocationHandlerWithStacktraceLogging invocationHandler = new InvocationHandlerWithStacktraceLogging(api);
+				InvocationHandler invocationHandler = null;
+				if (m_callJournal) {
+					try {
+						invocationHandler = new InvocationHandlerWithCallJournal(api, InvocationHandlerWithCallJournal.getCallJournal());
+					}
+					catch (IOException e) {
+						e.printStackTrace();
+					}
+				}
+				if (invocationHandler==null) {
+					invocationHandler = new InvocationHandlerWithStacktraceLogging(api);
+				}
 				return (T) Proxy.newProxyInstance(api.getClass().getClassLoader(), new Class[] {apiClazz}, invocationHandler);
 			});
 		} catch (PrivilegedActionException e) {
@@ -48,11 +48,11 @@ public class NotesCAPI12 {
 		
     JNADominoProcess.checkThreadEnabledForDomino();
 
-		boolean useCallstackLogging = NotesCAPI.isCallstackLogging();
+		boolean useInstrumentation = NotesCAPI.isInstrumented();
 		
-		if (useCallstackLogging) {
+		if (useInstrumentation) {
 			if (m_instanceWithStackLogging==null) {
-				m_instanceWithStackLogging = NotesCAPI.wrapWithCrashStackLogging(INotesCAPI12.class, m_instance);
+				m_instanceWithStackLogging = NotesCAPI.wrapInstrumented(INotesCAPI12.class, m_instance);
 			}
 			
 			return m_instanceWithStackLogging;
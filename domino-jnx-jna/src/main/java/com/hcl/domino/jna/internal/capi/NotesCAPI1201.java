@@ -48,11 +48,11 @@ public class NotesCAPI1201 {
 		
     JNADominoProcess.checkThreadEnabledForDomino();
 
-		boolean useCallstackLogging = NotesCAPI.isCallstackLogging();
+		boolean useInstrumentation = NotesCAPI.isInstrumented();
 		
-		if (useCallstackLogging) {
+		if (useInstrumentation) {
 			if (m_instanceWithStackLogging==null) {
-				m_instanceWithStackLogging = NotesCAPI.wrapWithCrashStackLogging(INotesCAPI1201.class, m_instance);
+				m_instanceWithStackLogging = NotesCAPI.wrapInstrumented(INotesCAPI1201.class, m_instance);
 			}
 			
 			return m_instanceWithStackLogging;
@@ -0,0 +1,100 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal.capi;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.hcl.domino.commons.util.DominoUtils;
+import com.hcl.domino.commons.util.PlatformUtils;
+import com.hcl.domino.jna.JNADominoProcess;
+import com.sun.jna.Library;
+import com.sun.jna.NativeLibrary;
+
+/**
+ * Provides the binding for the C API functions in {@link INotesFastCAPI}.<br>
+ * <br>
+ * By default, the functions are bound via JNA direct mapping. Setting the Java property
+ * {@code jnx.capi.proxy} or the environment variable {@code JNX_CAPI_PROXY} to
+ * {@code true} routes them through the {@link INotesCAPI} interface mapping instead,
+ * which is also used when callstack logging or {@link com.hcl.domino.jna.utils.CAPIMetrics}
+ * are active or direct mapping fails.
+ * 
+ * @since 1.54.0
+ */
+public class NotesFastCAPI {
+	private static final Logger log = Logger.getLogger(NotesFastCAPI.class.getPackage().getName());
+	
+	private static volatile INotesFastCAPI m_instance;
+	private static final INotesFastCAPI m_proxyInstance = new ProxyNotesFastCAPI(NotesCAPI::get);
+	
+	/**
+	 * Returns the binding for the most frequently called C API functions
+	 * 
+	 * @return API
+	 * @throws com.hcl.domino.exception.DominoInitException if the Domino shared library cannot be found
+	 *         or the current thread has not been initialized for Domino
+	 */
+	public static INotesFastCAPI get() {
+		INotesFastCAPI instance = m_instance;
+		if (instance==null) {
+			instance = init();
+		}
+		
+		if (instance==m_proxyInstance || NotesCAPI.isInstrumented()) {
+			//the proxy instance checks the thread and goes through the instrumented NotesCAPI.get()
+			return m_proxyInstance;
+		}
+		
+		JNADominoProcess.checkThreadEnabledForDomino();
+		return instance;
+	}
+	
+	private static synchronized INotesFastCAPI init() {
+		if (m_instance==null) {
+			m_instance = createAPI();
+		}
+		return m_instance;
+	}
+	
+	private static INotesFastCAPI createAPI() {
+		if (DominoUtils.checkBooleanProperty("jnx.capi.proxy", "JNX_CAPI_PROXY")) { //$NON-NLS-1$ //$NON-NLS-2$
+			return m_proxyInstance;
+		}
+		if (!PlatformUtils.is64Bit()) {
+			//handles are passed as long values, which only matches the 64 bit handle size
+			return m_proxyInstance;
+		}
+		
+		//loads the library and sets up the platform settings
+		NotesCAPI.get(true);
+		
+		try {
+			Map<String,Object> libraryOptions = new HashMap<>();
+			libraryOptions.put(Library.OPTION_CLASSLOADER, NotesCAPI.class.getClassLoader());
+			
+			NativeLibrary library = NativeLibrary.getInstance(PlatformUtils.isWindows() ? "nnotes" : "notes", libraryOptions); //$NON-NLS-1$ //$NON-NLS-2$
+			return DirectNotesFastCAPI.register(library);
+		}
+		catch (LinkageError | RuntimeException e) {
+			log.log(Level.WARNING, "Unable to bind C API functions via JNA direct mapping, using interface mapping", e);
+			return m_proxyInstance;
+		}
+	}
+}
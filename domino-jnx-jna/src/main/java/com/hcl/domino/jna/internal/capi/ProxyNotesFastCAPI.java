@@ -0,0 +1,148 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal.capi;
+
+import java.util.function.Supplier;
+
+import com.hcl.domino.jna.internal.gc.handles.DHANDLE;
+import com.hcl.domino.jna.internal.structs.NotesBlockIdStruct;
+import com.hcl.domino.jna.internal.structs.NotesCollectionPositionStruct;
+import com.hcl.domino.jna.internal.structs.NotesTimeDateStruct;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.ByReference;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.ShortByReference;
+
+/**
+ * {@link INotesFastCAPI} implementation that delegates to the interface mapping in
+ * {@link INotesCAPI}, used when direct mapping is disabled or not available
+ * 
+ * @since 1.54.0
+ */
+@SuppressWarnings("deprecation")
+public class ProxyNotesFastCAPI implements INotesFastCAPI {
+	private final Supplier<INotesCAPI> m_api;
+	
+	/**
+	 * @param api supplies the {@link INotesCAPI} instance for each call, e.g. {@link NotesCAPI#get()}
+	 */
+	public ProxyNotesFastCAPI(Supplier<INotesCAPI> api) {
+		m_api = api;
+	}
+	
+	private static <T extends ByReference> T toRef(Pointer ptr, Supplier<T> newRef) {
+		if (ptr==null) {
+			return null;
+		}
+		T ref = newRef.get();
+		ref.setPointer(ptr);
+		return ref;
+	}
+	
+	/**
+	 * {@link INotesCAPI} declares some buffers as {@link Memory}, so other pointers
+	 * get copied
+	 */
+	private static Memory toMemory(Pointer ptr, int size) {
+		if (ptr==null) {
+			return null;
+		}
+		if (ptr instanceof Memory) {
+			return (Memory) ptr;
+		}
+		Memory mem = new Memory(Math.max(1, size));
+		mem.write(0, ptr.getByteArray(0, size), 0, size);
+		return mem;
+	}
+	
+	@Override
+	public Pointer OSLockObject(long handle) {
+		return m_api.get().OSLockObject(DHANDLE.newInstanceByValue(handle));
+	}
+
+	@Override
+	public boolean OSUnlockObject(long handle) {
+		return m_api.get().OSUnlockObject(DHANDLE.newInstanceByValue(handle));
+	}
+
+	@Override
+	public int OSTranslate32(short translateMode, Pointer in, int inLength, Pointer out, int outLength) {
+		if (out==null || out instanceof Memory) {
+			return m_api.get().OSTranslate32(translateMode, in, inLength, (Memory) out, outLength);
+		}
+		Memory outMem = new Memory(Math.max(1, outLength));
+		int len = m_api.get().OSTranslate32(translateMode, in, inLength, outMem, outLength);
+		out.write(0, outMem.getByteArray(0, len), 0, len);
+		return len;
+	}
+
+	@Override
+	public short NSFItemInfo(long note_handle, Pointer item_name, short name_len, Pointer retbhItem,
+			Pointer retDataType, Pointer retbhValue, Pointer retValueLength) {
+		return m_api.get().NSFItemInfo(DHANDLE.newInstanceByValue(note_handle),
+				toMemory(item_name, Short.toUnsignedInt(name_len)), name_len, retbhItem,
+				toRef(retDataType, ShortByReference::new), retbhValue, toRef(retValueLength, IntByReference::new));
+	}
+
+	@Override
+	public short NSFItemInfoNext(long note_handle, NotesBlockIdStruct.ByValue NextItem, Pointer item_name,
+			short name_len, Pointer retbhItem, Pointer retDataType, Pointer retbhValue, Pointer retValueLength) {
+		return m_api.get().NSFItemInfoNext(DHANDLE.newInstanceByValue(note_handle), NextItem,
+				toMemory(item_name, Short.toUnsignedInt(name_len)), name_len, retbhItem,
+				toRef(retDataType, ShortByReference::new), retbhValue, toRef(retValueLength, IntByReference::new));
+	}
+
+	@Override
+	public void NSFItemQueryEx(long note_handle, NotesBlockIdStruct.ByValue item_bid, Pointer item_name,
+			short return_buf_len, Pointer name_len_ptr, Pointer item_flags_ptr, Pointer value_datatype_ptr,
+			Pointer value_bid_ptr, Pointer value_len_ptr, Pointer retSeqByte, Pointer retDupItemID) {
+		int bufLen = Short.toUnsignedInt(return_buf_len);
+		Memory itemNameMem = item_name==null || item_name instanceof Memory ? (Memory) item_name : new Memory(Math.max(1, bufLen));
+		m_api.get().NSFItemQueryEx(DHANDLE.newInstanceByValue(note_handle), item_bid, itemNameMem, return_buf_len,
+				toRef(name_len_ptr, ShortByReference::new), toRef(item_flags_ptr, ShortByReference::new),
+				toRef(value_datatype_ptr, ShortByReference::new), value_bid_ptr,
+				toRef(value_len_ptr, IntByReference::new), toRef(retSeqByte, ByteByReference::new),
+				toRef(retDupItemID, ByteByReference::new));
+		if (itemNameMem!=item_name && bufLen>0) {
+			item_name.write(0, itemNameMem.getByteArray(0, bufLen), 0, bufLen);
+		}
+	}
+
+	@Override
+	public boolean IDScan(long hTable, boolean fFirst, Pointer retID) {
+		return m_api.get().IDScan(DHANDLE.newInstanceByValue(hTable), fFirst, toRef(retID, IntByReference::new));
+	}
+
+	@Override
+	public short NIFReadEntriesExt(long hCollection, NotesCollectionPositionStruct collectionPos,
+			short skipNavigator, int skipCount, short returnNavigator, int returnCount, int returnMask,
+			NotesTimeDateStruct diffTime, long diffIDTable, int columnNumber, int flags, Pointer rethBuffer,
+			Pointer retBufferLength, Pointer retNumEntriesSkipped, Pointer retNumEntriesReturned,
+			Pointer retSignalFlags, NotesTimeDateStruct retDiffTime, NotesTimeDateStruct retModifiedTime,
+			Pointer retSequence) {
+		return m_api.get().NIFReadEntriesExt(DHANDLE.newInstanceByValue(hCollection), collectionPos,
+				skipNavigator, skipCount, returnNavigator, returnCount, returnMask,
+				diffTime, DHANDLE.newInstanceByValue(diffIDTable), columnNumber, flags,
+				rethBuffer==null ? null : DHANDLE.newInstanceByReference(rethBuffer),
+				toRef(retBufferLength, ShortByReference::new),
+				toRef(retNumEntriesSkipped, IntByReference::new), toRef(retNumEntriesReturned, IntByReference::new),
+				toRef(retSignalFlags, ShortByReference::new), retDiffTime, retModifiedTime,
+				toRef(retSequence, IntByReference::new));
+	}
+}
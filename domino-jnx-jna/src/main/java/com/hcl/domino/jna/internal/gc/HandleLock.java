@@ -0,0 +1,89 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal.gc;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.hcl.domino.commons.util.DominoUtils;
+import com.hcl.domino.jna.internal.capi.INotesCAPI;
+import com.hcl.domino.jna.internal.capi.NotesCAPI;
+import com.hcl.domino.jna.utils.CAPIMetrics;
+
+/**
+ * Lock to ensure exclusive access to a C API handle across threads.<br>
+ * <br>
+ * The current thread is enabled for the C API via {@code NotesInitThread}
+ * when it acquires its first handle lock and terminated via {@code NotesTermThread}
+ * when it releases its last one, so nested handle locks (e.g. in
+ * {@link com.hcl.domino.jna.internal.gc.handles.LockUtil#lockHandles}) and
+ * reentrant locking do not call into the C API again.<br>
+ * <br>
+ * With {@link CAPIMetrics} enabled, the time spent waiting for a lock held by
+ * another thread is recorded.
+ * 
+ * @since 1.54.0
+ */
+public class HandleLock extends ReentrantLock {
+	private static final long serialVersionUID = -3961990800361518284L;
+	
+	private static final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(ThreadState::new);
+	
+	/**
+	 * Per-thread bookkeeping; the C API instance and the init/term setting are
+	 * looked up once per thread
+	 */
+	private static class ThreadState {
+		private final boolean initTermThread = !DominoUtils.isNoInitTermThread();
+		private INotesCAPI capi;
+		private int lockDepth;
+		
+		private INotesCAPI getCAPI() {
+			if (capi==null) {
+				capi = NotesCAPI.get();
+			}
+			return capi;
+		}
+	}
+	
+	@Override
+	public void lock() {
+		ThreadState state = threadState.get();
+		if (state.lockDepth==0 && state.initTermThread) {
+			state.getCAPI().NotesInitThread();
+		}
+		state.lockDepth++;
+		if (!CAPIMetrics.isEnabled()) {
+			super.lock();
+		}
+		else if (!tryLock()) {
+			//only waits for locks held by other threads are recorded
+			long start = System.nanoTime();
+			super.lock();
+			CAPIMetrics.recordHandleLockWait(System.nanoTime() - start);
+		}
+	}
+	
+	@Override
+	public void unlock() {
+		super.unlock();
+		ThreadState state = threadState.get();
+		state.lockDepth--;
+		if (state.lockDepth==0 && state.initTermThread) {
+			state.getCAPI().NotesTermThread();
+		}
+	}
+}
@@ -16,14 +16,16 @@
  */
 package com.hcl.domino.jna.internal.gc;
 
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
-import com.hcl.domino.jna.internal.capi.NotesCAPI;
 import com.hcl.domino.jna.internal.gc.handles.DHANDLE;
+import com.hcl.domino.jna.internal.gc.handles.DHANDLE64;
 import com.hcl.domino.jna.internal.gc.handles.HANDLE;
+import com.hcl.domino.jna.internal.gc.handles.HANDLE64;
 
 public enum JNAGCUtil {
 	;
@@ -37,10 +39,14 @@ public enum JNAGCUtil {
 	 * @return lock
 	 */
 	public static Lock getHandleLock(HANDLE handle) {
+		if (handle instanceof HANDLE64) {
+			return ((HANDLE64) handle).getHandleLock();
+		}
+		
 		synchronized (handleLocks) {
 			Lock lock = handleLocks.get(handle);
 			if (lock==null) {
-				lock = new NotesEnabledReentrantLock();
+				lock = new HandleLock();
 				handleLocks.put(handle, lock);
 			}
 			return lock;
@@ -55,29 +61,34 @@ public enum JNAGCUtil {
 	 * @return lock
 	 */
 	public static Lock getHandleLock(DHANDLE handle) {
+		if (handle instanceof DHANDLE64) {
+			return ((DHANDLE64) handle).getHandleLock();
+		}
+		
 		synchronized (dhandleLocks) {
 			Lock lock = dhandleLocks.get(handle);
 			if (lock==null) {
-				lock = new NotesEnabledReentrantLock();
+				lock = new HandleLock();
 				dhandleLocks.put(handle, lock);
 			}
 			return lock;
 		}
 	}
 	
-	private static class NotesEnabledReentrantLock extends ReentrantLock {
-		private static final long serialVersionUID = -3961990800361518284L;
-		
-		@Override
-		public void lock() {
-			NotesCAPI.get().NotesInitThread();
-			super.lock();
-		}
-		
-		@Override
-		public void unlock() {
-			super.unlock();
-			NotesCAPI.get().NotesTermThread();
+	/**
+	 * Runs the action via {@link AccessController#doPrivileged(PrivilegedAction)}
+	 * if a security manager is installed and directly otherwise, which skips
+	 * capturing the access control context on hot code paths
+	 * 
+	 * @param <R> result type
+	 * @param action action to run
+	 * @return result
+	 * @since 1.54.0
+	 */
+	public static <R> R doPrivileged(PrivilegedAction<R> action) {
+		if (System.getSecurityManager()==null) {
+			return action.run();
 		}
+		return AccessController.doPrivileged(action);
 	}
 }
@@ -19,7 +19,9 @@ package com.hcl.domino.jna.internal.gc.handles;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.text.MessageFormat;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.hcl.domino.jna.internal.gc.HandleLock;
 import com.hcl.domino.jna.internal.gc.JNAGCUtil;
 import com.sun.jna.Memory;
 import com.sun.jna.Pointer;
@@ -30,22 +32,49 @@ import com.sun.jna.Pointer;
  * @author Karsten Lehmann
  */
 public abstract class HANDLE64 implements HANDLE {
+  private static final AtomicReferenceFieldUpdater<HANDLE64, HandleLock> LOCK_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(HANDLE64.class, HandleLock.class, "handleLock"); //$NON-NLS-1$
+
   private boolean disposed;
+  private volatile HandleLock handleLock;
+  /** by-value copy passed to lock callbacks, only accessed while holding the handle lock */
+  private HANDLE64.ByValue lockedValue;
 
   public static HANDLE64 newInstance(long hdl) {
     return AccessController.doPrivileged((PrivilegedAction<HANDLE64>) () -> new ByValue(hdl));
   }
 
+  /**
+   * Returns the lock that guards access to this handle object
+   * 
+   * @return lock
+   * @since 1.54.0
+   */
+  public HandleLock getHandleLock() {
+    HandleLock lock = this.handleLock;
+    if (lock==null) {
+      LOCK_UPDATER.compareAndSet(this, null, new HandleLock());
+      lock = this.handleLock;
+    }
+    return lock;
+  }
+
   @Override
   public <R> R _lockHandleAccess(HandleAccess<HANDLE.ByValue, R> handleAccess) {
-    return AccessController.doPrivileged((PrivilegedAction<R>) () -> {
-      Lock lock = JNAGCUtil.getHandleLock(HANDLE64.this);
+    return JNAGCUtil.doPrivileged(() -> {
+      HandleLock lock = getHandleLock();
       lock.lock();
       try {
         checkDisposed();
 
-        HANDLE64.ByValue newHdl = new HANDLE64.ByValue(this.getValue());
-        return handleAccess.accessLockedHandle(newHdl);
+        long value = this.getValue();
+        HANDLE64.ByValue hdl = this.lockedValue;
+        if (hdl==null || hdl.value!=value || hdl.isDisposed()) {
+          //callbacks may clear or free the handle they receive, so we only reuse it while it is unchanged
+          hdl = new HANDLE64.ByValue(value);
+          this.lockedValue = hdl;
+        }
+        return handleAccess.accessLockedHandle(hdl);
       } finally {
         lock.unlock();
       }
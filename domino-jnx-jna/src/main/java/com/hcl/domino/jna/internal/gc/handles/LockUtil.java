@@ -16,10 +16,11 @@
  */
 package com.hcl.domino.jna.internal.gc.handles;
 
-import java.security.AccessController;
-import java.security.PrivilegedAction;
+import com.hcl.domino.jna.internal.gc.JNAGCUtil;
 
 public class LockUtil {
+	/** shared stateless replacement for null handles */
+	private static final NullHandle<?, ?> NULL_HANDLE = new NullHandle<>();
 
 	/**
 	 * Method to lock one handle
@@ -33,7 +34,7 @@ public class LockUtil {
 	 */
 	public static <T1, T1BYVAL, R> R lockHandle(IHANDLEBase<T1,T1BYVAL> handle1, HandleAccess<T1BYVAL,R> callback) {
 		if (handle1==null || handle1.isNull()) {
-			handle1 = new NullHandle<>();
+			handle1 = nullHandle();
 		}
 		final IHANDLEBase<T1,T1BYVAL> fHandle1 = handle1;
 		
@@ -59,10 +60,10 @@ public class LockUtil {
 			HandleAccess2<T1BYVAL,T2BYVAL,R> callback) {
 		
 		if (handle1==null || handle1.isNull()) {
-			handle1 = new NullHandle<>();
+			handle1 = nullHandle();
 		}
 		if (handle2==null || handle2.isNull()) {
-			handle2 = new NullHandle<>();
+			handle2 = nullHandle();
 		}
 		final IHANDLEBase<T1,T1BYVAL> fHandle1 = handle1;
 		final IHANDLEBase<T2,T2BYVAL> fHandle2 = handle2;
@@ -94,13 +95,13 @@ public class LockUtil {
 			IHANDLEBase<T3,T3BYVAL> handle3, HandleAccess3<T1BYVAL,T2BYVAL,T3BYVAL,R> callback) {
 		
 		if (handle1==null || handle1.isNull()) {
-			handle1 = new NullHandle<>();
+			handle1 = nullHandle();
 		}
 		if (handle2==null || handle2.isNull()) {
-			handle2 = new NullHandle<>();
+			handle2 = nullHandle();
 		}
 		if (handle3==null || handle3.isNull()) {
-			handle3 = new NullHandle<>();
+			handle3 = nullHandle();
 		}
 		
 		final IHANDLEBase<T1,T1BYVAL> fHandle1 = handle1;
@@ -144,16 +145,16 @@ public class LockUtil {
 			HandleAccess4<T1BYVAL,T2BYVAL,T3BYVAL,T4BYVAL, R> callback) {
 		
 		if (handle1==null || handle1.isNull()) {
-			handle1 = new NullHandle<>();
+			handle1 = nullHandle();
 		}
 		if (handle2==null || handle2.isNull()) {
-			handle2 = new NullHandle<>();
+			handle2 = nullHandle();
 		}
 		if (handle3==null || handle3.isNull()) {
-			handle3 = new NullHandle<>();
+			handle3 = nullHandle();
 		}
 		if (handle4==null || handle4.isNull()) {
-			handle4 = new NullHandle<>();
+			handle4 = nullHandle();
 		}
 		
 		final IHANDLEBase<T1,T1BYVAL> fHandle1 = handle1;
@@ -173,11 +174,16 @@ public class LockUtil {
 	}
 	
 	
+	@SuppressWarnings("unchecked")
+	private static <LOCKTYPE, LOCKBYVALTYPE> IHANDLEBase<LOCKTYPE, LOCKBYVALTYPE> nullHandle() {
+		return (IHANDLEBase<LOCKTYPE, LOCKBYVALTYPE>) NULL_HANDLE;
+	}
+	
 	private static class NullHandle<LOCKTYPE, LOCKBYVALTYPE> implements IHANDLEBase<LOCKTYPE, LOCKBYVALTYPE> {
 
 		@Override
 		public <R> R _lockHandleAccess(HandleAccess<LOCKBYVALTYPE, R> handleAccess) {
-			return AccessController.doPrivileged((PrivilegedAction<R>) () -> handleAccess.accessLockedHandle(null));
+			return JNAGCUtil.doPrivileged(() -> handleAccess.accessLockedHandle(null));
 		}
 		
 		@Override
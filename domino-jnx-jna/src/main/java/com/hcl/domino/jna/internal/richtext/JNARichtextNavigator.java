@@ -22,6 +22,8 @@ import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Predicate;
+
 import com.hcl.domino.commons.gc.APIObjectAllocations;
 import com.hcl.domino.commons.gc.IAPIObject;
 import com.hcl.domino.commons.gc.IGCDominoClient;
@@ -217,11 +219,11 @@ public class JNARichtextNavigator extends BaseJNAAPIObject<JNARichtextNavigatorA
 		final List<RichTextRecord<?>> itemRecords = new ArrayList<>(500);
 
 		item.enumerateCDRecords((signature, cdRecordPtr, cdRecordLength) -> {
-			byte[] cdRecordDataArr = cdRecordPtr.getByteArray(0, cdRecordLength);
 			@SuppressWarnings("resource")
             DisposableMemory cdRecordDataMem = new DisposableMemory(cdRecordLength);
-			cdRecordDataMem.write(0, cdRecordDataArr, 0, cdRecordLength);
 			ByteBuffer data = cdRecordDataMem.getByteBuffer(0, cdRecordLength).order(ByteOrder.nativeOrder());
+			data.put(cdRecordPtr.getByteBuffer(0, cdRecordLength));
+			data.flip();
 
 			RichTextRecord<?> record = RichTextUtil.encapsulateRecord(signature, data);
 			itemRecords.add(record);
@@ -231,6 +233,35 @@ public class JNARichtextNavigator extends BaseJNAAPIObject<JNARichtextNavigatorA
 		return itemRecords;
 	}
 	
+	/**
+	 * Calls the consumer for each record of all items without copying the records.<br>
+	 * <br>
+	 * The records wrap the locked item value memory, so they are only valid until the
+	 * consumer returns. The current position of the navigator is not changed.
+	 * 
+	 * @param consumer consumer, returns false to stop
+	 */
+	@Override
+	public void forEachScopedRecord(Predicate<RichTextRecord<?>> consumer) {
+		checkDisposed();
+		
+		final boolean[] stopped = new boolean[1];
+		for (ItemHolder currItem : m_items) {
+			currItem.item.enumerateCDRecords((signature, cdRecordPtr, cdRecordLength) -> {
+				ByteBuffer data = cdRecordPtr.getByteBuffer(0, cdRecordLength).order(ByteOrder.nativeOrder());
+				if (consumer.test(RichTextUtil.encapsulateRecord(signature, data))) {
+					return Action.Continue;
+				}
+				stopped[0] = true;
+				return Action.Stop;
+			});
+			
+			if (stopped[0]) {
+				break;
+			}
+		}
+	}
+	
 	@Override
 	public boolean gotoLast() {
 		checkDisposed();
@@ -0,0 +1,602 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.internal.views;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.hcl.domino.commons.views.NotesCollectionStats;
+import com.hcl.domino.commons.views.ReadMask;
+import com.hcl.domino.data.ItemDataTypeConstants;
+import com.hcl.domino.jna.data.JNADominoDateTime;
+import com.hcl.domino.jna.internal.JNANotesConstants;
+import com.hcl.domino.jna.internal.NotesStringUtils;
+import com.hcl.domino.jna.internal.structs.NotesCollectionStatsStruct;
+import com.hcl.domino.misc.NotesConstants;
+import com.hcl.domino.util.JNXStringUtil;
+import com.sun.jna.Pointer;
+
+/**
+ * Flyweight cursor over the buffer returned by NIFReadEntries and related calls.<br>
+ * <br>
+ * Other than {@link NotesLookupResultBufferDecoder#decodeCollectionLookupResultBuffer(com.hcl.domino.jna.data.JNADominoCollection, Pointer, int, int, Set, short, String, int, com.hcl.domino.data.DominoDateTime, boolean, boolean, String)},
+ * the cursor does not create objects per entry. {@link #next()} only computes the
+ * offsets of the current entry, column values are decoded on demand, so scanning a large
+ * view and reading a few columns only costs the conversion of those columns.<br>
+ * <br>
+ * The cursor is only valid as long as the underlying buffer is locked, e.g. within the
+ * callback of {@link NotesLookupResultBufferDecoder#scanCollectionLookupResultBuffer(com.hcl.domino.jna.internal.gc.handles.DHANDLE, int, int, Set, short, int, boolean, java.util.function.Function)}.
+ * Values read from it must be copied if they are needed afterwards.<br>
+ * <br>
+ * Summary data read via {@link ReadMask#SUMMARY} is skipped by the cursor.
+ *
+ * @since 1.54.0
+ */
+public class NotesLookupResultBufferCursor {
+	private final Pointer m_bufferPtr;
+	private final Set<ReadMask> m_returnMask;
+	private final int m_numEntriesSkipped;
+	private final int m_numEntriesReturned;
+	private final short m_signalFlags;
+	private final int m_indexModifiedSequenceNo;
+	private final boolean m_convertDominoDateTimeToCalendar;
+	private final NotesCollectionStats m_stats;
+
+	private final boolean m_hasNoteId;
+	private final boolean m_hasUNID;
+	private final boolean m_hasNoteClass;
+	private final boolean m_hasSiblings;
+	private final boolean m_hasChildren;
+	private final boolean m_hasDescendants;
+	private final boolean m_hasAnyUnread;
+	private final boolean m_hasIndentLevels;
+	private final boolean m_hasScore;
+	private final boolean m_hasUnread;
+	private final boolean m_hasPosition;
+	private final boolean m_hasSummaryValues;
+	private final boolean m_hasSummary;
+
+	/** position of the next entry in the buffer */
+	private int m_nextEntryPos;
+	/** index of the current entry, -1 before the first call to {@link #next()} */
+	private int m_entryIndex = -1;
+
+	//offsets of the fields of the current entry, -1 if not in the buffer
+	private int m_noteIdPos;
+	private int m_unidPos;
+	private int m_noteClassPos;
+	private int m_siblingsPos;
+	private int m_childrenPos;
+	private int m_descendantsPos;
+	private int m_anyUnreadPos;
+	private int m_indentLevelsPos;
+	private int m_scorePos;
+	private int m_unreadPos;
+	private int m_positionPos;
+	private int m_summaryValuesPos;
+
+	//column data of the current entry, computed on first column access
+	private boolean m_columnsParsed;
+	private int m_columnCount;
+	private int[] m_columnTypes = new int[0];
+	private int[] m_columnValuePos = new int[0];
+	private int[] m_columnValueLengths = new int[0];
+
+	/**
+	 * Creates a new cursor
+	 *
+	 * @param bufferPtr pointer to the locked buffer, may be null if no entries have been returned
+	 * @param numEntriesSkipped entries skipped during collection scan
+	 * @param numEntriesReturned entries read during collection scan
+	 * @param returnMask bitmask used to fill the buffer with data
+	 * @param signalFlags signal flags returned by NIFReadEntries, e.g. whether we have more data to read
+	 * @param indexModifiedSequenceNo index modified sequence no
+	 * @param convertDominoDateTimeToCalendar true to convert {@link JNADominoDateTime} values to {@link Calendar} in {@link #getColumnValue(int)}
+	 */
+	public NotesLookupResultBufferCursor(Pointer bufferPtr, int numEntriesSkipped, int numEntriesReturned,
+			Set<ReadMask> returnMask, short signalFlags, int indexModifiedSequenceNo,
+			boolean convertDominoDateTimeToCalendar) {
+		m_bufferPtr = bufferPtr;
+		m_numEntriesSkipped = numEntriesSkipped;
+		m_numEntriesReturned = bufferPtr==null ? 0 : numEntriesReturned;
+		m_returnMask = returnMask;
+		m_signalFlags = signalFlags;
+		m_indexModifiedSequenceNo = indexModifiedSequenceNo;
+		m_convertDominoDateTimeToCalendar = convertDominoDateTimeToCalendar;
+
+		m_hasNoteId = returnMask.contains(ReadMask.NOTEID);
+		m_hasUNID = returnMask.contains(ReadMask.NOTEUNID);
+		m_hasNoteClass = returnMask.contains(ReadMask.NOTECLASS);
+		m_hasSiblings = returnMask.contains(ReadMask.INDEXSIBLINGS);
+		m_hasChildren = returnMask.contains(ReadMask.INDEXCHILDREN);
+		m_hasDescendants = returnMask.contains(ReadMask.INDEXDESCENDANTS);
+		m_hasAnyUnread = returnMask.contains(ReadMask.INDEXANYUNREAD);
+		m_hasIndentLevels = returnMask.contains(ReadMask.INDENTLEVELS);
+		m_hasScore = returnMask.contains(ReadMask.SCORE);
+		m_hasUnread = returnMask.contains(ReadMask.INDEXUNREAD);
+		m_hasPosition = returnMask.contains(ReadMask.INDEXPOSITION);
+		m_hasSummaryValues = returnMask.contains(ReadMask.SUMMARYVALUES);
+		m_hasSummary = returnMask.contains(ReadMask.SUMMARY);
+
+		if (bufferPtr!=null && returnMask.contains(ReadMask.COLLECTIONSTATS)) {
+			NotesCollectionStatsStruct tmpStats = NotesCollectionStatsStruct.newInstance(bufferPtr);
+			tmpStats.read();
+			m_stats = new NotesCollectionStats(tmpStats.TopLevelEntries, tmpStats.LastModifiedTime);
+			m_nextEntryPos = tmpStats.size();
+		}
+		else {
+			m_stats = null;
+		}
+	}
+
+	/**
+	 * Moves the cursor to the next entry
+	 *
+	 * @return true if there was another entry
+	 */
+	public boolean next() {
+		if (m_entryIndex+1 >= m_numEntriesReturned) {
+			m_entryIndex = m_numEntriesReturned;
+			return false;
+		}
+		m_entryIndex++;
+		m_columnsParsed = false;
+
+		int bufferPos = m_nextEntryPos;
+
+		m_noteIdPos = m_hasNoteId ? bufferPos : -1;
+		if (m_hasNoteId) {
+			bufferPos += 4;
+		}
+		m_unidPos = m_hasUNID ? bufferPos : -1;
+		if (m_hasUNID) {
+			bufferPos += 16;
+		}
+		m_noteClassPos = m_hasNoteClass ? bufferPos : -1;
+		if (m_hasNoteClass) {
+			bufferPos += 2;
+		}
+		m_siblingsPos = m_hasSiblings ? bufferPos : -1;
+		if (m_hasSiblings) {
+			bufferPos += 4;
+		}
+		m_childrenPos = m_hasChildren ? bufferPos : -1;
+		if (m_hasChildren) {
+			bufferPos += 4;
+		}
+		m_descendantsPos = m_hasDescendants ? bufferPos : -1;
+		if (m_hasDescendants) {
+			bufferPos += 4;
+		}
+		m_anyUnreadPos = m_hasAnyUnread ? bufferPos : -1;
+		if (m_hasAnyUnread) {
+			bufferPos += 2;
+		}
+		m_indentLevelsPos = m_hasIndentLevels ? bufferPos : -1;
+		if (m_hasIndentLevels) {
+			bufferPos += 2;
+		}
+		m_scorePos = m_hasScore ? bufferPos : -1;
+		if (m_hasScore) {
+			bufferPos += 2;
+		}
+		m_unreadPos = m_hasUnread ? bufferPos : -1;
+		if (m_hasUnread) {
+			bufferPos += 2;
+		}
+		m_positionPos = m_hasPosition ? bufferPos : -1;
+		if (m_hasPosition) {
+			short level = m_bufferPtr.getShort(bufferPos);
+			bufferPos += 4 * (level + 2);
+		}
+		m_summaryValuesPos = m_hasSummaryValues ? bufferPos : -1;
+		if (m_hasSummaryValues) {
+			//ITEM_VALUE_TABLE starts with the total length of the summary
+			bufferPos += m_bufferPtr.getShort(bufferPos) & 0xffff;
+		}
+		if (m_hasSummary) {
+			//ITEM_TABLE starts with the total length of the summary
+			bufferPos += m_bufferPtr.getShort(bufferPos) & 0xffff;
+		}
+
+		m_nextEntryPos = bufferPos;
+		return true;
+	}
+
+	/**
+	 * Returns the index of the current entry in the buffer
+	 *
+	 * @return index, starting at 0
+	 */
+	public int getEntryIndex() {
+		return m_entryIndex;
+	}
+
+	private void checkEntry() {
+		if (m_entryIndex<0 || m_entryIndex>=m_numEntriesReturned) {
+			throw new NoSuchElementException("Cursor is not positioned on an entry");
+		}
+	}
+
+	private int fieldPos(int pos, ReadMask mask) {
+		checkEntry();
+		if (pos==-1) {
+			throw new IllegalStateException("Read mask does not contain "+mask);
+		}
+		return pos;
+	}
+
+	/**
+	 * Returns the note id of the current entry
+	 *
+	 * @return note id
+	 */
+	public int getNoteId() {
+		return m_bufferPtr.getInt(fieldPos(m_noteIdPos, ReadMask.NOTEID));
+	}
+
+	/**
+	 * Returns the UNID of the current entry
+	 *
+	 * @return UNID
+	 */
+	public String getUNID() {
+		long[] unidLongs = m_bufferPtr.getLongArray(fieldPos(m_unidPos, ReadMask.NOTEUNID), 2);
+		return JNXStringUtil.toUNID(unidLongs[0], unidLongs[1]);
+	}
+
+	/**
+	 * Returns the note class of the current entry
+	 *
+	 * @return note class
+	 */
+	public int getNoteClass() {
+		return m_bufferPtr.getShort(fieldPos(m_noteClassPos, ReadMask.NOTECLASS)) & 0xffff;
+	}
+
+	/**
+	 * Returns the number of siblings of the current entry
+	 *
+	 * @return sibling count
+	 */
+	public int getSiblingCount() {
+		return m_bufferPtr.getInt(fieldPos(m_siblingsPos, ReadMask.INDEXSIBLINGS));
+	}
+
+	/**
+	 * Returns the number of direct children of the current entry
+	 *
+	 * @return child count
+	 */
+	public int getChildCount() {
+		return m_bufferPtr.getInt(fieldPos(m_childrenPos, ReadMask.INDEXCHILDREN));
+	}
+
+	/**
+	 * Returns the number of descendants of the current entry
+	 *
+	 * @return descendant count
+	 */
+	public int getDescendantCount() {
+		return m_bufferPtr.getInt(fieldPos(m_descendantsPos, ReadMask.INDEXDESCENDANTS));
+	}
+
+	/**
+	 * Returns whether the current entry or any of its descendants is unread
+	 *
+	 * @return true if unread
+	 */
+	public boolean isAnyUnread() {
+		return m_bufferPtr.getShort(fieldPos(m_anyUnreadPos, ReadMask.INDEXANYUNREAD)) == 1;
+	}
+
+	/**
+	 * Returns the indent levels of the current entry
+	 *
+	 * @return indent levels
+	 */
+	public int getIndentLevels() {
+		return m_bufferPtr.getShort(fieldPos(m_indentLevelsPos, ReadMask.INDENTLEVELS));
+	}
+
+	/**
+	 * Returns the fulltext search score of the current entry
+	 *
+	 * @return score
+	 */
+	public int getFTScore() {
+		return m_bufferPtr.getShort(fieldPos(m_scorePos, ReadMask.SCORE));
+	}
+
+	/**
+	 * Returns whether the current entry is unread
+	 *
+	 * @return true if unread
+	 */
+	public boolean isUnread() {
+		return m_bufferPtr.getShort(fieldPos(m_unreadPos, ReadMask.INDEXUNREAD)) == 1;
+	}
+
+	/**
+	 * Returns the collection position of the current entry
+	 *
+	 * @return position, e.g. [1, 2] for "1.2"
+	 */
+	public int[] getPosition() {
+		int pos = fieldPos(m_positionPos, ReadMask.INDEXPOSITION);
+		short level = m_bufferPtr.getShort(pos);
+		int[] posArr = new int[level+1];
+		m_bufferPtr.read(pos + 2 /* level */  + 2 /* MinLevel+MaxLevel */, posArr, 0, level+1);
+		return posArr;
+	}
+
+	/**
+	 * Reads the offsets of all column values of the current entry
+	 */
+	private void parseColumns() {
+		if (m_columnsParsed) {
+			return;
+		}
+		int tablePos = fieldPos(m_summaryValuesPos, ReadMask.SUMMARYVALUES);
+
+//		The information in a view summary of values is as follows:
+//
+//			ITEM_VALUE_TABLE containing header information (total length of summary, number of items in summary)
+//			WORD containing the length of item #1 (including data type)
+//			...
+//			USHORT containing the data type of item #1
+//			value of item #1
+//			....
+
+		int itemsCount = m_bufferPtr.getShort(tablePos + 2) & 0xffff;
+		if (m_columnTypes.length < itemsCount) {
+			m_columnTypes = new int[itemsCount];
+			m_columnValuePos = new int[itemsCount];
+			m_columnValueLengths = new int[itemsCount];
+		}
+
+		int lengthPos = tablePos + JNANotesConstants.itemValueTableSize;
+		int valuePos = lengthPos + 2 * itemsCount;
+		for (int j=0; j<itemsCount; j++) {
+			int itemValueLength = m_bufferPtr.getShort(lengthPos) & 0xffff;
+			lengthPos += 2;
+
+			if (itemValueLength == 0) {
+				//empty item, e.g. in a category row or a field missing in a response doc
+				m_columnTypes[j] = 0;
+				m_columnValuePos[j] = -1;
+				m_columnValueLengths[j] = 0;
+			}
+			else {
+				m_columnTypes[j] = m_bufferPtr.getShort(valuePos) & 0xffff;
+				m_columnValuePos[j] = valuePos + 2;
+				m_columnValueLengths[j] = itemValueLength - 2;
+				valuePos += itemValueLength;
+			}
+		}
+		m_columnCount = itemsCount;
+		m_columnsParsed = true;
+	}
+
+	/**
+	 * Returns the number of column values of the current entry
+	 *
+	 * @return column count
+	 */
+	public int getColumnCount() {
+		parseColumns();
+		return m_columnCount;
+	}
+
+	private void checkColumn(int col) {
+		parseColumns();
+		if (col<0 || col>=m_columnCount) {
+			throw new IndexOutOfBoundsException("Invalid column index "+col+", number of columns: "+m_columnCount);
+		}
+	}
+
+	/**
+	 * Returns the data type of a column value of the current entry
+	 *
+	 * @param col column index
+	 * @return data type, e.g. {@link ItemDataTypeConstants#TYPE_NUMBER}, or 0 if the column is empty
+	 */
+	public int getColumnType(int col) {
+		checkColumn(col);
+		return m_columnTypes[col];
+	}
+
+	/**
+	 * Checks whether a column value of the current entry is empty, e.g. in category rows
+	 *
+	 * @param col column index
+	 * @return true if empty
+	 */
+	public boolean isColumnEmpty(int col) {
+		return getColumnType(col) == 0;
+	}
+
+	/**
+	 * Returns the size of a column value of the current entry in bytes
+	 *
+	 * @param col column index
+	 * @return size without data type WORD
+	 */
+	public int getColumnValueLength(int col) {
+		checkColumn(col);
+		return m_columnValueLengths[col];
+	}
+
+	/**
+	 * Reads a number column value of the current entry without boxing
+	 *
+	 * @param col column index
+	 * @param defaultValue value to return if the column is empty or not a number
+	 * @return number, for number lists the first list entry
+	 */
+	public double getDouble(int col, double defaultValue) {
+		checkColumn(col);
+		switch (m_columnTypes[col]) {
+		case ItemDataTypeConstants.TYPE_NUMBER:
+			return m_bufferPtr.getDouble(m_columnValuePos[col]);
+		case ItemDataTypeConstants.TYPE_NUMBER_RANGE:
+			//RANGE header starts with the number of list entries
+			if ((m_bufferPtr.getShort(m_columnValuePos[col]) & 0xffff) > 0) {
+				return m_bufferPtr.getDouble(m_columnValuePos[col] + JNANotesConstants.rangeSize);
+			}
+			return defaultValue;
+		default:
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Reads a number column value of the current entry without boxing
+	 *
+	 * @param col column index
+	 * @return number, for number lists the first list entry; 0 if the column is empty or not a number
+	 */
+	public double getDouble(int col) {
+		return getDouble(col, 0);
+	}
+
+	/**
+	 * Reads a text column value of the current entry
+	 *
+	 * @param col column index
+	 * @return string, for text lists the first list entry; null if the column is empty or not text
+	 */
+	public String getString(int col) {
+		checkColumn(col);
+		int valuePos = m_columnValuePos[col];
+		switch (m_columnTypes[col]) {
+		case ItemDataTypeConstants.TYPE_TEXT: {
+			int len = m_columnValueLengths[col];
+			return len==0 ? "" : NotesStringUtils.fromLMBCS(m_bufferPtr.share(valuePos), len); //$NON-NLS-1$
+		}
+		case ItemDataTypeConstants.TYPE_TEXT_LIST: {
+			if (m_columnValueLengths[col]==0) {
+				return null;
+			}
+			//LIST header with the number of entries, followed by the WORD lengths and the strings
+			int listEntries = m_bufferPtr.getShort(valuePos) & 0xffff;
+			if (listEntries==0) {
+				return null;
+			}
+			int len = m_bufferPtr.getShort(valuePos + 2) & 0xffff;
+			return len==0 ? "" : NotesStringUtils.fromLMBCS(m_bufferPtr.share(valuePos + 2 + 2 * listEntries), len); //$NON-NLS-1$
+		}
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Decodes a column value of the current entry
+	 *
+	 * @param col column index
+	 * @return value as it would be returned in the column values of a decoded collection entry, null if the column is empty
+	 */
+	public Object getColumnValue(int col) {
+		checkColumn(col);
+		int dataType = m_columnTypes[col];
+		if (dataType == 0) {
+			return null;
+		}
+		if (dataType == ItemDataTypeConstants.TYPE_TEXT_LIST && m_columnValueLengths[col]==0) {
+			return Collections.emptyList();
+		}
+		return NotesLookupResultBufferDecoder.decodeItemValue(dataType, m_bufferPtr.share(m_columnValuePos[col]),
+				m_columnValueLengths[col], false, m_convertDominoDateTimeToCalendar);
+	}
+
+	/**
+	 * Returns view statistics, if they have been requested via the
+	 * read mask {@link ReadMask#COLLECTIONSTATS}
+	 *
+	 * @return statistics or null
+	 */
+	public NotesCollectionStats getStats() {
+		return m_stats;
+	}
+
+	/**
+	 * Returns the read mask used to fill the buffer
+	 *
+	 * @return read mask
+	 */
+	public Set<ReadMask> getReturnMask() {
+		return m_returnMask;
+	}
+
+	/**
+	 * Returns the number of view entries skipped
+	 *
+	 * @return skip count
+	 */
+	public int getSkipCount() {
+		return m_numEntriesSkipped;
+	}
+
+	/**
+	 * Returns the number of view entries in the buffer
+	 *
+	 * @return return count
+	 */
+	public int getReturnCount() {
+		return m_numEntriesReturned;
+	}
+
+	/**
+	 * Returns the index modified sequence number, which is increased on every index change.
+	 *
+	 * @return number
+	 */
+	public int getIndexModifiedSequenceNo() {
+		return m_indexModifiedSequenceNo;
+	}
+
+	/**
+	 * End of collection has not been reached because the return buffer is too full.
+	 * The NIFReadEntries call should be repeated to continue reading the desired entries.
+	 *
+	 * @return true if more to do
+	 */
+	public boolean hasMoreToDo() {
+		return (m_signalFlags & NotesConstants.SIGNAL_MORE_TO_DO) == NotesConstants.SIGNAL_MORE_TO_DO;
+	}
+
+	/**
+	 * Collection is not up to date.
+	 *
+	 * @return true if database was modified
+	 */
+	public boolean isDatabaseModified() {
+		return (m_signalFlags & NotesConstants.SIGNAL_DATABASE_MODIFIED) == NotesConstants.SIGNAL_DATABASE_MODIFIED;
+	}
+
+	/**
+	 * Returns the raw signal flags returned by the lookup
+	 *
+	 * @return signal flags
+	 */
+	public short getSignalFlags() {
+		return m_signalFlags;
+	}
+}
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.Function;
 
 import com.hcl.domino.DominoException;
 import com.hcl.domino.commons.data.AbstractTypedAccess;
@@ -107,6 +108,45 @@ public class NotesLookupResultBufferDecoder {
 		});
 	}
 	
+	/**
+	 * Scans the buffer with a {@link NotesLookupResultBufferCursor} instead of decoding all
+	 * entries. The buffer stays locked while the consumer runs and gets freed afterwards.
+	 * 
+	 * @param <T> result type
+	 * @param bufferHandle buffer handle or null if no data has been returned
+	 * @param numEntriesSkipped entries skipped during collection scan
+	 * @param numEntriesReturned entries read during collection scan
+	 * @param returnMask bitmask used to fill the buffer with data
+	 * @param signalFlags signal flags returned by NIFReadEntries, e.g. whether we have more data to read
+	 * @param indexModifiedSequenceNo index modified sequence no
+	 * @param convertDominoDateTimeToCalendar true to convert {@link JNADominoDateTime} values to {@link Calendar}
+	 * @param consumer function to process the entries
+	 * @return result of the consumer
+	 * @since 1.54.0
+	 */
+	public static <T> T scanCollectionLookupResultBuffer(DHANDLE bufferHandle, int numEntriesSkipped,
+			int numEntriesReturned, Set<ReadMask> returnMask, short signalFlags, int indexModifiedSequenceNo,
+			boolean convertDominoDateTimeToCalendar, Function<NotesLookupResultBufferCursor, T> consumer) {
+		
+		if (bufferHandle==null || bufferHandle.isNull()) {
+			return consumer.apply(new NotesLookupResultBufferCursor(null, numEntriesSkipped, numEntriesReturned,
+					returnMask, signalFlags, indexModifiedSequenceNo, convertDominoDateTimeToCalendar));
+		}
+		
+		return LockUtil.lockHandle(bufferHandle, (handleByVal) -> {
+			Pointer bufferPtr = Mem.OSLockObject(handleByVal);
+			try {
+				return consumer.apply(new NotesLookupResultBufferCursor(bufferPtr, numEntriesSkipped, numEntriesReturned,
+						returnMask, signalFlags, indexModifiedSequenceNo, convertDominoDateTimeToCalendar));
+			}
+			finally {
+				Mem.OSUnlockObject(handleByVal);
+				short result = Mem.OSMemFree(handleByVal);
+				NotesErrorUtils.checkResult(result);
+			}
+		});
+	}
+	
 	/**
 	 * Decodes the buffer
 	 * 
@@ -451,6 +491,48 @@ public class NotesLookupResultBufferDecoder {
 		return data;
 	}
 
+	/**
+	 * Decodes a single item value of a summary buffer
+	 * 
+	 * @param dataType data type of the value, e.g. {@link ItemDataTypeConstants#TYPE_TEXT}
+	 * @param valuePtr pointer to the value data after the data type WORD
+	 * @param valueLength length of the value data
+	 * @param convertStringsLazily true to delay string conversion until the first use
+	 * @param convertJNADominoDateTimeToCalendar true to convert {@link JNADominoDateTime} values to {@link Calendar}
+	 * @return decoded value or null for unsupported data types
+	 */
+	@SuppressWarnings("deprecation")
+	static Object decodeItemValue(int dataType, Pointer valuePtr, int valueLength,
+			boolean convertStringsLazily, boolean convertJNADominoDateTimeToCalendar) {
+		switch(dataType) {
+		case ItemDataTypeConstants.TYPE_TEXT:
+			return ItemDecoder.decodeTextValue(valuePtr, valueLength, convertStringsLazily);
+		case ItemDataTypeConstants.TYPE_TEXT_LIST:
+			//read a text list item value
+			return valueLength==0 ? Collections.emptyList() : ItemDecoder.decodeTextListValue(valuePtr, convertStringsLazily);
+		case ItemDataTypeConstants.TYPE_NUMBER:
+			return ItemDecoder.decodeNumber(valuePtr, valueLength);
+		case ItemDataTypeConstants.TYPE_TIME:
+			if (convertJNADominoDateTimeToCalendar) {
+				return ItemDecoder.decodeTimeDate(valuePtr, valueLength);
+			}
+			else {
+				return ItemDecoder.decodeTimeDateAsNotesTimeDate(valuePtr, valueLength);
+			}
+		case ItemDataTypeConstants.TYPE_NUMBER_RANGE:
+			return ItemDecoder.decodeNumberList(valuePtr, valueLength);
+		case ItemDataTypeConstants.TYPE_TIME_RANGE:
+			if (convertJNADominoDateTimeToCalendar) {
+				return ItemDecoder.decodeTimeDateList(valuePtr);
+			}
+			else {
+				return ItemDecoder.decodeTimeDateListAsNotesTimeDate(valuePtr);
+			}
+		default:
+			return null;
+		}
+	}
+
 	/**
 	 * This utility method extracts the item values from the buffer
 	 * 
@@ -462,7 +544,6 @@ public class NotesLookupResultBufferDecoder {
 	 * @param convertJNADominoDateTimeToCalendar true to convert {@link JNADominoDateTime} values to {@link Calendar}
 	 * @param decodeAllValues true to decode all values in the buffer
 	 */
-	@SuppressWarnings("deprecation")
 	private static void populateItemValueTableData(Pointer bufferPtr, int itemsCount,
 			int[] itemNameLengths, int[] itemValueLengths, ItemValueTableDataImpl retData, boolean convertStringsLazily,
 			boolean convertJNADominoDateTimeToCalendar, boolean decodeAllValues) {
@@ -504,44 +585,8 @@ public class NotesLookupResultBufferDecoder {
 				if (decodeAllValues) {
 					int itemValueBufferSizeAsInt = (int) (itemValueBufferSizes[j] & 0xffffffff);
 
-					switch(itemDataTypes[j]) {
-					  case ItemDataTypeConstants.TYPE_TEXT:
-					    Object strVal = ItemDecoder.decodeTextValue(itemValueBufferPointers[j], itemValueBufferSizeAsInt, convertStringsLazily);
-                        decodedItemValues[j] = strVal;
-                        break;
-					  case ItemDataTypeConstants.TYPE_TEXT_LIST:
-                        //read a text list item value
-                        List<Object> listValues = itemValueBufferSizeAsInt==0 ? Collections.emptyList() : ItemDecoder.decodeTextListValue(itemValueBufferPointers[j], convertStringsLazily);
-                        decodedItemValues[j]  = listValues;
-					    break;
-					  case ItemDataTypeConstants.TYPE_NUMBER:
-                        double numVal = ItemDecoder.decodeNumber(itemValueBufferPointers[j], itemValueBufferSizeAsInt);
-                        decodedItemValues[j] = numVal;
-					    break;
-					  case ItemDataTypeConstants.TYPE_TIME:
-                        if (convertJNADominoDateTimeToCalendar) {
-                          Calendar cal = ItemDecoder.decodeTimeDate(itemValueBufferPointers[j], itemValueBufferSizeAsInt);
-                          decodedItemValues[j] = cal;
-                        } else {
-                          DominoDateTime td = ItemDecoder.decodeTimeDateAsNotesTimeDate(itemValueBufferPointers[j], itemValueBufferSizeAsInt);
-                          decodedItemValues[j] = td;
-                        }
-					    break;
-					  case ItemDataTypeConstants.TYPE_NUMBER_RANGE:
-					    List<Object> numberList = ItemDecoder.decodeNumberList(itemValueBufferPointers[j], itemValueBufferSizeAsInt);
-                        decodedItemValues[j]  = numberList;
-					    break;
-					  case ItemDataTypeConstants.TYPE_TIME_RANGE:
-					    List<Object> calendarValues;
-                        if (convertJNADominoDateTimeToCalendar) {
-                            calendarValues = ItemDecoder.decodeTimeDateList(itemValueBufferPointers[j]);
-                        }
-                        else {
-                            calendarValues = ItemDecoder.decodeTimeDateListAsNotesTimeDate(itemValueBufferPointers[j]);
-                        }
-                        decodedItemValues[j] = calendarValues;
-					    break;
-					}
+					decodedItemValues[j] = decodeItemValue(itemDataTypes[j], itemValueBufferPointers[j],
+							itemValueBufferSizeAsInt, convertStringsLazily, convertJNADominoDateTimeToCalendar);
 				}
 			}
 		}
@@ -568,7 +613,6 @@ public class NotesLookupResultBufferDecoder {
 	 * @param convertJNADominoDateTimeToCalendar true to convert {@link JNADominoDateTime} values to {@link Calendar}
 	 * @param decodeAllValues true to decode all values in the buffer
 	 */
-	@SuppressWarnings("deprecation")
 	private static void populateItemValueTableLargeData(Pointer bufferPtr, int itemsCount,
 			int[] itemNameLengths, int[] itemValueLengths, ItemValueTableDataImpl retData, boolean convertStringsLazily,
 			boolean convertJNADominoDateTimeToCalendar, boolean decodeAllValues) {
@@ -613,44 +657,8 @@ public class NotesLookupResultBufferDecoder {
 					}
 					int itemValueBufferSizeAsInt = (int) (itemValueBufferSizes[j] & 0xffffffff);
 					
-					switch(itemDataTypes[j]) {
-					  case ItemDataTypeConstants.TYPE_TEXT:
-					    Object strVal = ItemDecoder.decodeTextValue(itemValueBufferPointers[j], itemValueBufferSizeAsInt, convertStringsLazily);
-                        decodedItemValues[j] = strVal;
-                        break;
-					  case ItemDataTypeConstants.TYPE_TEXT_LIST:
-					    //read a text list item value
-                        List<Object> listValues = itemValueBufferSizeAsInt==0 ? Collections.emptyList() : ItemDecoder.decodeTextListValue(itemValueBufferPointers[j], convertStringsLazily);
-                        decodedItemValues[j]  = listValues;
-					    break;
-					  case ItemDataTypeConstants.TYPE_NUMBER:
-					    double numVal = ItemDecoder.decodeNumber(itemValueBufferPointers[j], itemValueBufferSizeAsInt);
-                        decodedItemValues[j] = numVal;
-					    break;
-					  case ItemDataTypeConstants.TYPE_TIME:
-                        if (convertJNADominoDateTimeToCalendar) {
-                          Calendar cal = ItemDecoder.decodeTimeDate(itemValueBufferPointers[j], itemValueBufferSizeAsInt);
-                          decodedItemValues[j] = cal;
-                        } else {
-                          DominoDateTime td = ItemDecoder.decodeTimeDateAsNotesTimeDate(itemValueBufferPointers[j], itemValueBufferSizeAsInt);
-                          decodedItemValues[j] = td;
-                        }
-					    break;
-					  case ItemDataTypeConstants.TYPE_NUMBER_RANGE:
-					    List<Object> numberList = ItemDecoder.decodeNumberList(itemValueBufferPointers[j], itemValueBufferSizeAsInt);
-                        decodedItemValues[j]  = numberList;
-					    break;
-					  case ItemDataTypeConstants.TYPE_TIME_RANGE:
-					    List<Object> calendarValues;
-                        if (convertJNADominoDateTimeToCalendar) {
-                            calendarValues = ItemDecoder.decodeTimeDateList(itemValueBufferPointers[j]);
-                        }
-                        else {
-                            calendarValues = ItemDecoder.decodeTimeDateListAsNotesTimeDate(itemValueBufferPointers[j]);
-                        }
-                        decodedItemValues[j] = calendarValues;
-					    break;
-					}
+					decodedItemValues[j] = decodeItemValue(itemDataTypes[j], itemValueBufferPointers[j],
+							itemValueBufferSizeAsInt, convertStringsLazily, convertJNADominoDateTimeToCalendar);
 				}
 			}
 		}
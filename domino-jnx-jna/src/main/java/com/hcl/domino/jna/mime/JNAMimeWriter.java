@@ -207,6 +207,7 @@ public class JNAMimeWriter extends JNAMimeBase implements MimeWriter {
 			}
 			finally {
 				disposeMimeStream(mimeStreamPtr);
+				jnaDoc.invalidateItemValueCache();
 			}
 		}
 	}
@@ -317,6 +318,7 @@ public class JNAMimeWriter extends JNAMimeBase implements MimeWriter {
 			
 			return null;
 		});
+		jnaDoc.invalidateItemValueCache();
 	}
 	
 }
@@ -27,9 +27,10 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
+import com.hcl.domino.jna.internal.DisposableMemory;
+import com.hcl.domino.jna.internal.LMBCSCodec;
 import com.hcl.domino.jna.internal.NotesStringUtils;
 import com.hcl.domino.jna.internal.NotesStringUtils.LineBreakConversion;
-import com.sun.jna.Memory;
 
 public class LMBCSCharsetProvider extends CharsetProvider {
   public static final String NAME = "LMBCS"; //$NON-NLS-1$
@@ -69,48 +70,268 @@ public class LMBCSCharsetProvider extends CharsetProvider {
 
 		@Override
 		public CharsetDecoder newDecoder() {
-			return new CharsetDecoder(this, 1, 2) {
-				@Override
-				protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out) {
-					if(!in.hasRemaining()) {
-						return CoderResult.UNDERFLOW;
+			return new LMBCSDecoder(this);
+		}
+
+		@Override
+		public CharsetEncoder newEncoder() {
+			return new LMBCSEncoder(this, addNull, lineBreakConv);
+		}
+		
+	}
+
+	/**
+	 * Incremental LMBCS decoder. Incomplete multibyte sequences at the end of the input
+	 * buffer are left in place, so that they are decoded together with the next chunk of data.
+	 */
+	private static class LMBCSDecoder extends CharsetDecoder {
+		private final byte[] seq = new byte[LMBCSCodec.MAX_SEQUENCE_LENGTH];
+		private final String lineDelimiter = NotesStringUtils.getLineDelimiter();
+		
+		LMBCSDecoder(Charset cs) {
+			super(cs, 1, 2);
+		}
+		
+		@Override
+		protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out) {
+			if (!LMBCSCodec.isEnabled()) {
+				return decodeNative(in, out);
+			}
+			
+			while (in.hasRemaining()) {
+				int pos = in.position();
+				byte b = in.get(pos);
+				if (b >= 0x20) {
+					// printable 7 bit ASCII
+					if (!out.hasRemaining()) {
+						return CoderResult.OVERFLOW;
+					}
+					out.put((char) b);
+					in.position(pos + 1);
+					continue;
+				}
+				
+				int avail = peek(in);
+				int result = LMBCSCodec.decodeNext(seq, 0, avail);
+				if (result == LMBCSCodec.UNDERFLOW) {
+					return CoderResult.UNDERFLOW;
+				}
+				else if (result == LMBCSCodec.UNMAPPABLE) {
+					int seqLen = LMBCSCodec.getSequenceLength(seq, 0, avail);
+					if (seqLen < 0) {
+						return CoderResult.malformedForLength(1);
+					}
+					// e.g. code page not available in the JVM
+					String decoded = NotesStringUtils.fromLMBCS(Arrays.copyOf(seq, seqLen));
+					if (out.remaining() < decoded.length()) {
+						return CoderResult.OVERFLOW;
 					}
-					byte[] bytes = new byte[in.remaining()];
-					in.get(bytes, 0, in.remaining());
-					String decoded = NotesStringUtils.fromLMBCS(bytes);
 					out.put(decoded);
+					in.position(pos + seqLen);
+					continue;
+				}
+				
+				char c = (char) (result & 0xffff);
+				int consumed = result >>> 16;
+				if (c == 0 && consumed == 1) {
+					if (out.remaining() < lineDelimiter.length()) {
+						return CoderResult.OVERFLOW;
+					}
+					out.put(lineDelimiter);
+				}
+				else {
+					if (!out.hasRemaining()) {
+						return CoderResult.OVERFLOW;
+					}
+					out.put(c);
+				}
+				in.position(pos + consumed);
+			}
+			return CoderResult.UNDERFLOW;
+		}
+		
+		/**
+		 * Decodes the longest run of complete sequences that is guaranteed to fit into the
+		 * output buffer with a single call to {@code OSTranslate32}
+		 */
+		private CoderResult decodeNative(ByteBuffer in, CharBuffer out) {
+			while (in.hasRemaining()) {
+				int start = in.position();
+				int len = 0;
+				boolean incomplete = false;
+				while (len < in.remaining()) {
+					in.position(start + len);
+					int avail = peek(in);
+					int seqLen = LMBCSCodec.getSequenceLength(seq, 0, avail);
+					if (seqLen == LMBCSCodec.UNMAPPABLE) {
+						if (len == 0) {
+							in.position(start);
+							return CoderResult.malformedForLength(1);
+						}
+						break;
+					}
+					else if (seqLen == LMBCSCodec.UNDERFLOW) {
+						incomplete = true;
+						break;
+					}
+					else if ((len + seqLen) * 2 > out.remaining()) {
+						// a null byte may expand to two chars
+						break;
+					}
+					len += seqLen;
+				}
+				in.position(start);
+				
+				if (len == 0) {
+					return incomplete ? CoderResult.UNDERFLOW : CoderResult.OVERFLOW;
+				}
+				byte[] chunk = new byte[len];
+				in.get(chunk);
+				out.put(NotesStringUtils.fromLMBCS(chunk));
+				if (incomplete) {
 					return CoderResult.UNDERFLOW;
 				}
-			};
+			}
+			return CoderResult.UNDERFLOW;
 		}
-
+		
+		/**
+		 * Copies up to {@link LMBCSCodec#MAX_SEQUENCE_LENGTH} bytes from the current position
+		 * into {@link #seq} without changing the buffer position
+		 */
+		private int peek(ByteBuffer in) {
+			int pos = in.position();
+			int avail = Math.min(in.remaining(), seq.length);
+			for (int i = 0; i < avail; i++) {
+				seq[i] = in.get(pos + i);
+			}
+			return avail;
+		}
+	}
+	
+	/**
+	 * Incremental LMBCS encoder. A trailing carriage return is kept as state between calls
+	 * to recognize CRLF line breaks that are split across input buffers. The null terminator
+	 * of the null-terminated variants is written once in {@link #implFlush(ByteBuffer)}.
+	 */
+	private static class LMBCSEncoder extends CharsetEncoder {
+		private final boolean addNull;
+		private final LineBreakConversion lineBreakConv;
+		private final byte[] encodedChar = new byte[LMBCSCodec.MAX_BYTES_PER_CHAR];
+		private boolean pendingCR;
+		
+		LMBCSEncoder(Charset cs, boolean addNull, LineBreakConversion lineBreakConv) {
+			// reserve space for the null terminator written on flush
+			super(cs, 1, addNull ? LMBCSCodec.MAX_BYTES_PER_CHAR + 1 : LMBCSCodec.MAX_BYTES_PER_CHAR);
+			this.addNull = addNull;
+			this.lineBreakConv = lineBreakConv;
+		}
+		
 		@Override
-		public CharsetEncoder newEncoder() {
-			return new CharsetEncoder(this, 1, 3) {
-				@Override
-				protected CoderResult encodeLoop(CharBuffer in, ByteBuffer out) {
-					if(!in.hasRemaining()) {
-						return CoderResult.UNDERFLOW;
+		protected CoderResult encodeLoop(CharBuffer in, ByteBuffer out) {
+			while (in.hasRemaining()) {
+				int pos = in.position();
+				char c = in.get(pos);
+				
+				if (lineBreakConv != LineBreakConversion.ORIGINAL) {
+					if (pendingCR) {
+						if (!out.hasRemaining()) {
+							return CoderResult.OVERFLOW;
+						}
+						pendingCR = false;
+						if (c == '\n') {
+							out.put(getLineBreakByte());
+							in.position(pos + 1);
+							continue;
+						}
+						out.put((byte) '\r');
+						if (!out.hasRemaining()) {
+							return CoderResult.OVERFLOW;
+						}
+					}
+					if (c == '\r') {
+						pendingCR = true;
+						in.position(pos + 1);
+						continue;
+					}
+					if (c == '\n') {
+						if (!out.hasRemaining()) {
+							return CoderResult.OVERFLOW;
+						}
+						out.put(getLineBreakByte());
+						in.position(pos + 1);
+						continue;
 					}
-					char[] chars = new char[in.remaining()];
-					in.get(chars);
-					
-					Memory encoded = NotesStringUtils.toLMBCS(new String(chars), addNull, lineBreakConv, false);
-					if(out.remaining() < encoded.size()) {
+				}
+				
+				if (c >= 0x20 && c < 0x80) {
+					if (!out.hasRemaining()) {
 						return CoderResult.OVERFLOW;
 					}
-					out.put(encoded.getByteBuffer(0, encoded.size()));
-					return CoderResult.UNDERFLOW;
+					out.put((byte) c);
+					in.position(pos + 1);
+					continue;
+				}
+				
+				if (LMBCSCodec.isEnabled()) {
+					int len = LMBCSCodec.encodeNext(c, encodedChar, 0);
+					if (len >= 0) {
+						if (out.remaining() < len) {
+							return CoderResult.OVERFLOW;
+						}
+						out.put(encodedChar, 0, len);
+						in.position(pos + 1);
+						continue;
+					}
 				}
 				
-				@Override
-				public boolean isLegalReplacement(byte[] repl) {
-					// TODO check if we should properly implement this
-					return true;
+				int runLen = 1;
+				if (Character.isHighSurrogate(c)) {
+					if (in.remaining() < 2) {
+						return CoderResult.UNDERFLOW;
+					}
+					runLen = 2;
+				}
+				try (DisposableMemory encoded = NotesStringUtils.toLMBCSNoCache(in.subSequence(0, runLen).toString(), false, LineBreakConversion.ORIGINAL)) {
+					if (out.remaining() < encoded.size()) {
+						return CoderResult.OVERFLOW;
+					}
+					out.put(encoded.getByteBuffer(0, encoded.size()));
 				}
-			};
+				in.position(pos + runLen);
+			}
+			return CoderResult.UNDERFLOW;
+		}
+		
+		private byte getLineBreakByte() {
+			return lineBreakConv == LineBreakConversion.NULL ? 0 : (byte) '\n';
+		}
+		
+		@Override
+		protected CoderResult implFlush(ByteBuffer out) {
+			if (out.remaining() < (pendingCR ? 1 : 0) + (addNull ? 1 : 0)) {
+				return CoderResult.OVERFLOW;
+			}
+			if (pendingCR) {
+				out.put((byte) '\r');
+				pendingCR = false;
+			}
+			if (addNull) {
+				out.put((byte) 0);
+			}
+			return CoderResult.UNDERFLOW;
 		}
 		
+		@Override
+		protected void implReset() {
+			pendingCR = false;
+		}
+		
+		@Override
+		public boolean isLegalReplacement(byte[] repl) {
+			// TODO check if we should properly implement this
+			return true;
+		}
 	}
 
 	@Override
@@ -675,6 +675,9 @@ public class JNARichtextWriter extends BaseJNAAPIObject<JNARichtextWriterAllocat
 		}
 		else {
 			allocations.closeItemContext();
+			if (m_parentDoc!=null) {
+				m_parentDoc.invalidateItemValueCache();
+			}
 		}
 	}
 	
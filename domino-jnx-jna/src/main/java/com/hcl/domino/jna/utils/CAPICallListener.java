@@ -0,0 +1,45 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.utils;
+
+/**
+ * Listener for C API calls while {@link CAPIMetrics} are enabled.<br>
+ * <br>
+ * Implementations can be registered via {@link CAPIMetrics#addListener(CAPICallListener)}
+ * or as a {@link java.util.ServiceLoader} service. Listeners are called on the thread
+ * that made the call and should return quickly.
+ *
+ * @since 1.54.0
+ */
+public interface CAPICallListener {
+
+	/**
+	 * Called after a C API function returned
+	 *
+	 * @param function name of the C API function
+	 * @param durationNanos duration of the call in nanoseconds
+	 */
+	void onCall(String function, long durationNanos);
+
+	/**
+	 * Called after a thread had to wait for a handle lock held by another thread
+	 *
+	 * @param waitNanos wait time in nanoseconds
+	 */
+	default void onHandleLockWait(long waitNanos) {
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.utils;
+
+import java.beans.ConstructorProperties;
+import java.text.MessageFormat;
+
+/**
+ * Immutable snapshot of the call count and latency of a C API function
+ *
+ * @since 1.54.0
+ */
+public class CAPIFunctionStats {
+	private final String m_name;
+	private final long m_count;
+	private final long m_totalNanos;
+	private final long m_maxNanos;
+	private final long m_p50Nanos;
+	private final long m_p90Nanos;
+	private final long m_p99Nanos;
+	private final long m_p999Nanos;
+
+	@ConstructorProperties({ "name", "count", "totalNanos", "maxNanos", "p50Nanos", "p90Nanos", "p99Nanos", "p999Nanos" })
+	public CAPIFunctionStats(String name, long count, long totalNanos, long maxNanos,
+			long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos) {
+		m_name = name;
+		m_count = count;
+		m_totalNanos = totalNanos;
+		m_maxNanos = maxNanos;
+		m_p50Nanos = p50Nanos;
+		m_p90Nanos = p90Nanos;
+		m_p99Nanos = p99Nanos;
+		m_p999Nanos = p999Nanos;
+	}
+
+	/**
+	 * Returns the name of the C API function
+	 *
+	 * @return name
+	 */
+	public String getName() {
+		return m_name;
+	}
+
+	/**
+	 * Returns the number of calls
+	 *
+	 * @return call count
+	 */
+	public long getCount() {
+		return m_count;
+	}
+
+	/**
+	 * Returns the cumulative duration of all calls
+	 *
+	 * @return duration in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return m_totalNanos;
+	}
+
+	/**
+	 * Returns the duration of the slowest call
+	 *
+	 * @return duration in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return m_maxNanos;
+	}
+
+	/**
+	 * Returns the median duration
+	 *
+	 * @return duration in nanoseconds
+	 */
+	public long getP50Nanos() {
+		return m_p50Nanos;
+	}
+
+	/**
+	 * Returns the duration below which 90% of the calls finished
+	 *
+	 * @return duration in nanoseconds
+	 */
+	public long getP90Nanos() {
+		return m_p90Nanos;
+	}
+
+	/**
+	 * Returns the duration below which 99% of the calls finished
+	 *
+	 * @return duration in nanoseconds
+	 */
+	public long getP99Nanos() {
+		return m_p99Nanos;
+	}
+
+	/**
+	 * Returns the duration below which 99.9% of the calls finished
+	 *
+	 * @return duration in nanoseconds
+	 */
+	public long getP999Nanos() {
+		return m_p999Nanos;
+	}
+
+	@Override
+	public String toString() {
+		return MessageFormat.format(
+				"CAPIFunctionStats [name={0}, count={1}, totalNanos={2}, maxNanos={3}, p50Nanos={4}, p99Nanos={5}]", //$NON-NLS-1$
+				m_name, m_count, m_totalNanos, m_maxNanos, m_p50Nanos, m_p99Nanos);
+	}
+}
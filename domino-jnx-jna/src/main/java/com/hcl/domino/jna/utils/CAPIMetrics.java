@@ -0,0 +1,220 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.utils;
+
+import java.lang.management.ManagementFactory;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.hcl.domino.commons.util.DominoUtils;
+import com.hcl.domino.jna.internal.LatencyHistogram;
+import com.hcl.domino.misc.JNXServiceFinder;
+
+/**
+ * Per-function call counts and latencies of the C API calls made through the
+ * {@code INotesCAPI} interfaces.<br>
+ * <br>
+ * Recording is enabled by setting the Java property {@code jnx.capi.metrics} or the
+ * environment variable {@code JNX_CAPI_METRICS} to {@code true} before the C API is
+ * first used. The C API interfaces are then wrapped in an instrumenting proxy, the
+ * statistics are published via JMX as {@value #OBJECT_NAME} and every call is passed
+ * to the registered {@link CAPICallListener}s.
+ *
+ * @since 1.54.0
+ */
+public class CAPIMetrics {
+	private static final Logger log = Logger.getLogger(CAPIMetrics.class.getPackage().getName());
+	
+	/** JMX name of the {@link CAPIMetricsMXBean} */
+	public static final String OBJECT_NAME = "com.hcl.domino.jnx:type=CAPIMetrics"; //$NON-NLS-1$
+	private static final String HANDLE_LOCK_WAIT = "HandleLockWait"; //$NON-NLS-1$
+	
+	private static final boolean m_enabled = DominoUtils.checkBooleanProperty("jnx.capi.metrics", "JNX_CAPI_METRICS"); //$NON-NLS-1$ //$NON-NLS-2$
+	private static final Map<String, LatencyHistogram> m_functions = new ConcurrentHashMap<>();
+	private static final LatencyHistogram m_handleLockWaits = new LatencyHistogram();
+	private static final List<CAPICallListener> m_listeners = new CopyOnWriteArrayList<>();
+	
+	static {
+		if (m_enabled) {
+			JNXServiceFinder.findServices(CAPICallListener.class).forEach(m_listeners::add);
+			registerMBean();
+		}
+	}
+	
+	private static void registerMBean() {
+		AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(new Management(), new ObjectName(OBJECT_NAME));
+			} catch (JMException | RuntimeException e) {
+				log.log(Level.WARNING, "Unable to register the C API metrics MBean", e);
+			}
+			return null;
+		});
+	}
+	
+	/**
+	 * @return true if C API calls are instrumented
+	 */
+	public static boolean isEnabled() {
+		return m_enabled;
+	}
+	
+	/**
+	 * Records a C API call
+	 * 
+	 * @param function name of the C API function
+	 * @param durationNanos duration of the call in nanoseconds
+	 */
+	public static void recordCall(String function, long durationNanos) {
+		LatencyHistogram histogram = m_functions.get(function);
+		if (histogram == null) {
+			histogram = m_functions.computeIfAbsent(function, name -> new LatencyHistogram());
+		}
+		histogram.record(durationNanos);
+		
+		for (CAPICallListener listener : m_listeners) {
+			try {
+				listener.onCall(function, durationNanos);
+			} catch (RuntimeException e) {
+				log.log(Level.WARNING, "Error in C API call listener", e);
+			}
+		}
+	}
+	
+	/**
+	 * Records the time a thread waited for a handle lock held by another thread
+	 * 
+	 * @param waitNanos wait time in nanoseconds
+	 */
+	public static void recordHandleLockWait(long waitNanos) {
+		m_handleLockWaits.record(waitNanos);
+		
+		for (CAPICallListener listener : m_listeners) {
+			try {
+				listener.onHandleLockWait(waitNanos);
+			} catch (RuntimeException e) {
+				log.log(Level.WARNING, "Error in C API call listener", e);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the statistics of all C API functions that have been called
+	 * 
+	 * @return stats, highest cumulative duration first
+	 */
+	public static List<CAPIFunctionStats> getFunctionStats() {
+		List<CAPIFunctionStats> stats = new ArrayList<>(m_functions.size());
+		m_functions.forEach((name, histogram) -> stats.add(toStats(name, histogram)));
+		return stats.stream()
+				.sorted(Comparator.comparingLong(CAPIFunctionStats::getTotalNanos).reversed())
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Returns the statistics of a single C API function
+	 * 
+	 * @param function name of the C API function
+	 * @return stats, with a count of 0 if the function has not been called
+	 */
+	public static CAPIFunctionStats getFunctionStats(String function) {
+		LatencyHistogram histogram = m_functions.get(function);
+		return toStats(function, histogram == null ? new LatencyHistogram() : histogram);
+	}
+	
+	/**
+	 * Returns the statistics of the waits for handle locks held by other threads
+	 * 
+	 * @return stats
+	 */
+	public static CAPIFunctionStats getHandleLockWaitStats() {
+		return toStats(HANDLE_LOCK_WAIT, m_handleLockWaits);
+	}
+	
+	/**
+	 * @return total number of recorded C API calls
+	 */
+	public static long getCallCount() {
+		return m_functions.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+	}
+	
+	/**
+	 * Clears all recorded values
+	 */
+	public static void reset() {
+		m_functions.clear();
+		m_handleLockWaits.reset();
+	}
+	
+	/**
+	 * Adds a listener for C API calls
+	 * 
+	 * @param listener listener
+	 */
+	public static void addListener(CAPICallListener listener) {
+		m_listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener added via {@link #addListener(CAPICallListener)}
+	 * 
+	 * @param listener listener
+	 */
+	public static void removeListener(CAPICallListener listener) {
+		m_listeners.remove(listener);
+	}
+	
+	private static CAPIFunctionStats toStats(String name, LatencyHistogram histogram) {
+		return new CAPIFunctionStats(name, histogram.getCount(), histogram.getTotal(), histogram.getMax(),
+				histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+				histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9));
+	}
+	
+	private static class Management implements CAPIMetricsMXBean {
+		@Override
+		public List<CAPIFunctionStats> getFunctionStats() {
+			return CAPIMetrics.getFunctionStats();
+		}
+		
+		@Override
+		public CAPIFunctionStats getHandleLockWaitStats() {
+			return CAPIMetrics.getHandleLockWaitStats();
+		}
+		
+		@Override
+		public long getCallCount() {
+			return CAPIMetrics.getCallCount();
+		}
+		
+		@Override
+		public void reset() {
+			CAPIMetrics.reset();
+		}
+	}
+}
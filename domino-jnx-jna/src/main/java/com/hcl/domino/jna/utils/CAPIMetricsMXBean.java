@@ -0,0 +1,48 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.utils;
+
+import java.util.List;
+
+/**
+ * Management interface for the {@link CAPIMetrics}, registered as
+ * {@value CAPIMetrics#OBJECT_NAME}
+ *
+ * @since 1.54.0
+ */
+public interface CAPIMetricsMXBean {
+
+	/**
+	 * @return call statistics of all C API functions that have been called, slowest cumulative duration first
+	 */
+	List<CAPIFunctionStats> getFunctionStats();
+
+	/**
+	 * @return statistics of the waits for handle locks held by other threads
+	 */
+	CAPIFunctionStats getHandleLockWaitStats();
+
+	/**
+	 * @return number of C API calls
+	 */
+	long getCallCount();
+
+	/**
+	 * Clears all recorded values
+	 */
+	void reset();
+}
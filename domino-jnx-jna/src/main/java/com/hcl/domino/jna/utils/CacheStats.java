@@ -0,0 +1,137 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.utils;
+
+import java.text.MessageFormat;
+
+/**
+ * Immutable snapshot of the usage statistics of an internal JNX cache
+ *
+ * @since 1.54.0
+ */
+public class CacheStats {
+	private final String m_name;
+	private final long m_hits;
+	private final long m_misses;
+	private final long m_evictions;
+	private final long m_rejections;
+	private final long m_weightedSize;
+	private final long m_maxWeightedSize;
+	private final int m_entryCount;
+
+	public CacheStats(String name, long hits, long misses, long evictions, long rejections,
+			long weightedSize, long maxWeightedSize, int entryCount) {
+		m_name = name;
+		m_hits = hits;
+		m_misses = misses;
+		m_evictions = evictions;
+		m_rejections = rejections;
+		m_weightedSize = weightedSize;
+		m_maxWeightedSize = maxWeightedSize;
+		m_entryCount = entryCount;
+	}
+
+	/**
+	 * Returns the name of the cache
+	 *
+	 * @return name
+	 */
+	public String getName() {
+		return m_name;
+	}
+
+	/**
+	 * Returns the number of lookups that found a value
+	 *
+	 * @return hit count
+	 */
+	public long getHits() {
+		return m_hits;
+	}
+
+	/**
+	 * Returns the number of lookups that did not find a value
+	 *
+	 * @return miss count
+	 */
+	public long getMisses() {
+		return m_misses;
+	}
+
+	/**
+	 * Returns the ratio of hits to all lookups
+	 *
+	 * @return hit rate between 0 and 1, 1 if there were no lookups
+	 */
+	public double getHitRate() {
+		long total = m_hits + m_misses;
+		return total == 0 ? 1.0 : (double) m_hits / total;
+	}
+
+	/**
+	 * Returns the number of cached entries that were removed to make room for new ones
+	 *
+	 * @return eviction count
+	 */
+	public long getEvictions() {
+		return m_evictions;
+	}
+
+	/**
+	 * Returns the number of new entries that were not admitted to the cache because
+	 * they were used less frequently than the entries they would have replaced
+	 *
+	 * @return rejection count
+	 */
+	public long getRejections() {
+		return m_rejections;
+	}
+
+	/**
+	 * Returns the current size of all entries as computed by the cache weigher
+	 * (approximately bytes)
+	 *
+	 * @return weighted size
+	 */
+	public long getWeightedSize() {
+		return m_weightedSize;
+	}
+
+	/**
+	 * Returns the maximum weighted size of the cache
+	 *
+	 * @return max size
+	 */
+	public long getMaxWeightedSize() {
+		return m_maxWeightedSize;
+	}
+
+	/**
+	 * Returns the number of entries in the cache
+	 *
+	 * @return entry count
+	 */
+	public int getEntryCount() {
+		return m_entryCount;
+	}
+
+	@Override
+	public String toString() {
+		return MessageFormat.format("CacheStats [name={0}, hits={1}, misses={2}, hitRate={3}, evictions={4}, rejections={5}, weightedSize={6}, maxWeightedSize={7}, entries={8}]", //$NON-NLS-1$
+				m_name, m_hits, m_misses, getHitRate(), m_evictions, m_rejections, m_weightedSize, m_maxWeightedSize, m_entryCount);
+	}
+}
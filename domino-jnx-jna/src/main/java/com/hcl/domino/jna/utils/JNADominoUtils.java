@@ -21,6 +21,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -32,6 +34,7 @@ import com.hcl.domino.DominoClient;
 import com.hcl.domino.admin.idvault.UserId;
 import com.hcl.domino.commons.util.NotesErrorUtils;
 import com.hcl.domino.jna.internal.DisposableMemory;
+import com.hcl.domino.jna.internal.LMBCSStringConversionCache;
 import com.hcl.domino.jna.internal.NotesStringUtils;
 import com.hcl.domino.jna.internal.capi.NotesCAPI;
 import com.hcl.domino.misc.NotesConstants;
@@ -149,4 +152,18 @@ public enum JNADominoUtils {
 			throw new UncheckedIOException(e);
 		}
 	}
+
+	/**
+	 * Returns the usage statistics of the internal caches for conversions between
+	 * Java strings and LMBCS.
+	 * 
+	 * @return list of cache stats
+	 * @since 1.54.0
+	 */
+	public static List<CacheStats> getStringConversionCacheStats() {
+		List<CacheStats> stats = new ArrayList<>();
+		stats.add(LMBCSStringConversionCache.getCacheStats());
+		stats.addAll(NotesStringUtils.getCacheStats());
+		return stats;
+	}
 }
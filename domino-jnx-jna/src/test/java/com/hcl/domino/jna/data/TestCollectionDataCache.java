@@ -0,0 +1,334 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.commons.data.DefaultDominoDateRange;
+import com.hcl.domino.commons.views.ReadMask;
+import com.hcl.domino.data.DominoDateTime;
+import com.hcl.domino.jna.data.CollectionDataCache.CacheState;
+import com.hcl.domino.jna.data.CollectionDataCache.CollectionIdentity;
+import com.hcl.domino.jna.data.JNACollectionEntry.CacheableViewEntryData;
+import com.hcl.domino.jna.internal.LMBCSString;
+import com.hcl.domino.jna.utils.CacheStats;
+
+@SuppressWarnings("nls")
+public class TestCollectionDataCache {
+  private static final CollectionIdentity IDENTITY = new CollectionIdentity("Server/ACME", "85257C8D0064A6A5",
+      "B0F6E5A5C2E7D3F085257C8D0064A6A6", (short) 0);
+  private static final Set<ReadMask> READ_MASK = EnumSet.of(ReadMask.NOTEID, ReadMask.SUMMARYVALUES);
+  private static final DominoDateTime DIFF_TIME = new JNADominoDateTime(new int[] { 0x00c0ffee, 0x12345678 });
+
+  private static JNACollectionEntry entry(int noteId, Object... columnValues) {
+    JNACollectionEntry entry = new JNACollectionEntry(null);
+    entry.setNoteID(noteId);
+    entry.setPosition(new int[] { noteId });
+    entry.setColumnValues(columnValues);
+    int[] sizes = new int[columnValues.length];
+    Arrays.fill(sizes, 10);
+    entry.setColumnValueSizesInBytes(sizes);
+    return entry;
+  }
+
+  private static List<JNACollectionEntry> entries(int fromNoteId, int toNoteId) {
+    List<JNACollectionEntry> entries = new ArrayList<>();
+    for (int noteId = fromNoteId; noteId <= toNoteId; noteId++) {
+      entries.add(entry(noteId, "Value " + noteId));
+    }
+    return entries;
+  }
+
+  private static JNACollectionEntry stub(int noteId) {
+    JNACollectionEntry entry = new JNACollectionEntry(null);
+    entry.setNoteID(noteId);
+    return entry;
+  }
+
+  private static List<Integer> cachedNoteIds(CollectionDataCache cache) {
+    return cachedNoteIds(cache, IDENTITY);
+  }
+
+  private static List<Integer> cachedNoteIds(CollectionDataCache cache, CollectionIdentity identity) {
+    List<Integer> noteIds = new ArrayList<>(cache.getCacheState(identity).getNoteIds());
+    Collections.sort(noteIds);
+    return noteIds;
+  }
+
+  private static byte[] snapshot(CollectionDataCache cache) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    cache.writeSnapshot(out);
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testSnapshotRoundTrip() throws IOException {
+    CollectionDataCache cache = new CollectionDataCache();
+    cache.addCacheValues(IDENTITY, READ_MASK, DIFF_TIME, entries(1, 5));
+    byte[] snapshot = snapshot(cache);
+
+    CollectionDataCache restored = new CollectionDataCache();
+    restored.restoreSnapshot(new ByteArrayInputStream(snapshot), IDENTITY);
+
+    Assertions.assertEquals(5, restored.size());
+    Assertions.assertEquals(cache.getSizeInBytes(), restored.getSizeInBytes());
+    CacheState state = restored.getCacheState(IDENTITY);
+    Assertions.assertEquals(READ_MASK, state.getReadMask());
+    Assertions.assertEquals(DIFF_TIME, state.getDiffTime());
+    Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5), cachedNoteIds(restored));
+
+    JNACollectionEntry stub = stub(3);
+    restored.populateEntryStubsWithData(Arrays.asList(stub));
+    Assertions.assertArrayEquals(new Object[] { "Value 3" }, stub.getColumnValues());
+    Assertions.assertEquals(1, restored.getStats().getHits());
+
+    // the restored cache writes the same snapshot again
+    Assertions.assertEquals(snapshot.length, snapshot(restored).length);
+  }
+
+  @Test
+  public void testSnapshotOfOtherCollectionRejected() throws IOException {
+    CollectionDataCache cache = new CollectionDataCache();
+    cache.addCacheValues(IDENTITY, READ_MASK, DIFF_TIME, entries(1, 5));
+    byte[] snapshot = snapshot(cache);
+
+    CollectionDataCache other = new CollectionDataCache();
+    CollectionIdentity otherView = new CollectionIdentity("Server/ACME", "85257C8D0064A6A5",
+        "0D5F7DAC5B6C5F9C85257C8D0064A6A7", (short) 0);
+    other.addCacheValues(otherView, READ_MASK, DIFF_TIME, entries(10, 11));
+
+    Assertions.assertThrows(IOException.class, () -> other.restoreSnapshot(new ByteArrayInputStream(snapshot), otherView));
+    Assertions.assertThrows(IOException.class, () -> other.restoreSnapshot(new ByteArrayInputStream(snapshot),
+        new CollectionIdentity("Server/ACME", "85257C8D0064A6A5", "B0F6E5A5C2E7D3F085257C8D0064A6A6", (short) 2)));
+    Assertions.assertThrows(IOException.class, () -> other.restoreSnapshot(new ByteArrayInputStream(snapshot),
+        new CollectionIdentity("", "85257C8D0064A6A5", "B0F6E5A5C2E7D3F085257C8D0064A6A6", (short) 0)));
+
+    // the rejected snapshot did not touch the cache content
+    Assertions.assertEquals(Arrays.asList(10, 11), cachedNoteIds(other, otherView));
+
+    // identities are compared case-insensitively
+    other.restoreSnapshot(new ByteArrayInputStream(snapshot), new CollectionIdentity("server/acme", "85257c8d0064a6a5",
+        "b0f6e5a5c2e7d3f085257c8d0064a6a6", (short) 0));
+    Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5), cachedNoteIds(other));
+  }
+
+  @Test
+  public void testSnapshotWithoutExpectedIdentity() throws IOException {
+    CollectionDataCache cache = new CollectionDataCache();
+    cache.addCacheValues(IDENTITY, READ_MASK, DIFF_TIME, entries(1, 3));
+
+    CollectionDataCache restored = new CollectionDataCache();
+    restored.restoreSnapshot(new ByteArrayInputStream(snapshot(cache)));
+    Assertions.assertEquals(Arrays.asList(1, 2, 3), cachedNoteIds(restored));
+
+    // the restored entries are not offered to another collection
+    CollectionIdentity otherDb = new CollectionIdentity("Server/ACME", "85257C8D00000000",
+        "B0F6E5A5C2E7D3F085257C8D0064A6A6", (short) 0);
+    Assertions.assertTrue(restored.getCacheState(otherDb).getNoteIds().isEmpty());
+  }
+
+  @Test
+  public void testInvalidSnapshot() throws IOException {
+    CollectionDataCache cache = new CollectionDataCache();
+    Assertions.assertThrows(IOException.class, () -> cache.restoreSnapshot(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 })));
+
+    // empty caches write snapshots without entries
+    CollectionDataCache restored = new CollectionDataCache();
+    restored.addCacheValues(IDENTITY, READ_MASK, DIFF_TIME, entries(1, 3));
+    restored.restoreSnapshot(new ByteArrayInputStream(snapshot(cache)), IDENTITY);
+    Assertions.assertEquals(0, restored.size());
+    Assertions.assertEquals(0, restored.getSizeInBytes());
+  }
+
+  @Test
+  public void testUnwritableEntriesLeftOut() throws IOException {
+    CollectionDataCache cache = new CollectionDataCache();
+    List<JNACollectionEntry> entries = entries(1, 2);
+    entries.add(entry(3, new StringBuilder("not writable")));
+    cache.addCacheValues(IDENTITY, READ_MASK, DIFF_TIME, entries);
+    Assertions.assertEquals(3, cache.size());
+
+    CollectionDataCache restored = new CollectionDataCache();
+    restored.restoreSnapshot(new ByteArrayInputStream(snapshot(cache)), IDENTITY);
+    Assertions.assertEquals(Arrays.asList(1, 2), cachedNoteIds(restored));
+  }
+
+  @Test
+  public void testLruEviction() {
+    CollectionDataCache cache = new CollectionDataCache(10);
+    cache.addCacheValues(IDENTITY, READ_MASK, DIFF_TIME, entries(1, 10));
+    Assertions.assertEquals(10, cache.size());
+
+    // reading note 1 makes it the most recently used entry
+    cache.populateEntryStubsWithData(Arrays.asList(stub(1)));
+    cache.addCacheValues(IDENTITY, READ_MASK, DIFF_TIME, entries(11, 11));
+
+    List<Integer> noteIds = cachedNoteIds(cache);
+    Assertions.assertTrue(noteIds.size() <= 10);
+    Assertions.assertTrue(noteIds.contains(1));
+    Assertions.assertTrue(noteIds.contains(11));
+    Assertions.assertFalse(noteIds.contains(2));
+
+    CacheStats stats = cache.getStats();
+    Assertions.assertEquals(11 - noteIds.size(), stats.getEvictions());
+    Assertions.assertEquals(noteIds.size(), stats.getEntryCount());
+
+    JNACollectionEntry evicted = stub(2);
+    cache.populateEntryStubsWithData(Arrays.asList(evicted));
+    Assertions.assertFalse(evicted.hasAnyColumnValues());
+    Assertions.assertEquals(1, cache.getStats().getMisses());
+  }
+
+  @Test
+  public void testByteWeightEviction() {
+    long entrySize = entry(1, "Value 1").getCacheableData().estimateSize();
+    CollectionDataCache cache = new CollectionDataCache(Integer.MAX_VALUE, entrySize * 20);
+
+    cache.addCacheValues(IDENTITY, READ_MASK, DIFF_TIME, entries(1, 20));
+    Assertions.assertEquals(20, cache.size());
+    Assertions.assertEquals(entrySize * 20, cache.getSizeInBytes());
+
+    // one large entry pushes the older entries out
+    JNACollectionEntry large = entry(21, "Large");
+    large.setColumnValueSizesInBytes(new int[] { (int) entrySize * 5 });
+    cache.addCacheValues(IDENTITY, READ_MASK, DIFF_TIME, Arrays.asList(large));
+
+    List<Integer> noteIds = cachedNoteIds(cache);
+    Assertions.assertTrue(cache.getSizeInBytes() <= cache.getMaxCacheSizeInBytes());
+    Assertions.assertTrue(noteIds.contains(21));
+    Assertions.assertFalse(noteIds.contains(1));
+    Assertions.assertTrue(cache.getStats().getEvictions() > 0);
+
+    long expectedSize = 0;
+    for (int noteId : noteIds) {
+      expectedSize += noteId == 21 ? large.getCacheableData().estimateSize() : entrySize;
+    }
+    Assertions.assertEquals(expectedSize, cache.getSizeInBytes());
+  }
+
+  @Test
+  public void testGenerationInvalidation() {
+    AtomicInteger flushes = new AtomicInteger();
+    CollectionDataCache cache = new CollectionDataCache() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected void cacheFlushed() {
+        flushes.incrementAndGet();
+      }
+    };
+    cache.addCacheValues(IDENTITY, READ_MASK, DIFF_TIME, entries(1, 5));
+    Assertions.assertEquals(0, flushes.get());
+
+    // a new diff time invalidates the entries of the previous generation
+    DominoDateTime newDiffTime = new JNADominoDateTime(new int[] { 0x00c0ffee, 0x12345679 });
+    cache.addCacheValues(IDENTITY, READ_MASK, newDiffTime, entries(4, 6));
+    Assertions.assertEquals(1, flushes.get());
+    Assertions.assertEquals(Arrays.asList(4, 5, 6), cachedNoteIds(cache));
+    Assertions.assertEquals(newDiffTime, cache.getCacheState(IDENTITY).getDiffTime());
+
+    // so does another read mask
+    cache.addCacheValues(IDENTITY, EnumSet.of(ReadMask.NOTEID, ReadMask.SUMMARY), newDiffTime, entries(7, 7));
+    Assertions.assertEquals(2, flushes.get());
+    Assertions.assertEquals(Arrays.asList(7), cachedNoteIds(cache));
+
+    // and data read from another collection index
+    CollectionIdentity resorted = new CollectionIdentity("Server/ACME", "85257C8D0064A6A5",
+        "B0F6E5A5C2E7D3F085257C8D0064A6A6", (short) 1);
+    cache.addCacheValues(resorted, READ_MASK, newDiffTime, entries(8, 8));
+    Assertions.assertEquals(3, flushes.get());
+    Assertions.assertTrue(cache.getCacheState(IDENTITY).getNoteIds().isEmpty());
+    Assertions.assertEquals(Arrays.asList(8), cache.getCacheState(resorted).getNoteIds());
+
+    cache.flush();
+    Assertions.assertEquals(0, cache.size());
+    Assertions.assertEquals(0, cache.getSizeInBytes());
+    Assertions.assertTrue(cache.getCacheState(resorted).getNoteIds().isEmpty());
+
+    JNACollectionEntry stub = stub(8);
+    cache.populateEntryStubsWithData(Arrays.asList(stub));
+    Assertions.assertFalse(stub.hasAnyColumnValues());
+  }
+
+  @Test
+  public void testEntryDataBinaryFormat() throws IOException {
+    DominoDateTime dt1 = new JNADominoDateTime(new int[] { 0x00c0ffee, 0x12345678 });
+    DominoDateTime dt2 = new JNADominoDateTime(new int[] { 0x00c0ffef, 0x12345679 });
+    Object[] columnValues = new Object[] {
+        "Text äöü €",
+        new LMBCSString(new byte[] { 0x41, 0x42, 0x43 }),
+        Double.valueOf(1.5),
+        Integer.valueOf(42),
+        Long.valueOf(Long.MAX_VALUE),
+        dt1,
+        new DefaultDominoDateRange(dt1, dt2),
+        new ArrayList<>(Arrays.asList("a", Double.valueOf(2), dt2, null)),
+        null
+    };
+    JNACollectionEntry entry = entry(0x1234, columnValues);
+    entry.setUNID("B0F6E5A5C2E7D3F085257C8D0064A6A6");
+    entry.setNoteClass(1);
+    entry.setIndentLevels(2);
+    entry.setUnread(true);
+    Map<String,Object> summaryData = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    summaryData.put("Subject", "Hello");
+    summaryData.put("$Conflict", null);
+    summaryData.put("Numbers", new ArrayList<>(Arrays.asList(1.0, 2.0)));
+    entry.setSummaryData(summaryData);
+
+    CacheableViewEntryData data = entry.getCacheableData();
+    Assertions.assertTrue(data.isWritable());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    data.write(new DataOutputStream(out));
+    byte[] bytes = out.toByteArray();
+
+    CacheableViewEntryData readData = CacheableViewEntryData.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    Assertions.assertEquals(Integer.valueOf(0x1234), readData.getNoteId());
+    Assertions.assertEquals(data.estimateSize(), readData.estimateSize());
+
+    ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+    readData.write(new DataOutputStream(out2));
+    Assertions.assertArrayEquals(bytes, out2.toByteArray());
+
+    JNACollectionEntry readEntry = new JNACollectionEntry(null, readData);
+    Assertions.assertEquals(0x1234, readEntry.getNoteID());
+    Assertions.assertEquals("B0F6E5A5C2E7D3F085257C8D0064A6A6", readEntry.getUNID());
+    Assertions.assertEquals(2, readEntry.getIndentLevels());
+    Assertions.assertArrayEquals(columnValues, readEntry.getColumnValues());
+
+    // unsupported values are detected before writing
+    JNACollectionEntry unwritable = entry(1, Arrays.asList("a", new Object()));
+    Assertions.assertFalse(unwritable.getCacheableData().isWritable());
+  }
+}
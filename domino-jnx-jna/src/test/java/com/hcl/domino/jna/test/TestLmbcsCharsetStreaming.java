@@ -0,0 +1,102 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.hcl.domino.jna.misc.LMBCSCharsetProvider.LMBCSCharset;
+
+/**
+ * Tests the incremental LMBCS decoder and encoder with data split at every
+ * possible position, without the need for a Notes runtime.
+ */
+@SuppressWarnings("nls")
+public class TestLmbcsCharsetStreaming {
+
+  /**
+   * Returns a single byte per read call
+   */
+  private static class TrickleInputStream extends FilterInputStream {
+    TrickleInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return super.read(b, off, Math.min(len, 1));
+    }
+  }
+
+  private static String readFully(Reader reader) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    char[] buf = new char[3];
+    int len;
+    while ((len = reader.read(buf)) > 0) {
+      sb.append(buf, 0, len);
+    }
+    return sb.toString();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "Hello", "Grüße €uro 日本語", "Привет мир" })
+  public void testTrickleRoundTrip(final String expected) throws IOException {
+    final Charset charset = LMBCSCharset.INSTANCE_KEEPNEWLINES;
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (Writer w = new OutputStreamWriter(bos, charset)) {
+      for (char c : expected.toCharArray()) {
+        w.write(c);
+        w.flush();
+      }
+    }
+    final byte[] encoded = bos.toByteArray();
+    Assertions.assertArrayEquals(expected.getBytes(charset), encoded);
+
+    try (Reader r = new InputStreamReader(new TrickleInputStream(new ByteArrayInputStream(encoded)), charset)) {
+      Assertions.assertEquals(expected, readFully(r));
+    }
+  }
+
+  @Test
+  public void testSplitCrlf() throws IOException {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (Writer w = new OutputStreamWriter(bos, LMBCSCharset.INSTANCE)) {
+      w.write("a\r");
+      w.flush();
+      w.write("\nb\r");
+    }
+    Assertions.assertArrayEquals(new byte[] { 'a', 0, 'b', '\r' }, bos.toByteArray());
+  }
+
+  @Test
+  public void testNullTerminatedOnce() {
+    Assertions.assertArrayEquals(new byte[] { 0x14, 0x65, (byte) 0xE5, 0x14, 0x67, 0x2C, 0 }, "日本".getBytes(LMBCSCharset.INSTANCE_NULLTERM));
+  }
+}
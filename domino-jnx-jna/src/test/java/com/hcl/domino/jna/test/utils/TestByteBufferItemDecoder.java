@@ -0,0 +1,119 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.commons.data.DoubleList;
+import com.hcl.domino.data.DominoDateRange;
+import com.hcl.domino.data.DominoDateTime;
+import com.hcl.domino.data.ItemDataTypeConstants;
+import com.hcl.domino.jna.data.JNADominoDateTime;
+import com.hcl.domino.jna.data.JNANativeItemCoder;
+import com.hcl.domino.jna.internal.ByteBufferItemDecoder;
+
+@SuppressWarnings("nls")
+public class TestByteBufferItemDecoder {
+
+  private static ByteBuffer allocate(int size) {
+    return ByteBuffer.allocate(size).order(ByteOrder.nativeOrder());
+  }
+
+  @Test
+  public void testNumberList() {
+    ByteBuffer buf = allocate(4 + 8 * 3);
+    buf.putShort((short) 3).putShort((short) 0);
+    buf.putDouble(1.5).putDouble(-2).putDouble(1e10);
+    buf.flip();
+
+    List<Object> values = ByteBufferItemDecoder.decodeNumberList(buf);
+    Assertions.assertTrue((List<?>) values instanceof DoubleList);
+    Assertions.assertEquals(Arrays.asList(1.5, -2d, 1e10), values);
+    Assertions.assertArrayEquals(new double[] { 1.5, -2, 1e10 }, ((DoubleList) (List<?>) values).toDoubleArray());
+    Assertions.assertArrayEquals(new double[] { 1.5, -2, 1e10 }, ByteBufferItemDecoder.decodeNumberListAsArray(buf));
+    Assertions.assertEquals(0, buf.position());
+  }
+
+  @Test
+  public void testNumberRange() {
+    ByteBuffer buf = allocate(4 + 8 + 16);
+    buf.putShort((short) 1).putShort((short) 1);
+    buf.putDouble(3).putDouble(4).putDouble(5);
+    buf.flip();
+
+    List<Object> values = ByteBufferItemDecoder.decodeNumberList(buf);
+    Assertions.assertEquals(2, values.size());
+    Assertions.assertEquals(3d, values.get(0));
+    Assertions.assertArrayEquals(new double[] { 4, 5 }, (double[]) values.get(1));
+  }
+
+  @Test
+  public void testTimeDateList() {
+    int[] first = new JNADominoDateTime(1_600_000_000_000L).getAdapter(int[].class);
+    int[] second = new JNADominoDateTime(1_700_000_000_000L).getAdapter(int[].class);
+    ByteBuffer buf = allocate(4 + 8 + 16);
+    buf.putShort((short) 1).putShort((short) 1);
+    buf.putInt(first[0]).putInt(first[1]);
+    buf.putInt(first[0]).putInt(first[1]).putInt(second[0]).putInt(second[1]);
+    buf.flip();
+
+    List<Object> values = ByteBufferItemDecoder.decodeTimeDateList(buf);
+    Assertions.assertEquals(2, values.size());
+    Assertions.assertEquals(new JNADominoDateTime(first), values.get(0));
+    DominoDateRange range = (DominoDateRange) values.get(1);
+    Assertions.assertEquals(new JNADominoDateTime(first), range.getStartDateTime());
+    Assertions.assertEquals(new JNADominoDateTime(second), range.getEndDateTime());
+
+    buf.putShort(2, (short) 0);
+    List<Object> lazyValues = ByteBufferItemDecoder.decodeTimeDateList(buf);
+    Assertions.assertEquals(1, lazyValues.size());
+    Assertions.assertSame(lazyValues.get(0), lazyValues.get(0));
+    Assertions.assertTrue(lazyValues.get(0) instanceof DominoDateTime);
+  }
+
+  @Test
+  public void testTextList() {
+    ByteBuffer buf = allocate(64);
+    buf.putShort((short) 3).putShort((short) 5).putShort((short) 0).putShort((short) 2);
+    buf.put("Hello".getBytes(StandardCharsets.US_ASCII)).put("ab".getBytes(StandardCharsets.US_ASCII));
+    buf.flip();
+
+    Assertions.assertEquals(Arrays.asList("Hello", "", "ab"), ByteBufferItemDecoder.decodeTextListValue(buf, false));
+    Assertions.assertEquals("Hello", ByteBufferItemDecoder.decodeTextListValue(buf, true).get(0).toString());
+  }
+
+  @Test
+  public void testNativeItemCoder() {
+    ByteBuffer buf = allocate(2 + 4 + 16);
+    buf.putShort((short) ItemDataTypeConstants.TYPE_NUMBER_RANGE).putShort((short) 2).putShort((short) 0);
+    buf.putDouble(7).putDouble(8);
+
+    List<Object> values = new JNANativeItemCoder().decodeItemValue(buf.array(), null);
+    Assertions.assertEquals(Arrays.asList(7d, 8d), values);
+
+    ByteBuffer textBuf = allocate(2 + 2 + 2 + 3);
+    textBuf.putShort((short) 1).putShort((short) 3).put("xyz".getBytes(StandardCharsets.US_ASCII));
+    Assertions.assertEquals(Arrays.asList("xyz"), new JNANativeItemCoder().decodeStringList(Arrays.copyOf(textBuf.array(), 7)));
+  }
+}
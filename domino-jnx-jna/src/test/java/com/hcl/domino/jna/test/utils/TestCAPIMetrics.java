@@ -0,0 +1,185 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.jna.internal.LatencyHistogram;
+import com.hcl.domino.jna.internal.capi.InvocationHandlerWithMetrics;
+import com.hcl.domino.jna.utils.CAPICallListener;
+import com.hcl.domino.jna.utils.CAPIFunctionStats;
+import com.hcl.domino.jna.utils.CAPIMetrics;
+import com.hcl.domino.jna.utils.CAPIMetricsMXBean;
+
+@SuppressWarnings("nls")
+public class TestCAPIMetrics {
+
+  @AfterEach
+  public void reset() {
+    CAPIMetrics.reset();
+  }
+
+  @Test
+  public void testHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    Assertions.assertEquals(0, histogram.getValueAtPercentile(99));
+
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    Assertions.assertEquals(1000, histogram.getCount());
+    Assertions.assertEquals(500500000L, histogram.getTotal());
+    Assertions.assertEquals(1000000, histogram.getMax());
+
+    // buckets keep a relative precision of 1/8
+    long p50 = histogram.getValueAtPercentile(50);
+    Assertions.assertTrue(p50 >= 500000 && p50 <= 500000 * 9 / 8, Long.toString(p50));
+    long p99 = histogram.getValueAtPercentile(99);
+    Assertions.assertTrue(p99 >= 990000 && p99 <= 1000000, Long.toString(p99));
+    Assertions.assertEquals(1000000, histogram.getValueAtPercentile(100));
+
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+    Assertions.assertEquals(0, histogram.getValueAtPercentile(0));
+    Assertions.assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+
+    histogram.reset();
+    Assertions.assertEquals(0, histogram.getCount());
+    Assertions.assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  public void testConcurrentRecording() throws InterruptedException {
+    LatencyHistogram histogram = new LatencyHistogram();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < 10000; i++) {
+          histogram.record(i);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assertions.assertEquals(40000, histogram.getCount());
+    Assertions.assertEquals(9999, histogram.getMax());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testInvocationHandler() throws Exception {
+    List<String> calls = new ArrayList<>();
+    CAPICallListener listener = (function, durationNanos) -> calls.add(function);
+    CAPIMetrics.addListener(listener);
+    try {
+      Callable<String> target = () -> {
+        Thread.sleep(5);
+        return "result";
+      };
+      Callable<String> proxy = (Callable<String>) Proxy.newProxyInstance(getClass().getClassLoader(),
+          new Class[] { Callable.class }, new InvocationHandlerWithMetrics(target));
+
+      Assertions.assertEquals("result", proxy.call());
+      Assertions.assertEquals("result", proxy.call());
+    } finally {
+      CAPIMetrics.removeListener(listener);
+    }
+
+    CAPIFunctionStats stats = CAPIMetrics.getFunctionStats("call");
+    Assertions.assertEquals(2, stats.getCount());
+    Assertions.assertTrue(stats.getMaxNanos() >= 5000000, stats.toString());
+    Assertions.assertTrue(stats.getTotalNanos() >= 2 * 5000000, stats.toString());
+    Assertions.assertEquals(2, calls.size());
+    Assertions.assertEquals(2, CAPIMetrics.getCallCount());
+    Assertions.assertEquals(0, CAPIMetrics.getFunctionStats("other").getCount());
+  }
+
+  @Test
+  public void testFunctionStatsOrder() {
+    CAPIMetrics.recordCall("NSFNoteOpen", 100);
+    CAPIMetrics.recordCall("NSFItemInfo", 10);
+    CAPIMetrics.recordCall("NSFItemInfo", 20);
+    CAPIMetrics.recordCall("NIFReadEntries", 1000);
+    CAPIMetrics.recordHandleLockWait(50);
+
+    List<CAPIFunctionStats> stats = CAPIMetrics.getFunctionStats();
+    Assertions.assertEquals(3, stats.size());
+    Assertions.assertEquals("NIFReadEntries", stats.get(0).getName());
+    Assertions.assertEquals("NSFItemInfo", stats.get(2).getName());
+    Assertions.assertEquals(30, stats.get(2).getTotalNanos());
+    Assertions.assertEquals(1, CAPIMetrics.getHandleLockWaitStats().getCount());
+
+    CAPIMetrics.reset();
+    Assertions.assertTrue(CAPIMetrics.getFunctionStats().isEmpty());
+    Assertions.assertEquals(0, CAPIMetrics.getHandleLockWaitStats().getCount());
+  }
+
+  @Test
+  public void testMXBeanTypes() throws Exception {
+    CAPIMetrics.recordCall("NSFNoteOpen", 100);
+
+    CAPIMetricsMXBean bean = new CAPIMetricsMXBean() {
+      @Override
+      public List<CAPIFunctionStats> getFunctionStats() {
+        return CAPIMetrics.getFunctionStats();
+      }
+
+      @Override
+      public CAPIFunctionStats getHandleLockWaitStats() {
+        return CAPIMetrics.getHandleLockWaitStats();
+      }
+
+      @Override
+      public long getCallCount() {
+        return CAPIMetrics.getCallCount();
+      }
+
+      @Override
+      public void reset() {
+        CAPIMetrics.reset();
+      }
+    };
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName("com.hcl.domino.jnx.test:type=CAPIMetrics");
+    server.registerMBean(new StandardMBean(bean, CAPIMetricsMXBean.class, true), name);
+    try {
+      CompositeData[] stats = (CompositeData[]) server.getAttribute(name, "FunctionStats");
+      Assertions.assertEquals(1, stats.length);
+      Assertions.assertEquals("NSFNoteOpen", stats[0].get("name"));
+      Assertions.assertEquals(1L, stats[0].get("count"));
+      Assertions.assertEquals(1L, server.getAttribute(name, "CallCount"));
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.hcl.domino.jna.internal.capi.CallJournal;
+
+@SuppressWarnings("nls")
+public class TestCallJournal {
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void testRecordAndRead() throws IOException {
+    Path file = tempDir.resolve("journal.bin");
+    CallJournal journal = CallJournal.create(file, 16);
+
+    long first = journal.begin("NSFNoteOpen", new Throwable().getStackTrace(), 0);
+    journal.end(first);
+    journal.begin("NSFItemInfo", new Throwable().getStackTrace(), 1);
+
+    List<CallJournal.Entry> entries = CallJournal.read(file);
+    Assertions.assertEquals(2, entries.size());
+
+    CallJournal.Entry done = entries.get(0);
+    Assertions.assertEquals(0, done.getSequence());
+    Assertions.assertEquals("NSFNoteOpen", done.getFunction());
+    Assertions.assertTrue(done.isFinished());
+    Assertions.assertEquals(Thread.currentThread().getId(), done.getThreadId());
+    Assertions.assertEquals(Thread.currentThread().getName(), done.getThreadName());
+    Assertions.assertFalse(done.getFrames().isEmpty());
+    Assertions.assertTrue(done.getFrames().get(0).contains("testRecordAndRead"), done.getFrames().get(0));
+
+    CallJournal.Entry pending = entries.get(1);
+    Assertions.assertEquals("NSFItemInfo", pending.getFunction());
+    Assertions.assertFalse(pending.isFinished());
+    Assertions.assertFalse(pending.getFrames().get(0).contains("testRecordAndRead"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CallJournal.print(file, new PrintStream(out, true, "UTF-8"));
+    String text = new String(out.toByteArray(), StandardCharsets.UTF_8);
+    Assertions.assertTrue(text.contains("NSFItemInfo - NOT FINISHED"), text);
+  }
+
+  @Test
+  public void testRingWrapsAround() throws Exception {
+    Path file = tempDir.resolve("ring.bin");
+    CallJournal journal = CallJournal.create(file, 8);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < 100; i++) {
+          journal.end(journal.begin("call" + i, new Throwable().getStackTrace(), 0));
+        }
+      }, "writer" + t);
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    List<CallJournal.Entry> entries = CallJournal.read(file);
+    Assertions.assertEquals(8, entries.size());
+    Set<Long> sequences = new HashSet<>();
+    for (CallJournal.Entry entry : entries) {
+      Assertions.assertTrue(entry.getSequence() >= 400 - 8, Long.toString(entry.getSequence()));
+      Assertions.assertTrue(entry.isFinished());
+      Assertions.assertTrue(entry.getThreadName().startsWith("writer"));
+      sequences.add(entry.getSequence());
+    }
+    Assertions.assertEquals(8, sequences.size());
+    Assertions.assertEquals(file.getFileName() + ".dict", Files.list(tempDir)
+        .filter(p -> p.getFileName().toString().startsWith("ring.bin.")).findFirst().get().getFileName().toString());
+  }
+
+  @Test
+  public void testHashCollisions() throws IOException {
+    Path file = tempDir.resolve("collisions.bin");
+    CallJournal journal = CallJournal.create(file, 16);
+
+    // "Aa" and "BB" as well as "AaAa" and "BBBB" have the same String hash code
+    Assertions.assertEquals("Aa".hashCode(), "BB".hashCode());
+    List<String> functions = Arrays.asList("Aa", "BB", "AaAa", "BBBB", "AaBB", "BB", "Aa");
+    for (String function : functions) {
+      journal.end(journal.begin(function, new Throwable().getStackTrace(), 0));
+    }
+
+    List<CallJournal.Entry> entries = CallJournal.read(file);
+    Assertions.assertEquals(functions.size(), entries.size());
+    for (int i = 0; i < functions.size(); i++) {
+      Assertions.assertEquals(functions.get(i), entries.get(i).getFunction());
+    }
+
+    // every text is written to the dictionary once
+    List<String> dictionary = Files.readAllLines(tempDir.resolve("collisions.bin.dict"), StandardCharsets.UTF_8);
+    Set<String> ids = new HashSet<>();
+    for (String line : dictionary) {
+      Assertions.assertTrue(ids.add(line.substring(0, line.indexOf('\t'))), line);
+    }
+    Assertions.assertEquals(1, dictionary.stream().filter(line -> line.endsWith("\tBB")).count());
+  }
+
+  @Test
+  public void testInvalidFile() throws IOException {
+    Path file = tempDir.resolve("other.bin");
+    Files.write(file, new byte[128]);
+    Assertions.assertThrows(IOException.class, () -> CallJournal.read(file));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> CallJournal.create(file, 0));
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.hcl.domino.jna.data.DocumentSummaryIterator;
+import com.hcl.domino.jna.data.DocumentSummaryIterator.DocumentData;
+
+@SuppressWarnings("nls")
+public class TestDocumentSummaryIterator {
+  private final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+  private final ThreadFactory threadFactory = r -> {
+    Thread t = new Thread(r, "prefetch");
+    t.setDaemon(true);
+    threads.add(t);
+    return t;
+  };
+
+  private static DocumentData doc(int n) {
+    return new DocumentData(null, Collections.singletonMap("n", Collections.singletonList(n)));
+  }
+
+  private static int number(DocumentData data) {
+    return (Integer) data.getItemValue("n").get(0);
+  }
+
+  /**
+   * Produces pages of the given sizes with consecutive numbers
+   */
+  private static Supplier<List<DocumentData>> pages(AtomicInteger calls, int... sizes) {
+    AtomicInteger next = new AtomicInteger();
+    return () -> {
+      int page = calls.getAndIncrement();
+      if (page >= sizes.length) {
+        return null;
+      }
+      List<DocumentData> result = new ArrayList<>();
+      for (int i = 0; i < sizes[page]; i++) {
+        result.add(doc(next.getAndIncrement()));
+      }
+      return result;
+    };
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  public void testPageBoundaries(boolean prefetch) {
+    AtomicInteger calls = new AtomicInteger();
+    List<Integer> numbers = new ArrayList<>();
+    try (DocumentSummaryIterator it = new DocumentSummaryIterator(pages(calls, 3, 1, 2), prefetch ? threadFactory : null)) {
+      while (it.hasNext()) {
+        numbers.add(number(it.next()));
+      }
+      Assertions.assertThrows(NoSuchElementException.class, it::next);
+    }
+    Assertions.assertEquals(IntStream.range(0, 6).boxed().collect(Collectors.toList()), numbers);
+    // three pages and the call that reported the end
+    Assertions.assertEquals(4, calls.get());
+
+    AtomicInteger emptyCalls = new AtomicInteger();
+    try (DocumentSummaryIterator it = new DocumentSummaryIterator(pages(emptyCalls), prefetch ? threadFactory : null)) {
+      Assertions.assertFalse(it.hasNext());
+    }
+  }
+
+  @Test
+  public void testCloseStopsPrefetch() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch computing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<List<DocumentData>> source = pages(calls, 2, 2, 2);
+    Supplier<List<DocumentData>> blockingSource = () -> {
+      if (calls.get() == 1) {
+        computing.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return source.get();
+    };
+
+    DocumentSummaryIterator it = new DocumentSummaryIterator(blockingSource, threadFactory);
+    Assertions.assertEquals(0, number(it.next()));
+    Assertions.assertTrue(computing.await(10, TimeUnit.SECONDS));
+
+    it.close();
+    Assertions.assertFalse(it.hasNext());
+    Assertions.assertThrows(NoSuchElementException.class, it::next);
+
+    release.countDown();
+    for (Thread t : threads) {
+      t.join(TimeUnit.SECONDS.toMillis(10));
+      Assertions.assertFalse(t.isAlive());
+    }
+    // the page being computed is finished, but no further page is requested
+    Assertions.assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void testSpliterator() {
+    AtomicInteger calls = new AtomicInteger();
+    try (DocumentSummaryIterator it = new DocumentSummaryIterator(pages(calls, 3, 3, 3), threadFactory)) {
+      Spliterator<DocumentData> spliterator = it.spliterator();
+      Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+
+      // the first split is the rest of the first page
+      Assertions.assertTrue(spliterator.tryAdvance(d -> Assertions.assertEquals(0, number(d))));
+      Spliterator<DocumentData> prefix = spliterator.trySplit();
+      List<Integer> prefixNumbers = new ArrayList<>();
+      prefix.forEachRemaining(d -> prefixNumbers.add(number(d)));
+      Assertions.assertEquals(Arrays.asList(1, 2), prefixNumbers);
+
+      // a whole page
+      List<Integer> pageNumbers = new ArrayList<>();
+      spliterator.trySplit().forEachRemaining(d -> pageNumbers.add(number(d)));
+      Assertions.assertEquals(Arrays.asList(3, 4, 5), pageNumbers);
+
+      List<Integer> rest = new ArrayList<>();
+      spliterator.forEachRemaining(d -> rest.add(number(d)));
+      Assertions.assertEquals(Arrays.asList(6, 7, 8), rest);
+      Assertions.assertNull(spliterator.trySplit());
+      Assertions.assertEquals(0, spliterator.estimateSize());
+    }
+
+    try (DocumentSummaryIterator it = new DocumentSummaryIterator(pages(new AtomicInteger(), 3, 3), null)) {
+      Assertions.assertNull(it.spliterator().trySplit());
+    }
+  }
+
+  @Test
+  public void testParallelStreamOrder() {
+    AtomicInteger calls = new AtomicInteger();
+    int[] sizes = new int[50];
+    Arrays.fill(sizes, 7);
+    DocumentSummaryIterator it = new DocumentSummaryIterator(pages(calls, sizes), threadFactory);
+    List<Integer> numbers;
+    try (Stream<DocumentData> stream = it.stream(true)) {
+      numbers = stream.map(TestDocumentSummaryIterator::number).collect(Collectors.toList());
+    }
+    Assertions.assertEquals(IntStream.range(0, 350).boxed().collect(Collectors.toList()), numbers);
+    Assertions.assertFalse(it.hasNext());
+  }
+}
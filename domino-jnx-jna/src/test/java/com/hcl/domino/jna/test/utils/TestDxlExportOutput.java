@@ -0,0 +1,111 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.hcl.domino.jna.internal.DxlExportOutput;
+import com.sun.jna.Memory;
+
+@SuppressWarnings("nls")
+public class TestDxlExportOutput {
+  private static final String DXL = "<?xml version='1.0'?><document><item name='Subject'><text>Grüße 日本 😀</text></item></document>";
+
+  /**
+   * Passes the data to the output in chunks of the given size, like the
+   * XML_WRITE_FUNCTION callbacks of the DXL exporter
+   */
+  private static void writeChunks(DxlExportOutput output, byte[] data, int chunkSize) {
+    for (int offset = 0; offset < data.length; offset += chunkSize) {
+      int len = Math.min(chunkSize, data.length - offset);
+      Memory mem = new Memory(len);
+      mem.write(0, data, offset, len);
+      output.write(mem, len);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 2, 3, 5, 7, 1024 })
+  public void testWriterSplitCharacters(int chunkSize) throws IOException {
+    for (Charset charset : new Charset[] { StandardCharsets.UTF_8, StandardCharsets.UTF_16 }) {
+      StringWriter writer = new StringWriter();
+      DxlExportOutput output = DxlExportOutput.forWriter(writer, charset);
+      writeChunks(output, DXL.getBytes(charset), chunkSize);
+      output.finish();
+      Assertions.assertEquals(DXL, writer.toString(), charset.name());
+    }
+  }
+
+  @Test
+  public void testWriterMalformedTail() throws IOException {
+    StringWriter writer = new StringWriter();
+    DxlExportOutput output = DxlExportOutput.forWriter(writer, StandardCharsets.UTF_8);
+    byte[] data = { 'a', (byte) 0xE6, (byte) 0x97 };
+    writeChunks(output, data, 1);
+    output.finish();
+    Assertions.assertEquals(new String(data, StandardCharsets.UTF_8), writer.toString());
+  }
+
+  @Test
+  public void testBytes() throws IOException {
+    byte[] data = DXL.getBytes(StandardCharsets.UTF_8);
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    DxlExportOutput output = DxlExportOutput.forStream(stream);
+    writeChunks(output, data, 7);
+    output.finish();
+    Assertions.assertArrayEquals(data, stream.toByteArray());
+
+    ByteArrayOutputStream channelTarget = new ByteArrayOutputStream();
+    output = DxlExportOutput.forChannel(Channels.newChannel(channelTarget));
+    writeChunks(output, data, 5);
+    output.finish();
+    Assertions.assertArrayEquals(data, channelTarget.toByteArray());
+  }
+
+  @Test
+  public void testWriteErrorIsRethrown() {
+    int[] calls = new int[1];
+    DxlExportOutput output = DxlExportOutput.forStream(new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("disk full");
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        calls[0]++;
+        throw new IOException("disk full");
+      }
+    });
+    writeChunks(output, DXL.getBytes(StandardCharsets.UTF_8), 10);
+    Assertions.assertEquals(1, calls[0]);
+    IOException e = Assertions.assertThrows(IOException.class, output::finish);
+    Assertions.assertEquals("disk full", e.getMessage());
+  }
+}
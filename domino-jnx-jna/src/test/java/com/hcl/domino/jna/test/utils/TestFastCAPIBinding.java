@@ -0,0 +1,234 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.commons.util.PlatformUtils;
+import com.hcl.domino.jna.internal.capi.DirectNotesFastCAPI;
+import com.hcl.domino.jna.internal.capi.INotesCAPI;
+import com.hcl.domino.jna.internal.capi.INotesFastCAPI;
+import com.hcl.domino.jna.internal.capi.JnxJnaTypeMapper;
+import com.hcl.domino.jna.internal.capi.ProxyNotesFastCAPI;
+import com.hcl.domino.jna.internal.structs.NotesBlockIdStruct;
+import com.hcl.domino.jna.internal.structs.NotesCollectionPositionStruct;
+import com.hcl.domino.jna.internal.structs.NotesTimeDateStruct;
+import com.sun.jna.Library;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+
+/**
+ * Compares the interface and direct mapping bindings of {@link INotesFastCAPI} against
+ * a mock library compiled from {@code mocknotes/mocknotes.c}; skipped when no C compiler
+ * is available
+ */
+@SuppressWarnings("nls")
+public class TestFastCAPIBinding {
+  private static INotesFastCAPI proxyApi;
+  private static INotesFastCAPI directApi;
+
+  @BeforeAll
+  public static void loadMockLibrary() throws Exception {
+    Assumptions.assumeTrue(PlatformUtils.is64Bit() && !PlatformUtils.isWindows(), "Mock library requires a 64 bit Unix platform");
+
+    Path dir = Files.createTempDirectory("mocknotes");
+    Path source = dir.resolve("mocknotes.c");
+    try (InputStream is = TestFastCAPIBinding.class.getResourceAsStream("/mocknotes/mocknotes.c")) {
+      Files.copy(is, source, StandardCopyOption.REPLACE_EXISTING);
+    }
+    Path library = dir.resolve(System.mapLibraryName("mocknotes"));
+
+    Process process;
+    try {
+      process = new ProcessBuilder("cc", "-shared", "-fPIC", "-o", library.toString(), source.toString())
+          .redirectErrorStream(true)
+          .start();
+    } catch (IOException e) {
+      Assumptions.abort("No C compiler available: " + e.getMessage());
+      return;
+    }
+    Assumptions.assumeTrue(process.waitFor(60, TimeUnit.SECONDS) && process.exitValue() == 0, "Mock library could not be compiled");
+
+    INotesCAPI mockCAPI = Native.load(library.toString(), INotesCAPI.class,
+        Collections.singletonMap(Library.OPTION_TYPE_MAPPER, JnxJnaTypeMapper.INSTANCE));
+    proxyApi = new ProxyNotesFastCAPI(() -> mockCAPI);
+    directApi = DirectNotesFastCAPI.register(NativeLibrary.getInstance(library.toString()));
+  }
+
+  /**
+   * Runs the call against both bindings and compares the results
+   */
+  private static <T> T assertSameResult(Function<INotesFastCAPI, T> call) {
+    T proxyResult = call.apply(proxyApi);
+    T directResult = call.apply(directApi);
+    if (proxyResult instanceof Object[]) {
+      Assertions.assertArrayEquals((Object[]) proxyResult, (Object[]) directResult);
+    } else {
+      Assertions.assertEquals(proxyResult, directResult);
+    }
+    return directResult;
+  }
+
+  @Test
+  public void testLockObject() {
+    Pointer locked = assertSameResult(api -> api.OSLockObject(0x42));
+    Assertions.assertEquals(locked.share(8), directApi.OSLockObject(0x4a));
+    boolean unlocked = assertSameResult(api -> api.OSUnlockObject(0x43));
+    Assertions.assertTrue(unlocked);
+    unlocked = assertSameResult(api -> api.OSUnlockObject(0x44));
+    Assertions.assertFalse(unlocked);
+  }
+
+  @Test
+  public void testTranslate() {
+    byte[] input = "Hello".getBytes(StandardCharsets.US_ASCII);
+    Object[] result = assertSameResult(api -> {
+      Memory in = new Memory(input.length);
+      in.write(0, input, 0, input.length);
+      Memory out = new Memory(16);
+      int len = api.OSTranslate32((short) 1, in, input.length, out, (int) out.size());
+      return new Object[] { len, Arrays.toString(out.getByteArray(0, len)) };
+    });
+    Assertions.assertEquals(5, result[0]);
+    Assertions.assertEquals(Arrays.toString("Ifmmp".getBytes(StandardCharsets.US_ASCII)), result[1]);
+
+    // output buffer that is not a Memory instance
+    assertSameResult(api -> {
+      Memory in = new Memory(input.length);
+      in.write(0, input, 0, input.length);
+      Memory out = new Memory(16);
+      out.clear();
+      api.OSTranslate32((short) 2, in, input.length, out.share(4), 3);
+      return Arrays.toString(out.getByteArray(0, 8));
+    });
+  }
+
+  @Test
+  public void testItemInfo() {
+    Object[] result = assertSameResult(api -> {
+      Memory name = new Memory(4);
+      name.write(0, "Form".getBytes(StandardCharsets.US_ASCII), 0, 4);
+      Memory item = new Memory(8);
+      Memory dataType = new Memory(2);
+      Memory value = new Memory(8);
+      Memory valueLen = new Memory(4);
+      short err = api.NSFItemInfo(7, name, (short) 4, item, dataType, value, valueLen);
+      return new Object[] { err, item.getInt(0), item.getShort(4), dataType.getShort(0), value.getInt(0), value.getShort(4), valueLen.getInt(0) };
+    });
+    Assertions.assertArrayEquals(new Object[] { (short) 0, 7, (short) 4, (short) 'F', 0, (short) 3, 74 }, result);
+
+    assertSameResult(api -> api.NSFItemInfo(0, null, (short) 0, null, null, null, null));
+    Assertions.assertEquals((short) 0, directApi.NSFItemInfo(1, null, (short) 0, null, null, null, null));
+
+    // name buffers that are not Memory instances get copied for the interface mapping
+    assertSameResult(api -> {
+      Memory name = new Memory(8);
+      name.write(0, "$Body".getBytes(StandardCharsets.US_ASCII), 0, 5);
+      Memory dataType = new Memory(2);
+      api.NSFItemInfo(3, name.share(1), (short) 4, null, dataType, null, null);
+      return dataType.getShort(0);
+    });
+  }
+
+  @Test
+  public void testItemInfoNext() {
+    Object[] result = assertSameResult(api -> {
+      NotesBlockIdStruct.ByValue next = NotesBlockIdStruct.ByValue.newInstance();
+      next.pool = 100;
+      next.block = 20;
+      Memory item = new Memory(8);
+      Memory value = new Memory(8);
+      Memory valueLen = new Memory(4);
+      short err = api.NSFItemInfoNext(5, next, null, (short) 0, item, null, value, valueLen);
+      return new Object[] { err, item.getInt(0), item.getShort(4), value.getInt(0), value.getShort(4), valueLen.getInt(0) };
+    });
+    Assertions.assertArrayEquals(new Object[] { (short) 0, 105, (short) 20, 200, (short) 23, 50 }, result);
+  }
+
+  @Test
+  public void testItemQueryEx() {
+    Object[] result = assertSameResult(api -> {
+      NotesBlockIdStruct.ByValue itemBid = NotesBlockIdStruct.ByValue.newInstance();
+      itemBid.pool = 40;
+      itemBid.block = 0x10;
+      Memory buf = new Memory(48);
+      buf.clear();
+      api.NSFItemQueryEx(2, itemBid, buf.share(32), (short) 4, buf, buf.share(2), buf.share(4), buf.share(8),
+          buf.share(16), buf.share(20), buf.share(21));
+      return new Object[] { buf.getShort(0), buf.getShort(2), buf.getShort(4), buf.getInt(8), buf.getShort(12),
+          buf.getInt(16), buf.getByte(20), buf.getByte(21), new String(buf.getByteArray(32, 5), StandardCharsets.US_ASCII) };
+    });
+    Assertions.assertArrayEquals(new Object[] { (short) 4, (short) 0x14, (short) 1280, 42, (short) 0x11, 120,
+        (byte) 2, (byte) 3, "Subj\0" }, result);
+  }
+
+  @Test
+  public void testIDScan() {
+    Object[] result = assertSameResult(api -> {
+      Memory retID = new Memory(4);
+      boolean first = api.IDScan(12, true, retID);
+      int firstId = retID.getInt(0);
+      boolean next = api.IDScan(12, false, retID);
+      return new Object[] { first, firstId, next, retID.getInt(0) };
+    });
+    Assertions.assertArrayEquals(new Object[] { true, 12, true, 16 }, result);
+    boolean found = assertSameResult(api -> api.IDScan(0, true, new Memory(4)));
+    Assertions.assertFalse(found);
+  }
+
+  @Test
+  public void testReadEntriesExt() {
+    Object[] result = assertSameResult(api -> {
+      NotesCollectionPositionStruct pos = NotesCollectionPositionStruct.newInstance();
+      pos.Level = 2;
+      pos.Tumbler[0] = 30;
+      NotesTimeDateStruct diffTime = NotesTimeDateStruct.newInstance(new int[] { 1, 2 });
+      NotesTimeDateStruct retDiffTime = NotesTimeDateStruct.newInstance();
+      NotesTimeDateStruct retModifiedTime = NotesTimeDateStruct.newInstance();
+      Memory rethBuffer = new Memory(8);
+      rethBuffer.setLong(0, 0);
+      Memory retBufferLength = new Memory(2);
+      Memory retSkipped = new Memory(4);
+      Memory retReturned = new Memory(4);
+      Memory retSignalFlags = new Memory(2);
+      Memory retSequence = new Memory(4);
+
+      short err = api.NIFReadEntriesExt(1000, pos, (short) 3, 10, (short) 4, 50, 0x1234, diffTime, 6, 9, 0x20,
+          rethBuffer, retBufferLength, retSkipped, retReturned, retSignalFlags, retDiffTime, retModifiedTime, retSequence);
+      return new Object[] { err, rethBuffer.getLong(0), retBufferLength.getShort(0), retSkipped.getInt(0),
+          retReturned.getInt(0), retSignalFlags.getShort(0), Arrays.toString(retDiffTime.Innards),
+          Arrays.toString(retModifiedTime.Innards), retSequence.getInt(0), pos.Tumbler[1] };
+    });
+    Assertions.assertArrayEquals(new Object[] { (short) 7, 1006L, (short) 0x1234, 40, 52, (short) 0x20, "[2, 1]", "[3, 4]", 9, 31 }, result);
+  }
+}
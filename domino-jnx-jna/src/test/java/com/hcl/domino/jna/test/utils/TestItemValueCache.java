@@ -0,0 +1,198 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.commons.data.AbstractTypedAccess;
+import com.hcl.domino.commons.data.DoubleList;
+import com.hcl.domino.jna.internal.ItemValueCache;
+import com.hcl.domino.jna.utils.CacheStats;
+
+@SuppressWarnings("nls")
+public class TestItemValueCache {
+
+  @Test
+  public void testValues() {
+    ItemValueCache cache = new ItemValueCache("test");
+    AtomicInteger loads = new AtomicInteger();
+
+    List<?> values = cache.getValues("Subject", name -> {
+      loads.incrementAndGet();
+      return Arrays.asList("Hello");
+    });
+    Assertions.assertEquals(Arrays.asList("Hello"), values);
+    Assertions.assertSame(values, cache.getValues("SUBJECT", name -> new ArrayList<>()));
+    Assertions.assertEquals(1, loads.get());
+
+    cache.invalidate("subject");
+    Assertions.assertEquals(Arrays.asList(), cache.getValues("Subject", name -> new ArrayList<>()));
+
+    CacheStats stats = cache.getStats();
+    Assertions.assertEquals("test", stats.getName());
+    Assertions.assertEquals(1, stats.getHits());
+    Assertions.assertEquals(2, stats.getMisses());
+    Assertions.assertEquals(1, stats.getEvictions());
+    Assertions.assertEquals(1, stats.getEntryCount());
+  }
+
+  @Test
+  public void testTypedValues() {
+    ItemValueCache cache = new ItemValueCache("test");
+    AtomicInteger loads = new AtomicInteger();
+
+    Assertions.assertEquals(5, cache.getScalar("num", Integer.class, () -> {
+      loads.incrementAndGet();
+      return 5;
+    }));
+    Assertions.assertEquals(5, cache.getScalar("num", Integer.class, () -> 6));
+    Assertions.assertEquals("5", cache.getScalar("num", String.class, () -> "5"));
+
+    // null results are cached as well
+    Assertions.assertNull(cache.getScalar("date", LocalDate.class, () -> {
+      loads.incrementAndGet();
+      return null;
+    }));
+    Assertions.assertNull(cache.getScalar("date", LocalDate.class, () -> LocalDate.now()));
+
+    Assertions.assertEquals(Arrays.asList(1, 2), cache.getList("num", Integer.class, () -> Arrays.asList(1, 2)));
+    Assertions.assertEquals(Arrays.asList(1, 2), cache.getList("num", Integer.class, () -> null));
+    Assertions.assertEquals("1;2", cache.getText("num", ';', () -> "1;2"));
+    Assertions.assertEquals("1;2", cache.getText("num", ';', () -> "x"));
+    Assertions.assertEquals("1,2", cache.getText("num", ',', () -> "1,2"));
+    Assertions.assertEquals(2, loads.get());
+
+    cache.invalidateAll();
+    Assertions.assertEquals(6, cache.getScalar("num", Integer.class, () -> 6));
+
+    CacheStats stats = cache.getStats();
+    Assertions.assertEquals(4, stats.getHits());
+    Assertions.assertEquals(7, stats.getMisses());
+    Assertions.assertEquals(2, stats.getEvictions());
+  }
+
+  @Test
+  public void testCacheableTypes() {
+    Assertions.assertTrue(ItemValueCache.isCacheableType(String.class));
+    Assertions.assertTrue(ItemValueCache.isCacheableType(Double.class));
+    Assertions.assertFalse(ItemValueCache.isCacheableType(Object.class));
+    Assertions.assertFalse(ItemValueCache.isCacheableType(List.class));
+  }
+
+  @Test
+  public void testMutableValuesNotCached() {
+    ItemValueCache cache = new ItemValueCache("test");
+    AtomicInteger loads = new AtomicInteger();
+    List<Object> range = Arrays.asList(new double[] { 1, 2 });
+    for (int i = 0; i < 2; i++) {
+      Assertions.assertSame(range, cache.getValues("range", name -> {
+        loads.incrementAndGet();
+        return range;
+      }));
+    }
+    Assertions.assertEquals(2, loads.get());
+    Assertions.assertFalse(ItemValueCache.isShareable(range));
+    Assertions.assertTrue(ItemValueCache.isShareable(Arrays.asList("a", 1.0, null)));
+
+    DoubleList numbers = new DoubleList(new double[] { 1, 2 });
+    @SuppressWarnings("unchecked")
+    List<Object> copy = (List<Object>) ItemValueCache.copyValues(numbers);
+    Assertions.assertEquals(numbers, copy);
+    // fixed-size cached lists are copied into lists that the caller may resize
+    copy.set(0, 5.0);
+    copy.add(3.0);
+    Assertions.assertEquals(1.0, numbers.getDouble(0));
+    Assertions.assertEquals(2, numbers.size());
+  }
+
+  @Test
+  public void testDoubleArrayWithoutBoxing() {
+    // fails on any access that boxes the values
+    DoubleList numbers = new DoubleList(new double[] { 1, 2, 3 }) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public Double get(int index) {
+        throw new AssertionError("boxed access");
+      }
+    };
+    Assertions.assertTrue(ItemValueCache.isShareable(numbers));
+
+    ItemValueCache cache = new ItemValueCache("test");
+    cache.getValues("num", name -> numbers);
+    AbstractTypedAccess typedAccess = new AbstractTypedAccess() {
+      @Override
+      public boolean hasItem(String itemName) {
+        return true;
+      }
+
+      @Override
+      public List<String> getItemNames() {
+        return Arrays.asList("num");
+      }
+
+      @Override
+      protected List<?> getItemValue(String itemName) {
+        throw new AssertionError("copied values");
+      }
+
+      @Override
+      protected List<?> getItemValueForRead(String itemName) {
+        return cache.getValues(itemName, name -> null);
+      }
+    };
+    Assertions.assertArrayEquals(new double[] { 1, 2, 3 }, typedAccess.getAsDoubleArray("num", null));
+    Assertions.assertEquals(1, cache.getStats().getHits());
+  }
+
+  @Test
+  public void testLoadOutsideLock() throws Exception {
+    ItemValueCache cache = new ItemValueCache("test");
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread loader = new Thread(() -> cache.getValues("slow", name -> {
+      loading.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return Arrays.asList("old");
+    }));
+    loader.start();
+    Assertions.assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+    // other items can be read and invalidated while the slow load runs
+    Assertions.assertEquals(Arrays.asList("fast"), cache.getValues("fast", name -> Arrays.asList("fast")));
+    cache.invalidate("slow");
+
+    release.countDown();
+    loader.join(TimeUnit.SECONDS.toMillis(10));
+
+    // the load overlapped with an invalidation, so its result is not stored
+    Assertions.assertEquals(Arrays.asList("new"), cache.getValues("slow", name -> Arrays.asList("new")));
+  }
+}
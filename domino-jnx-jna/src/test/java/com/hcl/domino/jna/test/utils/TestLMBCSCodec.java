@@ -0,0 +1,107 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.hcl.domino.jna.internal.LMBCSCodec;
+import com.hcl.domino.jna.internal.NotesStringUtils.LineBreakConversion;
+
+@SuppressWarnings("nls")
+public class TestLMBCSCodec {
+
+  private static byte[] bytes(int... values) {
+    byte[] result = new byte[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = (byte) values[i];
+    }
+    return result;
+  }
+
+  private static String decode(byte[] data) {
+    return LMBCSCodec.decode(data, 0, data.length, "\n");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "Hello", "EkranAlıntısı1.JPG", "Grüße aus Köln", "€ 100", "日本語のテキスト", "Привет", "tab\there", "\u0001\u0085" })
+  public void testRoundTrip(final String expected) {
+    final byte[] encoded = LMBCSCodec.encode(expected, LineBreakConversion.ORIGINAL, false);
+    Assertions.assertNotNull(encoded);
+    Assertions.assertEquals(expected, decode(encoded));
+  }
+
+  @Test
+  public void testEncodeOptimizationGroup() {
+    Assertions.assertArrayEquals(bytes(0x84, 0x94, 0x81, 0xE1), LMBCSCodec.encode("äöüß", LineBreakConversion.ORIGINAL, false));
+  }
+
+  @Test
+  public void testEncodeNoBreakSpace() {
+    // U+00A0 follows the C1 range and is part of code page 850
+    Assertions.assertArrayEquals(bytes('a', 0xFF, 'b'), LMBCSCodec.encode("a\u00A0b", LineBreakConversion.ORIGINAL, false));
+    Assertions.assertEquals("a\u00A0b", decode(bytes('a', 0xFF, 'b')));
+    // last character of the C1 range
+    Assertions.assertArrayEquals(bytes(0x0F, 0x9F), LMBCSCodec.encode("\u009F", LineBreakConversion.ORIGINAL, false));
+  }
+
+  @Test
+  public void testEncodeUnicodeGroup() {
+    Assertions.assertArrayEquals(bytes(0x14, 0x20, 0xAC), LMBCSCodec.encode("€", LineBreakConversion.ORIGINAL, false));
+    // low byte 0 is written as compatibility zero
+    Assertions.assertArrayEquals(bytes(0x14, 0xF6, 0x01), LMBCSCodec.encode("Ā", LineBreakConversion.ORIGINAL, false));
+  }
+
+  @Test
+  public void testEncodeControlGroup() {
+    Assertions.assertArrayEquals(bytes(0x0F, 0x21, 0x0F, 0x85), LMBCSCodec.encode("\u0001\u0085", LineBreakConversion.ORIGINAL, false));
+  }
+
+  @Test
+  public void testEncodeLineBreaks() {
+    Assertions.assertArrayEquals(bytes('a', 0, 'b', 0, 'c', 0), LMBCSCodec.encode("a\r\nb\nc", LineBreakConversion.NULL, true));
+    Assertions.assertArrayEquals(bytes('a', '\n', 'b'), LMBCSCodec.encode("a\r\nb", LineBreakConversion.LINEFEED, false));
+    Assertions.assertArrayEquals(bytes('a', '\r', '\n', 'b'), LMBCSCodec.encode("a\r\nb", LineBreakConversion.ORIGINAL, false));
+  }
+
+  @Test
+  public void testDecodeGroups() {
+    // Cyrillic group 0x05 (code page 1251)
+    Assertions.assertEquals("А", decode(bytes(0x05, 0xC0)));
+    // Japanese group 0x10 (code page 932)
+    Assertions.assertEquals("日", decode(bytes(0x10, 0x93, 0xFA)));
+    // Unicode group
+    Assertions.assertEquals("日", decode(bytes(0x14, 0x65, 0xE5)));
+  }
+
+  @Test
+  public void testDecodeNullAsDelimiter() {
+    Assertions.assertEquals("a\nb\n", decode(bytes('a', 0, 'b', 0)));
+    Assertions.assertEquals("a\r\nb", LMBCSCodec.decode(bytes('a', 0, 'b'), 0, 3, "\r\n"));
+  }
+
+  @Test
+  public void testDecodeUnsupported() {
+    // unknown group
+    Assertions.assertNull(decode(bytes('a', 0x07, 0x80)));
+    // truncated sequence
+    Assertions.assertNull(decode(bytes('a', 0x14, 0x20)));
+    Assertions.assertEquals(LMBCSCodec.UNDERFLOW, LMBCSCodec.decodeNext(bytes(0x14, 0x20), 0, 2));
+  }
+}
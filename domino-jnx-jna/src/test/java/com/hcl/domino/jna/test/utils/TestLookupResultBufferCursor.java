@@ -0,0 +1,169 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.commons.views.ReadMask;
+import com.hcl.domino.data.ItemDataTypeConstants;
+import com.hcl.domino.jna.data.JNACollectionEntry;
+import com.hcl.domino.jna.internal.views.NotesLookupResultBufferCursor;
+import com.hcl.domino.jna.internal.views.NotesLookupResultBufferDecoder;
+import com.hcl.domino.jna.internal.views.NotesViewLookupResultData;
+import com.sun.jna.Memory;
+
+@SuppressWarnings("nls")
+public class TestLookupResultBufferCursor {
+  private static final Set<ReadMask> READMASK = EnumSet.of(ReadMask.NOTEID, ReadMask.SUMMARYVALUES);
+
+  private static byte[] textValue(String s) {
+    return s.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static byte[] textListValue(String... values) {
+    ByteBuffer buf = ByteBuffer.allocate(256).order(ByteOrder.nativeOrder());
+    buf.putShort((short) values.length);
+    for (String value : values) {
+      buf.putShort((short) value.length());
+    }
+    for (String value : values) {
+      buf.put(textValue(value));
+    }
+    return Arrays.copyOf(buf.array(), buf.position());
+  }
+
+  private static byte[] numberListValue(double... values) {
+    ByteBuffer buf = ByteBuffer.allocate(4 + 8 * values.length).order(ByteOrder.nativeOrder());
+    buf.putShort((short) values.length);
+    buf.putShort((short) 0);
+    for (double value : values) {
+      buf.putDouble(value);
+    }
+    return buf.array();
+  }
+
+  private static byte[] numberValue(double d) {
+    return ByteBuffer.allocate(8).order(ByteOrder.nativeOrder()).putDouble(d).array();
+  }
+
+  /**
+   * Writes an entry with note id and an ITEM_VALUE_TABLE; null values produce
+   * empty columns
+   */
+  private static void writeEntry(ByteBuffer buf, int noteId, int[] types, byte[][] values) {
+    buf.putInt(noteId);
+    int tableStart = buf.position();
+    buf.putShort((short) 0); // total length, patched below
+    buf.putShort((short) types.length);
+    for (int i = 0; i < types.length; i++) {
+      buf.putShort((short) (values[i] == null ? 0 : values[i].length + 2));
+    }
+    for (int i = 0; i < types.length; i++) {
+      if (values[i] != null) {
+        buf.putShort((short) types[i]);
+        buf.put(values[i]);
+      }
+    }
+    buf.putShort(tableStart, (short) (buf.position() - tableStart));
+  }
+
+  /**
+   * Creates a buffer with two entries, optionally with a text list column
+   */
+  private static Memory createBuffer(boolean withTextList) {
+    ByteBuffer buf = ByteBuffer.allocate(1024).order(ByteOrder.nativeOrder());
+    int[] types = { ItemDataTypeConstants.TYPE_TEXT, ItemDataTypeConstants.TYPE_NUMBER, 0,
+        ItemDataTypeConstants.TYPE_NUMBER_RANGE, ItemDataTypeConstants.TYPE_TEXT_LIST };
+    writeEntry(buf, 0x104, types, new byte[][] { textValue("Hello"), numberValue(42.5), null,
+        numberListValue(1, 2), withTextList ? textListValue("a", "bc") : null });
+    writeEntry(buf, 0x108, types, new byte[][] { textValue(""), numberValue(-1), null,
+        numberListValue(), withTextList ? textListValue("x") : null });
+
+    Memory mem = new Memory(buf.position());
+    mem.write(0, buf.array(), 0, buf.position());
+    return mem;
+  }
+
+  @Test
+  public void testCursorMatchesDecoder() {
+    Memory mem = createBuffer(true);
+    NotesViewLookupResultData data = NotesLookupResultBufferDecoder.decodeCollectionLookupResultBuffer(null, mem,
+        0, 2, READMASK, (short) 0, null, 0, null, false, false, null);
+    List<JNACollectionEntry> entries = data.getEntries();
+
+    NotesLookupResultBufferCursor cursor = new NotesLookupResultBufferCursor(mem, 0, 2, READMASK, (short) 0, 0, false);
+    int index = 0;
+    while (cursor.next()) {
+      JNACollectionEntry entry = entries.get(index);
+      Assertions.assertEquals(index, cursor.getEntryIndex());
+      Assertions.assertEquals(entry.getNoteID(), cursor.getNoteId());
+      Assertions.assertEquals(entry.getColumnValues().length, cursor.getColumnCount());
+      for (int col = 0; col < cursor.getColumnCount(); col++) {
+        Assertions.assertEquals(entry.getColumnValues()[col], cursor.getColumnValue(col));
+      }
+      index++;
+    }
+    Assertions.assertEquals(2, index);
+    Assertions.assertFalse(cursor.next());
+    Assertions.assertThrows(NoSuchElementException.class, cursor::getNoteId);
+  }
+
+  @Test
+  public void testPrimitiveAccessors() {
+    NotesLookupResultBufferCursor cursor = new NotesLookupResultBufferCursor(createBuffer(true), 0, 2, READMASK, (short) 0, 0, false);
+    Assertions.assertThrows(NoSuchElementException.class, cursor::getNoteId);
+
+    Assertions.assertTrue(cursor.next());
+    Assertions.assertEquals(0x104, cursor.getNoteId());
+    Assertions.assertEquals("Hello", cursor.getString(0));
+    Assertions.assertEquals(42.5, cursor.getDouble(1));
+    Assertions.assertEquals(-3, cursor.getDouble(0, -3));
+    Assertions.assertTrue(cursor.isColumnEmpty(2));
+    Assertions.assertNull(cursor.getColumnValue(2));
+    Assertions.assertNull(cursor.getString(2));
+    Assertions.assertEquals(1, cursor.getDouble(3));
+    Assertions.assertEquals("a", cursor.getString(4));
+    Assertions.assertEquals(ItemDataTypeConstants.TYPE_TEXT_LIST, cursor.getColumnType(4));
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> cursor.getColumnType(5));
+    Assertions.assertThrows(IllegalStateException.class, cursor::getUNID);
+
+    Assertions.assertTrue(cursor.next());
+    Assertions.assertEquals(0x108, cursor.getNoteId());
+    Assertions.assertEquals("", cursor.getString(0));
+    Assertions.assertEquals(-1, cursor.getDouble(1));
+    Assertions.assertEquals(7, cursor.getDouble(3, 7));
+    Assertions.assertEquals("x", cursor.getString(4));
+  }
+
+  @Test
+  public void testEmptyBuffer() {
+    NotesLookupResultBufferCursor cursor = new NotesLookupResultBufferCursor(null, 5, 0, READMASK, (short) 0, 0, false);
+    Assertions.assertFalse(cursor.next());
+    Assertions.assertEquals(5, cursor.getSkipCount());
+    Assertions.assertFalse(cursor.hasMoreToDo());
+  }
+}
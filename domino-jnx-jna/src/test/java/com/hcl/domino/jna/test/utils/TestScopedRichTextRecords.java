@@ -0,0 +1,126 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.commons.richtext.RichTextUtil;
+import com.hcl.domino.commons.richtext.records.AbstractCDRecord;
+import com.hcl.domino.richtext.RichTextConstants;
+import com.hcl.domino.richtext.RichTextRecordList;
+import com.hcl.domino.richtext.process.ExtractTextProcessor;
+import com.hcl.domino.richtext.records.CDParagraph;
+import com.hcl.domino.richtext.records.RecordType;
+import com.hcl.domino.richtext.records.RichTextRecord;
+
+@SuppressWarnings("nls")
+public class TestScopedRichTextRecords {
+
+  private static class RecordList extends AbstractList<RichTextRecord<?>> implements RichTextRecordList {
+    private final List<RichTextRecord<?>> records;
+    private final AtomicInteger scopedCalls = new AtomicInteger();
+
+    public RecordList(final RichTextRecord<?>... records) {
+      this.records = Arrays.asList(records);
+    }
+
+    @Override
+    public RichTextRecord<?> get(final int index) {
+      return this.records.get(index);
+    }
+
+    @Override
+    public int size() {
+      return this.records.size();
+    }
+
+    @Override
+    public void forEachScoped(final Predicate<RichTextRecord<?>> consumer) {
+      this.scopedCalls.incrementAndGet();
+      RichTextRecordList.super.forEachScoped(consumer);
+    }
+  }
+
+  private static CDParagraph paragraph() {
+    final ByteBuffer data = ByteBuffer.allocate(2).order(ByteOrder.nativeOrder());
+    data.put((byte) RichTextConstants.SIG_CD_PARAGRAPH).put((byte) 2);
+    data.flip();
+    final AbstractCDRecord<?> record = RichTextUtil.encapsulateRecord(RichTextConstants.SIG_CD_PARAGRAPH, data);
+    return (CDParagraph) RichTextUtil.reencapsulateRecord(RecordType.PARAGRAPH, record, CDParagraph.class);
+  }
+
+  @Test
+  public void testCopyEncapsulated() {
+    final CDParagraph para = paragraph();
+    final RichTextRecord<?> copy = para.copy();
+
+    assertTrue(copy instanceof CDParagraph);
+    // SIG_CD_PARAGRAPH is shared with SIG_ACTION_HEADER, the copy keeps the matched type
+    assertEquals(EnumSet.of(RecordType.PARAGRAPH), copy.getType());
+    assertNotSame(para, copy);
+    assertEquals(para.getData(), copy.getData());
+
+    copy.getData().put(1, (byte) 0);
+    assertEquals(2, para.getCDRecordLength());
+  }
+
+  @Test
+  public void testCopyGeneric() {
+    final ByteBuffer data = ByteBuffer.allocate(6).order(ByteOrder.nativeOrder());
+    data.put((byte) 0x42).put((byte) 6).putInt(0x01020304);
+    data.flip();
+    final RichTextRecord<?> record = RichTextUtil.encapsulateRecord((short) 0x42, data);
+    final RichTextRecord<?> copy = record.copy();
+
+    assertEquals(record.getData(), copy.getData());
+    assertEquals(6, copy.getCDRecordLength());
+    data.put(2, (byte) 0);
+    assertEquals(0x04, copy.getData().get(2));
+  }
+
+  @Test
+  public void testProcessScoped() {
+    final RecordList list = new RecordList(paragraph(), paragraph(), paragraph());
+    final StringBuilder sb = new StringBuilder();
+    list.process(new ExtractTextProcessor(sb) {
+      @Override
+      protected boolean isUseOSLineBreaks() {
+        return false;
+      }
+    });
+
+    assertEquals("\n\n\n\n", sb.toString());
+    assertEquals(1, list.scopedCalls.get());
+
+    // non-scoped processors get the list
+    assertEquals(3, (int) list.process(List::size));
+    assertEquals(1, list.scopedCalls.get());
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jna.test.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.hcl.domino.jna.internal.TinyLfuCache;
+import com.hcl.domino.jna.utils.CacheStats;
+
+@SuppressWarnings("nls")
+public class TestTinyLfuCache {
+
+  private static TinyLfuCache<String, String> createCache(long maxSize) {
+    return new TinyLfuCache<String, String>("test", maxSize) {
+      @Override
+      protected int computeSize(String key, String value) {
+        return key.length() + value.length();
+      }
+    };
+  }
+
+  @Test
+  public void testGetPut() {
+    TinyLfuCache<String, String> cache = createCache(10000);
+    Assertions.assertNull(cache.get("a"));
+    cache.put("a", "1");
+    Assertions.assertEquals("1", cache.get("a"));
+    Assertions.assertEquals("1", cache.put("a", "2"));
+    Assertions.assertEquals("2", cache.get("a"));
+    Assertions.assertEquals(2, cache.getCurrentCacheSizeInUnits());
+    Assertions.assertEquals("2", cache.remove("a"));
+    Assertions.assertNull(cache.get("a"));
+    Assertions.assertEquals(0, cache.getCurrentCacheSizeInUnits());
+
+    CacheStats stats = cache.getStats();
+    Assertions.assertEquals(2, stats.getHits());
+    Assertions.assertEquals(2, stats.getMisses());
+  }
+
+  @Test
+  public void testBounded() {
+    TinyLfuCache<String, String> cache = createCache(10000);
+    for (int i = 0; i < 100000; i++) {
+      String key = "key" + i;
+      cache.get(key);
+      cache.put(key, "value" + i);
+    }
+    Assertions.assertTrue(cache.getCurrentCacheSizeInUnits() <= 10000);
+    CacheStats stats = cache.getStats();
+    Assertions.assertTrue(stats.getEvictions() + stats.getRejections() > 0);
+  }
+
+  @Test
+  public void testFrequentEntriesSurviveScan() {
+    // about 180 entries of 56 units
+    TinyLfuCache<String, String> cache = createCache(10000);
+    String value = String.format("%050d", 0);
+    List<String> hot = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      hot.add(String.format("hot%03d", i));
+    }
+    for (int round = 0; round < 5; round++) {
+      for (String key : hot) {
+        if (cache.get(key) == null) {
+          cache.put(key, value);
+        }
+      }
+    }
+    // one-off keys must not flush the frequently used ones
+    for (int i = 0; i < 2000; i++) {
+      String key = String.format("c%05d", i);
+      cache.get(key);
+      cache.put(key, value);
+    }
+    int hits = 0;
+    for (String key : hot) {
+      if (cache.get(key) != null) {
+        hits++;
+      }
+    }
+    Assertions.assertTrue(hits >= 45, "hot entries found: " + hits);
+    Assertions.assertTrue(cache.getCurrentCacheSizeInUnits() <= 10000);
+  }
+
+  @Test
+  public void testLargeEntries() {
+    TinyLfuCache<String, String> cache = createCache(10000);
+    // heavier than the admission window
+    String large = String.format("%0500d", 0);
+    cache.put("large", large);
+    Assertions.assertEquals(large, cache.get("large"));
+    Assertions.assertEquals(505, cache.getCurrentCacheSizeInUnits());
+
+    // heavier than the main region
+    cache.put("huge", String.format("%09900d", 0));
+    Assertions.assertNull(cache.get("huge"));
+    Assertions.assertEquals(505, cache.getCurrentCacheSizeInUnits());
+  }
+
+  @Test
+  public void testReplaceInWindow() {
+    TinyLfuCache<String, String> cache = createCache(10000);
+    for (int i = 0; i < 100000; i++) {
+      cache.put("a", "value" + i % 10);
+      if (i % 2 == 0) {
+        cache.remove("b");
+      } else {
+        cache.put("b", "1");
+      }
+    }
+    Assertions.assertEquals("value9", cache.get("a"));
+    Assertions.assertEquals("1", cache.get("b"));
+    Assertions.assertEquals(9, cache.getCurrentCacheSizeInUnits());
+    Assertions.assertEquals(0, cache.getStats().getEvictions() + cache.getStats().getRejections());
+  }
+
+  @Test
+  public void testDisabled() {
+    TinyLfuCache<String, String> cache = createCache(0);
+    cache.put("a", "1");
+    Assertions.assertNull(cache.get("a"));
+    Assertions.assertEquals(0, cache.getCurrentCacheSizeInUnits());
+  }
+
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    TinyLfuCache<String, String> cache = createCache(5000);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final int seed = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 20000; i++) {
+            String key = "key" + ((i * 31 + seed) % 2000);
+            if (cache.get(key) == null) {
+              cache.put(key, "value");
+            }
+            if (i % 100 == 0) {
+              cache.remove(key);
+            }
+          }
+        }));
+      }
+      for (Future<?> f : futures) {
+        f.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdown();
+    }
+    // a final write drains pending policy updates
+    cache.put("last", "value");
+    Assertions.assertTrue(cache.getCurrentCacheSizeInUnits() <= 5000);
+    Assertions.assertTrue(cache.getCurrentCacheSizeInUnits() >= 0);
+  }
+}
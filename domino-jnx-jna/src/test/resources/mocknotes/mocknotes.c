@@ -0,0 +1,159 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+
+/*
+ * Stand-in for the C API functions in INotesFastCAPI, used to compare the
+ * interface and direct mapping bindings. Every function derives its return
+ * values from its arguments.
+ */
+
+#include <string.h>
+
+typedef unsigned short WORD;
+typedef unsigned int DWORD;
+typedef unsigned int DHANDLE;
+typedef int BOOL;
+
+typedef struct { DWORD pool; WORD block; } BLOCKID;
+typedef struct { WORD Level; unsigned char MinLevel; unsigned char MaxLevel; DWORD Tumbler[32]; } COLLECTIONPOSITION;
+typedef struct { DWORD Innards[2]; } TIMEDATE;
+
+static char lockedMemory[256];
+
+void *OSLockObject(DHANDLE handle) {
+  return lockedMemory + (handle % 128);
+}
+
+BOOL OSUnlockObject(DHANDLE handle) {
+  return handle % 2;
+}
+
+DWORD OSTranslate32(WORD translateMode, const char *in, DWORD inLength, char *out, DWORD outLength) {
+  DWORD len = inLength < outLength ? inLength : outLength;
+  DWORD i;
+  for (i = 0; i < len; i++) {
+    out[i] = (char) (in[i] + translateMode);
+  }
+  return len;
+}
+
+static WORD itemInfo(DHANDLE note_handle, DWORD pool, WORD block, const char *item_name, WORD name_len,
+    BLOCKID *retbhItem, WORD *retDataType, BLOCKID *retbhValue, DWORD *retValueLength) {
+  if (note_handle == 0) {
+    return 546;
+  }
+  if (retbhItem) {
+    retbhItem->pool = note_handle + pool;
+    retbhItem->block = (WORD) (name_len + block);
+  }
+  if (retDataType) {
+    *retDataType = name_len > 0 ? (WORD) item_name[0] : 0;
+  }
+  if (retbhValue) {
+    retbhValue->pool = pool * 2;
+    retbhValue->block = (WORD) (block + 3);
+  }
+  if (retValueLength) {
+    *retValueLength = note_handle * 10 + name_len;
+  }
+  return 0;
+}
+
+WORD NSFItemInfo(DHANDLE note_handle, const char *item_name, WORD name_len,
+    BLOCKID *retbhItem, WORD *retDataType, BLOCKID *retbhValue, DWORD *retValueLength) {
+  return itemInfo(note_handle, 0, 0, item_name, name_len, retbhItem, retDataType, retbhValue, retValueLength);
+}
+
+WORD NSFItemInfoNext(DHANDLE note_handle, BLOCKID NextItem, const char *item_name, WORD name_len,
+    BLOCKID *retbhItem, WORD *retDataType, BLOCKID *retbhValue, DWORD *retValueLength) {
+  return itemInfo(note_handle, NextItem.pool, NextItem.block, item_name, name_len, retbhItem, retDataType,
+      retbhValue, retValueLength);
+}
+
+void NSFItemQueryEx(DHANDLE note_handle, BLOCKID item_bid, char *item_name, WORD return_buf_len,
+    WORD *name_len_ptr, WORD *item_flags_ptr, WORD *value_datatype_ptr, BLOCKID *value_bid_ptr,
+    DWORD *value_len_ptr, unsigned char *retSeqByte, unsigned char *retDupItemID) {
+  static const char name[] = "Subject";
+  WORD len = (WORD) (sizeof(name) - 1) < return_buf_len ? (WORD) (sizeof(name) - 1) : return_buf_len;
+  if (item_name) {
+    memcpy(item_name, name, len);
+  }
+  if (name_len_ptr) {
+    *name_len_ptr = len;
+  }
+  if (item_flags_ptr) {
+    *item_flags_ptr = (WORD) (item_bid.block | 0x0004);
+  }
+  if (value_datatype_ptr) {
+    *value_datatype_ptr = 1280;
+  }
+  if (value_bid_ptr) {
+    value_bid_ptr->pool = item_bid.pool + note_handle;
+    value_bid_ptr->block = (WORD) (item_bid.block + 1);
+  }
+  if (value_len_ptr) {
+    *value_len_ptr = item_bid.pool * 3;
+  }
+  if (retSeqByte) {
+    *retSeqByte = (unsigned char) note_handle;
+  }
+  if (retDupItemID) {
+    *retDupItemID = (unsigned char) (note_handle + 1);
+  }
+}
+
+BOOL IDScan(DHANDLE hTable, BOOL fFirst, DWORD *retID) {
+  *retID = fFirst ? hTable : hTable + 4;
+  return hTable != 0;
+}
+
+WORD NIFReadEntriesExt(DHANDLE hCollection, COLLECTIONPOSITION *collectionPos,
+    WORD skipNavigator, DWORD skipCount, WORD returnNavigator, DWORD returnCount, DWORD returnMask,
+    TIMEDATE *diffTime, DHANDLE diffIDTable, DWORD columnNumber, DWORD flags,
+    DHANDLE *rethBuffer, WORD *retBufferLength, DWORD *retNumEntriesSkipped, DWORD *retNumEntriesReturned,
+    WORD *retSignalFlags, TIMEDATE *retDiffTime, TIMEDATE *retModifiedTime, DWORD *retSequence) {
+  if (rethBuffer) {
+    *rethBuffer = hCollection + diffIDTable;
+  }
+  if (retBufferLength) {
+    *retBufferLength = (WORD) returnMask;
+  }
+  if (retNumEntriesSkipped) {
+    *retNumEntriesSkipped = skipCount + (collectionPos ? collectionPos->Tumbler[0] : 0);
+  }
+  if (retNumEntriesReturned) {
+    *retNumEntriesReturned = returnCount + (collectionPos ? collectionPos->Level : 0);
+  }
+  if (retSignalFlags) {
+    *retSignalFlags = (WORD) flags;
+  }
+  if (retDiffTime) {
+    retDiffTime->Innards[0] = diffTime ? diffTime->Innards[1] : 0;
+    retDiffTime->Innards[1] = diffTime ? diffTime->Innards[0] : 0;
+  }
+  if (retModifiedTime) {
+    retModifiedTime->Innards[0] = skipNavigator;
+    retModifiedTime->Innards[1] = returnNavigator;
+  }
+  if (retSequence) {
+    *retSequence = columnNumber;
+  }
+  if (collectionPos) {
+    collectionPos->Tumbler[1] = collectionPos->Tumbler[0] + 1;
+  }
+  return (WORD) (skipNavigator + returnNavigator);
+}
@@ -16,6 +16,13 @@
  */
 package com.hcl.domino.jnx.jsonb.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CloseShieldWriter;
+
 import com.hcl.domino.commons.json.AbstractJsonSerializer;
 import com.hcl.domino.data.Document;
 import com.hcl.domino.jnx.jsonb.DocumentJsonbSerializer;
@@ -33,6 +40,32 @@ public class JsonbSerializer extends AbstractJsonSerializer {
     return jsonb.toJson(doc, Document.class);
   }
   
+  /**
+   * Writes the document directly via the JSON-B generator, item by item.
+   * 
+   * @since 1.54.0
+   */
+  @Override
+  public void toJson(final Document doc, final Writer writer) throws IOException {
+    final Jsonb jsonb = buildSerializer();
+    // JSON-B implementations may close the target when done
+    jsonb.toJson(doc, Document.class, CloseShieldWriter.wrap(writer));
+    writer.flush();
+  }
+  
+  /**
+   * Writes the document directly via the JSON-B generator, item by item.
+   * 
+   * @since 1.54.0
+   */
+  @Override
+  public void toJson(final Document doc, final OutputStream out) throws IOException {
+    final Jsonb jsonb = buildSerializer();
+    // JSON-B implementations may close the target when done
+    jsonb.toJson(doc, Document.class, CloseShieldOutputStream.wrap(out));
+    out.flush();
+  }
+  
   @Override
   public Object toJson(final Object value) {
     final Jsonb jsonb = buildSerializer();
@@ -18,24 +18,28 @@ package com.hcl.domino.jnx.rawdoc.json.service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.StringWriter;
 import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
+import java.io.Writer;
 import java.text.MessageFormat;
-import java.util.Base64;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.hcl.domino.commons.json.AbstractJsonSerializer;
 import com.hcl.domino.commons.util.StringUtil;
 import com.hcl.domino.data.Attachment;
-import com.hcl.domino.data.Attachment.IDataCallback;
 import com.hcl.domino.data.Document;
 import com.hcl.domino.data.DocumentClass;
 import com.hcl.domino.data.DominoDateTime;
@@ -69,158 +73,185 @@ public class RawDocSerializer extends AbstractJsonSerializer {
   public static final String PROP_FILE_SIZE = "filesize"; //$NON-NLS-1$
   public static final String PROP_FILE_NAME = "filename"; //$NON-NLS-1$
   
-  private Optional<JsonNode> toJson(ObjectMapper mapper, Item item) {
+  /**
+   * Token buffer that stores binary values as Base64 strings, so that the tree
+   * read from it contains text nodes like the serialized JSON
+   */
+  private static class Base64TokenBuffer extends TokenBuffer {
+    
+    Base64TokenBuffer(ObjectMapper mapper) {
+      super(mapper, false);
+    }
+    
+    @Override
+    public void writeBinary(Base64Variant b64variant, byte[] data, int offset, int len) throws IOException {
+      writeString(b64variant.encode(Arrays.copyOfRange(data, offset, offset + len)));
+    }
+    
+    @Override
+    public int writeBinary(Base64Variant b64variant, InputStream data, int dataLength) {
+      try {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int len;
+        while ((len = data.read(buf)) != -1) {
+          out.write(buf, 0, len);
+        }
+        byte[] bytes = out.toByteArray();
+        writeBinary(b64variant, bytes, 0, bytes.length);
+        return bytes.length;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+  
+  /**
+   * Writes a single item as JSON object
+   * 
+   * @param generator generator to write to
+   * @param item item to write
+   * @throws IOException in case of I/O errors
+   */
+  private void writeItem(JsonGenerator generator, Item item) throws IOException {
     String itemName = item.getName();
     
     if ("$updatedby".equalsIgnoreCase(itemName) || //$NON-NLS-1$
         "$revisions".equalsIgnoreCase(itemName)) { //$NON-NLS-1$
-      return Optional.empty();
+      return;
     }
     
     byte[] rawItemValue = item.getAdapter(byte[].class);
-    if (rawItemValue!=null) {
-      ObjectNode itemNode = mapper.createObjectNode();
-      itemNode.put(PROP_ITEM_NAME, itemName.toLowerCase());
-      
-      itemNode.put(PROP_ITEM_SEQUENCENUMBER, item.getSequenceNumber());
-      
-      ItemDataType itemType = item.getType();
-      JsonNode itemTypeJson = mapper.valueToTree(itemType);
-      itemNode.set(PROP_ITEM_TYPE, itemTypeJson);
-      
-      Set<ItemFlag> itemFlags = item.getFlags();
-      JsonNode itemFlagsJson = mapper.valueToTree(itemFlags);
-      itemNode.set(PROP_ITEM_FLAGS, itemFlagsJson);
-      
-      String itemValueBase64 = Base64.getEncoder().encodeToString(rawItemValue);
-      itemNode.put(PROP_ITEM_VALUE_RAW, itemValueBase64);
-      
-      if (item.getType() == ItemDataType.TYPE_OBJECT) {
-        if ("$file".equalsIgnoreCase(item.getName())) { //$NON-NLS-1$
-          Attachment att = item.getValue()
-              .stream()
-              .filter(Attachment.class::isInstance)
-              .map(Attachment.class::cast)
-              .findFirst().orElse(null);
-          
-          if (att!=null) {
-            itemNode.put(PROP_FILE_NAME, att.getFileName());
-            itemNode.put(PROP_FILE_SIZE, att.getFileSize());
-            itemNode.put(PROP_FILE_COMPRESSION, att.getCompression().name());
-            
-            DominoDateTime dtCreated = att.getFileCreated();
-            if (dtCreated!=null) {
-              String createdIsoStr = dtCreated.toISOString();
-              itemNode.put(PROP_FILE_CREATED, createdIsoStr);
-            }
-            DominoDateTime dtLastModified = att.getFileModified();
-            if (dtLastModified!=null) {
-              String modifiedIsoStr = dtLastModified.toISOString();
-              itemNode.put(PROP_FILE_LASTMODIFIED, modifiedIsoStr);
-            }
-            
-            //TODO uses much heap space; think about an alternative interface for JsonSerializer that writes JSON into a stream
-            ByteArrayOutputStream attOut = new ByteArrayOutputStream();
-            try (OutputStream base64AttOut = Base64.getEncoder().wrap(attOut);) {
-              
-              att.readData(new IDataCallback() {
-                
-                @Override
-                public Action read(byte[] data) {
-                  try {
-                    base64AttOut.write(data);
-                  } catch (IOException e) {
-                    throw new UncheckedIOException(e);
-                  }
-                  return Action.Continue;
-                }
-              });
-            } catch (IOException e1) {
-              throw new UncheckedIOException(e1);
-            }
-            
-            itemNode.put(PROP_FILE_DATA, new String(attOut.toByteArray(), StandardCharsets.UTF_8));
-          }
-          else {
-            //skip this entire item
-            return Optional.empty();
-          }
-        }
-        else {
-          //ignore other TYPE_OBJECT items for now; does probably not make much
-          //sense to serialize them, e.g. an agent's run info
-          return Optional.empty();
+    if (rawItemValue==null) {
+      return;
+    }
+    
+    Attachment att = null;
+    if (item.getType() == ItemDataType.TYPE_OBJECT) {
+      if ("$file".equalsIgnoreCase(item.getName())) { //$NON-NLS-1$
+        att = item.getValue()
+            .stream()
+            .filter(Attachment.class::isInstance)
+            .map(Attachment.class::cast)
+            .findFirst().orElse(null);
+        
+        if (att==null) {
+          //skip this entire item
+          return;
         }
       }
-      
-      return Optional.of(itemNode);
+      else {
+        //ignore other TYPE_OBJECT items for now; does probably not make much
+        //sense to serialize them, e.g. an agent's run info
+        return;
+      }
     }
-    else {
-      return Optional.empty();
+    
+    generator.writeStartObject();
+    generator.writeStringField(PROP_ITEM_NAME, itemName.toLowerCase());
+    
+    generator.writeNumberField(PROP_ITEM_SEQUENCENUMBER, item.getSequenceNumber());
+    
+    ItemDataType itemType = item.getType();
+    generator.writeObjectField(PROP_ITEM_TYPE, itemType);
+    
+    Set<ItemFlag> itemFlags = item.getFlags();
+    generator.writeObjectField(PROP_ITEM_FLAGS, itemFlags);
+    
+    generator.writeFieldName(PROP_ITEM_VALUE_RAW);
+    generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, rawItemValue, 0, rawItemValue.length);
+    
+    if (att!=null) {
+      generator.writeStringField(PROP_FILE_NAME, att.getFileName());
+      generator.writeNumberField(PROP_FILE_SIZE, att.getFileSize());
+      generator.writeStringField(PROP_FILE_COMPRESSION, att.getCompression().name());
+      
+      DominoDateTime dtCreated = att.getFileCreated();
+      if (dtCreated!=null) {
+        String createdIsoStr = dtCreated.toISOString();
+        generator.writeStringField(PROP_FILE_CREATED, createdIsoStr);
+      }
+      DominoDateTime dtLastModified = att.getFileModified();
+      if (dtLastModified!=null) {
+        String modifiedIsoStr = dtLastModified.toISOString();
+        generator.writeStringField(PROP_FILE_LASTMODIFIED, modifiedIsoStr);
+      }
+      
+      //the generator encodes the file content in small chunks, so the attachment
+      //never has to fit into the heap
+      generator.writeFieldName(PROP_FILE_DATA);
+      try (InputStream attIn = att.getInputStream()) {
+        generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, attIn, -1);
+      }
     }
+    
+    generator.writeEndObject();
   }
   
-  @Override
-  public JsonNode toJson(Document doc) {
-    ObjectMapper mapper = new ObjectMapper();
-
-    ObjectNode docNode = mapper.createObjectNode();
+  /**
+   * Writes the document as JSON object
+   * 
+   * @param doc document to write
+   * @param generator generator to write to
+   * @throws IOException in case of I/O errors
+   */
+  private void writeDocument(Document doc, JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
     
     //write optional metadata about the document
     if (includeMetadata) {
-      ObjectNode metaNode = mapper.createObjectNode();
-      docNode.set(PROP_METADATA, metaNode);
+      generator.writeObjectFieldStart(PROP_METADATA);
       
-      metaNode.put(PROP_META_NOTEID, doc.getNoteID());
-      metaNode.put(PROP_META_UNID, doc.getUNID());
+      generator.writeNumberField(PROP_META_NOTEID, doc.getNoteID());
+      generator.writeStringField(PROP_META_UNID, doc.getUNID());
       
       DominoOriginatorId docOID = doc.getOID();
-      metaNode.put(PROP_META_SEQUENCENUMBER, docOID.getSequence());
+      generator.writeNumberField(PROP_META_SEQUENCENUMBER, docOID.getSequence());
       
       DominoDateTime seqTime = docOID.getSequenceTime();
       String seqTimeIsoStr = seqTime.toISOString();
-      metaNode.put(PROP_META_SEQUENCETIME, seqTimeIsoStr);
+      generator.writeStringField(PROP_META_SEQUENCETIME, seqTimeIsoStr);
       
       DominoDateTime created = doc.getCreated();
       if (created!=null) {
         String createdIsoStr = created.toISOString();
-        metaNode.put(PROP_META_CREATED, createdIsoStr);
+        generator.writeStringField(PROP_META_CREATED, createdIsoStr);
       }
       
       DominoDateTime lastModified = doc.getLastModified();
       if (lastModified!=null) {
         String lastModifiedIsoStr = lastModified.toISOString();
-        metaNode.put(PROP_META_LASTMODIFIED, lastModifiedIsoStr);
+        generator.writeStringField(PROP_META_LASTMODIFIED, lastModifiedIsoStr);
       }
       
       DominoDateTime lastAccessed = doc.getLastAccessed();
       if (lastAccessed!=null) {
         String lastAccessedIsoStr = lastAccessed.toISOString();
-        metaNode.put(PROP_META_LASTACCESSED, lastAccessedIsoStr);
+        generator.writeStringField(PROP_META_LASTACCESSED, lastAccessedIsoStr);
       }
 
       DominoDateTime addedToFile = doc.getAddedToFile();
       if (addedToFile!=null) {
         String addedToFileIsoStr = addedToFile.toISOString();
-        metaNode.put(PROP_META_ADDEDTOFILE, addedToFileIsoStr);
+        generator.writeStringField(PROP_META_ADDEDTOFILE, addedToFileIsoStr);
       }
 
       if (doc.isSigned()) {
         String signer = doc.getSigner();
         if (!StringUtil.isEmpty(signer)) {
-          metaNode.put( PROP_META_SIGNER, doc.getSigner());
+          generator.writeStringField(PROP_META_SIGNER, doc.getSigner());
         }
       }
+      
+      generator.writeEndObject();
     }
     
     //write required document content to recreate it from JSON
     
     Set<DocumentClass> docClass = doc.getDocumentClass();
-    JsonNode docClassJson = mapper.valueToTree(docClass);
-    docNode.set(PROP_META_NOTECLASS, docClassJson);
+    generator.writeObjectField(PROP_META_NOTECLASS, docClass);
 
-    ArrayNode itemsArr = mapper.createArrayNode();
-    docNode.set(PROP_ITEMS, itemsArr);
+    generator.writeArrayFieldStart(PROP_ITEMS);
     
     final Set<String> handledItems = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
     //we don't exclude JsonSerializer.DEFAULT_EXCLUDED_ITEMS here which contains $fonts, because that one seems to make sense to be included here
@@ -232,24 +263,69 @@ public class RawDocSerializer extends AbstractJsonSerializer {
       handledItems.addAll(this.skippedItemNames);
     }
 
-    doc.allItems()
+    Iterator<Item> items = doc.allItems()
     .filter((item) -> {
       String itemName = item.getName();
       return !handledItems.contains(item.getName()) && !AbstractJsonSerializer.isExcludedField(itemName);
     })
-    .forEach((item) -> {
+    .iterator();
+    
+    while (items.hasNext()) {
+      Item item = items.next();
       final ItemDataType type = item.getType();
       if (this.excludedTypes != null && this.excludedTypes.contains(type)) {
-        return;
+        continue;
       }
       
-      Optional<JsonNode> itemJson = toJson(mapper, item);
-      if (itemJson.isPresent()) {
-        itemsArr.add(itemJson.get());
-      }
-    });
-
-    return docNode;
+      writeItem(generator, item);
+    }
+    
+    generator.writeEndArray();
+    generator.writeEndObject();
+  }
+  
+  @Override
+  public JsonNode toJson(Document doc) {
+    ObjectMapper mapper = new ObjectMapper();
+    
+    //buffers the tokens instead of writing and parsing a JSON string
+    try (TokenBuffer buffer = new Base64TokenBuffer(mapper)) {
+      writeDocument(doc, buffer);
+      return mapper.readTree(buffer.asParser());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+  
+  @Override
+  public String toJsonString(Document doc) {
+    StringWriter writer = new StringWriter();
+    try {
+      toJson(doc, writer);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
+  }
+  
+  @Override
+  public void toJson(Document doc, OutputStream out) throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    
+    try (JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      writeDocument(doc, generator);
+    }
+  }
+  
+  @Override
+  public void toJson(Document doc, Writer writer) throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    
+    try (JsonGenerator generator = mapper.getFactory().createGenerator(writer)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      writeDocument(doc, generator);
+    }
   }
 
   @Override
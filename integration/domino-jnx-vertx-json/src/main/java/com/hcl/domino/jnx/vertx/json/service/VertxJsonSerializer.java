@@ -18,11 +18,15 @@ package com.hcl.domino.jnx.vertx.json.service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Formatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
@@ -31,6 +35,8 @@ import java.util.stream.Collectors;
 import org.apache.commons.io.IOUtils;
 
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -46,6 +52,7 @@ import com.hcl.domino.data.DominoDateRange;
 import com.hcl.domino.data.DominoDateTime;
 import com.hcl.domino.data.DominoOriginatorId;
 import com.hcl.domino.data.DominoTimeType;
+import com.hcl.domino.data.Item;
 import com.hcl.domino.data.ItemDataType;
 import com.hcl.domino.design.DesignAgent;
 import com.hcl.domino.design.DesignElement;
@@ -81,6 +88,7 @@ import com.hcl.domino.richtext.structures.MemoryStructure;
 import com.hcl.domino.richtext.structures.ResizableMemoryStructure;
 
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
@@ -122,6 +130,83 @@ public class VertxJsonSerializer extends AbstractJsonSerializer {
   public JsonObject toJson(final Document doc) {
     final JsonObject result = new JsonObject();
 
+    final Set<String> handledItems = this.createHandledItems();
+
+    if (this.includeMetadata) {
+      result.put(JsonSerializer.PROP_METADATA, this.toMetadataJson(doc));
+    }
+
+    if(!this.metaOnly) {
+      doc.forEachItem((item, loop) -> this.putItem(doc, item, handledItems, result));
+    }
+
+    return result;
+  }
+
+  /**
+   * @since 1.54.0
+   */
+  @Override
+  public void toJson(final Document doc, final Writer writer) throws IOException {
+    try (JsonGenerator generator = DatabindCodec.mapper().getFactory().createGenerator(writer)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      this.writeDocument(doc, generator);
+    }
+  }
+
+  /**
+   * @since 1.54.0
+   */
+  @Override
+  public void toJson(final Document doc, final OutputStream out) throws IOException {
+    try (JsonGenerator generator = DatabindCodec.mapper().getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      this.writeDocument(doc, generator);
+    }
+  }
+
+  /**
+   * Writes the document to the generator item by item, so that only a single item
+   * value is held in memory at a time.
+   *
+   * @param doc       the document to serialize
+   * @param generator the generator to write to
+   * @throws IOException in case of I/O errors
+   */
+  private void writeDocument(final Document doc, final JsonGenerator generator) throws IOException {
+    final Set<String> handledItems = this.createHandledItems();
+
+    generator.writeStartObject();
+
+    if (this.includeMetadata) {
+      generator.writeFieldName(JsonSerializer.PROP_METADATA);
+      generator.writeObject(this.toMetadataJson(doc));
+    }
+
+    if(!this.metaOnly) {
+      final JsonObject itemJson = new JsonObject();
+      try {
+        doc.forEachItem((item, loop) -> {
+          this.putItem(doc, item, handledItems, itemJson);
+          try {
+            for (final Map.Entry<String, Object> entry : itemJson) {
+              generator.writeFieldName(entry.getKey());
+              generator.writeObject(entry.getValue());
+            }
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          itemJson.clear();
+        });
+      } catch (final UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+
+    generator.writeEndObject();
+  }
+
+  private Set<String> createHandledItems() {
     final Set<String> handledItems = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
     handledItems.addAll(JsonSerializer.DEFAULT_EXCLUDED_ITEMS);
     if (this.includedItemNames != null) {
@@ -130,267 +215,264 @@ public class VertxJsonSerializer extends AbstractJsonSerializer {
     if (this.skippedItemNames != null) {
       handledItems.addAll(this.skippedItemNames);
     }
+    return handledItems;
+  }
 
-    if (this.includeMetadata) {
-      final JsonObject meta = new JsonObject();
-      result.put(JsonSerializer.PROP_METADATA, meta);
-      meta.put(JsonSerializer.PROP_META_NOTEID, doc.getNoteID());
-      meta.put(JsonSerializer.PROP_META_UNID, doc.getUNID());
-      meta.put(JsonSerializer.PROP_META_CREATED, doc.getCreated().toISOString());
-      meta.put(JsonSerializer.PROP_META_LASTMODIFIED, doc.getLastModified().toISOString());
-      meta.put(JsonSerializer.PROP_META_LASTACCESSED, doc.getLastAccessed().toISOString());
-      meta.put(JsonSerializer.PROP_META_LASTMODIFIEDINFILE, doc.getModifiedInThisFile().toISOString());
-      meta.put(JsonSerializer.PROP_META_ADDEDTOFILE, doc.getAddedToFile().toISOString());
-      meta.put(JsonSerializer.PROP_META_NOTECLASS,
-          doc.getDocumentClass().stream()
-              .map(DocumentClass::name)
-              .collect(Collectors.toList()));
-      meta.put(JsonSerializer.PROP_META_UNREAD, doc.isUnread());
-      meta.put(JsonSerializer.PROP_META_EDITABLE, doc.isEditable());
-      {
-        DominoOriginatorId oid = doc.getOID();
-        int[] seqTime = oid.getSequenceTime().getAdapter(int[].class);
-        
-        try(Formatter formatter = new Formatter()) {
-          formatter.format("%08x", oid.getSequence()); //$NON-NLS-1$
-          formatter.format("%08x", seqTime[0]); //$NON-NLS-1$
-          formatter.format("%08x", seqTime[1]); //$NON-NLS-1$
-          meta.put(JsonSerializer.PROP_META_REVISION, formatter.toString().toUpperCase());
-        }
-      }
+  private JsonObject toMetadataJson(final Document doc) {
+    final JsonObject meta = new JsonObject();
+    meta.put(JsonSerializer.PROP_META_NOTEID, doc.getNoteID());
+    meta.put(JsonSerializer.PROP_META_UNID, doc.getUNID());
+    meta.put(JsonSerializer.PROP_META_CREATED, doc.getCreated().toISOString());
+    meta.put(JsonSerializer.PROP_META_LASTMODIFIED, doc.getLastModified().toISOString());
+    meta.put(JsonSerializer.PROP_META_LASTACCESSED, doc.getLastAccessed().toISOString());
+    meta.put(JsonSerializer.PROP_META_LASTMODIFIEDINFILE, doc.getModifiedInThisFile().toISOString());
+    meta.put(JsonSerializer.PROP_META_ADDEDTOFILE, doc.getAddedToFile().toISOString());
+    meta.put(JsonSerializer.PROP_META_NOTECLASS,
+        doc.getDocumentClass().stream()
+            .map(DocumentClass::name)
+            .collect(Collectors.toList()));
+    meta.put(JsonSerializer.PROP_META_UNREAD, doc.isUnread());
+    meta.put(JsonSerializer.PROP_META_EDITABLE, doc.isEditable());
+    {
+      DominoOriginatorId oid = doc.getOID();
+      int[] seqTime = oid.getSequenceTime().getAdapter(int[].class);
       
-      if(doc.isResponse()) {
-        meta.put(JsonSerializer.PROP_META_PARENTUNID, doc.getParentDocumentUNID());
-      }
-      Optional<String> threadId = doc.getThreadID();
-      if(threadId.isPresent()) {
-        meta.put(JsonSerializer.PROP_META_THREADID, threadId.get());
+      try(Formatter formatter = new Formatter()) {
+        formatter.format("%08x", oid.getSequence()); //$NON-NLS-1$
+        formatter.format("%08x", seqTime[0]); //$NON-NLS-1$
+        formatter.format("%08x", seqTime[1]); //$NON-NLS-1$
+        meta.put(JsonSerializer.PROP_META_REVISION, formatter.toString().toUpperCase());
       }
+    }
+    
+    if(doc.isResponse()) {
+      meta.put(JsonSerializer.PROP_META_PARENTUNID, doc.getParentDocumentUNID());
+    }
+    Optional<String> threadId = doc.getThreadID();
+    if(threadId.isPresent()) {
+      meta.put(JsonSerializer.PROP_META_THREADID, threadId.get());
+    }
 
-      
-      if(doc.isSigned()) {
-        String signer;
-        try {
-          signer = doc.getSigner();
-        } catch(DominoException e) {
-          // Likely in many cases - no cross cert, mismatched pub key, etc.
-          signer = e.getLocalizedMessage();
-        }
-        meta.put(JsonSerializer.PROP_META_SIGNER, signer);
+    
+    if(doc.isSigned()) {
+      String signer;
+      try {
+        signer = doc.getSigner();
+      } catch(DominoException e) {
+        // Likely in many cases - no cross cert, mismatched pub key, etc.
+        signer = e.getLocalizedMessage();
       }
+      meta.put(JsonSerializer.PROP_META_SIGNER, signer);
     }
+    return meta;
+  }
 
-    if(!this.metaOnly) {
-      doc.forEachItem((item, loop) -> {
-        final String itemName = item.getName();
-        if (itemName != null && !handledItems.contains(itemName)) {
-          handledItems.add(itemName);
-  
-          if (this.includedItemNames != null && !this.includedItemNames.contains(itemName)) {
-            // Skip
-            return;
+  private void putItem(final Document doc, final Item item, final Set<String> handledItems, final JsonObject result) {
+    final String itemName = item.getName();
+    if (itemName != null && !handledItems.contains(itemName)) {
+      handledItems.add(itemName);
+
+      if (this.includedItemNames != null && !this.includedItemNames.contains(itemName)) {
+        // Skip
+        return;
+      }
+
+      final ItemDataType type = item.getType();
+      if ((this.excludedTypes != null && this.excludedTypes.contains(type)) || AbstractJsonSerializer.isExcludedField(itemName)) {
+        return;
+      }
+
+      final String propName = this.lowercaseProperties ? itemName.toLowerCase() : itemName;
+
+      if (this.customProcessors.containsKey(itemName)) {
+        result.put(propName, this.customProcessors.get(itemName).apply(doc, itemName));
+        return;
+      }
+
+      switch (type) {
+        case TYPE_NUMBER: {
+          final double value = item.get(double.class, 0d);
+          if (this.booleanItemNames.contains(propName)) {
+            final boolean val = AbstractJsonSerializer.matchesBooleanValues(value, this.booleanTrueValues);
+            result.put(propName, val);
+          } else {
+            result.put(propName, value);
           }
-  
-          final ItemDataType type = item.getType();
-          if ((this.excludedTypes != null && this.excludedTypes.contains(type)) || AbstractJsonSerializer.isExcludedField(itemName)) {
-            return;
+          break;
+        }
+        case TYPE_NUMBER_RANGE: {
+          final List<Double> vals = item.getAsList(Double.class, Collections.emptyList());
+          if (this.booleanItemNames.contains(propName)) {
+            if (vals.size() == 1) {
+              final boolean val = AbstractJsonSerializer.matchesBooleanValues(vals.get(0), this.booleanTrueValues);
+              result.put(propName, val);
+            } else {
+              result.put(propName, false);
+            }
+          } else {
+            result.put(propName, vals);
           }
-  
-          final String propName = this.lowercaseProperties ? itemName.toLowerCase() : itemName;
-  
-          if (this.customProcessors.containsKey(itemName)) {
-            result.put(propName, this.customProcessors.get(itemName).apply(doc, itemName));
-            return;
+          break;
+        }
+        case TYPE_RFC822_TEXT:
+        case TYPE_TEXT: {
+          final String val = item.get(String.class, null);
+          if (this.booleanItemNames.contains(propName)) {
+            final boolean boolVal = AbstractJsonSerializer.matchesBooleanValues(val, this.booleanTrueValues);
+            result.put(propName, boolVal);
+          } else {
+            if (val == null) {
+              result.putNull(propName);
+            } else {
+              result.put(propName, val);
+            }
           }
-  
-          switch (type) {
-            case TYPE_NUMBER: {
-              final double value = item.get(double.class, 0d);
-              if (this.booleanItemNames.contains(propName)) {
-                final boolean val = AbstractJsonSerializer.matchesBooleanValues(value, this.booleanTrueValues);
-                result.put(propName, val);
-              } else {
-                result.put(propName, value);
-              }
-              break;
+          break;
+        }
+        case TYPE_TEXT_LIST: {
+          final List<String> vals = item.getAsList(String.class, Collections.emptyList());
+          if (this.booleanItemNames.contains(propName)) {
+            if (vals.size() == 1) {
+              final boolean val = AbstractJsonSerializer.matchesBooleanValues(vals.get(0), this.booleanTrueValues);
+              result.put(propName, val);
+            } else {
+              result.put(propName, false);
             }
-            case TYPE_NUMBER_RANGE: {
-              final List<Double> vals = item.getAsList(Double.class, Collections.emptyList());
-              if (this.booleanItemNames.contains(propName)) {
-                if (vals.size() == 1) {
-                  final boolean val = AbstractJsonSerializer.matchesBooleanValues(vals.get(0), this.booleanTrueValues);
-                  result.put(propName, val);
-                } else {
-                  result.put(propName, false);
-                }
-              } else {
-                result.put(propName, vals);
-              }
-              break;
+          } else {
+            boolean flatten = vals.size() == 1 && vals.get(0).isEmpty() && this.flattenBlankStringList;
+
+            if (flatten) {
+              result.put(propName, Collections.emptyList());
+            } else {
+              result.put(propName, vals);
             }
-            case TYPE_RFC822_TEXT:
-            case TYPE_TEXT: {
-              final String val = item.get(String.class, null);
-              if (this.booleanItemNames.contains(propName)) {
-                final boolean boolVal = AbstractJsonSerializer.matchesBooleanValues(val, this.booleanTrueValues);
-                result.put(propName, boolVal);
-              } else {
-                if (val == null) {
-                  result.putNull(propName);
-                } else {
-                  result.put(propName, val);
-                }
-              }
-              break;
+          }
+          break;
+        }
+        case TYPE_TIME: {
+          final DominoTimeType val = item.get(DominoTimeType.class, null);
+          this.writeTimeProperty(result, propName, val);
+          break;
+        }
+        case TYPE_TIME_RANGE: {
+          final List<DominoTimeType> vals = item.getAsList(DominoTimeType.class, Collections.emptyList());
+          if (vals.size() == 1) {
+            this.writeTimeProperty(result, propName, vals.get(0));
+          } else {
+            result.put(propName,
+                vals.stream()
+                    .map(dt -> {
+                      if (dt instanceof DominoDateTime) {
+                        return ((DominoDateTime) dt).toISOString();
+                      } else {
+                        switch (this.dateRangeFormat) {
+                          case OBJECT:
+                            final JsonObject inner = new JsonObject();
+                            inner.put(JsonSerializer.PROP_RANGE_FROM, ((DominoDateRange) dt).getStartDateTime());
+                            inner.put(JsonSerializer.PROP_RANGE_TO, ((DominoDateRange) dt).getEndDateTime());
+                            return result;
+                          case ISO:
+                          default:
+                            return JsonUtil.toIsoString((DominoDateRange) dt);
+                        }
+                      }
+                    })
+                    .collect(Collectors.toList()));
+          }
+          break;
+        }
+        case TYPE_COMPOSITE:
+          try {
+            final RichTextHTMLConverter.Builder builder = doc.getParentDatabase()
+                .getParentDominoClient()
+                .getRichTextHtmlConverter()
+                .renderItem(doc, propName);
+            if (this.htmlConvertOptions.isEmpty()) {
+              builder.option(HtmlConvertOption.XMLCompatibleHTML, "1"); //$NON-NLS-1$
+            } else {
+              this.htmlConvertOptions.forEach(builder::option);
             }
-            case TYPE_TEXT_LIST: {
-              final List<String> vals = item.getAsList(String.class, Collections.emptyList());
-              if (this.booleanItemNames.contains(propName)) {
-                if (vals.size() == 1) {
-                  final boolean val = AbstractJsonSerializer.matchesBooleanValues(vals.get(0), this.booleanTrueValues);
-                  result.put(propName, val);
-                } else {
-                  result.put(propName, false);
-                }
-              } else {
-                boolean flatten = vals.size() == 1 && vals.get(0).isEmpty() && this.flattenBlankStringList;
-
-                if (flatten) {
-                  result.put(propName, Collections.emptyList());
-                } else {
-                  result.put(propName, vals);
-                }
-              }
-              break;
+            final HtmlConversionResult conv = builder.convert();
+            result.put(propName, conv.getHtml());
+          } catch (ItemNotFoundException | EntryNotFoundInIndexException e) {
+            // Occurs with design notes
+            result.put(propName, ""); //$NON-NLS-1$
+          } catch (final DominoException e) {
+            switch (e.getId()) {
+              case 14941:
+              case 14944:
+                // Un-messaged error codes observed with design notes
+                result.put(propName, ""); //$NON-NLS-1$
+                break;
+              default:
+                throw e;
             }
-            case TYPE_TIME: {
-              final DominoTimeType val = item.get(DominoTimeType.class, null);
-              this.writeTimeProperty(result, propName, val);
-              break;
+          }
+          break;
+        case TYPE_MIME_PART:
+          // TODO read inline?
+          // TODO rationalize multiple body types
+          
+          // Re-open the doc to avoid trouble we've seen with crashing in
+          //   item iteration in some cases
+          try(AutoCloseableDocument doc2 = doc.getParentDatabase().getDocumentById(doc.getNoteID()).get().autoClosable()) {
+            final MimeMessage mime = doc.getParentDatabase()
+                .getParentDominoClient()
+                .getMimeReader()
+                .readMIME(doc2, propName, EnumSet.of(ReadMimeDataType.MIMEHEADERS));
+            String content;
+            try (InputStream is = mime.getInputStream()) {
+              content = IOUtils.toString(is, StandardCharsets.UTF_8);
+            } catch (IOException | MessagingException e) {
+              throw new RuntimeException(e);
             }
-            case TYPE_TIME_RANGE: {
-              final List<DominoTimeType> vals = item.getAsList(DominoTimeType.class, Collections.emptyList());
-              if (vals.size() == 1) {
-                this.writeTimeProperty(result, propName, vals.get(0));
-              } else {
-                result.put(propName,
-                    vals.stream()
-                        .map(dt -> {
-                          if (dt instanceof DominoDateTime) {
-                            return ((DominoDateTime) dt).toISOString();
-                          } else {
-                            switch (this.dateRangeFormat) {
-                              case OBJECT:
-                                final JsonObject inner = new JsonObject();
-                                inner.put(JsonSerializer.PROP_RANGE_FROM, ((DominoDateRange) dt).getStartDateTime());
-                                inner.put(JsonSerializer.PROP_RANGE_TO, ((DominoDateRange) dt).getEndDateTime());
-                                return result;
-                              case ISO:
-                              default:
-                                return JsonUtil.toIsoString((DominoDateRange) dt);
-                            }
-                          }
-                        })
-                        .collect(Collectors.toList()));
-              }
-              break;
+            if (content == null) {
+              result.putNull(propName);
+            } else {
+              result.put(propName, content.toString());
             }
-            case TYPE_COMPOSITE:
-              try {
-                final RichTextHTMLConverter.Builder builder = doc.getParentDatabase()
-                    .getParentDominoClient()
-                    .getRichTextHtmlConverter()
-                    .renderItem(doc, propName);
-                if (this.htmlConvertOptions.isEmpty()) {
-                  builder.option(HtmlConvertOption.XMLCompatibleHTML, "1"); //$NON-NLS-1$
-                } else {
-                  this.htmlConvertOptions.forEach(builder::option);
-                }
-                final HtmlConversionResult conv = builder.convert();
-                result.put(propName, conv.getHtml());
-              } catch (ItemNotFoundException | EntryNotFoundInIndexException e) {
-                // Occurs with design notes
-                result.put(propName, ""); //$NON-NLS-1$
-              } catch (final DominoException e) {
-                switch (e.getId()) {
-                  case 14941:
-                  case 14944:
-                    // Un-messaged error codes observed with design notes
-                    result.put(propName, ""); //$NON-NLS-1$
-                    break;
-                  default:
-                    throw e;
-                }
-              }
-              break;
-            case TYPE_MIME_PART:
-              // TODO read inline?
-              // TODO rationalize multiple body types
-              
-              // Re-open the doc to avoid trouble we've seen with crashing in
-              //   item iteration in some cases
-              try(AutoCloseableDocument doc2 = doc.getParentDatabase().getDocumentById(doc.getNoteID()).get().autoClosable()) {
-                final MimeMessage mime = doc.getParentDatabase()
-                    .getParentDominoClient()
-                    .getMimeReader()
-                    .readMIME(doc2, propName, EnumSet.of(ReadMimeDataType.MIMEHEADERS));
-                String content;
-                try (InputStream is = mime.getInputStream()) {
-                  content = IOUtils.toString(is, StandardCharsets.UTF_8);
-                } catch (IOException | MessagingException e) {
-                  throw new RuntimeException(e);
-                }
-                if (content == null) {
-                  result.putNull(propName);
-                } else {
-                  result.put(propName, content.toString());
-                }
-              }
-              break;
-            case TYPE_HTML:
-              // TODO this is probably a specialized value, but the underlying API could
-              // handle converting to string
-              break;
-            case TYPE_USERDATA:
-              // TODO Base64? Custom adapters?
-              break;
-            case TYPE_FORMULA:
-            case TYPE_ERROR:
-            case TYPE_NOTEREF_LIST:
-              // TODO convert to string?
-              break;
-            case TYPE_ACTION:
-            case TYPE_ASSISTANT_INFO:
-            case TYPE_CALENDAR_FORMAT:
-            case TYPE_COLLATION:
-            case TYPE_HIGHLIGHTS:
-            case TYPE_ICON:
-            case TYPE_INVALID_OR_UNKNOWN:
-            case TYPE_LSOBJECT:
-            case TYPE_NOTELINK_LIST:
-            case TYPE_OBJECT:
-            case TYPE_QUERY:
-            case TYPE_SCHED_LIST:
-            case TYPE_SEAL:
-            case TYPE_SEAL2:
-            case TYPE_SEALDATA:
-            case TYPE_SEAL_LIST:
-            case TYPE_SIGNATURE:
-            case TYPE_UNAVAILABLE:
-            case TYPE_USERID:
-            case TYPE_VIEWMAP_DATASET:
-            case TYPE_VIEWMAP_LAYOUT:
-            case TYPE_VIEW_FORMAT:
-            case TYPE_WORKSHEET_DATA:
-            default:
-              break;
-  
           }
-        }
-      });
-    }
+          break;
+        case TYPE_HTML:
+          // TODO this is probably a specialized value, but the underlying API could
+          // handle converting to string
+          break;
+        case TYPE_USERDATA:
+          // TODO Base64? Custom adapters?
+          break;
+        case TYPE_FORMULA:
+        case TYPE_ERROR:
+        case TYPE_NOTEREF_LIST:
+          // TODO convert to string?
+          break;
+        case TYPE_ACTION:
+        case TYPE_ASSISTANT_INFO:
+        case TYPE_CALENDAR_FORMAT:
+        case TYPE_COLLATION:
+        case TYPE_HIGHLIGHTS:
+        case TYPE_ICON:
+        case TYPE_INVALID_OR_UNKNOWN:
+        case TYPE_LSOBJECT:
+        case TYPE_NOTELINK_LIST:
+        case TYPE_OBJECT:
+        case TYPE_QUERY:
+        case TYPE_SCHED_LIST:
+        case TYPE_SEAL:
+        case TYPE_SEAL2:
+        case TYPE_SEALDATA:
+        case TYPE_SEAL_LIST:
+        case TYPE_SIGNATURE:
+        case TYPE_UNAVAILABLE:
+        case TYPE_USERID:
+        case TYPE_VIEWMAP_DATASET:
+        case TYPE_VIEWMAP_LAYOUT:
+        case TYPE_VIEW_FORMAT:
+        case TYPE_WORKSHEET_DATA:
+        default:
+          break;
 
-    return result;
+      }
+    }
   }
 
   private void writeTimeProperty(final JsonObject result, final String propName, final DominoTimeType val) {
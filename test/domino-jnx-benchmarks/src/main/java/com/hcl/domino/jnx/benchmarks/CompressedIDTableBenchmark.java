@@ -0,0 +1,105 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.hcl.domino.commons.data.CompressedIDTable;
+
+/**
+ * Set operations on ID tables shaped like the result of
+ * {@code getAllNoteIds}: dense runs of note ids with a step of 4, and a
+ * second table selecting a random subset like a folder would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressedIDTableBenchmark {
+  @Param({ "10000", "1000000" })
+  public int documents;
+
+  private int[] allIds;
+  private CompressedIDTable all;
+  private CompressedIDTable folder;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random(this.documents);
+    this.allIds = new int[this.documents];
+    this.folder = new CompressedIDTable();
+    for (int i = 0; i < this.documents; i++) {
+      this.allIds[i] = 0x100 + 4 * i;
+      if (random.nextInt(10) == 0) {
+        this.folder.addInt(this.allIds[i]);
+      }
+    }
+    this.all = CompressedIDTable.of(this.allIds);
+  }
+
+  @Benchmark
+  public CompressedIDTable build() {
+    return CompressedIDTable.of(this.allIds);
+  }
+
+  @Benchmark
+  public CompressedIDTable intersect() {
+    return this.all.intersect(this.folder);
+  }
+
+  @Benchmark
+  public CompressedIDTable difference() {
+    return this.all.difference(this.folder);
+  }
+
+  @Benchmark
+  public CompressedIDTable union() {
+    return this.folder.union(this.all);
+  }
+
+  @Benchmark
+  public void forEachInt(final Blackhole blackhole) {
+    this.all.forEachInt(blackhole::consume);
+  }
+
+  @Benchmark
+  public int containsAll() {
+    int found = 0;
+    for (final int noteId : this.allIds) {
+      if (this.folder.containsInt(noteId)) {
+        found++;
+      }
+    }
+    return found;
+  }
+}
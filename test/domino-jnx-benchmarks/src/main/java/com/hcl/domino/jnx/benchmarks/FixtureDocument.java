@@ -0,0 +1,168 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.hcl.domino.data.Document;
+import com.hcl.domino.data.Item;
+import com.hcl.domino.data.ItemDataType;
+import com.hcl.domino.misc.Loop;
+
+/**
+ * In-memory {@link Document} with text and number items, sufficient to drive the
+ * JSON serializers without a Notes runtime. Methods not needed for item
+ * serialization return default values.
+ */
+public final class FixtureDocument {
+
+  private static class ItemLoop extends Loop {
+    void next(final int index, final boolean last) {
+      setIndex(index);
+      if (last) {
+        setIsLast();
+      }
+    }
+  }
+
+  private FixtureDocument() {
+  }
+
+  /**
+   * Creates a document with a typical mix of item types
+   *
+   * @param itemCount number of items per type
+   * @return document
+   */
+  @SuppressWarnings("nls")
+  public static Document createSample(final int itemCount) {
+    final Map<String, Object> items = new LinkedHashMap<>();
+    items.put("Form", "Memo");
+    for (int i = 0; i < itemCount; i++) {
+      items.put("Subject" + i, "Quarterly report for Müller & Søn " + i);
+      items.put("Names" + i, Arrays.asList("CN=User " + i + "/O=Acme", "CN=Other User/O=Acme", "LocalDomainAdmins"));
+      items.put("Amount" + i, i * 1.5d);
+      items.put("Values" + i, Arrays.asList(1d, 2d, (double) i));
+    }
+    return create(items);
+  }
+
+  /**
+   * Creates a document from item values; supported values are {@link String},
+   * {@link Double} and lists of those
+   *
+   * @param items item values by name
+   * @return document
+   */
+  public static Document create(final Map<String, Object> items) {
+    final List<Item> itemList = new ArrayList<>(items.size());
+    items.forEach((name, value) -> itemList.add(createItem(name, value)));
+
+    final InvocationHandler handler = (proxy, method, args) -> {
+      if ("forEachItem".equals(method.getName()) && args.length == 1) { //$NON-NLS-1$
+        @SuppressWarnings("unchecked")
+        final BiConsumer<Item, Loop> consumer = (BiConsumer<Item, Loop>) args[0];
+        final ItemLoop loop = new ItemLoop();
+        for (int i = 0; i < itemList.size() && !loop.isStopped(); i++) {
+          loop.next(i, i == itemList.size() - 1);
+          consumer.accept(itemList.get(i), loop);
+        }
+        return proxy;
+      }
+      return defaultValue(proxy, method, args);
+    };
+    return (Document) Proxy.newProxyInstance(FixtureDocument.class.getClassLoader(), new Class<?>[] { Document.class }, handler);
+  }
+
+  private static Item createItem(final String name, final Object value) {
+    final List<?> values = value instanceof List ? (List<?>) value : Collections.singletonList(value);
+    final boolean isNumber = !values.isEmpty() && values.get(0) instanceof Number;
+    final ItemDataType type;
+    if (value instanceof List) {
+      type = isNumber ? ItemDataType.TYPE_NUMBER_RANGE : ItemDataType.TYPE_TEXT_LIST;
+    } else {
+      type = isNumber ? ItemDataType.TYPE_NUMBER : ItemDataType.TYPE_TEXT;
+    }
+
+    final InvocationHandler handler = (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "getName": //$NON-NLS-1$
+          return name;
+        case "getType": //$NON-NLS-1$
+          return type;
+        case "get": //$NON-NLS-1$
+          if (args.length == 2) {
+            return values.isEmpty() ? args[1] : values.get(0);
+          }
+          break;
+        case "getAsList": //$NON-NLS-1$
+          if (args.length == 2) {
+            return values;
+          }
+          break;
+        default:
+          break;
+      }
+      return defaultValue(proxy, method, args);
+    };
+    return (Item) Proxy.newProxyInstance(FixtureDocument.class.getClassLoader(), new Class<?>[] { Item.class }, handler);
+  }
+
+  private static Object defaultValue(final Object proxy, final Method method, final Object[] args) {
+    switch (method.getName()) {
+      case "hashCode": //$NON-NLS-1$
+        return System.identityHashCode(proxy);
+      case "equals": //$NON-NLS-1$
+        return proxy == args[0];
+      case "toString": //$NON-NLS-1$
+        return "FixtureDocument"; //$NON-NLS-1$
+      default:
+        break;
+    }
+    final Class<?> returnType = method.getReturnType();
+    if (returnType == boolean.class) {
+      return false;
+    } else if (returnType == int.class) {
+      return 0;
+    } else if (returnType == long.class) {
+      return 0L;
+    } else if (returnType == short.class) {
+      return (short) 0;
+    } else if (returnType == double.class) {
+      return 0d;
+    } else if (returnType == float.class) {
+      return 0f;
+    } else if (returnType == byte.class) {
+      return (byte) 0;
+    } else if (returnType == char.class) {
+      return (char) 0;
+    } else if (returnType.isInstance(proxy)) {
+      return proxy;
+    } else {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+
+import com.hcl.domino.data.ItemDataTypeConstants;
+import com.hcl.domino.jna.internal.LMBCSCodec;
+import com.hcl.domino.jna.internal.NotesStringUtils.LineBreakConversion;
+
+/**
+ * Writes the fixture buffers used by the benchmarks. Run with the target
+ * directory as argument, defaults to {@code src/main/resources/fixtures}.
+ */
+@SuppressWarnings("nls")
+public class FixtureGenerator {
+
+  public static void main(final String[] args) throws IOException {
+    final Path dir = Paths.get(args.length > 0 ? args[0] : "src/main/resources/fixtures");
+    Files.createDirectories(dir);
+
+    Files.write(dir.resolve(Fixtures.LOOKUP_SUMMARYVALUES), createLookupBuffer());
+    Files.write(dir.resolve(Fixtures.ITEM_TEXT), createTextValue());
+    Files.write(dir.resolve(Fixtures.ITEM_NUMBERLIST), createNumberListValue());
+  }
+
+  private static ByteBuffer allocate(final int size) {
+    return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static byte[] toArray(final ByteBuffer buf) {
+    final byte[] result = new byte[buf.position()];
+    buf.flip();
+    buf.get(result);
+    return result;
+  }
+
+  private static byte[] lmbcs(final String str) {
+    final byte[] data = LMBCSCodec.encode(str, LineBreakConversion.ORIGINAL, false);
+    if (data == null) {
+      throw new IllegalArgumentException(MessageFormat.format("String needs native conversion: {0}", str));
+    }
+    return data;
+  }
+
+  static byte[] createTextValue() {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 8; i++) {
+      sb.append("Quarterly report for Müller & Søn – status 日本語 ")
+        .append(i)
+        .append("; ");
+    }
+    return lmbcs(sb.toString());
+  }
+
+  static byte[] createNumberListValue() {
+    final ByteBuffer buf = allocate(4 + 8 * Fixtures.ITEM_NUMBERLIST_COUNT);
+    // RANGE: ListEntries, RangeEntries
+    buf.putShort((short) Fixtures.ITEM_NUMBERLIST_COUNT);
+    buf.putShort((short) 0);
+    for (int i = 0; i < Fixtures.ITEM_NUMBERLIST_COUNT; i++) {
+      buf.putDouble(i * 1.25);
+    }
+    return toArray(buf);
+  }
+
+  static byte[] createLookupBuffer() {
+    final ByteBuffer buf = allocate(Fixtures.LOOKUP_ENTRY_COUNT * 512);
+    for (int i = 0; i < Fixtures.LOOKUP_ENTRY_COUNT; i++) {
+      // NOTEID
+      buf.putInt(0x100 + 4 * i);
+
+      // SUMMARYVALUES: ITEM_VALUE_TABLE, WORD lengths, then type + value per column
+      final byte[][] values = new byte[5][];
+      final short[] types = new short[5];
+
+      types[0] = ItemDataTypeConstants.TYPE_TEXT;
+      values[0] = lmbcs("Status report " + i + " – Grüße aus Köln");
+
+      types[1] = ItemDataTypeConstants.TYPE_TEXT;
+      values[1] = lmbcs("CN=User " + (i % 50) + "/OU=Sales/O=Acme");
+
+      types[2] = ItemDataTypeConstants.TYPE_NUMBER;
+      values[2] = toArray(allocate(8).putDouble(i * 1.5));
+
+      types[3] = ItemDataTypeConstants.TYPE_NUMBER_RANGE;
+      final ByteBuffer range = allocate(4 + 3 * 8);
+      range.putShort((short) 3).putShort((short) 0);
+      range.putDouble(i).putDouble(i + 1).putDouble(i + 2);
+      values[3] = toArray(range);
+
+      // empty column value, e.g. a category that was already returned
+      types[4] = 0;
+      values[4] = null;
+
+      int totalLength = 4 + 2 * values.length;
+      for (final byte[] value : values) {
+        totalLength += value == null ? 0 : 2 + value.length;
+      }
+      buf.putShort((short) totalLength);
+      buf.putShort((short) values.length);
+      for (final byte[] value : values) {
+        buf.putShort((short) (value == null ? 0 : 2 + value.length));
+      }
+      for (int c = 0; c < values.length; c++) {
+        if (values[c] != null) {
+          buf.putShort(types[c]);
+          buf.put(values[c]);
+        }
+      }
+    }
+    return toArray(buf);
+  }
+}
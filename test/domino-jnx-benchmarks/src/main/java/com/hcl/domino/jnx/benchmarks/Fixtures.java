@@ -0,0 +1,94 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.text.MessageFormat;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.hcl.domino.commons.views.ReadMask;
+import com.sun.jna.Memory;
+
+/**
+ * Access to the binary fixture buffers in {@code /fixtures}, which mirror the
+ * little-endian in-memory layout the C API hands to JNX.
+ * <p>
+ * The buffers can be regenerated with {@link FixtureGenerator} or replaced with
+ * buffers captured from a live server, as long as the constants below are
+ * adjusted accordingly.
+ * </p>
+ */
+public final class Fixtures {
+  /**
+   * NIFReadEntries buffer with {@link #LOOKUP_READMASK} for
+   * {@link #LOOKUP_ENTRY_COUNT} entries; the summary of each entry contains a
+   * subject, a canonical name, a number, a number list and an empty column
+   */
+  public static final String LOOKUP_SUMMARYVALUES = "lookup-noteid-summaryvalues.bin"; //$NON-NLS-1$
+  public static final int LOOKUP_ENTRY_COUNT = 200;
+  public static final Set<ReadMask> LOOKUP_READMASK = EnumSet.of(ReadMask.NOTEID, ReadMask.SUMMARYVALUES);
+
+  /** TYPE_TEXT item value (without the type WORD) with mixed Latin and CJK text */
+  public static final String ITEM_TEXT = "item-text.bin"; //$NON-NLS-1$
+
+  /** TYPE_NUMBER_RANGE item value (without the type WORD) with {@link #ITEM_NUMBERLIST_COUNT} numbers */
+  public static final String ITEM_NUMBERLIST = "item-numberlist.bin"; //$NON-NLS-1$
+  public static final int ITEM_NUMBERLIST_COUNT = 64;
+
+  private Fixtures() {
+  }
+
+  /**
+   * Reads a fixture from the classpath
+   *
+   * @param name fixture file name
+   * @return content
+   */
+  public static byte[] load(final String name) {
+    try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) { //$NON-NLS-1$
+      if (in == null) {
+        throw new IllegalArgumentException(MessageFormat.format("Fixture not found: {0}", name));
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final byte[] buf = new byte[8192];
+      int len;
+      while ((len = in.read(buf)) > 0) {
+        out.write(buf, 0, len);
+      }
+      return out.toByteArray();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads a fixture from the classpath and copies it to native memory
+   *
+   * @param name fixture file name
+   * @return memory with the fixture content
+   */
+  public static Memory loadToMemory(final String name) {
+    final byte[] data = load(name);
+    final Memory mem = new Memory(data.length);
+    mem.write(0, data, 0, data.length);
+    return mem;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hcl.domino.jna.internal.gc.handles.DHANDLE;
+import com.hcl.domino.jna.internal.gc.handles.DHANDLE64;
+import com.hcl.domino.jna.internal.gc.handles.LockUtil;
+
+/**
+ * Locks handles from all available cores, each thread working with its own
+ * handles like threads reading different databases do.<br>
+ * <br>
+ * The {@code legacy} benchmarks replicate the previous implementation: a global
+ * synchronized lock map and a thread init/term per lock and unlock, going through
+ * the synchronized {@code NotesCAPI.get()}. Thread init/term are disabled via
+ * {@code jnx.noinittermthread}, so no Domino runtime is required. Run with
+ * {@code -t 1} to compare with the uncontended case.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djnx.noinittermthread=true")
+@Threads(Threads.MAX)
+@State(Scope.Thread)
+public class HandleLockBenchmark {
+  private static final AtomicLong HANDLE_VALUES = new AtomicLong(1);
+
+  private static final Map<DHANDLE, Lock> LEGACY_LOCKS = new WeakHashMap<>();
+
+  private DHANDLE handle1;
+  private DHANDLE handle2;
+
+  @Setup
+  public void setup() {
+    this.handle1 = DHANDLE64.newInstance(HandleLockBenchmark.HANDLE_VALUES.getAndIncrement());
+    this.handle2 = DHANDLE64.newInstance(HandleLockBenchmark.HANDLE_VALUES.getAndIncrement());
+  }
+
+  @Benchmark
+  public long lockHandle() {
+    return LockUtil.lockHandle(this.handle1, DHANDLE::getValue);
+  }
+
+  @Benchmark
+  public long lockHandles() {
+    return LockUtil.lockHandles(this.handle1, this.handle2, (hdl1, hdl2) -> hdl1.getValue() + hdl2.getValue());
+  }
+
+  @Benchmark
+  public long legacyLockHandle() {
+    return HandleLockBenchmark.legacyLock(this.handle1, DHANDLE::getValue);
+  }
+
+  @Benchmark
+  public long legacyLockHandles() {
+    return HandleLockBenchmark.legacyLock(this.handle1,
+        hdl1 -> HandleLockBenchmark.legacyLock(this.handle2, hdl2 -> hdl1.getValue() + hdl2.getValue()));
+  }
+
+  @FunctionalInterface
+  private interface LegacyAccess {
+    long access(DHANDLE hdl);
+  }
+
+  private static long legacyLock(final DHANDLE handle, final LegacyAccess access) {
+    return AccessController.doPrivileged((PrivilegedAction<Long>) () -> {
+      final Lock lock;
+      synchronized (HandleLockBenchmark.LEGACY_LOCKS) {
+        lock = HandleLockBenchmark.LEGACY_LOCKS.computeIfAbsent(handle, key -> new ReentrantLock());
+      }
+      HandleLockBenchmark.legacyCAPI();
+      lock.lock();
+      try {
+        return access.access(DHANDLE.newInstanceByValue(handle.getValue()));
+      } finally {
+        lock.unlock();
+        HandleLockBenchmark.legacyCAPI();
+      }
+    });
+  }
+
+  /**
+   * Stands in for the synchronized {@code NotesCAPI.get()} that was called before
+   * {@code NotesInitThread} and {@code NotesTermThread}
+   */
+  private static synchronized Object legacyCAPI() {
+    return HandleLockBenchmark.LEGACY_LOCKS;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hcl.domino.jna.internal.ItemDecoder;
+import com.sun.jna.Memory;
+
+/**
+ * Decodes single item values from fixture buffers.
+ * <p>
+ * Text lists are not covered here: {@link ItemDecoder#decodeTextListValue} walks the
+ * list via the C API function ListGetText and needs a Notes runtime.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ItemDecoderBenchmark {
+  private Memory textValue;
+  private int textValueLength;
+  private Memory numberListValue;
+  private int numberListValueLength;
+
+  @Setup
+  public void setup() {
+    this.textValue = Fixtures.loadToMemory(Fixtures.ITEM_TEXT);
+    this.textValueLength = (int) this.textValue.size();
+    this.numberListValue = Fixtures.loadToMemory(Fixtures.ITEM_NUMBERLIST);
+    this.numberListValueLength = (int) this.numberListValue.size();
+  }
+
+  @Benchmark
+  public Object decodeText() {
+    return ItemDecoder.decodeTextValue(this.textValue, this.textValueLength, false);
+  }
+
+  @Benchmark
+  public Object decodeTextLazy() {
+    return ItemDecoder.decodeTextValue(this.textValue, this.textValueLength, true);
+  }
+
+  @Benchmark
+  public String decodeTextLazyAndConvert() {
+    return ItemDecoder.decodeTextValue(this.textValue, this.textValueLength, true).toString();
+  }
+
+  @Benchmark
+  public List<Object> decodeNumberList() {
+    return ItemDecoder.decodeNumberList(this.numberListValue, this.numberListValueLength);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hcl.domino.data.Document;
+import com.hcl.domino.jnx.jsonb.service.JsonbSerializer;
+import com.hcl.domino.jnx.vertx.json.service.VertxJsonSerializer;
+
+/**
+ * Serializes an in-memory {@link FixtureDocument} with the Vert.x and JSON-B serializers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonSerializerBenchmark {
+  @Param({ "5", "50" })
+  public int itemsPerType;
+
+  private Document doc;
+  private VertxJsonSerializer vertxSerializer;
+  private JsonbSerializer jsonbSerializer;
+
+  @Setup
+  public void setup() {
+    this.doc = FixtureDocument.createSample(this.itemsPerType);
+    this.vertxSerializer = new VertxJsonSerializer();
+    this.jsonbSerializer = new JsonbSerializer();
+  }
+
+  @Benchmark
+  public String vertx() {
+    return this.vertxSerializer.toJsonString(this.doc);
+  }
+
+  @Benchmark
+  public String jsonb() {
+    return this.jsonbSerializer.toJsonString(this.doc);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.hcl.domino.jna.data.JNACollectionEntry;
+import com.hcl.domino.jna.internal.views.NotesLookupResultBufferCursor;
+import com.hcl.domino.jna.internal.views.NotesLookupResultBufferDecoder;
+import com.hcl.domino.jna.internal.views.NotesViewLookupResultData;
+import com.sun.jna.Memory;
+
+/**
+ * Decodes a captured NIFReadEntries buffer with note ids and column values
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LookupBufferDecoderBenchmark {
+  @Param({ "false", "true" })
+  public boolean convertStringsLazily;
+
+  private Memory buffer;
+
+  @Setup
+  public void setup() {
+    this.buffer = Fixtures.loadToMemory(Fixtures.LOOKUP_SUMMARYVALUES);
+  }
+
+  @Benchmark
+  public NotesViewLookupResultData decode() {
+    return NotesLookupResultBufferDecoder.decodeCollectionLookupResultBuffer(null, this.buffer, 0,
+        Fixtures.LOOKUP_ENTRY_COUNT, Fixtures.LOOKUP_READMASK, (short) 0, null, 0, null,
+        this.convertStringsLazily, false, null);
+  }
+
+  @Benchmark
+  public void decodeAndReadColumns(final Blackhole bh) {
+    final NotesViewLookupResultData data = decode();
+    for (final JNACollectionEntry entry : data.getEntries()) {
+      bh.consume(entry.getNoteID());
+      for (final Object value : entry.getColumnValues()) {
+        // resolves lazily converted LMBCS strings
+        bh.consume(value == null ? null : value.toString());
+      }
+    }
+  }
+
+  @Benchmark
+  public void decodeAndReadTwoColumns(final Blackhole bh) {
+    final NotesViewLookupResultData data = decode();
+    for (final JNACollectionEntry entry : data.getEntries()) {
+      bh.consume(entry.getNoteID());
+      final Object[] values = entry.getColumnValues();
+      bh.consume(values[0] == null ? null : values[0].toString());
+      bh.consume(((Number) values[2]).doubleValue());
+    }
+  }
+
+  @Benchmark
+  public void cursorReadTwoColumns(final Blackhole bh) {
+    final NotesLookupResultBufferCursor cursor = new NotesLookupResultBufferCursor(this.buffer, 0,
+        Fixtures.LOOKUP_ENTRY_COUNT, Fixtures.LOOKUP_READMASK, (short) 0, 0, false);
+    while (cursor.next()) {
+      bh.consume(cursor.getNoteId());
+      bh.consume(cursor.getString(0));
+      bh.consume(cursor.getDouble(2));
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.hcl.domino.commons.structures.MemoryStructureUtil;
+import com.hcl.domino.richtext.structures.ColorValue;
+import com.hcl.domino.richtext.structures.OriginatorID;
+
+/**
+ * Measures the accessors generated by {@link com.hcl.domino.commons.structures.MemoryStructureProxy}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemoryStructureBenchmark {
+  private ColorValue color;
+  private OriginatorID oid;
+  private short counter;
+
+  @Setup
+  public void setup() {
+    this.color = MemoryStructureUtil.newStructure(ColorValue.class, 0);
+    this.color.setRed((short) 12);
+    this.color.setGreen((short) 34);
+    this.color.setBlue((short) 56);
+    this.oid = MemoryStructureUtil.newStructure(OriginatorID.class, 0);
+    this.oid.setUNID("0123456789ABCDEF0123456789ABCDEF"); //$NON-NLS-1$
+  }
+
+  @Benchmark
+  public void getPrimitives(final Blackhole bh) {
+    bh.consume(this.color.getRed());
+    bh.consume(this.color.getGreen());
+    bh.consume(this.color.getBlue());
+  }
+
+  @Benchmark
+  public ColorValue setPrimitives() {
+    final short val = this.counter++;
+    return this.color.setRed(val).setGreen(val).setBlue(val);
+  }
+
+  @Benchmark
+  public Object getEnumSet() {
+    return this.color.getFlags();
+  }
+
+  @Benchmark
+  public String getUnidDefaultMethod() {
+    return this.oid.getUNID();
+  }
+
+  @Benchmark
+  public ColorValue newStructure() {
+    return MemoryStructureUtil.newStructure(ColorValue.class, 0);
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.text.MessageFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hcl.domino.jna.internal.NotesNamingUtils;
+
+/**
+ * Converts canonical names to abbreviated and common names. With more distinct names
+ * than the abbreviation cache holds, most calls miss the cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NamingUtilsBenchmark {
+  @Param({ "100", "5000" })
+  public int distinctNames;
+
+  private String[] names;
+  private int index;
+
+  @Setup
+  public void setup() {
+    this.names = new String[this.distinctNames];
+    for (int i = 0; i < this.names.length; i++) {
+      this.names[i] = MessageFormat.format("CN=User {0}/OU=Dept{1}/O=Acme/C=DE", i, i % 10); //$NON-NLS-1$
+    }
+  }
+
+  private String nextName() {
+    final String name = this.names[this.index];
+    this.index = (this.index + 1) % this.names.length;
+    return name;
+  }
+
+  @Benchmark
+  public String toAbbreviatedName() {
+    return NotesNamingUtils.toAbbreviatedName(nextName());
+  }
+
+  @Benchmark
+  public String toCommonName() {
+    return NotesNamingUtils.toCommonName(nextName());
+  }
+}
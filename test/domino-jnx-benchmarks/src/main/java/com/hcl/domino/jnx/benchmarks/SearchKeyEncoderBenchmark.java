@@ -0,0 +1,64 @@
+/*
+ * ==========================================================================
+ * Copyright (C) 2019-2022 HCL America, Inc. ( http://www.hcl.com/ )
+ *                            All rights reserved.
+ * ==========================================================================
+ * Licensed under the  Apache License, Version 2.0  (the "License").  You may
+ * not use this file except in compliance with the License.  You may obtain a
+ * copy of the License at <http://www.apache.org/licenses/LICENSE-2.0>.
+ *
+ * Unless  required  by applicable  law or  agreed  to  in writing,  software
+ * distributed under the License is distributed on an  "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR  CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the  specific language  governing permissions  and limitations
+ * under the License.
+ * ==========================================================================
+ */
+package com.hcl.domino.jnx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hcl.domino.jna.internal.views.NotesSearchKeyEncoder;
+import com.sun.jna.Memory;
+
+/**
+ * Encodes lookup keys for NIFFindByKey. Date keys are left out because their
+ * conversion needs a Notes runtime.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@SuppressWarnings("nls")
+public class SearchKeyEncoderBenchmark {
+  private final Object[] singleStringKey = { "Status report 42" };
+  private final Object[] mixedKeys = { "Acme", "Sales", 2022, 17.5d };
+  private final Object[] unicodeKeys = { "Grüße aus Köln", "日本語" };
+
+  @Benchmark
+  public Memory encodeSingleString() throws Exception {
+    return NotesSearchKeyEncoder.encodeKeys(this.singleStringKey);
+  }
+
+  @Benchmark
+  public Memory encodeMixed() throws Exception {
+    return NotesSearchKeyEncoder.encodeKeys(this.mixedKeys);
+  }
+
+  @Benchmark
+  public Memory encodeUnicode() throws Exception {
+    return NotesSearchKeyEncoder.encodeKeys(this.unicodeKeys);
+  }
+}
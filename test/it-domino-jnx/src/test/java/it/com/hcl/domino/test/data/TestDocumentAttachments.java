@@ -96,9 +96,8 @@ public class TestDocumentAttachments extends AbstractNotesRuntimeTest {
         Assertions.assertEquals(Instant.from(dtCreated), Instant.from(attachmentFromDoc.getFileCreated()));
         Assertions.assertEquals(Instant.from(dtModified), Instant.from(attachmentFromDoc.getFileModified()));
 
-        // use Attachment.getInputStream() for simplicity of the testcase; has not the
-        // best performance,
-        // because it extracts the whole attachment to disk first
+        // use Attachment.getInputStream() for simplicity of the testcase; the data
+        // is read from the database while the stream is consumed
         try (InputStream inOrig = new ByteArrayInputStream(testData);
             InputStream inFromDoc = attachmentViaFileItem.getInputStream()) {
 
@@ -125,6 +124,20 @@ public class TestDocumentAttachments extends AbstractNotesRuntimeTest {
           Assertions.assertEquals(testData.length, totalLenFromDoc);
         }
 
+        // range read, e.g. for HTTP range requests
+        try (InputStream inRange = attachmentViaFileItem.getInputStream(1234567, 100000)) {
+          final byte[] rangeData = new byte[200000];
+          int rangeLen = 0;
+          int len;
+          while ((len = inRange.read(rangeData, rangeLen, rangeData.length - rangeLen)) > 0) {
+            rangeLen += len;
+          }
+          Assertions.assertEquals(100000, rangeLen);
+          for (int p = 0; p < rangeLen; p++) {
+            Assertions.assertEquals(testData[1234567 + p], rangeData[p], "Range equality at pos " + p);
+          }
+        }
+
         if (i == 0) {
           // close and reopen the doc
           doc.save();
@@ -275,6 +275,28 @@ public class TestDocumentValueConversion extends AbstractNotesRuntimeTest {
     });
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testModifiableNumberList() throws Exception {
+    final double[] expected = new double[] { 1.5, 2.5 };
+
+    this.withTempDb(database -> {
+      final Document doc = database.createDocument();
+
+      doc.replaceItemValue("Foo", expected);
+      Assertions.assertArrayEquals(expected, doc.getAsDoubleArray("Foo", null));
+
+      // decoded number lists are primitive-backed internally, but callers get lists they can resize
+      final List<Object> values = (List<Object>) doc.getItemValue("Foo");
+      values.add(3.5);
+      Assertions.assertEquals(Arrays.asList(1.5, 2.5, 3.5), values);
+      final List<Object> itemValues = doc.getFirstItem("Foo").get().getValue();
+      itemValues.remove(0);
+      Assertions.assertEquals(Arrays.asList(2.5), itemValues);
+      Assertions.assertArrayEquals(expected, doc.getAsDoubleArray("Foo", null));
+    });
+  }
+
   @Test
   public void testShortArrayRoundTrip() throws Exception {
     final short[] expected = new short[] { 1, 2, 3 };
@@ -621,6 +621,53 @@ public class TestDocuments extends AbstractNotesRuntimeTest {
     });
   }
   
+  @Test
+  public void testForEachItemLoop() throws Exception {
+    withTempDb(database -> {
+      Document doc = database.createDocument();
+      for (int i = 0; i < 100; i++) {
+        doc.replaceItemValue("Field" + i, "value" + i);
+      }
+      doc.appendItemValue("Field0", 42);
+
+      List<String> names = new ArrayList<>();
+      List<Integer> indices = new ArrayList<>();
+      boolean[] lastSeen = new boolean[1];
+      doc.forEachItem((item, loop) -> {
+        names.add(item.getName());
+        indices.add(loop.getIndex());
+        lastSeen[0] = loop.isLast();
+      });
+      assertEquals(101, names.size());
+      assertEquals(doc.allItems().map(Item::getName).collect(Collectors.toList()), names);
+      for (int i = 0; i < indices.size(); i++) {
+        assertEquals(i, indices.get(i));
+      }
+      Assertions.assertTrue(lastSeen[0]);
+
+      List<Item> fieldZero = doc.allItems()
+          .filter(item -> "Field0".equalsIgnoreCase(item.getName()))
+          .collect(Collectors.toList());
+      assertEquals(2, fieldZero.size());
+      assertEquals(Arrays.asList("value0"), fieldZero.get(0).getValue());
+      assertEquals(ItemDataType.TYPE_NUMBER, fieldZero.get(1).getType());
+      assertEquals(Arrays.asList(42.0), fieldZero.get(1).getValue());
+      Item firstItem = doc.getFirstItem("Field0").get();
+      assertEquals(firstItem.getFlags(), fieldZero.get(0).getFlags());
+      assertEquals(firstItem.getSequenceNumber(), fieldZero.get(0).getSequenceNumber());
+      assertEquals(firstItem.getValueLength(), fieldZero.get(0).getValueLength());
+
+      int[] count = new int[1];
+      doc.forEachItem("Field0", (item, loop) -> {
+        count[0]++;
+        if (loop.isFirst()) {
+          loop.stop();
+        }
+      });
+      assertEquals(1, count[0]);
+    });
+  }
+  
   @Test
   public void testItemGetAsInt() throws Exception {
     withTempDb(database -> {
@@ -22,6 +22,8 @@ import java.io.StringWriter;
 import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Assertions;
@@ -154,6 +156,38 @@ public class TestDxlExporter extends AbstractNotesRuntimeTest {
     });
   }
 
+  @Test
+  public void testExportDatabaseParallel() throws Exception {
+    this.withTempDb(database -> {
+      for (int i = 0; i < 100; i++) {
+        final Document doc = database.createDocument();
+        doc.replaceItemValue("Form", "ParallelExport");
+        doc.replaceItemValue("Index", i);
+        doc.save();
+      }
+
+      final DxlExporter exporter = this.getClient().createDxlExporter();
+      exporter.setOutputDoctype(false);
+      final Map<Integer, ByteArrayOutputStream> partitions = new ConcurrentHashMap<>();
+      final int count = exporter.exportDatabaseParallel(database, 3, (partition, partitionCount) -> {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Assertions.assertNull(partitions.put(partition, os));
+        return os;
+      });
+
+      Assertions.assertTrue(count > 1);
+      Assertions.assertEquals(count, partitions.size());
+      int documentCount = 0;
+      for (int i = 0; i < count; i++) {
+        final String val = partitions.get(i).toString("UTF-8");
+        Assertions.assertTrue(val.contains("<database"), val);
+        documentCount += StringUtils.countMatches(val, "name='Index'");
+      }
+      // every document is exported in exactly one partition
+      Assertions.assertEquals(100, documentCount);
+    });
+  }
+
   @Test
   public void testExportNewNoteOutputStream() throws Exception {
     this.withTempDb(database -> {
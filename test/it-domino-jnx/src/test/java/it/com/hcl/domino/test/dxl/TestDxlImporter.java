@@ -19,6 +19,9 @@ package it.com.hcl.domino.test.dxl;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 
 import org.junit.jupiter.api.Assertions;
@@ -26,7 +29,10 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import com.hcl.domino.data.Document;
+import com.hcl.domino.data.DocumentClass;
 import com.hcl.domino.data.IDTable;
+import com.hcl.domino.dxl.DxlImportPipeline;
+import com.hcl.domino.dxl.DxlImportPipeline.BatchResult;
 import com.hcl.domino.dxl.DxlImporter;
 import com.hcl.domino.dxl.DxlImporterLog;
 import com.hcl.domino.exception.DxlImportException;
@@ -149,6 +155,43 @@ public class TestDxlImporter extends AbstractNotesRuntimeTest {
     });
   }
 
+  @Test
+  public void testImportPipeline() throws Exception {
+    this.withTempDb(source -> {
+      for (int i = 0; i < 15; i++) {
+        final Document doc = source.createDocument();
+        doc.replaceItemValue("Form", "PipelineImport");
+        doc.replaceItemValue("Index", i);
+        doc.save();
+      }
+
+      this.withTempDb(database -> {
+        final String title = database.getTitle();
+        final DxlImporter importer = this.getClient().createDxlImporter();
+        final List<BatchResult> results = Collections.synchronizedList(new ArrayList<>());
+        final DxlImportPipeline pipeline = importer.openImportPipeline(database, 10, 2, results::add);
+        try {
+          for (final int noteId : source.getAllNoteIds(EnumSet.of(DocumentClass.DATA), false)) {
+            pipeline.add(source.getDocumentById(noteId).get());
+          }
+          for (int i = 15; i < 25; i++) {
+            pipeline.add("<document xmlns='http://www.lotus.com/dxl' form='PipelineImport'><item name='Index'><number>" + i
+                + "</number></item></document>");
+          }
+        } finally {
+          pipeline.close();
+        }
+
+        Assertions.assertTrue(pipeline.getFailedBatches().isEmpty(), () -> pipeline.getFailedBatches().toString());
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(25, pipeline.getImportedNoteCount());
+        Assertions.assertEquals(25, database.getAllNoteIds(EnumSet.of(DocumentClass.DATA), false).size());
+        // the batches do not replace the database properties
+        Assertions.assertEquals(title, database.getTitle());
+      });
+    });
+  }
+
   @Test
   public void testResourceDirDxl() throws Exception {
     this.withResourceDxl("/dxl/testResourceDirDxl", database -> {
@@ -23,7 +23,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
@@ -900,6 +903,30 @@ public class TestJsonSerialization extends AbstractNotesRuntimeTest {
     });
   }
 
+  @ParameterizedTest
+  @ArgumentsSource(SerializerProvider.class)
+  public void testStreamingMatchesString(final JsonSerializer serializerParam) throws Exception {
+    serializerParam.includeMetadata(true);
+
+    this.withTempDb(database -> {
+      final Document doc = database.createDocument();
+      doc.replaceItemValue("Foo", "Bar");
+      doc.replaceItemValue("Numbers", Arrays.asList(1, 2, 3));
+      doc.replaceItemValue("Names", Arrays.asList("a", "b"));
+      doc.save();
+
+      final JsonObject expected = Json.createReader(new StringReader(serializerParam.toJsonString(doc))).readObject();
+
+      final StringWriter writer = new StringWriter();
+      serializerParam.toJson(doc, writer);
+      assertEquals(expected, Json.createReader(new StringReader(writer.toString())).readObject());
+
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      serializerParam.toJson(doc, out);
+      assertEquals(expected, Json.createReader(new StringReader(new String(out.toByteArray(), StandardCharsets.UTF_8))).readObject());
+    });
+  }
+
   public static class DateTimeExample {
     private final DominoDateTime time;
 
@@ -249,6 +249,27 @@ public class TestViewQueries extends AbstractNotesRuntimeTest {
     });
   }
 
+  @Test
+  public void testParallelStreamResorted() throws Exception {
+    this.withViewQueryTestDb(database -> {
+      final DominoCollection view = database.openCollection("Lastname Firstname Flat").get();
+      view.resortView("lastname", Direction.Descending);
+
+      final List<Integer> expected = view.query()
+          .collectEntries(0, Integer.MAX_VALUE)
+          .stream()
+          .map(CollectionEntry::getNoteID)
+          .collect(Collectors.toList());
+      Assertions.assertFalse(expected.isEmpty());
+
+      final List<Integer> parallel = view.query()
+          .parallelStream(4, true)
+          .map(CollectionEntry::getNoteID)
+          .collect(Collectors.toList());
+      Assertions.assertEquals(expected, parallel);
+    });
+  }
+
   @Test
   public void testSelectByMultipleKey() throws Exception {
     this.withViewQueryTestDb(database -> {
@@ -32,6 +32,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -54,12 +55,14 @@ import com.hcl.domino.data.FontAttribute;
 import com.hcl.domino.data.FormulaQueryResult;
 import com.hcl.domino.data.Item;
 import com.hcl.domino.data.StandardFonts;
+import com.hcl.domino.richtext.RichTextRecordList;
 import com.hcl.domino.richtext.RichTextWriter;
 import com.hcl.domino.richtext.TextStyle.Justify;
 import com.hcl.domino.richtext.conversion.AppendFileHotspotConversion;
 import com.hcl.domino.richtext.conversion.RemoveAttachmentIconConversion;
 import com.hcl.domino.richtext.process.ExtractFileResourceProcessor;
 import com.hcl.domino.richtext.process.ExtractImageResourceProcessor;
+import com.hcl.domino.richtext.process.ExtractTextProcessor;
 import com.hcl.domino.richtext.process.GetFileResourceSizeProcessor;
 import com.hcl.domino.richtext.process.GetImageResourceSizeProcessor;
 import com.hcl.domino.richtext.records.CDBlobPart;
@@ -686,6 +689,58 @@ public class TestRichtextNavigator extends AbstractNotesRuntimeTest {
       Assertions.assertEquals(txtIn, txtOut);
     });
   }
+
+  @Test
+  public void testScopedTextExtraction() throws Exception {
+    this.withTempDb(database -> {
+      final Document doc = database.createDocument();
+
+      final List<String> lines = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        lines.add("Line " + i + " " + UUID.randomUUID());
+      }
+      final String txtIn = String.join(System.lineSeparator(), lines);
+
+      try (RichTextWriter w = doc.createRichTextItem("Body")) {
+        w.addText(txtIn,
+            w.createTextStyle("Default").setAlign(Justify.LEFT),
+            w.createFontStyle().setBold(true),
+            true // createParagraphOnLinebreak=true
+        );
+      }
+
+      final RichTextRecordList body = doc.getRichTextItem("Body");
+
+      // process() passes the records scoped to the navigator's item data
+      final StringBuilder scoped = new StringBuilder();
+      body.process(new ExtractTextProcessor(scoped));
+
+      // apply() reads the copied records of the list
+      final StringBuilder listed = new StringBuilder();
+      new ExtractTextProcessor(listed).apply(body);
+
+      Assertions.assertEquals(listed.toString(), scoped.toString());
+      Assertions.assertEquals(txtIn, scoped.toString());
+
+      // copies of scoped records stay valid and keep their record type
+      final List<RichTextRecord<?>> copies = new ArrayList<>();
+      body.forEachScoped(record -> {
+        if (record instanceof CDText) {
+          copies.add(record.copy());
+        }
+        return true;
+      });
+      final List<CDText> texts = body.stream()
+          .filter(CDText.class::isInstance)
+          .map(CDText.class::cast)
+          .collect(Collectors.toList());
+      Assertions.assertEquals(texts.size(), copies.size());
+      for (int i = 0; i < texts.size(); i++) {
+        Assertions.assertEquals(texts.get(i).getType(), copies.get(i).getType());
+        Assertions.assertEquals(texts.get(i).getText(), ((CDText) copies.get(i)).getText());
+      }
+    });
+  }
   
   /**
    * Tests for correct behavior when attaching multiple files to a